@@ -0,0 +1,92 @@
+package info.mouts.orderservice.benchmark;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import info.mouts.orderservice.cache.OrderCacheSerializer;
+import info.mouts.orderservice.domain.Order;
+import info.mouts.orderservice.domain.OrderItem;
+import info.mouts.orderservice.domain.OrderStatus;
+
+/**
+ * Compares the {@link OrderCacheSerializer} with the JDK serialization
+ * previously used for the order caches.
+ * The size of each entry is printed once per trial, since JMH only measures
+ * time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CacheSerializationBenchmark {
+    @Param({ "1", "10", "100" })
+    private int itemCount;
+
+    @Param({ "jdk", "smile" })
+    private String codec;
+
+    private RedisSerializer<Object> serializer;
+    private Order order;
+    private byte[] serializedOrder;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        serializer = "jdk".equals(codec)
+                ? new JdkSerializationRedisSerializer()
+                : new OrderCacheSerializer(getClass().getClassLoader());
+        order = createOrder(itemCount);
+        serializedOrder = serializer.serialize(order);
+
+        System.out.printf("%n%s codec, %d items: %d bytes per entry%n", codec, itemCount, serializedOrder.length);
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return serializer.serialize(order);
+    }
+
+    @Benchmark
+    public Object deserialize() {
+        return serializer.deserialize(serializedOrder);
+    }
+
+    private Order createOrder(int itemCount) {
+        Order order = Order.builder()
+                .id(UUID.randomUUID())
+                .idempotencyKey(UUID.randomUUID().toString())
+                .status(OrderStatus.PROCESSED)
+                .total(new BigDecimal("1234.56"))
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build();
+
+        for (int i = 0; i < itemCount; i++) {
+            order.addItem(OrderItem.builder()
+                    .id(UUID.randomUUID())
+                    .productId("EXT-PROD-" + i)
+                    .quantity(i + 1)
+                    .price(new BigDecimal("12.34"))
+                    .build());
+        }
+        return order;
+    }
+}
@@ -0,0 +1,191 @@
+package info.mouts.orderservice.benchmark;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.kafka.common.serialization.Serializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import info.mouts.orderservice.domain.Order;
+import info.mouts.orderservice.domain.OrderStatus;
+import info.mouts.orderservice.dto.OrderItemRequestDTO;
+import info.mouts.orderservice.dto.OrderProcessedEventDTO;
+import info.mouts.orderservice.dto.OrderRequestDTO;
+import info.mouts.orderservice.exception.OrderNotFoundException;
+import info.mouts.orderservice.exception.RestExceptionHandler;
+import info.mouts.orderservice.kafka.OrderProcessedEventSerializer;
+import info.mouts.orderservice.mapper.OrderMapper;
+import info.mouts.orderservice.service.impl.OrderServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Measures each step an order goes through, from the incoming Kafka message to
+ * the processed event, for orders of 1 to 1000 items, and the error responses
+ * of the API.
+ * <p>
+ * Run with {@code -Djmh.include=OrderHotPathBenchmark}; the results are
+ * written as JSON to {@code target/jmh-result-<version>.json}, to be compared
+ * between releases.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderHotPathBenchmark {
+    private static final String TOPIC = "orders";
+    private static final MethodHandle CALCULATE_TOTAL_AMOUNT = findCalculateTotalAmount();
+
+    /**
+     * An order of {@code itemCount} items, at each step of its processing.
+     */
+    @State(Scope.Benchmark)
+    public static class OrderPayload {
+        @Param({ "1", "10", "100", "1000" })
+        private int itemCount;
+
+        private final OrderMapper orderMapper = OrderMapper.INSTANCE;
+        private OrderServiceImpl orderService;
+        private JsonDeserializer<OrderRequestDTO> requestDeserializer;
+        private Serializer<OrderProcessedEventDTO> eventSerializer;
+        private OrderRequestDTO request;
+        private byte[] requestPayload;
+        private Order order;
+
+        @Setup(Level.Trial)
+        public void setUp() throws Throwable {
+            ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+            // Same configuration as spring.kafka.consumer in application.yml
+            requestDeserializer = new JsonDeserializer<>();
+            requestDeserializer.configure(Map.of(
+                    JsonDeserializer.TRUSTED_PACKAGES, "info.mouts.orderservice.dto",
+                    JsonDeserializer.VALUE_DEFAULT_TYPE, OrderRequestDTO.class.getName(),
+                    JsonDeserializer.USE_TYPE_INFO_HEADERS, false), false);
+            eventSerializer = new OrderProcessedEventSerializer(objectMapper);
+            orderService = new OrderServiceImpl(null, orderMapper, null, null, new SimpleMeterRegistry());
+
+            request = createRequest(itemCount);
+            requestPayload = objectMapper.writeValueAsBytes(request);
+
+            order = orderMapper.toEntity(request);
+            order.setId(UUID.randomUUID());
+            order.setIdempotencyKey(UUID.randomUUID().toString());
+            order.setStatus(OrderStatus.PROCESSED);
+            order.setCreatedAt(LocalDateTime.now());
+            order.setUpdatedAt(LocalDateTime.now());
+            order.getItems().forEach(item -> {
+                item.setId(UUID.randomUUID());
+                item.setOrder(order);
+            });
+            order.setTotal((BigDecimal) CALCULATE_TOTAL_AMOUNT.invokeExact(orderService, order));
+        }
+
+        private static OrderRequestDTO createRequest(int itemCount) {
+            List<OrderItemRequestDTO> items = new ArrayList<>(itemCount);
+
+            for (int i = 0; i < itemCount; i++) {
+                OrderItemRequestDTO item = new OrderItemRequestDTO();
+                item.setProductId("EXT-PROD-" + i);
+                item.setQuantity(i % 5 + 1);
+                item.setPrice(new BigDecimal("12.34"));
+                items.add(item);
+            }
+
+            OrderRequestDTO request = new OrderRequestDTO();
+            request.setItems(items);
+            return request;
+        }
+    }
+
+    /**
+     * The exception handler and the request it answers.
+     */
+    @State(Scope.Benchmark)
+    public static class ErrorResponse {
+        private final RestExceptionHandler exceptionHandler = new RestExceptionHandler();
+        private final UUID orderId = UUID.randomUUID();
+        private WebRequest request;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            // The handler logs every exception, which would flood the output
+            ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(RestExceptionHandler.class))
+                    .setLevel(ch.qos.logback.classic.Level.OFF);
+
+            request = new ServletWebRequest(new MockHttpServletRequest("GET", "/api/v1/orders/" + orderId));
+        }
+    }
+
+    @Benchmark
+    public Object deserializeRequest(OrderPayload payload) {
+        return payload.requestDeserializer.deserialize(TOPIC, payload.requestPayload);
+    }
+
+    @Benchmark
+    public Order mapRequestToEntity(OrderPayload payload) {
+        return payload.orderMapper.toEntity(payload.request);
+    }
+
+    @Benchmark
+    public BigDecimal calculateTotalAmount(OrderPayload payload) throws Throwable {
+        return (BigDecimal) CALCULATE_TOTAL_AMOUNT.invokeExact(payload.orderService, payload.order);
+    }
+
+    @Benchmark
+    public byte[] mapAndSerializeProcessedEvent(OrderPayload payload) {
+        return payload.eventSerializer.serialize(TOPIC, payload.orderMapper.toProcessedEventDto(payload.order));
+    }
+
+    /**
+     * Includes creating the exception, as every order lookup that misses does.
+     */
+    @Benchmark
+    public ProblemDetail createNotFoundProblemDetail(ErrorResponse errorResponse) {
+        return errorResponse.exceptionHandler.handleOrderNotFoundException(
+                new OrderNotFoundException(errorResponse.orderId), errorResponse.request);
+    }
+
+    /**
+     * Finds the private {@code calculateTotalAmount} of {@link OrderServiceImpl},
+     * so it is measured as it is rather than through a copy.
+     */
+    private static MethodHandle findCalculateTotalAmount() {
+        try {
+            return MethodHandles.privateLookupIn(OrderServiceImpl.class, MethodHandles.lookup())
+                    .findVirtual(OrderServiceImpl.class, "calculateTotalAmount",
+                            MethodType.methodType(BigDecimal.class, Order.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package info.mouts.orderservice.benchmark;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.hateoas.Link;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import info.mouts.orderservice.controller.OrderController;
+import info.mouts.orderservice.controller.OrderLinks;
+
+/**
+ * Compares building the self links of a page of orders with
+ * {@code linkTo(methodOn(...))} and with {@link OrderLinks}.
+ * Each invocation stands for one request, so it binds a new request, as the
+ * base URI is resolved from it.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderLinkBenchmark {
+    @Param({ "1", "10", "100" })
+    private int pageSize;
+
+    private List<UUID> orderIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        orderIds = new ArrayList<>();
+
+        for (int i = 0; i < pageSize; i++) {
+            orderIds.add(UUID.randomUUID());
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void bindRequest() {
+        RequestContextHolder.setRequestAttributes(
+                new ServletRequestAttributes(new MockHttpServletRequest("GET", "/api/v1/orders")));
+    }
+
+    @TearDown(Level.Invocation)
+    public void unbindRequest() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Benchmark
+    public List<Link> methodOnLinks() {
+        List<Link> links = new ArrayList<>(orderIds.size());
+
+        for (UUID orderId : orderIds) {
+            links.add(linkTo(methodOn(OrderController.class).findByOrderId(orderId, null)).withSelfRel());
+        }
+        return links;
+    }
+
+    @Benchmark
+    public List<Link> templateLinks() {
+        OrderLinks orderLinks = OrderLinks.fromCurrentRequest();
+        List<Link> links = new ArrayList<>(orderIds.size());
+
+        for (UUID orderId : orderIds) {
+            links.add(orderLinks.order(orderId));
+        }
+        return links;
+    }
+}
@@ -0,0 +1,124 @@
+package info.mouts.orderservice.benchmark;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import info.mouts.orderservice.domain.Order;
+import info.mouts.orderservice.domain.OrderItem;
+import info.mouts.orderservice.domain.OrderStatus;
+import info.mouts.orderservice.dto.OrderResponseDTO;
+import info.mouts.orderservice.dto.OrderSummary;
+import info.mouts.orderservice.mapper.OrderMapper;
+import info.mouts.orderservice.repository.OrderRepository;
+
+/**
+ * Compares reading one page of the order listing as managed {@link Order}
+ * entities, mapped afterwards, with reading it through the
+ * {@link OrderRepository#SUMMARY_COLUMNS} constructor expression.
+ * Each invocation opens its own session, like a request does, on an in-memory
+ * H2 database.
+ * Run it with {@code -prof gc} to also get the bytes allocated per page
+ * ({@code gc.alloc.rate.norm}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderListingBenchmark {
+    private static final int ORDER_COUNT = 1_000;
+    private static final String PAGE_ORDER = " ORDER BY o.createdAt DESC, o.id DESC";
+
+    @Param({ "10", "100" })
+    private int pageSize;
+
+    private SessionFactory sessionFactory;
+    private OrderMapper orderMapper;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        sessionFactory = new Configuration()
+                .addAnnotatedClass(Order.class)
+                .addAnnotatedClass(OrderItem.class)
+                .setProperty("hibernate.connection.url", "jdbc:h2:mem:listing;DB_CLOSE_DELAY=-1")
+                .setProperty("hibernate.hbm2ddl.auto", "create-drop")
+                .setProperty("hibernate.physical_naming_strategy",
+                        CamelCaseToUnderscoresNamingStrategy.class.getName())
+                .setProperty("jakarta.persistence.validation.mode", "none")
+                .buildSessionFactory();
+        orderMapper = OrderMapper.INSTANCE;
+
+        sessionFactory.inTransaction(session -> {
+            for (int i = 0; i < ORDER_COUNT; i++) {
+                Order order = Order.builder()
+                        .idempotencyKey(UUID.randomUUID().toString())
+                        .status(OrderStatus.PROCESSED)
+                        .total(new BigDecimal("24.68"))
+                        .build();
+
+                for (int j = 0; j < 2; j++) {
+                    order.addItem(OrderItem.builder()
+                            .productId("EXT-PROD-" + j)
+                            .quantity(2)
+                            .price(new BigDecimal("6.17"))
+                            .build());
+                }
+                session.persist(order);
+            }
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    /**
+     * Reads a page as managed entities and maps them, as the listing used to.
+     */
+    @Benchmark
+    public List<OrderResponseDTO> entities() {
+        return sessionFactory.fromTransaction(session -> session
+                .createSelectionQuery("FROM Order o" + PAGE_ORDER, Order.class)
+                .setMaxResults(pageSize)
+                .getResultList()
+                .stream()
+                .map(orderMapper::toOrderResponseDto)
+                .toList());
+    }
+
+    /**
+     * Reads a page as summary rows and maps them, as the listing does now.
+     */
+    @Benchmark
+    public List<OrderResponseDTO> summaries() {
+        return sessionFactory.fromTransaction(session -> session
+                .createSelectionQuery("SELECT " + OrderRepository.SUMMARY_COLUMNS + " FROM Order o" + PAGE_ORDER,
+                        OrderSummary.class)
+                .setMaxResults(pageSize)
+                .getResultList()
+                .stream()
+                .map(orderMapper::toOrderResponseDto)
+                .toList());
+    }
+}
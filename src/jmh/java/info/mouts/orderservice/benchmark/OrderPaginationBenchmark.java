@@ -0,0 +1,155 @@
+package info.mouts.orderservice.benchmark;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the latency of reading one page of orders at increasing depths with
+ * offset pagination, as done by {@code GET /api/v1/orders}, and with keyset
+ * pagination, as done by {@code GET /api/v1/orders/cursor}.
+ * The queries run on an in-memory H2 database holding an {@code orders} table
+ * with the same {@code (created_at, id)} index as the real one; H2 is told not
+ * to reuse the results of repeated queries, so every invocation reads the
+ * table.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderPaginationBenchmark {
+    private static final int ORDER_COUNT = 200_000;
+    private static final int PAGE_SIZE = 20;
+
+    @Param({ "0", "1000", "10000", "100000", "199980" })
+    private int depth;
+
+    @Param({ "offset", "keyset" })
+    private String mode;
+
+    private Connection connection;
+    private PreparedStatement countStatement;
+    private PreparedStatement pageStatement;
+    private Timestamp cursorCreatedAt;
+    private UUID cursorId;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:pagination;DB_CLOSE_DELAY=-1;OPTIMIZE_REUSE_RESULTS=FALSE");
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS orders");
+            statement.execute("CREATE TABLE orders (id UUID PRIMARY KEY, status VARCHAR(50) NOT NULL, "
+                    + "total NUMERIC(10, 2), created_at TIMESTAMP NOT NULL)");
+            statement.execute("CREATE INDEX idx_order_created_at_id ON orders (created_at, id)");
+        }
+        insertOrders();
+
+        countStatement = connection.prepareStatement("SELECT COUNT(*) FROM orders");
+
+        if ("offset".equals(mode)) {
+            pageStatement = connection.prepareStatement(
+                    "SELECT id, status, total, created_at FROM orders ORDER BY created_at DESC, id DESC "
+                            + "OFFSET ? ROWS FETCH FIRST ? ROWS ONLY");
+            pageStatement.setInt(1, depth);
+            pageStatement.setInt(2, PAGE_SIZE);
+        } else {
+            findCursorAtDepth();
+            pageStatement = connection.prepareStatement(
+                    "SELECT id, status, total, created_at FROM orders WHERE (created_at, id) < (?, ?) "
+                            + "ORDER BY created_at DESC, id DESC FETCH FIRST ? ROWS ONLY");
+            pageStatement.setTimestamp(1, cursorCreatedAt);
+            pageStatement.setObject(2, cursorId);
+            pageStatement.setInt(3, PAGE_SIZE);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    /**
+     * Reads one page at the configured depth. Offset pagination also counts the
+     * orders, like a Spring Data {@code Page}.
+     */
+    @Benchmark
+    public List<UUID> readPage() throws SQLException {
+        if ("offset".equals(mode)) {
+            try (ResultSet count = countStatement.executeQuery()) {
+                count.next();
+            }
+        }
+
+        List<UUID> ids = new ArrayList<>(PAGE_SIZE);
+
+        try (ResultSet page = pageStatement.executeQuery()) {
+            while (page.next()) {
+                ids.add(page.getObject(1, UUID.class));
+            }
+        }
+        return ids;
+    }
+
+    private void insertOrders() throws SQLException {
+        LocalDateTime start = LocalDateTime.now().minusDays(30);
+
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO orders (id, status, total, created_at) VALUES (?, 'PROCESSED', 100.00, ?)")) {
+            for (int i = 0; i < ORDER_COUNT; i++) {
+                insert.setObject(1, UUID.randomUUID());
+                insert.setTimestamp(2, Timestamp.valueOf(start.plusSeconds(i / 4)));
+                insert.addBatch();
+
+                if (i % 1000 == 999) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+    }
+
+    private void findCursorAtDepth() throws SQLException {
+        if (depth == 0) {
+            cursorCreatedAt = Timestamp.valueOf(LocalDateTime.now().plusYears(1));
+            cursorId = new UUID(-1L, -1L);
+            return;
+        }
+
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT created_at, id FROM orders ORDER BY created_at DESC, id DESC OFFSET ? ROWS FETCH FIRST 1 ROW ONLY")) {
+            statement.setInt(1, depth - 1);
+
+            try (ResultSet resultSet = statement.executeQuery()) {
+                resultSet.next();
+                cursorCreatedAt = resultSet.getTimestamp(1);
+                cursorId = resultSet.getObject(2, UUID.class);
+            }
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package info.mouts.orderservice.benchmark;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import info.mouts.orderservice.domain.Order;
+import info.mouts.orderservice.domain.OrderItem;
+import info.mouts.orderservice.mapper.OrderMapper;
+import info.mouts.orderservice.service.impl.OrderServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Compares the total of an order summed in {@link BigDecimal}, as it used to
+ * be, with the current {@code calculateTotalAmount} summing in cents.
+ * <p>
+ * Run with {@code -Djmh.include="OrderTotalBenchmark -prof gc"} to compare the
+ * bytes allocated per operation ({@code gc.alloc.rate.norm}) along with the
+ * time.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderTotalBenchmark {
+    private static final MethodHandle CALCULATE_TOTAL_AMOUNT = findCalculateTotalAmount();
+
+    @Param({ "1", "10", "100", "1000" })
+    private int itemCount;
+
+    private OrderServiceImpl orderService;
+    private Order order;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        orderService = new OrderServiceImpl(null, OrderMapper.INSTANCE, null, null, new SimpleMeterRegistry());
+        order = new Order();
+
+        for (int i = 0; i < itemCount; i++) {
+            order.addItem(OrderItem.builder()
+                    .productId("EXT-PROD-" + i)
+                    .quantity(i % 5 + 1)
+                    .price(new BigDecimal("12.34"))
+                    .build());
+        }
+    }
+
+    /**
+     * The former implementation, as a baseline.
+     */
+    @Benchmark
+    public BigDecimal bigDecimalTotal() {
+        return order.getItems().stream()
+                .map(item -> item.getPrice().multiply(new BigDecimal(item.getQuantity())))
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    @Benchmark
+    public BigDecimal moneyTotal() throws Throwable {
+        return (BigDecimal) CALCULATE_TOTAL_AMOUNT.invokeExact(orderService, order);
+    }
+
+    private static MethodHandle findCalculateTotalAmount() {
+        try {
+            return MethodHandles.privateLookupIn(OrderServiceImpl.class, MethodHandles.lookup())
+                    .findVirtual(OrderServiceImpl.class, "calculateTotalAmount",
+                            MethodType.methodType(BigDecimal.class, Order.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+}
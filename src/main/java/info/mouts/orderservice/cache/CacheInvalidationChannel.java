@@ -0,0 +1,108 @@
+package info.mouts.orderservice.cache;
+
+import java.util.UUID;
+
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Broadcasts invalidations of the in-process tier of the {@link TwoTierCache}s
+ * to every instance over a Redis pub/sub channel.
+ * <p>
+ * Each message carries the id of the instance that sent it, so instances can
+ * ignore their own invalidations. Messages are
+ * {@code <instance id> <cache name> <key>} for a single key and
+ * {@code <instance id> <cache name>} for a whole cache. Pub/sub delivery is
+ * best-effort, so the in-process tier also expires its entries after a short
+ * time to live.
+ * </p>
+ */
+@Slf4j
+public class CacheInvalidationChannel {
+    private static final String SEPARATOR = " ";
+
+    private final StringRedisTemplate redisTemplate;
+    private final String channel;
+    private final String instanceId = UUID.randomUUID().toString();
+
+    /**
+     * A received invalidation.
+     *
+     * @param cacheName The name of the invalidated cache.
+     * @param key       The invalidated key, or null if the whole cache was
+     *                  cleared.
+     */
+    public record Invalidation(String cacheName, String key) {
+    }
+
+    /**
+     * Constructs an instance of {@code CacheInvalidationChannel}.
+     *
+     * @param redisTemplate The Redis template used to publish invalidations.
+     * @param channel       The name of the Redis pub/sub channel.
+     */
+    public CacheInvalidationChannel(StringRedisTemplate redisTemplate, String channel) {
+        this.redisTemplate = redisTemplate;
+        this.channel = channel;
+    }
+
+    /**
+     * Returns the name of the Redis pub/sub channel.
+     *
+     * @return The channel name.
+     */
+    public String getChannel() {
+        return channel;
+    }
+
+    /**
+     * Tells the other instances to evict a key from their in-process tier.
+     *
+     * @param cacheName The name of the cache.
+     * @param key       The key to evict.
+     */
+    public void publishEvict(String cacheName, String key) {
+        publish(instanceId + SEPARATOR + cacheName + SEPARATOR + key);
+    }
+
+    /**
+     * Tells the other instances to clear their in-process tier of a cache.
+     *
+     * @param cacheName The name of the cache.
+     */
+    public void publishClear(String cacheName) {
+        publish(instanceId + SEPARATOR + cacheName);
+    }
+
+    /**
+     * Parses a message received on the channel.
+     *
+     * @param message The message body.
+     * @return The invalidation, or null if the message was sent by this instance
+     *         or is malformed.
+     */
+    public Invalidation parse(String message) {
+        String[] parts = message.split(SEPARATOR, 3);
+
+        if (parts.length < 2) {
+            log.warn("Ignoring malformed cache invalidation message: {}", message);
+            return null;
+        }
+
+        if (instanceId.equals(parts[0])) {
+            return null;
+        }
+
+        return new Invalidation(parts[1], parts.length == 3 ? parts[2] : null);
+    }
+
+    private void publish(String message) {
+        try {
+            redisTemplate.convertAndSend(channel, message);
+        } catch (Exception e) {
+            // Other instances will drop the stale entry when it expires
+            log.warn("Failed to publish cache invalidation to channel {}: {}", channel, e.getMessage());
+        }
+    }
+}
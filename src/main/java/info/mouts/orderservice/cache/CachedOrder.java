@@ -0,0 +1,69 @@
+package info.mouts.orderservice.cache;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import org.hibernate.Hibernate;
+
+import info.mouts.orderservice.domain.Order;
+import info.mouts.orderservice.domain.OrderStatus;
+
+/**
+ * Immutable cache entry of an {@link Order} and its items.
+ *
+ * @param id             The ID of the order.
+ * @param idempotencyKey The idempotency key of the order.
+ * @param status         The status of the order.
+ * @param total          The total amount of the order.
+ * @param createdAt      When the order was created.
+ * @param updatedAt      When the order was last updated.
+ * @param version        The optimistic locking version of the order.
+ * @param failureReason  Why the order failed, if it did.
+ * @param items          The items of the order, or null if they were not
+ *                       loaded when the order was cached.
+ */
+public record CachedOrder(UUID id, String idempotencyKey, OrderStatus status, BigDecimal total,
+        LocalDateTime createdAt, LocalDateTime updatedAt, long version, String failureReason,
+        List<CachedOrderItem> items) {
+    /**
+     * Creates the cache entry of an order. Items that were not loaded yet are
+     * left out instead of being loaded.
+     *
+     * @param order The order to cache.
+     * @return The cache entry.
+     */
+    public static CachedOrder from(Order order) {
+        List<CachedOrderItem> items = order.getItems() != null && Hibernate.isInitialized(order.getItems())
+                ? order.getItems().stream().map(CachedOrderItem::from).toList()
+                : null;
+
+        return new CachedOrder(order.getId(), order.getIdempotencyKey(), order.getStatus(), order.getTotal(),
+                order.getCreatedAt(), order.getUpdatedAt(), order.getVersion(), order.getFailureReason(), items);
+    }
+
+    /**
+     * Rebuilds a detached order, with its items, from the cache entry. If the
+     * items were not cached, the order has no items.
+     *
+     * @return The detached order.
+     */
+    public Order toEntity() {
+        Order order = Order.builder()
+                .id(id)
+                .idempotencyKey(idempotencyKey)
+                .status(status)
+                .total(total)
+                .createdAt(createdAt)
+                .updatedAt(updatedAt)
+                .version(version)
+                .failureReason(failureReason)
+                .build();
+
+        if (items != null) {
+            items.forEach(item -> order.getItems().add(item.toEntity(order)));
+        }
+        return order;
+    }
+}
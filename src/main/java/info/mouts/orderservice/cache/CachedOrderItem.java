@@ -0,0 +1,60 @@
+package info.mouts.orderservice.cache;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import info.mouts.orderservice.domain.Order;
+import info.mouts.orderservice.domain.OrderItem;
+
+/**
+ * Immutable cache entry of an {@link OrderItem}.
+ * The parent order is only referenced by its ID.
+ *
+ * @param id        The ID of the item.
+ * @param orderId   The ID of the parent order.
+ * @param productId The ID of the product.
+ * @param quantity  The quantity ordered.
+ * @param price     The unit price.
+ */
+public record CachedOrderItem(UUID id, UUID orderId, String productId, Integer quantity, BigDecimal price) {
+    /**
+     * Creates the cache entry of an item. The parent order, if any, is not
+     * initialized.
+     *
+     * @param item The item to cache.
+     * @return The cache entry.
+     */
+    public static CachedOrderItem from(OrderItem item) {
+        UUID orderId = item.getOrder() != null ? item.getOrder().getId() : null;
+
+        return new CachedOrderItem(item.getId(), orderId, item.getProductId(), item.getQuantity(), item.getPrice());
+    }
+
+    /**
+     * Rebuilds a detached item from the cache entry, with a reference to its
+     * parent order that only holds the order ID.
+     *
+     * @return The detached item.
+     */
+    public OrderItem toEntity() {
+        Order order = orderId != null ? Order.builder().id(orderId).build() : null;
+
+        return toEntity(order);
+    }
+
+    /**
+     * Rebuilds a detached item of the given order from the cache entry.
+     *
+     * @param order The parent order.
+     * @return The detached item.
+     */
+    OrderItem toEntity(Order order) {
+        return OrderItem.builder()
+                .id(id)
+                .order(order)
+                .productId(productId)
+                .quantity(quantity)
+                .price(price)
+                .build();
+    }
+}
@@ -0,0 +1,73 @@
+package info.mouts.orderservice.cache;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.Cache.ValueWrapper;
+
+/**
+ * {@link Cache} able to look up and write many keys at once, with fewer round
+ * trips than one operation per key.
+ */
+public interface MultiGetCache {
+    /**
+     * Looks up the given keys.
+     *
+     * @param keys The keys to look up.
+     * @return The cached values, keyed by their key. Missing keys are left out.
+     */
+    Map<Object, Object> getAll(Collection<?> keys);
+
+    /**
+     * Writes the given entries, which were just found missing from the cache,
+     * such as values loaded from the database after a bulk lookup missed them.
+     * Unlike {@link Cache#put(Object, Object)}, it does not tell other holders
+     * of the keys to drop their copy.
+     *
+     * @param entries The values to cache, keyed by their key.
+     */
+    void putAll(Map<?, ?> entries);
+
+    /**
+     * Looks up the given keys in any cache, at once if it is a
+     * {@link MultiGetCache} and one key at a time otherwise.
+     *
+     * @param cache The cache to look the keys up in.
+     * @param keys  The keys to look up.
+     * @return The cached values, keyed by their key. Missing keys are left out.
+     */
+    static Map<Object, Object> getAll(Cache cache, Collection<?> keys) {
+        if (cache instanceof MultiGetCache multiGetCache) {
+            return multiGetCache.getAll(keys);
+        }
+
+        Map<Object, Object> values = new LinkedHashMap<>();
+
+        for (Object key : keys) {
+            ValueWrapper value = cache.get(key);
+
+            if (value != null && value.get() != null) {
+                values.put(key, value.get());
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Writes the given entries, which were just found missing from the cache,
+     * to any cache, at once if it is a {@link MultiGetCache} and one key at a
+     * time otherwise.
+     *
+     * @param cache   The cache to write the entries to.
+     * @param entries The values to cache, keyed by their key.
+     */
+    static void putAll(Cache cache, Map<?, ?> entries) {
+        if (cache instanceof MultiGetCache multiGetCache) {
+            multiGetCache.putAll(entries);
+        } else {
+            entries.forEach(cache::put);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package info.mouts.orderservice.cache;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisStringCommands.SetOption;
+import org.springframework.data.redis.core.types.Expiration;
+
+/**
+ * {@link RedisCache} that looks up many keys with a single {@code MGET} and
+ * writes many entries with pipelined {@code SET}s.
+ * <p>
+ * Keys and values go through the same conversions, serializers and time to
+ * live as single operations. Bulk operations are not recorded in the cache
+ * statistics, and bulk lookups do not reset the time to idle of the entries.
+ * </p>
+ */
+public class MultiGetRedisCache extends RedisCache implements MultiGetCache {
+    private final RedisConnectionFactory connectionFactory;
+
+    /**
+     * Constructs an instance of {@code MultiGetRedisCache}.
+     *
+     * @param name               The name of the cache.
+     * @param cacheWriter        The writer used for every other operation.
+     * @param cacheConfiguration The configuration of the cache.
+     * @param connectionFactory  The Redis connection factory used for bulk
+     *                           lookups.
+     */
+    public MultiGetRedisCache(String name, RedisCacheWriter cacheWriter, RedisCacheConfiguration cacheConfiguration,
+            RedisConnectionFactory connectionFactory) {
+        super(name, cacheWriter, cacheConfiguration);
+        this.connectionFactory = connectionFactory;
+    }
+
+    @Override
+    public Map<Object, Object> getAll(Collection<?> keys) {
+        Map<Object, Object> values = new LinkedHashMap<>();
+
+        if (keys.isEmpty()) {
+            return values;
+        }
+
+        List<?> orderedKeys = List.copyOf(keys);
+        byte[][] redisKeys = orderedKeys.stream()
+                .map(key -> serializeCacheKey(createCacheKey(key)))
+                .toArray(byte[][]::new);
+        List<byte[]> redisValues;
+
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            redisValues = connection.stringCommands().mGet(redisKeys);
+        }
+
+        if (redisValues == null) {
+            return values;
+        }
+
+        for (int i = 0; i < orderedKeys.size(); i++) {
+            byte[] redisValue = redisValues.get(i);
+            Object value = redisValue != null ? fromStoreValue(deserializeCacheValue(redisValue)) : null;
+
+            if (value != null) {
+                values.put(orderedKeys.get(i), value);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Writes the given entries in a single pipeline, each with the time to live
+     * of the cache. Null values are skipped.
+     *
+     * @param entries The values to cache, keyed by their key.
+     */
+    @Override
+    public void putAll(Map<?, ?> entries) {
+        if (entries.values().stream().allMatch(value -> value == null)) {
+            return;
+        }
+
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            connection.openPipeline();
+
+            try {
+                entries.forEach((key, value) -> {
+                    if (value != null) {
+                        connection.stringCommands().set(serializeCacheKey(createCacheKey(key)),
+                                serializeCacheValue(toStoreValue(value)), expiration(key, value), SetOption.upsert());
+                    }
+                });
+            } finally {
+                connection.closePipeline();
+            }
+        }
+    }
+
+    private Expiration expiration(Object key, Object value) {
+        Duration timeToLive = getCacheConfiguration().getTtlFunction().getTimeToLive(key, value);
+
+        return timeToLive != null && !timeToLive.isZero() && !timeToLive.isNegative()
+                ? Expiration.from(timeToLive)
+                : Expiration.persistent();
+    }
+}
@@ -0,0 +1,38 @@
+package info.mouts.orderservice.cache;
+
+import java.util.Collection;
+
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+
+/**
+ * {@link RedisCacheManager} whose caches are {@link MultiGetRedisCache}s.
+ */
+public class MultiGetRedisCacheManager extends RedisCacheManager {
+    private final RedisConnectionFactory connectionFactory;
+
+    /**
+     * Constructs an instance of {@code MultiGetRedisCacheManager}.
+     *
+     * @param connectionFactory         The Redis connection factory.
+     * @param defaultCacheConfiguration The configuration of every cache.
+     * @param initialCacheNames         The names of the caches created on
+     *                                  startup. Other caches are created when
+     *                                  first used.
+     */
+    public MultiGetRedisCacheManager(RedisConnectionFactory connectionFactory,
+            RedisCacheConfiguration defaultCacheConfiguration, Collection<String> initialCacheNames) {
+        super(RedisCacheWriter.nonLockingRedisCacheWriter(connectionFactory), defaultCacheConfiguration,
+                initialCacheNames.toArray(String[]::new));
+        this.connectionFactory = connectionFactory;
+    }
+
+    @Override
+    protected RedisCache createRedisCache(String name, RedisCacheConfiguration cacheConfiguration) {
+        return new MultiGetRedisCache(name, getCacheWriter(),
+                cacheConfiguration != null ? cacheConfiguration : getDefaultCacheConfiguration(), connectionFactory);
+    }
+}
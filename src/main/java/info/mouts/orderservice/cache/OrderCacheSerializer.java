@@ -0,0 +1,156 @@
+package info.mouts.orderservice.cache;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import com.fasterxml.jackson.dataformat.smile.SmileParser;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import info.mouts.orderservice.domain.Order;
+import info.mouts.orderservice.domain.OrderItem;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Redis serializer for the cached orders and order items.
+ * <p>
+ * Instead of JDK-serializing the entities, it stores them as
+ * {@link CachedOrder} and {@link CachedOrderItem} records encoded with Smile,
+ * a binary form of JSON, which is several times smaller and faster, and never
+ * touches lazy associations. Reads rebuild detached entities, so the services
+ * keep returning {@link Order} and {@link OrderItem}.
+ * </p>
+ * <p>
+ * Every entry starts with {@link #FORMAT_VERSION} and a type tag. Entries
+ * written with another format version, including the JDK-serialized entries
+ * written before this serializer, are read as cache misses and replaced on the
+ * next load, so the version must be increased on any incompatible change of
+ * the records. Values of other types are JDK-serialized, behind the same
+ * header.
+ * </p>
+ */
+@Slf4j
+public class OrderCacheSerializer implements RedisSerializer<Object> {
+    /**
+     * The version of the entry format.
+     */
+    public static final byte FORMAT_VERSION = 1;
+
+    private static final byte TYPE_JDK = 0;
+    private static final byte TYPE_ORDER = 1;
+    private static final byte TYPE_ORDER_ITEMS = 2;
+    private static final byte TYPE_ORDER_ITEM = 3;
+
+    private static final int HEADER_LENGTH = 2;
+
+    private final JdkSerializationRedisSerializer jdkSerializer;
+    private final ObjectWriter writer;
+    private final ObjectReader orderReader;
+    private final ObjectReader orderItemsReader;
+    private final ObjectReader orderItemReader;
+
+    /**
+     * Constructs an instance of {@code OrderCacheSerializer}.
+     *
+     * @param classLoader The class loader used to read JDK-serialized values.
+     */
+    public OrderCacheSerializer(ClassLoader classLoader) {
+        SmileFactory smileFactory = SmileFactory.builder()
+                .disable(SmileGenerator.Feature.WRITE_HEADER)
+                .disable(SmileParser.Feature.REQUIRE_HEADER)
+                .build();
+        ObjectMapper smileMapper = new ObjectMapper(smileFactory)
+                .registerModule(new JavaTimeModule())
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+        this.jdkSerializer = new JdkSerializationRedisSerializer(classLoader);
+        this.writer = smileMapper.writer();
+        this.orderReader = smileMapper.readerFor(CachedOrder.class);
+        this.orderItemsReader = smileMapper.readerFor(
+                smileMapper.getTypeFactory().constructCollectionType(List.class, CachedOrderItem.class));
+        this.orderItemReader = smileMapper.readerFor(CachedOrderItem.class);
+    }
+
+    @Override
+    public byte[] serialize(Object value) {
+        if (value == null) {
+            return null;
+        }
+
+        if (value instanceof Order order) {
+            return encode(TYPE_ORDER, CachedOrder.from(order));
+        }
+        if (value instanceof OrderItem item) {
+            return encode(TYPE_ORDER_ITEM, CachedOrderItem.from(item));
+        }
+        if (value instanceof List<?> list && list.stream().allMatch(OrderItem.class::isInstance)) {
+            return encode(TYPE_ORDER_ITEMS,
+                    list.stream().map(item -> CachedOrderItem.from((OrderItem) item)).toList());
+        }
+
+        return withHeader(TYPE_JDK, jdkSerializer.serialize(value));
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) {
+        if (bytes == null) {
+            return null;
+        }
+
+        if (bytes.length < HEADER_LENGTH || bytes[0] != FORMAT_VERSION) {
+            log.debug("Ignoring cache entry written with another format");
+            return null;
+        }
+
+        try {
+            return switch (bytes[1]) {
+                case TYPE_ORDER -> this.<CachedOrder>decode(orderReader, bytes).toEntity();
+                case TYPE_ORDER_ITEM -> this.<CachedOrderItem>decode(orderItemReader, bytes).toEntity();
+                case TYPE_ORDER_ITEMS -> this.<List<CachedOrderItem>>decode(orderItemsReader, bytes).stream()
+                        .map(CachedOrderItem::toEntity)
+                        .toList();
+                case TYPE_JDK -> jdkSerializer.deserialize(Arrays.copyOfRange(bytes, HEADER_LENGTH, bytes.length));
+                default -> {
+                    log.debug("Ignoring cache entry of unknown type {}", bytes[1]);
+                    yield null;
+                }
+            };
+        } catch (IOException e) {
+            throw new SerializationException("Can't deserialize cache entry", e);
+        }
+    }
+
+    private byte[] encode(byte type, Object entry) {
+        try (ByteArrayBuilder buffer = new ByteArrayBuilder()) {
+            buffer.append(FORMAT_VERSION);
+            buffer.append(type);
+            writer.writeValue(buffer, entry);
+            return buffer.toByteArray();
+        } catch (IOException e) {
+            throw new SerializationException("Can't serialize cache entry of type " + type, e);
+        }
+    }
+
+    private <T> T decode(ObjectReader reader, byte[] bytes) throws IOException {
+        return reader.readValue(bytes, HEADER_LENGTH, bytes.length - HEADER_LENGTH);
+    }
+
+    private byte[] withHeader(byte type, byte[] payload) {
+        byte[] bytes = new byte[HEADER_LENGTH + payload.length];
+        bytes[0] = FORMAT_VERSION;
+        bytes[1] = type;
+        System.arraycopy(payload, 0, bytes, HEADER_LENGTH, payload.length);
+        return bytes;
+    }
+}
@@ -0,0 +1,100 @@
+package info.mouts.orderservice.cache;
+
+import java.time.Duration;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Decides when the entries of a {@link TwoTierCache} are reloaded ahead of
+ * their expiration in Redis, and runs the reloads.
+ * <p>
+ * An entry is due for a refresh once less than the refresh window is left of
+ * its Redis time to live. For entries written by this instance the expiration
+ * is known; for entries read from Redis it is looked up once, when the entry is
+ * copied into the in-process tier.
+ * </p>
+ */
+@Slf4j
+public class RefreshAheadPolicy {
+    private final StringRedisTemplate redisTemplate;
+    private final RedisCacheConfiguration cacheConfiguration;
+    private final Duration timeToLive;
+    private final Duration window;
+    private final Executor executor;
+
+    /**
+     * Constructs an instance of {@code RefreshAheadPolicy}.
+     *
+     * @param redisTemplate      The Redis template used to look up the time to
+     *                           live of the entries.
+     * @param cacheConfiguration The configuration of the Redis caches, used to
+     *                           build the Redis keys.
+     * @param timeToLive         The time to live of the Redis entries.
+     * @param window             How long before their expiration entries are
+     *                           reloaded.
+     * @param executor           The executor that runs the reloads.
+     */
+    public RefreshAheadPolicy(StringRedisTemplate redisTemplate, RedisCacheConfiguration cacheConfiguration,
+            Duration timeToLive, Duration window, Executor executor) {
+        if (window.compareTo(timeToLive) >= 0) {
+            throw new IllegalArgumentException(
+                    "Refresh-ahead window " + window + " must be shorter than the time to live " + timeToLive);
+        }
+
+        this.redisTemplate = redisTemplate;
+        this.cacheConfiguration = cacheConfiguration;
+        this.timeToLive = timeToLive;
+        this.window = window;
+        this.executor = executor;
+    }
+
+    /**
+     * Returns when an entry written now is due for a refresh.
+     *
+     * @param nowMillis The current time, in milliseconds since the epoch.
+     * @return The refresh time, in milliseconds since the epoch.
+     */
+    public long refreshTimeAfterWrite(long nowMillis) {
+        return nowMillis + timeToLive.toMillis() - window.toMillis();
+    }
+
+    /**
+     * Returns when an entry read from Redis is due for a refresh, based on its
+     * remaining time to live.
+     *
+     * @param cacheName The name of the cache.
+     * @param key       The string form of the key.
+     * @param nowMillis The current time, in milliseconds since the epoch.
+     * @return The refresh time, in milliseconds since the epoch, or
+     *         {@link Long#MAX_VALUE} if the expiration is unknown.
+     */
+    public long refreshTimeOfSharedEntry(String cacheName, String key, long nowMillis) {
+        String redisKey = (cacheConfiguration.usePrefix() ? cacheConfiguration.getKeyPrefixFor(cacheName) : "") + key;
+
+        try {
+            Long remainingMillis = redisTemplate.getExpire(redisKey, TimeUnit.MILLISECONDS);
+
+            if (remainingMillis == null || remainingMillis < 0) {
+                return Long.MAX_VALUE;
+            }
+            return nowMillis + remainingMillis - window.toMillis();
+        } catch (Exception e) {
+            log.debug("Failed to look up the time to live of cache key {}: {}", redisKey, e.getMessage());
+            return Long.MAX_VALUE;
+        }
+    }
+
+    /**
+     * Runs a reload in the background.
+     *
+     * @param reload The reload to run.
+     */
+    public void execute(Runnable reload) {
+        executor.execute(reload);
+    }
+}
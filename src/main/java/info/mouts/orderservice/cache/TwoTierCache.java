@@ -0,0 +1,486 @@
+package info.mouts.orderservice.cache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.cache.Cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * {@link Cache} with a bounded in-process Caffeine tier (L1) in front of a
+ * shared cache (L2), usually a Redis cache.
+ * <p>
+ * Reads are served from L1 when possible and fall back to L2, whose hits are
+ * copied into L1. Writes and evictions go to both tiers. Evictions and writes
+ * that replace an existing entry are broadcast over the
+ * {@link CacheInvalidationChannel}, so the other instances drop their L1 copy
+ * of the key. Writes of new keys, such as newly created orders, are not, since
+ * L1 only holds copies of L2 entries and L1 entries expire before L2 ones. L1
+ * entries are keyed by the string form of the cache key, the same form Redis
+ * uses, so invalidations from other instances match them.
+ * </p>
+ * <p>
+ * Loads through {@link #get(Object, Callable)}, used by
+ * {@code @Cacheable(sync = true)}, are coalesced: concurrent misses of the
+ * same key on this instance wait for a single load instead of each querying L2
+ * and the database. With a {@link RefreshAheadPolicy}, L1 hits on entries close
+ * to their L2 expiration also trigger a single background reload, so hot
+ * entries are replaced before they expire.
+ * </p>
+ * <p>
+ * Bulk lookups through {@link #getAll(Collection)} look up all L1 misses in L2
+ * at once, and bulk writes through {@link #putAll(Map)} write L2 at once, when
+ * L2 is itself a {@link MultiGetCache}.
+ * </p>
+ * <p>
+ * L1 hands out the same instance to every caller, so cached values must not be
+ * modified.
+ * </p>
+ */
+@Slf4j
+public class TwoTierCache implements Cache, MultiGetCache {
+    private final String name;
+    private final com.github.benmanes.caffeine.cache.Cache<String, LocalEntry> localCache;
+    private final Cache sharedCache;
+    private final CacheInvalidationChannel invalidationChannel;
+    private final RefreshAheadPolicy refreshAheadPolicy;
+    private final Map<String, CompletableFuture<Object>> loadsInProgress = new ConcurrentHashMap<>();
+
+    private Counter localHitsCounter;
+    private Counter localMissesCounter;
+    private Counter sharedHitsCounter;
+    private Counter sharedMissesCounter;
+    private Counter invalidationsCounter;
+    private Counter coalescedLoadsCounter;
+    private Counter refreshesCounter;
+    private Counter failedRefreshesCounter;
+
+    /**
+     * An L1 entry, with the time it is due for a refresh.
+     */
+    private static final class LocalEntry implements ValueWrapper {
+        private final Object value;
+        private volatile long refreshTime;
+
+        LocalEntry(Object value, long refreshTime) {
+            this.value = value;
+            this.refreshTime = refreshTime;
+        }
+
+        @Override
+        public Object get() {
+            return value;
+        }
+    }
+
+    /**
+     * Constructs an instance of {@code TwoTierCache}.
+     *
+     * @param sharedCache         The shared cache used as L2.
+     * @param localCacheBuilder   The Caffeine builder for L1, with its size and
+     *                            time bounds.
+     * @param invalidationChannel The channel used to broadcast invalidations.
+     * @param refreshAheadPolicy  The policy for reloading entries before they
+     *                            expire, or null to disable refresh-ahead.
+     * @param meterRegistry       The registry for collecting metrics.
+     */
+    public TwoTierCache(Cache sharedCache, Caffeine<Object, Object> localCacheBuilder,
+            CacheInvalidationChannel invalidationChannel, RefreshAheadPolicy refreshAheadPolicy,
+            MeterRegistry meterRegistry) {
+        this.name = sharedCache.getName();
+        this.localCache = localCacheBuilder.build();
+        this.sharedCache = sharedCache;
+        this.invalidationChannel = invalidationChannel;
+        this.refreshAheadPolicy = refreshAheadPolicy;
+
+        initializeMetrics(meterRegistry);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return localCache;
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        String localKey = toLocalKey(key);
+        LocalEntry entry = localCache.getIfPresent(localKey);
+
+        if (entry != null) {
+            localHitsCounter.increment();
+            return entry;
+        }
+
+        localMissesCounter.increment();
+        ValueWrapper value = sharedCache.get(key);
+
+        if (value != null) {
+            sharedHitsCounter.increment();
+            localCache.put(localKey, new LocalEntry(value.get(), sharedEntryRefreshTime(localKey)));
+        } else {
+            sharedMissesCounter.increment();
+        }
+        return value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper value = get(key);
+
+        if (value == null) {
+            return null;
+        }
+
+        Object cachedValue = value.get();
+
+        if (cachedValue != null && type != null && !type.isInstance(cachedValue)) {
+            throw new IllegalStateException(
+                    "Cached value is not of required type [" + type.getName() + "]: " + cachedValue);
+        }
+        return (T) cachedValue;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        String localKey = toLocalKey(key);
+        LocalEntry entry = localCache.getIfPresent(localKey);
+
+        if (entry != null) {
+            localHitsCounter.increment();
+            refreshIfDue(key, localKey, entry, valueLoader);
+            return (T) entry.get();
+        }
+
+        localMissesCounter.increment();
+
+        CompletableFuture<Object> load = new CompletableFuture<>();
+        CompletableFuture<Object> loadInProgress = loadsInProgress.putIfAbsent(localKey, load);
+
+        if (loadInProgress != null) {
+            coalescedLoadsCounter.increment();
+            return (T) await(key, loadInProgress, valueLoader);
+        }
+
+        try {
+            T value = load(key, localKey, valueLoader);
+            load.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            loadsInProgress.remove(localKey, load);
+        }
+    }
+
+    /**
+     * Looks up the given keys in L1, then looks up all L1 misses in L2 at once
+     * and copies the L2 hits into L1.
+     * Looking up the expiration of each L2 hit would cost one round trip per
+     * key, so the copied entries are not refreshed ahead and only expire from L1
+     * as usual.
+     *
+     * @param keys The keys to look up.
+     * @return The cached values, keyed by their key. Missing keys are left out.
+     */
+    @Override
+    public Map<Object, Object> getAll(Collection<?> keys) {
+        Map<Object, Object> values = new LinkedHashMap<>();
+        List<Object> localMisses = new ArrayList<>();
+
+        for (Object key : keys) {
+            LocalEntry entry = localCache.getIfPresent(toLocalKey(key));
+
+            if (entry != null) {
+                localHitsCounter.increment();
+                values.put(key, entry.get());
+            } else {
+                localMissesCounter.increment();
+                localMisses.add(key);
+            }
+        }
+
+        if (localMisses.isEmpty()) {
+            return values;
+        }
+
+        Map<Object, Object> sharedValues = MultiGetCache.getAll(sharedCache, localMisses);
+        sharedHitsCounter.increment(sharedValues.size());
+        sharedMissesCounter.increment(localMisses.size() - sharedValues.size());
+
+        sharedValues.forEach((key, value) -> {
+            localCache.put(toLocalKey(key), new LocalEntry(value, Long.MAX_VALUE));
+            values.put(key, value);
+        });
+        return values;
+    }
+
+    /**
+     * Writes entries just found missing from both tiers to L2 at once, then to
+     * L1. No other instance can hold them in L1, so no eviction is broadcast.
+     *
+     * @param entries The values to cache, keyed by their key.
+     */
+    @Override
+    public void putAll(Map<?, ?> entries) {
+        MultiGetCache.putAll(sharedCache, entries);
+        entries.forEach((key, value) -> putLocal(key, value, false));
+    }
+
+    /**
+     * Writes an entry to both tiers. A key already in L1 is overwritten right
+     * away, any other key is first written to L2 only if absent there, and only
+     * an existing L2 entry is then overwritten. Evictions are broadcast only for
+     * overwritten entries, which other instances may hold in L1.
+     *
+     * @param key   The key of the entry.
+     * @param value The value of the entry.
+     */
+    @Override
+    public void put(Object key, Object value) {
+        if (localCache.getIfPresent(toLocalKey(key)) != null || sharedCache.putIfAbsent(key, value) != null) {
+            overwrite(key, value);
+        } else {
+            putLocal(key, value, false);
+        }
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existingValue = sharedCache.putIfAbsent(key, value);
+        putLocal(key, existingValue != null ? existingValue.get() : value, false);
+        return existingValue;
+    }
+
+    @Override
+    public void evict(Object key) {
+        String localKey = toLocalKey(key);
+
+        sharedCache.evict(key);
+        localCache.invalidate(localKey);
+        invalidationChannel.publishEvict(name, localKey);
+    }
+
+    @Override
+    public void clear() {
+        sharedCache.clear();
+        localCache.invalidateAll();
+        invalidationChannel.publishClear(name);
+    }
+
+    /**
+     * Evicts a key from L1 only, after another instance changed it.
+     *
+     * @param key The string form of the key.
+     */
+    public void evictLocal(String key) {
+        invalidationsCounter.increment();
+        localCache.invalidate(key);
+    }
+
+    /**
+     * Clears L1 only, after another instance cleared the cache.
+     */
+    public void clearLocal() {
+        invalidationsCounter.increment();
+        localCache.invalidateAll();
+    }
+
+    /**
+     * Loads a value missing from L1 from L2 or, if L2 misses too, with the value
+     * loader, and stores it in L1.
+     */
+    private <T> T load(Object key, String localKey, Callable<T> valueLoader) {
+        // Another load may have completed between the L1 lookup and the claim
+        LocalEntry entry = localCache.getIfPresent(localKey);
+
+        if (entry != null) {
+            @SuppressWarnings("unchecked")
+            T value = (T) entry.get();
+            return value;
+        }
+
+        AtomicBoolean loaded = new AtomicBoolean();
+        T value = sharedCache.get(key, () -> {
+            loaded.set(true);
+            return valueLoader.call();
+        });
+
+        if (loaded.get()) {
+            sharedMissesCounter.increment();
+        } else {
+            sharedHitsCounter.increment();
+        }
+
+        if (value != null) {
+            long refreshTime = loaded.get() ? writtenEntryRefreshTime() : sharedEntryRefreshTime(localKey);
+            localCache.put(localKey, new LocalEntry(value, refreshTime));
+        }
+        return value;
+    }
+
+    /**
+     * Waits for a load started by another thread and returns its value, or
+     * rethrows its failure.
+     */
+    private Object await(Object key, CompletableFuture<Object> load, Callable<?> valueLoader) {
+        try {
+            return load.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ValueRetrievalException(key, valueLoader, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new ValueRetrievalException(key, valueLoader, e.getCause());
+        }
+    }
+
+    /**
+     * Reloads an entry in the background, through the value loader, when it is
+     * due for a refresh and no other load of its key is in progress.
+     */
+    private void refreshIfDue(Object key, String localKey, LocalEntry entry, Callable<?> valueLoader) {
+        if (refreshAheadPolicy == null || System.currentTimeMillis() < entry.refreshTime) {
+            return;
+        }
+
+        // Only the first hit triggers a refresh, if it fails the entry expires as usual
+        entry.refreshTime = Long.MAX_VALUE;
+
+        CompletableFuture<Object> load = new CompletableFuture<>();
+
+        if (loadsInProgress.putIfAbsent(localKey, load) != null) {
+            return;
+        }
+
+        refreshAheadPolicy.execute(() -> {
+            try {
+                Object value = valueLoader.call();
+
+                if (value != null) {
+                    overwrite(key, value);
+                } else {
+                    evict(key);
+                }
+                refreshesCounter.increment();
+                load.complete(value);
+            } catch (Exception e) {
+                failedRefreshesCounter.increment();
+                log.warn("Failed to refresh key {} of cache {}: {}", localKey, name, e.getMessage());
+                load.completeExceptionally(e);
+            } finally {
+                loadsInProgress.remove(localKey, load);
+            }
+        });
+    }
+
+    /**
+     * Writes an entry that may already be cached, in L1 of this or other
+     * instances, to both tiers and broadcasts its eviction.
+     */
+    private void overwrite(Object key, Object value) {
+        sharedCache.put(key, value);
+        putLocal(key, value, true);
+    }
+
+    private void putLocal(Object key, Object value, boolean broadcast) {
+        String localKey = toLocalKey(key);
+
+        if (value != null) {
+            localCache.put(localKey, new LocalEntry(value, writtenEntryRefreshTime()));
+        } else {
+            localCache.invalidate(localKey);
+        }
+
+        if (broadcast) {
+            invalidationChannel.publishEvict(name, localKey);
+        }
+    }
+
+    private long writtenEntryRefreshTime() {
+        return refreshAheadPolicy != null
+                ? refreshAheadPolicy.refreshTimeAfterWrite(System.currentTimeMillis())
+                : Long.MAX_VALUE;
+    }
+
+    private long sharedEntryRefreshTime(String localKey) {
+        return refreshAheadPolicy != null
+                ? refreshAheadPolicy.refreshTimeOfSharedEntry(name, localKey, System.currentTimeMillis())
+                : Long.MAX_VALUE;
+    }
+
+    private String toLocalKey(Object key) {
+        return String.valueOf(key);
+    }
+
+    /**
+     * Initializes the Micrometer metrics for the cache.
+     * Registers hit and miss counters per tier, counters of the invalidations
+     * received from other instances, of the loads that waited for another load
+     * of the same key and of the background refreshes, all tagged with the cache
+     * name, and a gauge of the number of entries in L1.
+     *
+     * @param registry The meter registry to register the metrics with.
+     */
+    private void initializeMetrics(MeterRegistry registry) {
+        this.localHitsCounter = tierGetsCounter(registry, "l1", "hit");
+        this.localMissesCounter = tierGetsCounter(registry, "l1", "miss");
+        this.sharedHitsCounter = tierGetsCounter(registry, "l2", "hit");
+        this.sharedMissesCounter = tierGetsCounter(registry, "l2", "miss");
+        this.invalidationsCounter = Counter.builder("cache.tier.invalidations")
+                .description("Total number of local cache invalidations received from other instances")
+                .tag("cache", name)
+                .register(registry);
+        this.coalescedLoadsCounter = Counter.builder("cache.tier.coalesced.loads")
+                .description("Total number of cache misses that waited for a load of the same key")
+                .tag("cache", name)
+                .register(registry);
+        this.refreshesCounter = refreshesCounter(registry, "success");
+        this.failedRefreshesCounter = refreshesCounter(registry, "failure");
+        Gauge.builder("cache.tier.size", localCache, com.github.benmanes.caffeine.cache.Cache::estimatedSize)
+                .description("Estimated number of entries in the local cache tier")
+                .tag("cache", name)
+                .tag("tier", "l1")
+                .register(registry);
+    }
+
+    private Counter tierGetsCounter(MeterRegistry registry, String tier, String result) {
+        return Counter.builder("cache.tier.gets")
+                .description("Total number of cache lookups per tier")
+                .tag("cache", name)
+                .tag("tier", tier)
+                .tag("result", result)
+                .register(registry);
+    }
+
+    private Counter refreshesCounter(MeterRegistry registry, String result) {
+        return Counter.builder("cache.tier.refreshes")
+                .description("Total number of entries reloaded ahead of their expiration")
+                .tag("cache", name)
+                .tag("result", result)
+                .register(registry);
+    }
+}
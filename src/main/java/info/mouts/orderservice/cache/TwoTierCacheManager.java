@@ -0,0 +1,113 @@
+package info.mouts.orderservice.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import info.mouts.orderservice.cache.CacheInvalidationChannel.Invalidation;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * {@link CacheManager} that puts a {@link TwoTierCache} with an in-process
+ * Caffeine tier in front of every cache of a shared cache manager.
+ * <p>
+ * It also listens to the {@link CacheInvalidationChannel} and evicts from the
+ * in-process tier the keys changed by other instances.
+ * </p>
+ */
+@Slf4j
+public class TwoTierCacheManager implements CacheManager, MessageListener {
+    private final CacheManager sharedCacheManager;
+    private final Caffeine<Object, Object> localCacheBuilder;
+    private final CacheInvalidationChannel invalidationChannel;
+    private final RefreshAheadPolicy refreshAheadPolicy;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, TwoTierCache> caches = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs an instance of {@code TwoTierCacheManager}.
+     *
+     * @param sharedCacheManager  The cache manager of the shared tier.
+     * @param localCacheBuilder   The Caffeine builder for the in-process tier of
+     *                            each cache.
+     * @param invalidationChannel The channel used to broadcast and receive
+     *                            invalidations.
+     * @param refreshAheadPolicy  The policy for reloading entries before they
+     *                            expire, or null to disable refresh-ahead.
+     * @param meterRegistry       The registry for collecting metrics.
+     */
+    public TwoTierCacheManager(CacheManager sharedCacheManager, Caffeine<Object, Object> localCacheBuilder,
+            CacheInvalidationChannel invalidationChannel, RefreshAheadPolicy refreshAheadPolicy,
+            MeterRegistry meterRegistry) {
+        this.sharedCacheManager = sharedCacheManager;
+        this.localCacheBuilder = localCacheBuilder;
+        this.invalidationChannel = invalidationChannel;
+        this.refreshAheadPolicy = refreshAheadPolicy;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        TwoTierCache cache = caches.get(name);
+
+        if (cache != null) {
+            return cache;
+        }
+
+        Cache sharedCache = sharedCacheManager.getCache(name);
+
+        if (sharedCache == null) {
+            return null;
+        }
+
+        return caches.computeIfAbsent(name,
+                cacheName -> new TwoTierCache(sharedCache, localCacheBuilder, invalidationChannel, refreshAheadPolicy,
+                        meterRegistry));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return sharedCacheManager.getCacheNames();
+    }
+
+    /**
+     * Handles an invalidation published by another instance, evicting the key
+     * from the in-process tier of the cache, or clearing it.
+     * Caches that were never used on this instance have nothing to evict.
+     *
+     * @param message The Redis pub/sub message.
+     * @param pattern The pattern that matched the channel, if any.
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        Invalidation invalidation = invalidationChannel.parse(new String(message.getBody(), StandardCharsets.UTF_8));
+
+        if (invalidation == null) {
+            return;
+        }
+
+        TwoTierCache cache = caches.get(invalidation.cacheName());
+
+        if (cache == null) {
+            return;
+        }
+
+        if (invalidation.key() != null) {
+            log.debug("Evicting key {} of cache {} changed by another instance", invalidation.key(),
+                    invalidation.cacheName());
+            cache.evictLocal(invalidation.key());
+        } else {
+            log.debug("Clearing cache {} cleared by another instance", invalidation.cacheName());
+            cache.clearLocal();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package info.mouts.orderservice.config;
+
+import org.springframework.boot.autoconfigure.cache.CacheProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.serializer.RedisSerializationContext.SerializationPair;
+
+import info.mouts.orderservice.cache.MultiGetRedisCacheManager;
+import info.mouts.orderservice.cache.OrderCacheSerializer;
+
+@Configuration
+@EnableConfigurationProperties(CacheProperties.class)
+public class CacheConfig {
+    /**
+     * Configure the Redis caches from the {@code spring.cache.redis} properties,
+     * the same way Spring Boot does, but storing the values with the
+     * {@link OrderCacheSerializer} instead of JDK serialization.
+     * It is used both by the Redis-only cache manager and by the near cache.
+     *
+     * @param cacheProperties The {@code spring.cache} properties.
+     * @return The configured RedisCacheConfiguration
+     */
+    @Bean
+    public RedisCacheConfiguration redisCacheConfiguration(CacheProperties cacheProperties) {
+        CacheProperties.Redis redisProperties = cacheProperties.getRedis();
+        RedisCacheConfiguration configuration = RedisCacheConfiguration.defaultCacheConfig()
+                .serializeValuesWith(SerializationPair.fromSerializer(
+                        new OrderCacheSerializer(getClass().getClassLoader())));
+
+        if (redisProperties.getTimeToLive() != null) {
+            configuration = configuration.entryTtl(redisProperties.getTimeToLive());
+        }
+        if (redisProperties.getKeyPrefix() != null) {
+            configuration = configuration.prefixCacheNameWith(redisProperties.getKeyPrefix());
+        }
+        if (!redisProperties.isCacheNullValues()) {
+            configuration = configuration.disableCachingNullValues();
+        }
+        if (!redisProperties.isUseKeyPrefix()) {
+            configuration = configuration.disableKeyPrefix();
+        }
+        return configuration;
+    }
+
+    /**
+     * Configure the cache manager used by the caching annotations when the near
+     * cache is disabled, in place of the auto-configured Redis cache manager, so
+     * that its caches also support bulk lookups.
+     *
+     * @param connectionFactory  The Redis connection factory.
+     * @param cacheConfiguration The configuration of the Redis caches.
+     * @param cacheProperties    The {@code spring.cache} properties.
+     * @return The configured MultiGetRedisCacheManager
+     */
+    @Bean
+    @ConditionalOnProperty(name = "app.cache.near.enabled", havingValue = "false")
+    public MultiGetRedisCacheManager cacheManager(RedisConnectionFactory connectionFactory,
+            RedisCacheConfiguration cacheConfiguration, CacheProperties cacheProperties) {
+        return new MultiGetRedisCacheManager(connectionFactory, cacheConfiguration, cacheProperties.getCacheNames());
+    }
+}
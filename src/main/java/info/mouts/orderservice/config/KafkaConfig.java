@@ -2,26 +2,51 @@ package info.mouts.orderservice.config;
 
 import java.time.Duration;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.common.TopicPartition;
 import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serializer;
 import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.ConcurrentKafkaListenerContainerFactoryConfigurer;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.KafkaException.Level;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.MicrometerProducerListener;
+import org.springframework.kafka.core.ProducerFactory;
 import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
 import org.springframework.kafka.listener.DefaultErrorHandler;
 import org.springframework.kafka.support.ExponentialBackOffWithMaxRetries;
+import org.springframework.kafka.support.serializer.DelegatingByTypeSerializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
 import org.springframework.util.backoff.FixedBackOff;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import info.mouts.orderservice.dto.OrderProcessedEventDTO;
+import info.mouts.orderservice.kafka.OrderProcessedEventSerializer;
+import info.mouts.orderservice.kafka.TimedDeserializer;
+import info.mouts.orderservice.monitoring.IngestStage;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 
 @Configuration
@@ -39,6 +64,18 @@ public class KafkaConfig {
     @Value("${app.kafka.dlt-orders-topic}")
     private String deadLetterTopic;
 
+    @Value("${app.kafka.processed-events-producer.compression-type:lz4}")
+    private String processedEventsCompressionType;
+
+    @Value("${app.kafka.processed-events-producer.linger:10ms}")
+    private Duration processedEventsLinger;
+
+    @Value("${app.kafka.processed-events-producer.batch-size:131072}")
+    private int processedEventsBatchSize;
+
+    @Value("${app.kafka.processed-events-producer.presized-serializer:true}")
+    private boolean processedEventsPresizedSerializer;
+
     /**
      * Configure a error handler for the kafka listener.
      * Includes retries with exponential backoff and a dead letter topic
@@ -59,6 +96,8 @@ public class KafkaConfig {
 
         DefaultErrorHandler errorHandler = new DefaultErrorHandler(recoverer, backOff);
 
+        // Amounts that do not fit the price columns fail the same way on every attempt
+        errorHandler.addNotRetryableExceptions(ArithmeticException.class);
         errorHandler.setLogLevel(Level.WARN);
 
         log.info("Configured Kafka DefaultErrorHandler with {} max retries and DLT: {}",
@@ -104,4 +143,126 @@ public class KafkaConfig {
         factory.setCommonErrorHandler(errorHandler);
         return factory;
     }
+
+    /**
+     * Configure a batch kafka listener container factory for the orders topic.
+     * It is configured like the default container factory (including the
+     * {@link #kafkaErrorHandler()}), but hands the whole poll to the listener.
+     * 
+     * @param configurer           The Spring Boot container factory configurer.
+     * @param kafkaConsumerFactory The consumer factory of the orders topic.
+     * @return The configured ConcurrentKafkaListenerContainerFactory
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<Object, Object> batchKafkaListenerContainerFactory(
+            ConcurrentKafkaListenerContainerFactoryConfigurer configurer,
+            ConsumerFactory<Object, Object> kafkaConsumerFactory) {
+        ConcurrentKafkaListenerContainerFactory<Object, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        configurer.configure(factory, kafkaConsumerFactory);
+
+        factory.setBatchListener(true);
+        return factory;
+    }
+
+    /**
+     * Configure a consumer factory for the orders topic, from the
+     * {@code spring.kafka.consumer} properties, used by the default and the
+     * batch kafka listener container factories. Spring Boot does not create
+     * its own, since the {@link #dltConsumerFactory()} is defined.
+     * <p>
+     * The configured value deserializer is wrapped in a
+     * {@link TimedDeserializer}, configured from the same properties, to time
+     * the deserialization of each record as the {@code deserialize}
+     * {@link IngestStage}.
+     * </p>
+     *
+     * @param kafkaProperties The Spring Boot kafka properties.
+     * @param meterRegistry   The registry for collecting the timings.
+     * @return The configured ConsumerFactory
+     */
+    @Bean
+    public ConsumerFactory<Object, Object> kafkaConsumerFactory(KafkaProperties kafkaProperties,
+            MeterRegistry meterRegistry) {
+        DefaultKafkaConsumerFactory<Object, Object> factory = new DefaultKafkaConsumerFactory<>(
+                kafkaProperties.buildConsumerProperties(null));
+
+        Class<?> valueDeserializer = kafkaProperties.getConsumer().getValueDeserializer();
+        if (valueDeserializer != null) {
+            Timer deserializationTimer = IngestStage.DESERIALIZE.timer(meterRegistry);
+
+            factory.setValueDeserializerSupplier(() -> new TimedDeserializer<>(
+                    instantiateDeserializer(valueDeserializer), deserializationTimer));
+        }
+
+        return factory;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Deserializer<Object> instantiateDeserializer(Class<?> deserializerClass) {
+        return (Deserializer<Object>) BeanUtils.instantiateClass(deserializerClass);
+    }
+
+    /**
+     * Configure a producer factory dedicated to the processed orders topic.
+     * It is tuned for throughput rather than latency: idempotent with acks=all,
+     * compressed, and lingering to build larger batches. It reports its own
+     * producer metrics, tagged with {@code producer=processed-events}.
+     * <p>
+     * Values of type {@code byte[]} (already serialized payloads, such as the
+     * ones from the outbox) are sent as is, and {@link OrderProcessedEventDTO}s
+     * are serialized by the {@link OrderProcessedEventSerializer} or, when
+     * {@code app.kafka.processed-events-producer.presized-serializer} is false,
+     * by the generic {@link JsonSerializer}.
+     * </p>
+     * It is not a default candidate, so it does not replace the producer factory
+     * auto-configured by Spring Boot.
+     *
+     * @param kafkaProperties The Spring Boot kafka properties.
+     * @param objectMapper    The object mapper used to serialize the events.
+     * @param meterRegistry   The registry for collecting the producer metrics.
+     * @return The configured ProducerFactory
+     */
+    @Bean(defaultCandidate = false)
+    public ProducerFactory<String, Object> processedEventsProducerFactory(KafkaProperties kafkaProperties,
+            ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        Map<String, Object> props = kafkaProperties.buildProducerProperties(null);
+        props.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        props.put(ProducerConfig.ACKS_CONFIG, "all");
+        props.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, processedEventsCompressionType);
+        props.put(ProducerConfig.LINGER_MS_CONFIG, (int) processedEventsLinger.toMillis());
+        props.put(ProducerConfig.BATCH_SIZE_CONFIG, processedEventsBatchSize);
+
+        Serializer<?> eventSerializer = processedEventsPresizedSerializer
+                ? new OrderProcessedEventSerializer(objectMapper)
+                : new JsonSerializer<>(objectMapper);
+
+        Map<Class<?>, Serializer<?>> valueSerializers = new LinkedHashMap<>();
+        valueSerializers.put(byte[].class, new ByteArraySerializer());
+        valueSerializers.put(OrderProcessedEventDTO.class, eventSerializer);
+
+        DefaultKafkaProducerFactory<String, Object> factory = new DefaultKafkaProducerFactory<>(props,
+                new StringSerializer(), new DelegatingByTypeSerializer(valueSerializers));
+        factory.addListener(new MicrometerProducerListener<>(meterRegistry,
+                List.of(Tag.of("producer", "processed-events"))));
+
+        log.info("Configured processed events producer with {} compression, {} linger and {} bytes batches",
+                processedEventsCompressionType, processedEventsLinger, processedEventsBatchSize);
+
+        return factory;
+    }
+
+    /**
+     * Configure a kafka template for the processed orders topic, backed by the
+     * {@link #processedEventsProducerFactory}.
+     * It must be injected with the {@code processedEventsKafkaTemplate}
+     * qualifier.
+     *
+     * @param processedEventsProducerFactory The dedicated producer factory.
+     * @return The configured KafkaTemplate
+     */
+    @Bean(defaultCandidate = false)
+    public KafkaTemplate<String, Object> processedEventsKafkaTemplate(
+            @Qualifier("processedEventsProducerFactory") ProducerFactory<String, Object> processedEventsProducerFactory) {
+        return new KafkaTemplate<>(processedEventsProducerFactory);
+    }
 }
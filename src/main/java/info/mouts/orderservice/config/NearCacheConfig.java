@@ -0,0 +1,160 @@
+package info.mouts.orderservice.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.cache.CacheProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import info.mouts.orderservice.cache.CacheInvalidationChannel;
+import info.mouts.orderservice.cache.MultiGetRedisCacheManager;
+import info.mouts.orderservice.cache.RefreshAheadPolicy;
+import info.mouts.orderservice.cache.TwoTierCacheManager;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Replaces the auto-configured Redis cache manager with a
+ * {@link TwoTierCacheManager}, which keeps a bounded in-process copy of the
+ * hottest entries in front of Redis.
+ * It is only active when {@code app.cache.near.enabled} is {@code true};
+ * otherwise {@link CacheConfig} configures a plain
+ * {@link MultiGetRedisCacheManager}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.cache.near.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class NearCacheConfig {
+    @Autowired
+    private ObjectProvider<RedisMessageListenerContainer> cacheInvalidationListenerContainer;
+
+    @Value("${app.cache.near.maximum-size:10000}")
+    private long nearCacheMaximumSize;
+
+    @Value("${app.cache.near.time-to-live:30s}")
+    private Duration nearCacheTimeToLive;
+
+    @Value("${app.cache.near.invalidation-channel:orders-service.cache.invalidation}")
+    private String invalidationChannelName;
+
+    @Value("${app.cache.near.refresh-ahead.enabled:false}")
+    private boolean refreshAheadEnabled;
+
+    @Value("${app.cache.near.refresh-ahead.window:1m}")
+    private Duration refreshAheadWindow;
+
+    /**
+     * Configure the channel used to broadcast invalidations of the in-process
+     * caches.
+     *
+     * @param redisTemplate The Redis template used to publish invalidations.
+     * @return The configured CacheInvalidationChannel
+     */
+    @Bean
+    public CacheInvalidationChannel cacheInvalidationChannel(StringRedisTemplate redisTemplate) {
+        return new CacheInvalidationChannel(redisTemplate, invalidationChannelName);
+    }
+
+    /**
+     * Configure the cache manager used by the caching annotations.
+     * The Redis tier is a {@link MultiGetRedisCacheManager} with the same
+     * configuration as the auto-configured one, and each in-process tier holds at most
+     * {@code app.cache.near.maximum-size} entries for
+     * {@code app.cache.near.time-to-live}.
+     * When {@code app.cache.near.refresh-ahead.enabled} is {@code true}, entries
+     * read within {@code app.cache.near.refresh-ahead.window} of their Redis
+     * expiration are reloaded in the background.
+     *
+     * @param connectionFactory   The Redis connection factory.
+     * @param redisTemplate       The Redis template used to look up the time to
+     *                            live of the entries.
+     * @param cacheConfiguration  The configuration of the Redis caches.
+     * @param cacheProperties     The {@code spring.cache} properties.
+     * @param invalidationChannel The channel used to broadcast invalidations.
+     * @param meterRegistry       The registry for collecting metrics.
+     * @return The configured TwoTierCacheManager
+     */
+    @Bean
+    public TwoTierCacheManager cacheManager(RedisConnectionFactory connectionFactory,
+            StringRedisTemplate redisTemplate, RedisCacheConfiguration cacheConfiguration,
+            CacheProperties cacheProperties, CacheInvalidationChannel invalidationChannel,
+            MeterRegistry meterRegistry) {
+        MultiGetRedisCacheManager redisCacheManager = new MultiGetRedisCacheManager(connectionFactory,
+                cacheConfiguration, cacheProperties.getCacheNames());
+        redisCacheManager.afterPropertiesSet();
+
+        Caffeine<Object, Object> localCacheBuilder = Caffeine.newBuilder()
+                .maximumSize(nearCacheMaximumSize)
+                .expireAfterWrite(nearCacheTimeToLive);
+
+        RefreshAheadPolicy refreshAheadPolicy = null;
+        Duration timeToLive = cacheProperties.getRedis().getTimeToLive();
+
+        if (refreshAheadEnabled && timeToLive != null) {
+            SimpleAsyncTaskExecutor refreshExecutor = new SimpleAsyncTaskExecutor("cache-refresh-");
+            refreshExecutor.setVirtualThreads(true);
+
+            refreshAheadPolicy = new RefreshAheadPolicy(redisTemplate, cacheConfiguration, timeToLive,
+                    refreshAheadWindow, refreshExecutor);
+        }
+
+        return new TwoTierCacheManager(redisCacheManager, localCacheBuilder, invalidationChannel, refreshAheadPolicy,
+                meterRegistry);
+    }
+
+    /**
+     * Configure the container that delivers the invalidations published by
+     * other instances to the cache manager.
+     * It is started once the application is ready, so an unavailable Redis
+     * does not prevent the application from starting.
+     *
+     * @param connectionFactory   The Redis connection factory.
+     * @param cacheManager        The cache manager that handles the
+     *                            invalidations.
+     * @param invalidationChannel The channel the invalidations are published to.
+     * @return The configured RedisMessageListenerContainer
+     */
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory connectionFactory,
+            TwoTierCacheManager cacheManager, CacheInvalidationChannel invalidationChannel) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer() {
+            @Override
+            public boolean isAutoStartup() {
+                // Started by startCacheInvalidationListener
+                return false;
+            }
+        };
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(cacheManager, new ChannelTopic(invalidationChannel.getChannel()));
+        return container;
+    }
+
+    /**
+     * Subscribes to the invalidations published by other instances.
+     * If Redis is unavailable, the in-process caches only rely on their time to
+     * live to drop entries changed by other instances.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void startCacheInvalidationListener() {
+        try {
+            cacheInvalidationListenerContainer.getObject().start();
+        } catch (Exception e) {
+            log.warn("Failed to subscribe to cache invalidations, local cache entries will only expire after {}: {}",
+                    nearCacheTimeToLive, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package info.mouts.orderservice.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import info.mouts.orderservice.event.OrderStatusBroadcaster;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Configures the {@link OrderStatusBroadcaster} behind the order status
+ * streams, and its subscription to the changes published by every instance.
+ */
+@Configuration
+@Slf4j
+public class OrderStatusStreamConfig {
+    @Autowired
+    private ObjectProvider<RedisMessageListenerContainer> orderStatusListenerContainer;
+
+    @Value("${app.order-status-stream.channel:orders-service.order-status}")
+    private String channelName;
+
+    @Value("${app.order-status-stream.buffer-size:16}")
+    private int bufferSize;
+
+    @Value("${app.order-status-stream.timeout:5m}")
+    private Duration timeout;
+
+    /**
+     * Configure the broadcaster of order status changes.
+     * Changes are sent to each subscriber on a virtual thread, with at most
+     * {@code app.order-status-stream.buffer-size} changes waiting per
+     * subscriber.
+     *
+     * @param redisTemplate The Redis template used to publish the changes.
+     * @param objectMapper  The object mapper used to serialize the changes.
+     * @param meterRegistry The registry for collecting metrics.
+     * @return The configured OrderStatusBroadcaster
+     */
+    @Bean
+    public OrderStatusBroadcaster orderStatusBroadcaster(StringRedisTemplate redisTemplate,
+            ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        SimpleAsyncTaskExecutor senderExecutor = new SimpleAsyncTaskExecutor("order-status-stream-");
+        senderExecutor.setVirtualThreads(true);
+
+        return new OrderStatusBroadcaster(redisTemplate, objectMapper, senderExecutor, meterRegistry, channelName,
+                bufferSize, timeout);
+    }
+
+    /**
+     * Configure the container that delivers the status changes published by
+     * every instance to the broadcaster.
+     * It is started once the application is ready, so an unavailable Redis
+     * does not prevent the application from starting.
+     *
+     * @param connectionFactory      The Redis connection factory.
+     * @param orderStatusBroadcaster The broadcaster that handles the changes.
+     * @return The configured RedisMessageListenerContainer
+     */
+    @Bean
+    public RedisMessageListenerContainer orderStatusListenerContainer(RedisConnectionFactory connectionFactory,
+            OrderStatusBroadcaster orderStatusBroadcaster) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer() {
+            @Override
+            public boolean isAutoStartup() {
+                // Started by startOrderStatusListener
+                return false;
+            }
+        };
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(orderStatusBroadcaster, new ChannelTopic(orderStatusBroadcaster.getChannel()));
+        return container;
+    }
+
+    /**
+     * Subscribes to the status changes published by every instance.
+     * If Redis is unavailable, status streams only receive the changes made by
+     * this instance.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void startOrderStatusListener() {
+        try {
+            orderStatusListenerContainer.getObject().start();
+        } catch (Exception e) {
+            log.warn("Failed to subscribe to order status changes, streams will only receive local changes: {}",
+                    e.getMessage());
+        }
+    }
+}
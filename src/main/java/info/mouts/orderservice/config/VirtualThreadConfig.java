@@ -0,0 +1,110 @@
+package info.mouts.orderservice.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.kafka.config.AbstractKafkaListenerContainerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+
+import info.mouts.orderservice.monitoring.VirtualThreadPinningEndpoint;
+import info.mouts.orderservice.monitoring.VirtualThreadPinningMonitor;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Completes the virtual thread mode enabled by
+ * {@code spring.threads.virtual.enabled}.
+ * <p>
+ * Spring Boot already runs the Tomcat workers, the scheduler and the Kafka
+ * listener containers it configures on virtual threads. This configuration
+ * also covers the container factories built by hand, such as the one of the
+ * dead letter topic, runs the Kafka send callbacks off the producer I/O thread,
+ * and records where virtual threads get pinned.
+ * </p>
+ * It is only active when virtual threads are enabled.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+@Slf4j
+public class VirtualThreadConfig {
+    /**
+     * Configure a post-processor that gives the Kafka listener container
+     * factories without a listener task executor one that starts a virtual
+     * thread per consumer.
+     * Factories already configured with an executor are left untouched.
+     *
+     * @return The configured BeanPostProcessor
+     */
+    @Bean
+    public static BeanPostProcessor virtualThreadKafkaListenerExecutorPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof AbstractKafkaListenerContainerFactory<?, ?, ?> factory) {
+                    ContainerProperties containerProperties = factory.getContainerProperties();
+
+                    if (containerProperties.getListenerTaskExecutor() == null) {
+                        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(beanName + "-");
+                        executor.setVirtualThreads(true);
+                        containerProperties.setListenerTaskExecutor(executor);
+
+                        log.info("Configured {} to run its consumers on virtual threads", beanName);
+                    }
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * Configure an executor for the callbacks of Kafka sends.
+     * Callbacks otherwise run on the producer I/O thread, where any blocking
+     * delays every other send of the producer.
+     *
+     * @return The configured SimpleAsyncTaskExecutor
+     */
+    @Bean
+    public SimpleAsyncTaskExecutor kafkaCallbackExecutor() {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("kafka-callback-");
+        executor.setVirtualThreads(true);
+        return executor;
+    }
+
+    /**
+     * Configure a monitor that records, through JFR, virtual threads blocking
+     * while pinned to their carrier.
+     * It is only active when {@code app.threads.pinning-monitor.enabled} is
+     * {@code true}.
+     *
+     * @param meterRegistry The registry for collecting metrics.
+     * @param threshold     How long a virtual thread must stay pinned to be
+     *                      recorded.
+     * @return The configured VirtualThreadPinningMonitor
+     */
+    @Bean
+    @ConditionalOnProperty(name = "app.threads.pinning-monitor.enabled", havingValue = "true", matchIfMissing = true)
+    public VirtualThreadPinningMonitor virtualThreadPinningMonitor(MeterRegistry meterRegistry,
+            @Value("${app.threads.pinning-monitor.threshold:20ms}") Duration threshold) {
+        return new VirtualThreadPinningMonitor(meterRegistry, threshold);
+    }
+
+    /**
+     * Configure the actuator endpoint reporting the pinning recorded by the
+     * {@link VirtualThreadPinningMonitor}.
+     *
+     * @param pinningMonitor The monitor recording the pinning events.
+     * @return The configured VirtualThreadPinningEndpoint
+     */
+    @Bean
+    @ConditionalOnProperty(name = "app.threads.pinning-monitor.enabled", havingValue = "true", matchIfMissing = true)
+    public VirtualThreadPinningEndpoint virtualThreadPinningEndpoint(VirtualThreadPinningMonitor pinningMonitor) {
+        return new VirtualThreadPinningEndpoint(pinningMonitor);
+    }
+}
@@ -1,30 +1,56 @@
 package info.mouts.orderservice.controller;
 
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.data.web.PagedResourcesAssembler;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.LinkRelation;
 import org.springframework.hateoas.MediaTypes;
 import org.springframework.hateoas.PagedModel;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.ETag;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ProblemDetail;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import info.mouts.orderservice.domain.Order;
 import info.mouts.orderservice.domain.OrderItem;
+import info.mouts.orderservice.domain.OrderStatus;
+import info.mouts.orderservice.dto.OrderCursor;
+import info.mouts.orderservice.dto.OrderExportFormat;
 import info.mouts.orderservice.dto.OrderItemResponseDTO;
 import info.mouts.orderservice.dto.OrderResponseDTO;
+import info.mouts.orderservice.dto.OrderSearchCriteria;
+import info.mouts.orderservice.dto.OrderStatusChange;
+import info.mouts.orderservice.dto.OrderSummary;
+import info.mouts.orderservice.dto.OrderVersion;
+import info.mouts.orderservice.event.OrderStatusBroadcaster;
+import info.mouts.orderservice.exception.TooManyOrderIdsException;
 import info.mouts.orderservice.mapper.OrderMapper;
+import info.mouts.orderservice.service.OrderExportService;
 import info.mouts.orderservice.service.OrderItemService;
 import info.mouts.orderservice.service.OrderService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -36,21 +62,28 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.extern.slf4j.Slf4j;
 
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.*;
-
 /**
  * REST controller for managing and retrieving {@link Order} information.
  * Provides endpoints to list orders, get specific orders, and retrieve items
  * associated with an order.
- * Uses HATEOAS to provide navigational links in responses.
+ * Uses HATEOAS to provide navigational links in responses, built with
+ * {@link OrderLinks}.
  */
 @RestController
 @RequestMapping("/api/v1/orders")
 @Tag(name = "Orders API", description = "Endpoints for retrieving orders and their items")
 @Slf4j
 public class OrderController {
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
+    private static final int MAX_BATCH_ORDER_IDS = 100;
+    private static final LinkRelation ORDER_REL = LinkRelation.of("order");
+    private static final LinkRelation ITEMS_REL = LinkRelation.of("items");
+    private static final LinkRelation ITEM_REL = LinkRelation.of("item");
+
     private final OrderService orderService;
     private final OrderItemService orderItemService;
+    private final OrderExportService orderExportService;
+    private final OrderStatusBroadcaster orderStatusBroadcaster;
 
     private final PagedResourcesAssembler<OrderResponseDTO> pagedResourcesAssembler;
 
@@ -61,14 +94,19 @@ public class OrderController {
      *
      * @param orderService            Service for order-related operations.
      * @param orderItemService        Service for order item-related operations.
+     * @param orderExportService      Service for streaming order exports.
+     * @param orderStatusBroadcaster  Broadcaster of order status changes.
      * @param orderMapper             Mapper for converting between entities and
      *                                DTOs.
      * @param pagedResourcesAssembler Assembler for creating HATEOAS PagedModel.
      */
-    public OrderController(OrderService orderService, OrderItemService orderItemService, OrderMapper orderMapper,
-            PagedResourcesAssembler<OrderResponseDTO> pagedResourcesAssembler) {
+    public OrderController(OrderService orderService, OrderItemService orderItemService,
+            OrderExportService orderExportService, OrderStatusBroadcaster orderStatusBroadcaster,
+            OrderMapper orderMapper, PagedResourcesAssembler<OrderResponseDTO> pagedResourcesAssembler) {
         this.orderService = orderService;
         this.orderItemService = orderItemService;
+        this.orderExportService = orderExportService;
+        this.orderStatusBroadcaster = orderStatusBroadcaster;
         this.orderMapper = orderMapper;
         this.pagedResourcesAssembler = pagedResourcesAssembler;
     }
@@ -78,6 +116,10 @@ public class OrderController {
      * Retrieves a paginated list of all orders.
      * </p>
      * <p>
+     * Orders are read as {@link OrderSummary} rows holding only the listed
+     * columns, so no order entity is loaded.
+     * </p>
+     * <p>
      * Uses HATEOAS to provide navigational links in responses.
      * </p>
      * 
@@ -93,15 +135,160 @@ public class OrderController {
     })
     public ResponseEntity<PagedModel<EntityModel<OrderResponseDTO>>> findAllOrders(
             @Parameter(hidden = true) @PageableDefault(size = 10, sort = "createdAt", direction = Sort.Direction.DESC) Pageable pageable) {
-        Page<Order> orders = orderService.findAll(pageable);
+        Page<OrderSummary> orders = orderService.findAllSummaries(pageable);
 
+        OrderLinks links = OrderLinks.fromCurrentRequest();
         Page<OrderResponseDTO> orderResponseDTOs = orders.map(orderMapper::toOrderResponseDto);
-        orderResponseDTOs.forEach(dto -> dto.add(
-                linkTo(methodOn(OrderController.class).findByOrderId(dto.getId())).withSelfRel()));
+        orderResponseDTOs.forEach(dto -> dto.add(links.order(dto.getId())));
 
         return ResponseEntity.ok(pagedResourcesAssembler.toModel(orderResponseDTOs));
     }
 
+    /**
+     * <p>
+     * Retrieves a page of orders, newest first, starting after an opaque cursor.
+     * </p>
+     * <p>
+     * Unlike {@link #findAllOrders(Pageable)}, the page is found by seeking on
+     * the creation timestamp and ID of the last order of the previous page, so
+     * its latency does not grow with the depth, and no count query is run.
+     * The {@code next} link carries the cursor of the following page and is only
+     * present when there is one.
+     * </p>
+     *
+     * @param cursor The cursor from a previous {@code next} link, or null for the
+     *               first page.
+     * @param size   The page size, capped at 100.
+     * @return A {@link ResponseEntity} containing a {@link CollectionModel} of
+     *         {@link OrderResponseDTO}s with HATEOAS links (self, next).
+     */
+    @GetMapping(value = "/cursor", produces = { MediaTypes.HAL_JSON_VALUE })
+    @Operation(summary = "Get Orders by Cursor", description = "Retrieves a page of orders, newest first, starting after the given cursor.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Orders retrieved successfully", content = @Content(mediaType = MediaTypes.HAL_JSON_VALUE, schema = @Schema(implementation = CollectionModel.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor", content = @Content(mediaType = MediaType.APPLICATION_PROBLEM_JSON_VALUE, schema = @Schema(implementation = ProblemDetail.class))),
+            @ApiResponse(responseCode = "500", description = "Internal Server Error", content = @Content(mediaType = MediaType.APPLICATION_PROBLEM_JSON_VALUE, schema = @Schema(implementation = ProblemDetail.class)))
+    })
+    public ResponseEntity<CollectionModel<OrderResponseDTO>> findAllOrdersByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size) {
+        int pageSize = Math.clamp(size, 1, MAX_CURSOR_PAGE_SIZE);
+        Window<OrderSummary> orders = orderService.findAllAfter(cursor == null ? null : OrderCursor.decode(cursor),
+                pageSize);
+
+        OrderLinks links = OrderLinks.fromCurrentRequest();
+        List<OrderResponseDTO> responseDTOs = orders.map(orderMapper::toOrderResponseDto).getContent();
+        responseDTOs.forEach(dto -> dto.add(links.order(dto.getId())));
+
+        CollectionModel<OrderResponseDTO> collectionModel = CollectionModel.of(responseDTOs);
+
+        collectionModel.add(links.cursorPage(cursor, pageSize, IanaLinkRelations.SELF));
+
+        if (orders.hasNext()) {
+            String nextCursor = OrderCursor.of(orders.getContent().getLast()).encode();
+            collectionModel.add(links.cursorPage(nextCursor, pageSize, IanaLinkRelations.NEXT));
+        }
+
+        return ResponseEntity.ok(collectionModel);
+    }
+
+    /**
+     * <p>
+     * Searches orders by status, creation date range and product, newest first,
+     * starting after an opaque cursor.
+     * </p>
+     * <p>
+     * Every filter is optional and the orders must match all of the given ones.
+     * Pages are found by seeking like {@link #findAllOrdersByCursor}, on
+     * indexes matching each filter, and the {@code next} link carries the same
+     * filters and the cursor of the following page.
+     * </p>
+     *
+     * @param status    The status of the orders.
+     * @param productId The ID of a product the orders must contain.
+     * @param from      The start of the creation date range (inclusive).
+     * @param to        The end of the creation date range (exclusive).
+     * @param cursor    The cursor from a previous {@code next} link, or null for
+     *                  the first page.
+     * @param size      The page size, capped at 100.
+     * @return A {@link ResponseEntity} containing a {@link CollectionModel} of
+     *         {@link OrderResponseDTO}s with HATEOAS links (self, next).
+     */
+    @GetMapping(value = "/search", produces = { MediaTypes.HAL_JSON_VALUE })
+    @Operation(summary = "Search Orders", description = "Retrieves a page of orders, newest first, filtered by status, creation date range and product.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Orders retrieved successfully", content = @Content(mediaType = MediaTypes.HAL_JSON_VALUE, schema = @Schema(implementation = CollectionModel.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid filter, date range or cursor", content = @Content(mediaType = MediaType.APPLICATION_PROBLEM_JSON_VALUE, schema = @Schema(implementation = ProblemDetail.class))),
+            @ApiResponse(responseCode = "500", description = "Internal Server Error", content = @Content(mediaType = MediaType.APPLICATION_PROBLEM_JSON_VALUE, schema = @Schema(implementation = ProblemDetail.class)))
+    })
+    public ResponseEntity<CollectionModel<OrderResponseDTO>> searchOrders(
+            @RequestParam(required = false) OrderStatus status,
+            @RequestParam(required = false) String productId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size) {
+        int pageSize = Math.clamp(size, 1, MAX_CURSOR_PAGE_SIZE);
+        OrderSearchCriteria criteria = new OrderSearchCriteria(status, productId, from, to);
+        Window<OrderSummary> orders = orderService.search(criteria,
+                cursor == null ? null : OrderCursor.decode(cursor), pageSize);
+
+        OrderLinks links = OrderLinks.fromCurrentRequest();
+        List<OrderResponseDTO> responseDTOs = orders.map(orderMapper::toOrderResponseDto).getContent();
+        responseDTOs.forEach(dto -> dto.add(links.order(dto.getId())));
+
+        CollectionModel<OrderResponseDTO> collectionModel = CollectionModel.of(responseDTOs);
+
+        collectionModel.add(links.searchPage(criteria, cursor, pageSize, IanaLinkRelations.SELF));
+
+        if (orders.hasNext()) {
+            String nextCursor = OrderCursor.of(orders.getContent().getLast()).encode();
+            collectionModel.add(links.searchPage(criteria, nextCursor, pageSize, IanaLinkRelations.NEXT));
+        }
+
+        return ResponseEntity.ok(collectionModel);
+    }
+
+    /**
+     * <p>
+     * Exports every order created within a date range, oldest first, as NDJSON
+     * or CSV.
+     * </p>
+     * <p>
+     * The orders are written to the response as they are read from the
+     * database, so the export uses the same memory whatever the number of
+     * orders.
+     * </p>
+     *
+     * @param from   The start of the creation date range (inclusive).
+     * @param to     The end of the creation date range (exclusive).
+     * @param format The export format (defaults to NDJSON).
+     * @return A {@link ResponseEntity} streaming the exported orders as an
+     *         attachment.
+     */
+    @GetMapping(value = "/export", produces = { MediaType.APPLICATION_NDJSON_VALUE, "text/csv" })
+    @Operation(summary = "Export Orders", description = "Streams every order created within a date range as NDJSON or CSV.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Orders exported successfully", content = {
+                    @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE),
+                    @Content(mediaType = "text/csv") }),
+            @ApiResponse(responseCode = "400", description = "Invalid date or format", content = @Content(mediaType = MediaType.APPLICATION_PROBLEM_JSON_VALUE, schema = @Schema(implementation = ProblemDetail.class))),
+            @ApiResponse(responseCode = "500", description = "Internal Server Error", content = @Content(mediaType = MediaType.APPLICATION_PROBLEM_JSON_VALUE, schema = @Schema(implementation = ProblemDetail.class)))
+    })
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "NDJSON") OrderExportFormat format) {
+        StreamingResponseBody body = outputStream -> orderExportService.exportOrders(from, to, format, outputStream);
+        String fileName = "orders-" + from.toLocalDate() + "-" + to.toLocalDate() + "." + format.getFileExtension();
+
+        return ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(fileName).build().toString())
+                .body(body);
+    }
+
     /**
      * <p>
      * Retrieves an order by its unique ID.
@@ -109,8 +296,19 @@ public class OrderController {
      * <p>
      * Uses HATEOAS to provide navigational links in responses.
      * </p>
+     * <p>
+     * The response carries a strong {@code ETag} derived from the order ID and
+     * version, and a {@code Last-Modified} header, both taken from the same copy
+     * of the order as the body. Conditional requests are validated against the
+     * cached order, and answered with 304 Not Modified without serializing it
+     * when the client copy is current. When the validators do not match, only
+     * the version of the order is read from the database, and the order is
+     * reloaded and its cached copy replaced only when that version differs, so
+     * a stale cache entry is never served.
+     * </p>
      * 
      * @param orderId The UUID of the order to retrieve.
+     * @param request The current request, used to validate conditional headers.
      * @return A {@link ResponseEntity} containing the {@link OrderResponseDTO} with
      *         HATEOAS links (self, items).
      */
@@ -118,20 +316,96 @@ public class OrderController {
     @Operation(summary = "Get an Order by ID", description = "Retrieves an order by its unique ID.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Order retrieved successfully", content = @Content(mediaType = MediaTypes.HAL_JSON_VALUE, schema = @Schema(implementation = OrderResponseDTO.class))),
+            @ApiResponse(responseCode = "304", description = "Order not modified since the client copy", content = @Content),
             @ApiResponse(responseCode = "400", description = "Invalid UUID", content = @Content(mediaType = MediaType.APPLICATION_PROBLEM_JSON_VALUE, schema = @Schema(implementation = ProblemDetail.class))),
             @ApiResponse(responseCode = "404", description = "Order not found for the given ID", content = @Content(mediaType = MediaType.APPLICATION_PROBLEM_JSON_VALUE, schema = @Schema(implementation = ProblemDetail.class))),
             @ApiResponse(responseCode = "500", description = "Internal Server Error", content = @Content(mediaType = MediaType.APPLICATION_PROBLEM_JSON_VALUE, schema = @Schema(implementation = ProblemDetail.class)))
     })
-    public ResponseEntity<OrderResponseDTO> findByOrderId(@PathVariable UUID orderId) {
-        Order order = orderService.findByOrderId(orderId);
+    public ResponseEntity<OrderResponseDTO> findByOrderId(@PathVariable UUID orderId, WebRequest request) {
+        Order order = findCurrentOrder(orderId, request, OrderVersion::eTag);
+        OrderVersion version = OrderVersion.of(order);
+
+        if (request.checkNotModified(version.eTag(), version.lastModified())) {
+            return null;
+        }
+
         OrderResponseDTO responseDTO = orderMapper.toOrderResponseDto(order);
+        OrderLinks links = OrderLinks.fromCurrentRequest();
 
-        responseDTO.add(linkTo(methodOn(OrderController.class).findByOrderId(orderId)).withSelfRel());
-        responseDTO.add(linkTo(methodOn(OrderController.class).findOrderItems(orderId)).withRel("items"));
+        responseDTO.add(links.order(orderId));
+        responseDTO.add(links.items(orderId, ITEMS_REL));
 
         return ResponseEntity.ok(responseDTO);
     }
 
+    /**
+     * <p>
+     * Streams the status changes of an order as Server-Sent Events, instead of
+     * polling the order until it is processed.
+     * </p>
+     * <p>
+     * The current status is sent first, as a {@code status} event, followed by
+     * every change made on any instance. The stream completes once the order
+     * reaches a terminal status (PROCESSED, FAILED or CANCELLED), or after a
+     * timeout, in which case clients should reconnect.
+     * </p>
+     *
+     * @param orderId The UUID of the order to follow.
+     * @return The {@link SseEmitter} streaming {@link OrderStatusChange}s.
+     */
+    @GetMapping(value = "/{orderId}/status-stream", produces = { MediaType.TEXT_EVENT_STREAM_VALUE })
+    @Operation(summary = "Stream the Status of an Order", description = "Streams the status changes of an order as Server-Sent Events until it reaches a terminal status.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Status stream opened", content = @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE, schema = @Schema(implementation = OrderStatusChange.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid UUID", content = @Content(mediaType = MediaType.APPLICATION_PROBLEM_JSON_VALUE, schema = @Schema(implementation = ProblemDetail.class))),
+            @ApiResponse(responseCode = "404", description = "Order not found for the given ID", content = @Content(mediaType = MediaType.APPLICATION_PROBLEM_JSON_VALUE, schema = @Schema(implementation = ProblemDetail.class))),
+            @ApiResponse(responseCode = "500", description = "Internal Server Error", content = @Content(mediaType = MediaType.APPLICATION_PROBLEM_JSON_VALUE, schema = @Schema(implementation = ProblemDetail.class)))
+    })
+    public SseEmitter streamOrderStatus(@PathVariable UUID orderId) {
+        return orderStatusBroadcaster.subscribe(orderId,
+                () -> OrderStatusChange.of(orderService.findByOrderId(orderId)));
+    }
+
+    /**
+     * <p>
+     * Retrieves many orders by their unique IDs in a single request.
+     * </p>
+     * <p>
+     * The orders are looked up in the cache all at once and only the misses are
+     * loaded from the database, with a single query. IDs without an order are
+     * left out of the response.
+     * </p>
+     *
+     * @param ids The UUIDs of the orders to retrieve, at most 100.
+     * @return A {@link ResponseEntity} containing a {@link CollectionModel} of
+     *         the found {@link OrderResponseDTO}s with HATEOAS links (self).
+     */
+    @GetMapping(value = "/batch", produces = { MediaTypes.HAL_JSON_VALUE })
+    @Operation(summary = "Get Orders by IDs", description = "Retrieves up to 100 orders by their unique IDs in a single request.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Orders retrieved successfully", content = @Content(mediaType = MediaTypes.HAL_JSON_VALUE, schema = @Schema(implementation = CollectionModel.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid UUID or too many IDs", content = @Content(mediaType = MediaType.APPLICATION_PROBLEM_JSON_VALUE, schema = @Schema(implementation = ProblemDetail.class))),
+            @ApiResponse(responseCode = "500", description = "Internal Server Error", content = @Content(mediaType = MediaType.APPLICATION_PROBLEM_JSON_VALUE, schema = @Schema(implementation = ProblemDetail.class)))
+    })
+    public ResponseEntity<CollectionModel<OrderResponseDTO>> findByOrderIds(@RequestParam List<UUID> ids) {
+        Set<UUID> orderIds = new LinkedHashSet<>(ids);
+
+        if (orderIds.size() > MAX_BATCH_ORDER_IDS) {
+            throw new TooManyOrderIdsException(orderIds.size(), MAX_BATCH_ORDER_IDS);
+        }
+
+        List<Order> orders = orderService.findByOrderIds(orderIds);
+        List<OrderResponseDTO> responseDTOs = orderMapper.toOrderResponseDtoList(orders);
+        OrderLinks links = OrderLinks.fromCurrentRequest();
+
+        responseDTOs.forEach(dto -> dto.add(links.order(dto.getId())));
+
+        CollectionModel<OrderResponseDTO> collectionModel = CollectionModel.of(responseDTOs);
+        collectionModel.add(links.batch(ids, IanaLinkRelations.SELF));
+
+        return ResponseEntity.ok(collectionModel);
+    }
+
     /**
      * <p>
      * Retrieves the list of items associated with a specific order.
@@ -140,7 +414,13 @@ public class OrderController {
      * Uses HATEOAS to provide navigational links in responses.
      * </p>
      * 
+     * <p>
+     * Supports the same conditional requests as {@link #findByOrderId}, with an
+     * entity tag specific to the item list.
+     * </p>
+     * 
      * @param orderId The UUID of the order whose items are to be retrieved.
+     * @param request The current request, used to validate conditional headers.
      * @return A {@link ResponseEntity} containing a {@link CollectionModel} of
      *         {@link OrderItemResponseDTO}s with HATEOAS links (self, order,
      *         individual items).
@@ -149,23 +429,29 @@ public class OrderController {
     @Operation(summary = "Get Items for an Order", description = "Retrieves the list of items associated with a specific order.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Items retrieved successfully", content = @Content(mediaType = MediaTypes.HAL_JSON_VALUE, schema = @Schema(implementation = CollectionModel.class))),
+            @ApiResponse(responseCode = "304", description = "Items not modified since the client copy", content = @Content),
             @ApiResponse(responseCode = "400", description = "Invalid UUID", content = @Content(mediaType = MediaType.APPLICATION_PROBLEM_JSON_VALUE, schema = @Schema(implementation = ProblemDetail.class))),
             @ApiResponse(responseCode = "404", description = "Order not found for the given ID", content = @Content(mediaType = MediaType.APPLICATION_PROBLEM_JSON_VALUE, schema = @Schema(implementation = ProblemDetail.class))),
             @ApiResponse(responseCode = "500", description = "Internal Server Error", content = @Content(mediaType = MediaType.APPLICATION_PROBLEM_JSON_VALUE, schema = @Schema(implementation = ProblemDetail.class)))
     })
-    public ResponseEntity<CollectionModel<OrderItemResponseDTO>> findOrderItems(@PathVariable UUID orderId) {
+    public ResponseEntity<CollectionModel<OrderItemResponseDTO>> findOrderItems(@PathVariable UUID orderId,
+            WebRequest request) {
+        OrderVersion version = OrderVersion.of(findCurrentOrder(orderId, request, current -> current.eTag("items")));
+
+        if (request.checkNotModified(version.eTag("items"), version.lastModified())) {
+            return null;
+        }
+
         List<OrderItem> orderItems = orderItemService.findOrderItemsByOrderId(orderId);
 
+        OrderLinks links = OrderLinks.fromCurrentRequest();
         List<OrderItemResponseDTO> responseDTOs = orderMapper.toOrderItemResponseDtoList(orderItems);
-        responseDTOs.forEach(
-                dto -> dto.add(
-                        linkTo(methodOn(OrderController.class).findOrderItem(orderId,
-                                dto.getId())).withRel("item")));
+        responseDTOs.forEach(dto -> dto.add(links.item(orderId, dto.getId(), ITEM_REL)));
 
         CollectionModel<OrderItemResponseDTO> collectionModel = CollectionModel.of(responseDTOs);
 
-        collectionModel.add(linkTo(methodOn(OrderController.class).findOrderItems(orderId)).withSelfRel());
-        collectionModel.add(linkTo(methodOn(OrderController.class).findByOrderId(orderId)).withRel("order"));
+        collectionModel.add(links.items(orderId, IanaLinkRelations.SELF));
+        collectionModel.add(links.order(orderId, ORDER_REL));
 
         return ResponseEntity.ok(collectionModel);
     }
@@ -178,27 +464,113 @@ public class OrderController {
      * Uses HATEOAS to provide navigational links in responses.
      * </p>
      * 
+     * <p>
+     * Supports the same conditional requests as {@link #findByOrderId}, with an
+     * entity tag specific to the item.
+     * </p>
+     * 
      * @param orderId The UUID of the parent order.
      * @param itemId  The UUID of the specific item to retrieve.
+     * @param request The current request, used to validate conditional headers.
      * @return A {@link ResponseEntity} containing the {@link OrderItemResponseDTO}
      */
     @GetMapping(value = "/{orderId}/items/{itemId}", produces = { MediaTypes.HAL_JSON_VALUE })
     @Operation(summary = "Get an Item for an Order", description = "Retrieves an item by its unique ID.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Item retrieved successfully", content = @Content(mediaType = MediaTypes.HAL_JSON_VALUE, schema = @Schema(implementation = OrderItemResponseDTO.class))),
+            @ApiResponse(responseCode = "304", description = "Item not modified since the client copy", content = @Content),
             @ApiResponse(responseCode = "400", description = "Invalid UUID", content = @Content(mediaType = MediaType.APPLICATION_PROBLEM_JSON_VALUE, schema = @Schema(implementation = ProblemDetail.class))),
             @ApiResponse(responseCode = "404", description = "Item not found for the given ID", content = @Content(mediaType = MediaType.APPLICATION_PROBLEM_JSON_VALUE, schema = @Schema(implementation = ProblemDetail.class))),
             @ApiResponse(responseCode = "500", description = "Internal Server Error", content = @Content(mediaType = MediaType.APPLICATION_PROBLEM_JSON_VALUE, schema = @Schema(implementation = ProblemDetail.class)))
     })
     public ResponseEntity<OrderItemResponseDTO> findOrderItem(@PathVariable UUID orderId,
-            @PathVariable UUID itemId) {
+            @PathVariable UUID itemId, WebRequest request) {
+        OrderVersion version = OrderVersion.of(
+                findCurrentOrder(orderId, request, current -> current.eTag("items/" + itemId)));
+
+        if (request.checkNotModified(version.eTag("items/" + itemId), version.lastModified())) {
+            return null;
+        }
+
         OrderItem orderItem = orderItemService.findByOrderIdAndItemId(orderId, itemId);
         OrderItemResponseDTO responseDTO = orderMapper.toOrderItemResponseDto(orderItem);
+        OrderLinks links = OrderLinks.fromCurrentRequest();
 
-        responseDTO.add(linkTo(methodOn(OrderController.class).findOrderItem(orderId, itemId)).withSelfRel());
-        responseDTO.add(linkTo(methodOn(OrderController.class).findByOrderId(orderId)).withRel("order"));
-        responseDTO.add(linkTo(methodOn(OrderController.class).findOrderItems(orderId)).withRel("items"));
+        responseDTO.add(links.item(orderId, itemId, IanaLinkRelations.SELF));
+        responseDTO.add(links.order(orderId, ORDER_REL));
+        responseDTO.add(links.items(orderId, ITEMS_REL));
 
         return ResponseEntity.ok(responseDTO);
     }
+
+    /**
+     * Returns the order to validate a request against and to build its response
+     * from. The order is taken from the cache; when a conditional request does
+     * not match the cached copy, only the version of the order is read from the
+     * database, and the order is reloaded, and its cached copy replaced, only if
+     * that version differs from the cached one.
+     *
+     * @param orderId The UUID of the order.
+     * @param request The current request.
+     * @param eTag    The entity tag of the requested representation for a
+     *                version of the order.
+     * @return The order.
+     */
+    private Order findCurrentOrder(UUID orderId, WebRequest request, Function<OrderVersion, String> eTag) {
+        Order order = orderService.findByOrderId(orderId);
+        OrderVersion cachedVersion = OrderVersion.of(order);
+
+        if (!isConditional(request)
+                || isNotModified(request, eTag.apply(cachedVersion), cachedVersion.lastModified())) {
+            return order;
+        }
+
+        if (orderService.findVersionByOrderId(orderId).version() != cachedVersion.version()) {
+            order = orderService.refreshByOrderId(orderId);
+        }
+        return order;
+    }
+
+    /**
+     * Checks whether the validators of a request match a version of the order,
+     * without answering the request, which is only validated once against the
+     * order its response is built from. As in {@link WebRequest#checkNotModified},
+     * {@code If-None-Match} takes precedence over {@code If-Modified-Since},
+     * entity tags are compared weakly, and the wildcard matches no version.
+     *
+     * @param request      The current request.
+     * @param eTag         The entity tag of the requested representation.
+     * @param lastModified When the order was last updated, in milliseconds
+     *                     since the epoch, or -1 if unknown.
+     * @return True if the client copy matches the version.
+     */
+    private boolean isNotModified(WebRequest request, String eTag, long lastModified) {
+        String[] ifNoneMatch = request.getHeaderValues(HttpHeaders.IF_NONE_MATCH);
+
+        if (ifNoneMatch != null) {
+            ETag current = ETag.create(eTag);
+
+            return Arrays.stream(ifNoneMatch)
+                    .flatMap(value -> ETag.parse(value).stream())
+                    .anyMatch(tag -> tag.compare(current, false));
+        }
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.IF_MODIFIED_SINCE, request.getHeader(HttpHeaders.IF_MODIFIED_SINCE));
+        long ifModifiedSince = headers.getIfModifiedSince();
+
+        return lastModified >= 0 && ifModifiedSince >= 0 && lastModified / 1000 * 1000 <= ifModifiedSince;
+    }
+
+    /**
+     * Checks whether the request carries a validator of a previous response.
+     *
+     * @param request The current request.
+     * @return True if the request has an {@code If-None-Match} or
+     *         {@code If-Modified-Since} header.
+     */
+    private boolean isConditional(WebRequest request) {
+        return request.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                || request.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null;
+    }
 }
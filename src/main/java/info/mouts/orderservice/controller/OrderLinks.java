@@ -0,0 +1,213 @@
+package info.mouts.orderservice.controller;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.LinkRelation;
+import org.springframework.web.util.UriUtils;
+
+import info.mouts.orderservice.dto.OrderSearchCriteria;
+
+/**
+ * Builds the links of the {@link OrderController} routes from URI templates
+ * parsed once, filling in their variables by plain string substitution.
+ * <p>
+ * {@code linkTo(methodOn(...))} creates a proxy and inspects the invoked
+ * method on every call. Here the routes are known up front, so only the base
+ * URI of the order collection is resolved, once per request, and each link
+ * costs a string concatenation.
+ * </p>
+ */
+public final class OrderLinks {
+    private static final LinkTemplate ORDER = LinkTemplate.parse("{orders}/{orderId}");
+    private static final LinkTemplate ITEMS = LinkTemplate.parse("{orders}/{orderId}/items");
+    private static final LinkTemplate ITEM = LinkTemplate.parse("{orders}/{orderId}/items/{itemId}");
+    private static final LinkTemplate CURSOR_PAGE = LinkTemplate.parse("{orders}/cursor?size={size}");
+    private static final LinkTemplate CURSOR_PAGE_AFTER = LinkTemplate
+            .parse("{orders}/cursor?cursor={cursor}&size={size}");
+    private static final LinkTemplate BATCH = LinkTemplate.parse("{orders}/batch?ids={ids}");
+
+    private final String ordersHref;
+
+    /**
+     * Constructs an instance of {@code OrderLinks}.
+     *
+     * @param ordersHref The URI of the order collection, without a trailing
+     *                   slash.
+     */
+    public OrderLinks(String ordersHref) {
+        this.ordersHref = ordersHref;
+    }
+
+    /**
+     * Returns the links of the current request, resolving the URI of the order
+     * collection from it, including any forwarded host and prefix.
+     *
+     * @return The links of the current request.
+     */
+    public static OrderLinks fromCurrentRequest() {
+        return new OrderLinks(linkTo(OrderController.class).toUri().toString());
+    }
+
+    /**
+     * Returns the link to an order.
+     *
+     * @param orderId The UUID of the order.
+     * @param rel     The relation of the link.
+     * @return The link to the order.
+     */
+    public Link order(UUID orderId, LinkRelation rel) {
+        return Link.of(ORDER.expand(ordersHref, orderId.toString()), rel);
+    }
+
+    /**
+     * Returns the self link of an order.
+     *
+     * @param orderId The UUID of the order.
+     * @return The self link of the order.
+     */
+    public Link order(UUID orderId) {
+        return order(orderId, IanaLinkRelations.SELF);
+    }
+
+    /**
+     * Returns the link to the items of an order.
+     *
+     * @param orderId The UUID of the order.
+     * @param rel     The relation of the link.
+     * @return The link to the items of the order.
+     */
+    public Link items(UUID orderId, LinkRelation rel) {
+        return Link.of(ITEMS.expand(ordersHref, orderId.toString()), rel);
+    }
+
+    /**
+     * Returns the link to an item of an order.
+     *
+     * @param orderId The UUID of the order.
+     * @param itemId  The UUID of the item.
+     * @param rel     The relation of the link.
+     * @return The link to the item.
+     */
+    public Link item(UUID orderId, UUID itemId, LinkRelation rel) {
+        return Link.of(ITEM.expand(ordersHref, orderId.toString(), itemId.toString()), rel);
+    }
+
+    /**
+     * Returns the link to a page of orders read by cursor.
+     *
+     * @param cursor The encoded cursor, or null for the first page. Cursors are
+     *               URL-safe, so they are not encoded again.
+     * @param size   The page size.
+     * @param rel    The relation of the link.
+     * @return The link to the page.
+     */
+    public Link cursorPage(String cursor, int size, LinkRelation rel) {
+        String href = cursor == null
+                ? CURSOR_PAGE.expand(ordersHref, Integer.toString(size))
+                : CURSOR_PAGE_AFTER.expand(ordersHref, cursor, Integer.toString(size));
+
+        return Link.of(href, rel);
+    }
+
+    /**
+     * Returns the link to a page of an order search.
+     * The query only holds the filters that are set, so it has no fixed
+     * template.
+     *
+     * @param criteria The filters of the search.
+     * @param cursor   The encoded cursor, or null for the first page.
+     * @param size     The page size.
+     * @param rel      The relation of the link.
+     * @return The link to the page.
+     */
+    public Link searchPage(OrderSearchCriteria criteria, String cursor, int size, LinkRelation rel) {
+        StringBuilder href = new StringBuilder(ordersHref).append("/search?size=").append(size);
+
+        if (criteria.status() != null) {
+            href.append("&status=").append(criteria.status().name());
+        }
+        if (criteria.productId() != null) {
+            href.append("&productId=").append(UriUtils.encodeQueryParam(criteria.productId(), StandardCharsets.UTF_8));
+        }
+        if (criteria.from() != null) {
+            href.append("&from=").append(criteria.from());
+        }
+        if (criteria.to() != null) {
+            href.append("&to=").append(criteria.to());
+        }
+        if (cursor != null) {
+            href.append("&cursor=").append(cursor);
+        }
+
+        return Link.of(href.toString(), rel);
+    }
+
+    /**
+     * Returns the link to a batch of orders.
+     *
+     * @param orderIds The UUIDs of the orders.
+     * @param rel      The relation of the link.
+     * @return The link to the batch.
+     */
+    public Link batch(Collection<UUID> orderIds, LinkRelation rel) {
+        String ids = orderIds.stream().map(UUID::toString).collect(Collectors.joining(","));
+
+        return Link.of(BATCH.expand(ordersHref, ids), rel);
+    }
+
+    /**
+     * URI template split once into its literal parts, with one variable
+     * between each of them.
+     *
+     * @param literals The literal parts, one more than the variables.
+     * @param length   The total length of the literal parts.
+     */
+    private record LinkTemplate(String[] literals, int length) {
+        static LinkTemplate parse(String template) {
+            List<String> literals = new ArrayList<>();
+            int start = 0;
+            int open;
+
+            while ((open = template.indexOf('{', start)) >= 0) {
+                int close = template.indexOf('}', open);
+
+                if (close < 0) {
+                    throw new IllegalArgumentException("Unclosed variable in link template " + template);
+                }
+                literals.add(template.substring(start, open));
+                start = close + 1;
+            }
+            literals.add(template.substring(start));
+
+            return new LinkTemplate(literals.toArray(String[]::new),
+                    literals.stream().mapToInt(String::length).sum());
+        }
+
+        String expand(String... values) {
+            if (values.length != literals.length - 1) {
+                throw new IllegalArgumentException(
+                        "Expected " + (literals.length - 1) + " link template values but got " + values.length);
+            }
+
+            int capacity = length;
+            for (String value : values) {
+                capacity += value.length();
+            }
+
+            StringBuilder href = new StringBuilder(capacity).append(literals[0]);
+            for (int i = 0; i < values.length; i++) {
+                href.append(values[i]).append(literals[i + 1]);
+            }
+            return href.toString();
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package info.mouts.orderservice.domain;
+
+/**
+ * Represents the status of an idempotency key when a consumer tries to claim
+ * it.
+ */
+public enum IdempotencyStatus {
+    /**
+     * The key did not exist and was claimed by the caller, which is now
+     * responsible for processing the message.
+     */
+    NEW,
+
+    /**
+     * The key is already claimed by another consumer (or a previous attempt) that
+     * is still processing the message.
+     */
+    PROCESSING,
+
+    /**
+     * The message with this key was already processed successfully.
+     */
+    PROCESSED
+}
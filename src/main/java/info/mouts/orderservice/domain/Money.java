@@ -0,0 +1,93 @@
+package info.mouts.orderservice.domain;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Amount of money held as a count of cents, matching the
+ * {@code precision = 10, scale = 2} columns of the orders.
+ * <p>
+ * Arithmetic on it is plain {@code long} arithmetic, so summing the items of
+ * an order allocates nothing, unlike {@link BigDecimal}, where every product
+ * and partial sum is a new object. Amounts are converted from and to
+ * {@link BigDecimal} only where they are read from or written to the
+ * entities.
+ * </p>
+ *
+ * @param minorUnits The amount in cents.
+ */
+public record Money(long minorUnits) {
+    /**
+     * Number of decimal places of the amounts.
+     */
+    public static final int SCALE = 2;
+
+    /**
+     * Largest amount the columns can hold, 99,999,999.99, in cents.
+     */
+    public static final long MAX_MINOR_UNITS = 9_999_999_999L;
+
+    /**
+     * Amount of zero, such as the total of an order without items.
+     */
+    public static final Money ZERO = new Money(0);
+
+    /**
+     * Constructs an instance of {@code Money}.
+     *
+     * @param minorUnits The amount in cents.
+     * @throws ArithmeticException If the amount does not fit the columns.
+     */
+    public Money {
+        checkRange(minorUnits);
+    }
+
+    /**
+     * Converts an amount, rounding it half up to two decimal places the same
+     * way the columns round the amounts written to them.
+     *
+     * @param amount The amount to convert.
+     * @return The amount as {@code Money}.
+     * @throws ArithmeticException If the amount does not fit the columns.
+     */
+    public static Money of(BigDecimal amount) {
+        return new Money(amount.setScale(SCALE, RoundingMode.HALF_UP).movePointRight(SCALE).longValueExact());
+    }
+
+    /**
+     * Multiplies the amount, such as a unit price by a quantity.
+     *
+     * @param multiplier The number to multiply the amount by.
+     * @return The product.
+     * @throws ArithmeticException If the product does not fit the columns.
+     */
+    public Money times(int multiplier) {
+        return new Money(Math.multiplyExact(minorUnits, multiplier));
+    }
+
+    /**
+     * Adds another amount to this one.
+     *
+     * @param other The amount to add.
+     * @return The sum.
+     * @throws ArithmeticException If the sum does not fit the columns.
+     */
+    public Money plus(Money other) {
+        return new Money(Math.addExact(minorUnits, other.minorUnits));
+    }
+
+    /**
+     * Converts the amount to a {@link BigDecimal} with two decimal places.
+     *
+     * @return The amount as a {@link BigDecimal}.
+     */
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+
+    private static void checkRange(long minorUnits) {
+        if (minorUnits > MAX_MINOR_UNITS || minorUnits < -MAX_MINOR_UNITS) {
+            throw new ArithmeticException("Amount of " + minorUnits + " cents exceeds 10 digits");
+        }
+    }
+}
@@ -2,6 +2,7 @@ package info.mouts.orderservice.domain;
 
 import java.io.Serializable;
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -9,19 +10,20 @@ import java.util.UUID;
 
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
+import org.hibernate.annotations.UuidGenerator;
 
+import info.mouts.orderservice.util.UuidV7Generator;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Index;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 import jakarta.persistence.Version;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotEmpty;
@@ -48,11 +50,12 @@ import lombok.ToString;
 @Entity
 @Table(name = "orders", indexes = {
         @Index(name = "idx_order_idempotency_key", columnList = "idempotency_key", unique = true),
-        @Index(name = "idx_order_status", columnList = "status")
+        @Index(name = "idx_order_status_created_at_id", columnList = "status, created_at, id"),
+        @Index(name = "idx_order_created_at_id", columnList = "created_at, id")
 })
 public class Order implements Serializable {
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidGenerator(algorithm = UuidV7Generator.class)
     private UUID id;
 
     @NotBlank(message = "Idempotency key cannot be blank")
@@ -88,6 +91,13 @@ public class Order implements Serializable {
     @Column(name = "failure_reason")
     private String failureReason;
 
+    /**
+     * Timestamp of the Kafka record the order was created from, only known
+     * while it is being processed.
+     */
+    @Transient
+    private Instant receivedAt;
+
     /**
      * Adds an {@link OrderItem} to the order's item list and sets the bidirectional
      * relationship.
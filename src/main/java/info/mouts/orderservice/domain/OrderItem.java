@@ -4,11 +4,12 @@ import java.io.Serializable;
 import java.math.BigDecimal;
 import java.util.UUID;
 
+import org.hibernate.annotations.UuidGenerator;
+
+import info.mouts.orderservice.util.UuidV7Generator;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
@@ -37,11 +38,11 @@ import lombok.EqualsAndHashCode;
 @EqualsAndHashCode(exclude = "order")
 @Entity
 @Table(name = "order_items", indexes = {
-        @Index(name = "idx_orderitem_product_id", columnList = "productId")
+        @Index(name = "idx_orderitem_product_id_order_id", columnList = "product_id, order_id")
 })
 public class OrderItem implements Serializable {
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidGenerator(algorithm = UuidV7Generator.class)
     private UUID id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -35,6 +35,15 @@ public enum OrderStatus {
      * Order has been cancelled after a failure.
      * This is the final state for failed orders.
      */
-    CANCELLED // Order cancelled after failure
+    CANCELLED; // Order cancelled after failure
 
+    /**
+     * Checks whether the order stays in this status, that is, whether it is no
+     * longer waiting for or going through processing.
+     *
+     * @return True for PROCESSED, FAILED and CANCELLED.
+     */
+    public boolean isTerminal() {
+        return this != RECEIVED && this != PROCESSING;
+    }
 }
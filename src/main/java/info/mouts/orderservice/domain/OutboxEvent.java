@@ -0,0 +1,65 @@
+package info.mouts.orderservice.domain;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.annotations.UuidGenerator;
+import org.hibernate.type.SqlTypes;
+
+import info.mouts.orderservice.util.UuidV7Generator;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Represents a message waiting in the transactional outbox to be published to
+ * Kafka.
+ * It is written in the same transaction as the change it describes and deleted
+ * once the relay has published it.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString(exclude = "payload")
+@Entity
+@Table(name = "order_outbox", indexes = {
+        @Index(name = "idx_outbox_created_at", columnList = "created_at")
+})
+public class OutboxEvent {
+    @Id
+    @UuidGenerator(algorithm = UuidV7Generator.class)
+    private UUID id;
+
+    @Column(nullable = false, name = "aggregate_id")
+    private UUID aggregateId;
+
+    @Column(nullable = false)
+    private String topic;
+
+    @Column(nullable = false, name = "message_key")
+    private String messageKey;
+
+    @JdbcTypeCode(SqlTypes.LONG32VARCHAR)
+    @Column(nullable = false)
+    private String payload;
+
+    @CreationTimestamp
+    @Column(nullable = false, updatable = false, name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "received_at")
+    private Instant receivedAt;
+}
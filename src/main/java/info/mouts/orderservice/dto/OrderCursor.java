@@ -0,0 +1,67 @@
+package info.mouts.orderservice.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+import info.mouts.orderservice.exception.InvalidCursorException;
+
+/**
+ * Position of an order in the listing sorted by creation time and ID, both
+ * descending, used to seek the next page of a cursor-based listing.
+ * <p>
+ * Clients receive it as an opaque, URL-safe token and must not rely on its
+ * contents.
+ * </p>
+ *
+ * @param createdAt The creation timestamp of the last order of a page.
+ * @param id        The ID of the last order of a page.
+ */
+public record OrderCursor(LocalDateTime createdAt, UUID id) {
+    private static final String SEPARATOR = "|";
+
+    /**
+     * Creates the cursor pointing right after the given order.
+     *
+     * @param order The last order of a page.
+     * @return The cursor of the order.
+     */
+    public static OrderCursor of(OrderSummary order) {
+        return new OrderCursor(order.createdAt(), order.id());
+    }
+
+    /**
+     * Encodes the cursor into its opaque token.
+     *
+     * @return The URL-safe token.
+     */
+    public String encode() {
+        String value = createdAt + SEPARATOR + id;
+
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a token produced by {@link #encode()}.
+     *
+     * @param token The token to decode.
+     * @return The decoded cursor.
+     * @throws InvalidCursorException If the token is not a valid cursor.
+     */
+    public static OrderCursor decode(String token) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separatorIndex = value.indexOf(SEPARATOR);
+
+            if (separatorIndex < 0) {
+                throw new IllegalArgumentException("Missing separator");
+            }
+
+            return new OrderCursor(LocalDateTime.parse(value.substring(0, separatorIndex)),
+                    UUID.fromString(value.substring(separatorIndex + 1)));
+        } catch (RuntimeException e) {
+            throw new InvalidCursorException(token, e);
+        }
+    }
+}
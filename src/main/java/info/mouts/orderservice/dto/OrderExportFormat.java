@@ -0,0 +1,44 @@
+package info.mouts.orderservice.dto;
+
+import org.springframework.http.MediaType;
+
+/**
+ * Formats of the order export.
+ */
+public enum OrderExportFormat {
+    /**
+     * One JSON object per line.
+     */
+    NDJSON(MediaType.APPLICATION_NDJSON, "ndjson"),
+
+    /**
+     * Comma-separated values with a header line.
+     */
+    CSV(new MediaType("text", "csv"), "csv");
+
+    private final MediaType mediaType;
+    private final String fileExtension;
+
+    OrderExportFormat(MediaType mediaType, String fileExtension) {
+        this.mediaType = mediaType;
+        this.fileExtension = fileExtension;
+    }
+
+    /**
+     * Returns the media type of the exported content.
+     *
+     * @return The media type.
+     */
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    /**
+     * Returns the extension of the exported file name.
+     *
+     * @return The file extension, without the dot.
+     */
+    public String getFileExtension() {
+        return fileExtension;
+    }
+}
@@ -2,6 +2,7 @@ package info.mouts.orderservice.dto;
 
 import java.math.BigDecimal;
 
+import jakarta.validation.constraints.DecimalMax;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
@@ -22,5 +23,6 @@ public class OrderItemRequestDTO {
 
     @NotNull(message = "Price cannot be null in item request")
     @DecimalMin(value = "0.01", message = "Price must be at least 0.01 in item request")
+    @DecimalMax(value = "99999999.99", message = "Price must be at most 99999999.99 in item request")
     private BigDecimal price;
 }
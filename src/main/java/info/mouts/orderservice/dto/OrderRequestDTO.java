@@ -1,7 +1,10 @@
 package info.mouts.orderservice.dto;
 
+import java.time.Instant;
 import java.util.List;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
@@ -16,4 +19,11 @@ public class OrderRequestDTO {
     @Valid
     private List<OrderItemRequestDTO> items;
 
+    /**
+     * Timestamp of the Kafka record carrying the request, set by the
+     * {@link info.mouts.orderservice.kafka.RecordTimestampInterceptor}. Not part
+     * of the payload.
+     */
+    @JsonIgnore
+    private Instant receivedAt;
 }
\ No newline at end of file
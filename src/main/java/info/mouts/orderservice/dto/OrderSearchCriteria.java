@@ -0,0 +1,29 @@
+package info.mouts.orderservice.dto;
+
+import java.time.LocalDateTime;
+
+import info.mouts.orderservice.domain.OrderStatus;
+
+/**
+ * Filters of an order search. Every filter is optional, and the orders must
+ * match all of the given ones.
+ *
+ * @param status    The status of the orders, or null for any status.
+ * @param productId The ID of a product the orders must contain, or null for
+ *                  any product.
+ * @param from      The start of the creation date range (inclusive), or null
+ *                  for no lower bound.
+ * @param to        The end of the creation date range (exclusive), or null for
+ *                  no upper bound.
+ */
+public record OrderSearchCriteria(OrderStatus status, String productId, LocalDateTime from, LocalDateTime to) {
+    /**
+     * Checks whether the creation date range is empty, which happens when its
+     * end is not after its start.
+     *
+     * @return True if both bounds are given and no date falls between them.
+     */
+    public boolean hasEmptyDateRange() {
+        return from != null && to != null && !from.isBefore(to);
+    }
+}
@@ -0,0 +1,28 @@
+package info.mouts.orderservice.dto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import info.mouts.orderservice.domain.Order;
+import info.mouts.orderservice.domain.OrderStatus;
+
+/**
+ * Status an order moved to, as pushed to the subscribers of its status stream.
+ *
+ * @param orderId       The ID of the order.
+ * @param status        The new status of the order.
+ * @param failureReason Why the order failed, or null if it did not.
+ * @param changedAt     When the order moved to the status.
+ */
+public record OrderStatusChange(UUID orderId, OrderStatus status, String failureReason, LocalDateTime changedAt) {
+    /**
+     * Returns the current status of the given order.
+     *
+     * @param order The order.
+     * @return The status change that led the order to its current status.
+     */
+    public static OrderStatusChange of(Order order) {
+        return new OrderStatusChange(order.getId(), order.getStatus(), order.getFailureReason(),
+                order.getUpdatedAt());
+    }
+}
@@ -0,0 +1,25 @@
+package info.mouts.orderservice.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import info.mouts.orderservice.domain.Order;
+import info.mouts.orderservice.domain.OrderStatus;
+
+/**
+ * Immutable row of the order listings, holding only the columns shown for each
+ * {@link Order}.
+ * It is selected directly by the listing queries, so listing orders neither
+ * instantiates the entities nor registers them in the persistence context.
+ *
+ * @param id             The ID of the order.
+ * @param idempotencyKey The idempotency key of the order.
+ * @param status         The status of the order.
+ * @param total          The total amount of the order.
+ * @param createdAt      When the order was created.
+ * @param processedAt    When the order was last updated.
+ */
+public record OrderSummary(UUID id, String idempotencyKey, OrderStatus status, BigDecimal total,
+        LocalDateTime createdAt, LocalDateTime processedAt) {
+}
@@ -0,0 +1,56 @@
+package info.mouts.orderservice.dto;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.UUID;
+
+import info.mouts.orderservice.domain.Order;
+
+/**
+ * Version of an {@link Order}, used to validate conditional requests.
+ *
+ * @param id        The ID of the order.
+ * @param version   The optimistic locking version of the order.
+ * @param updatedAt When the order was last updated.
+ */
+public record OrderVersion(UUID id, long version, LocalDateTime updatedAt) {
+    /**
+     * Returns the version of the given order.
+     *
+     * @param order The order.
+     * @return The version of the order.
+     */
+    public static OrderVersion of(Order order) {
+        return new OrderVersion(order.getId(), order.getVersion(), order.getUpdatedAt());
+    }
+
+    /**
+     * Returns the strong entity tag of the order representation.
+     *
+     * @return The quoted entity tag.
+     */
+    public String eTag() {
+        return "\"" + id + "-" + version + "\"";
+    }
+
+    /**
+     * Returns the strong entity tag of another representation derived from the
+     * order, such as its items.
+     *
+     * @param representation The name of the representation.
+     * @return The quoted entity tag.
+     */
+    public String eTag(String representation) {
+        return "\"" + id + "-" + version + "-" + representation + "\"";
+    }
+
+    /**
+     * Returns when the order was last updated, as the {@code Last-Modified} of
+     * its representations.
+     *
+     * @return The timestamp in milliseconds since the epoch, or -1 if unknown.
+     */
+    public long lastModified() {
+        return updatedAt != null ? updatedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : -1;
+    }
+}
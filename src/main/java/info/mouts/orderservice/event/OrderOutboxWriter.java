@@ -0,0 +1,111 @@
+package info.mouts.orderservice.event;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import info.mouts.orderservice.domain.Order;
+import info.mouts.orderservice.domain.OutboxEvent;
+import info.mouts.orderservice.dto.OrderProcessedEventDTO;
+import info.mouts.orderservice.mapper.OrderMapper;
+import info.mouts.orderservice.monitoring.IngestStage;
+import info.mouts.orderservice.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Event listener component that writes {@link OrderProcessedEvent}s to the
+ * transactional outbox.
+ * This listener runs right before the transaction that processed the order
+ * commits, so the outbox row is committed (or rolled back) together with the
+ * order. The rows are published to Kafka by the
+ * {@link info.mouts.orderservice.kafka.OutboxRelay}.
+ * It replaces {@link OrderProcessedEventListener} when
+ * {@code app.outbox.enabled} is {@code true}.
+ */
+@Component
+@ConditionalOnProperty(name = "app.outbox.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class OrderOutboxWriter {
+    private final OutboxEventRepository outboxEventRepository;
+    private final OrderMapper orderMapper;
+    private final ObjectMapper objectMapper;
+    private final String ordersProcessedTopic;
+
+    private Timer outboxTimer;
+
+    /**
+     * Constructs an instance of {@code OrderOutboxWriter}.
+     *
+     * @param outboxEventRepository The repository for outbox data access.
+     * @param orderMapper           The mapper for converting orders into event
+     *                              DTOs.
+     * @param objectMapper          The object mapper used to serialize the event
+     *                              payload.
+     * @param ordersProcessedTopic  The topic the events are published to.
+     * @param meterRegistry         The registry for collecting metrics.
+     */
+    public OrderOutboxWriter(OutboxEventRepository outboxEventRepository, OrderMapper orderMapper,
+            ObjectMapper objectMapper, @Value("${app.kafka.orders-processed-topic}") String ordersProcessedTopic,
+            MeterRegistry meterRegistry) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.orderMapper = orderMapper;
+        this.objectMapper = objectMapper;
+        this.ordersProcessedTopic = ordersProcessedTopic;
+
+        initializeMetrics(meterRegistry);
+    }
+
+    /**
+     * Listens for {@link OrderProcessedEvent} before the originating transaction
+     * commits.
+     * Maps the {@link Order} from the event to an {@link OrderProcessedEventDTO}
+     * and saves it as JSON in the outbox, keyed by the order ID, along with the
+     * timestamp of the record the order was created from.
+     *
+     * @param event The {@link OrderProcessedEvent} containing the processed order
+     *              details.
+     * @throws IllegalStateException If the event cannot be serialized, which
+     *                               rolls back the transaction.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onOrderProcessed(OrderProcessedEvent event) {
+        long start = System.nanoTime();
+        Order processedOrder = event.getProcessedOrder();
+        OrderProcessedEventDTO orderProcessedEventDTO = orderMapper.toProcessedEventDto(processedOrder);
+
+        try {
+            outboxEventRepository.save(OutboxEvent.builder()
+                    .aggregateId(processedOrder.getId())
+                    .topic(ordersProcessedTopic)
+                    .messageKey(processedOrder.getId().toString())
+                    .payload(objectMapper.writeValueAsString(orderProcessedEventDTO))
+                    .receivedAt(processedOrder.getReceivedAt())
+                    .build());
+
+            outboxTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            log.debug("Processed order event for Order ID {} written to the outbox", processedOrder.getId());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(
+                    "Failed to serialize processed order event for Order ID " + processedOrder.getId(), e);
+        }
+    }
+
+    /**
+     * Initializes the Micrometer metrics for the outbox writer.
+     * Registers the timer of the outbox {@link IngestStage}.
+     *
+     * @param registry The meter registry to register the metrics with.
+     */
+    private void initializeMetrics(MeterRegistry registry) {
+        this.outboxTimer = IngestStage.OUTBOX.timer(registry);
+    }
+}
@@ -1,9 +1,14 @@
 package info.mouts.orderservice.event;
 
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
 
-import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Component;
@@ -13,6 +18,10 @@ import org.springframework.transaction.event.TransactionalEventListener;
 import info.mouts.orderservice.domain.Order;
 import info.mouts.orderservice.dto.OrderProcessedEventDTO;
 import info.mouts.orderservice.mapper.OrderMapper;
+import info.mouts.orderservice.monitoring.EventAge;
+import info.mouts.orderservice.monitoring.IngestStage;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 
 /**
@@ -21,18 +30,56 @@ import lombok.extern.slf4j.Slf4j;
  * successfully committed.
  * It converts the processed order details into a DTO and publishes it to a
  * Kafka topic.
+ * It is only active when {@code app.outbox.enabled} is {@code false}, otherwise
+ * the events go through the {@link OrderOutboxWriter}.
+ * When virtual threads are enabled, the send callbacks run on the
+ * {@code kafkaCallbackExecutor} instead of the producer I/O thread.
  */
 @Component
+@ConditionalOnProperty(name = "app.outbox.enabled", havingValue = "false")
 @Slf4j
 public class OrderProcessedEventListener {
-    @Autowired
-    private KafkaTemplate<String, Object> kafkaTemplate;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final String ordersProcessedTopic;
+    private final OrderMapper orderMapper;
+    private final Executor callbackExecutor;
 
-    @Value("${app.kafka.orders-processed-topic}")
-    private String ordersProcessedTopic;
+    private Timer publishTimer;
+    private Timer publishedAgeTimer;
 
-    @Autowired
-    private OrderMapper orderMapper;
+    /**
+     * Constructs an instance of {@code OrderProcessedEventListener}.
+     *
+     * @param kafkaTemplate        The Kafka template used to publish the events.
+     * @param orderMapper          Mapper for converting orders to events.
+     * @param callbackExecutor     The executor of the send callbacks, only
+     *                             available when virtual threads are enabled.
+     * @param meterRegistry        The registry for collecting metrics.
+     * @param ordersProcessedTopic The topic the events are published to.
+     */
+    public OrderProcessedEventListener(
+            @Qualifier("processedEventsKafkaTemplate") KafkaTemplate<String, Object> kafkaTemplate,
+            OrderMapper orderMapper, @Qualifier("kafkaCallbackExecutor") ObjectProvider<Executor> callbackExecutor,
+            MeterRegistry meterRegistry, @Value("${app.kafka.orders-processed-topic}") String ordersProcessedTopic) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.orderMapper = orderMapper;
+        this.callbackExecutor = callbackExecutor.getIfAvailable();
+        this.ordersProcessedTopic = ordersProcessedTopic;
+
+        initializeMetrics(meterRegistry);
+    }
+
+    /**
+     * Initializes the Micrometer metrics for the listener.
+     * Registers the timer of the publish {@link IngestStage} and the timer of
+     * the published {@link EventAge}.
+     *
+     * @param registry The meter registry to register the metrics with.
+     */
+    private void initializeMetrics(MeterRegistry registry) {
+        this.publishTimer = IngestStage.PUBLISH.timer(registry);
+        this.publishedAgeTimer = EventAge.PUBLISHED.timer(registry);
+    }
 
     /**
      * Listens for {@link OrderProcessedEvent} after the originating transaction
@@ -53,12 +100,15 @@ public class OrderProcessedEventListener {
         OrderProcessedEventDTO orderProcessedEventDTO = orderMapper.toProcessedEventDto(processedOrder);
 
         String orderId = processedOrder.getId().toString();
+        long start = System.nanoTime();
         try {
             CompletableFuture<SendResult<String, Object>> future = kafkaTemplate.send(ordersProcessedTopic, orderId,
                     orderProcessedEventDTO);
 
-            future.whenComplete((result, ex) -> {
+            BiConsumer<SendResult<String, Object>, Throwable> callback = (result, ex) -> {
                 if (ex == null) {
+                    publishTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    EventAge.record(publishedAgeTimer, processedOrder.getReceivedAt());
                     log.info(
                             "Successfully published a processed order event to topic {} for Order ID {}",
                             ordersProcessedTopic, orderId);
@@ -66,7 +116,13 @@ public class OrderProcessedEventListener {
                     log.error("Failed to publish a processed order event to topic {} for Order ID {}: {}",
                             ordersProcessedTopic, orderId, ex.getMessage(), ex);
                 }
-            });
+            };
+
+            if (callbackExecutor != null) {
+                future.whenCompleteAsync(callback, callbackExecutor);
+            } else {
+                future.whenComplete(callback);
+            }
         } catch (Exception e) {
             log.error("Exception during sending a processed order event to topic {} for Order ID {}: {}",
                     ordersProcessedTopic, orderId, e.getMessage(), e);
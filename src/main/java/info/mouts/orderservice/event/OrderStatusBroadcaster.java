@@ -0,0 +1,300 @@
+package info.mouts.orderservice.event;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.http.MediaType;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import info.mouts.orderservice.dto.OrderStatusChange;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Pushes order status changes to the clients subscribed to the status stream
+ * of an order, on every instance.
+ * <p>
+ * Changes are published as JSON on a Redis pub/sub channel, off the thread
+ * that processed the order, and every instance delivers the changes it
+ * receives to its own subscribers. If Redis is
+ * unavailable, changes are only delivered to the subscribers of this instance.
+ * </p>
+ * <p>
+ * Each subscriber has a bounded buffer, drained on its own virtual thread, so a
+ * slow client never blocks the Redis listener or other clients. A subscriber
+ * whose buffer is full is disconnected; on reconnecting it receives the current
+ * status again. Streams are completed once the order reaches a terminal status.
+ * </p>
+ */
+@Slf4j
+public class OrderStatusBroadcaster implements MessageListener {
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final Executor senderExecutor;
+    private final String channel;
+    private final int bufferSize;
+    private final Duration timeout;
+    private final Map<UUID, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+
+    private Counter publishedChangesCounter;
+    private Counter overflowedSubscribersCounter;
+
+    /**
+     * Constructs an instance of {@code OrderStatusBroadcaster}.
+     *
+     * @param redisTemplate  The Redis template used to publish the changes.
+     * @param objectMapper   The object mapper used to serialize the changes.
+     * @param senderExecutor The executor that publishes the changes of processed
+     *                       orders and sends the buffered changes to each
+     *                       subscriber.
+     * @param meterRegistry  The registry for collecting metrics.
+     * @param channel        The name of the Redis pub/sub channel.
+     * @param bufferSize     The maximum number of changes buffered per
+     *                       subscriber.
+     * @param timeout        How long a stream stays open.
+     */
+    public OrderStatusBroadcaster(StringRedisTemplate redisTemplate, ObjectMapper objectMapper,
+            Executor senderExecutor, MeterRegistry meterRegistry, String channel, int bufferSize, Duration timeout) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.senderExecutor = senderExecutor;
+        this.channel = channel;
+        this.bufferSize = bufferSize;
+        this.timeout = timeout;
+
+        initializeMetrics(meterRegistry);
+    }
+
+    /**
+     * Initializes the Micrometer metrics used by the broadcaster.
+     *
+     * @param meterRegistry The registry for collecting metrics.
+     */
+    private void initializeMetrics(MeterRegistry meterRegistry) {
+        Gauge.builder("orders.status.stream.subscribers", subscriberCount, AtomicInteger::get)
+                .description("Number of clients subscribed to order status streams on this instance")
+                .register(meterRegistry);
+
+        this.publishedChangesCounter = Counter.builder("orders.status.changes.published")
+                .description("Total number of order status changes published to the status streams")
+                .register(meterRegistry);
+
+        this.overflowedSubscribersCounter = Counter.builder("orders.status.stream.overflows")
+                .description("Total number of subscribers disconnected because their buffer was full")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the name of the Redis pub/sub channel.
+     *
+     * @return The channel name.
+     */
+    public String getChannel() {
+        return channel;
+    }
+
+    /**
+     * Subscribes to the status changes of an order.
+     * The subscriber is registered before the current status is looked up, so
+     * no change is missed in between. If the order is already in a terminal
+     * status, the stream completes right after sending it.
+     *
+     * @param orderId       The UUID of the order.
+     * @param currentStatus Looks up the current status of the order.
+     * @return The emitter streaming the status changes.
+     * @throws RuntimeException Whatever {@code currentStatus} throws, such as
+     *                          when the order does not exist.
+     */
+    public SseEmitter subscribe(UUID orderId, Supplier<OrderStatusChange> currentStatus) {
+        Subscriber subscriber = new Subscriber(orderId, createEmitter());
+
+        subscribers.computeIfAbsent(orderId, key -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        subscriberCount.incrementAndGet();
+
+        try {
+            subscriber.offer(currentStatus.get());
+        } catch (RuntimeException e) {
+            unsubscribe(subscriber);
+            throw e;
+        }
+        return subscriber.emitter;
+    }
+
+    /**
+     * Publishes the status of an order once the transaction that processed it
+     * commits.
+     * The change is published on the sender executor, so the Redis round trip
+     * never blocks the Kafka listener thread that committed the transaction.
+     *
+     * @param event The {@link OrderProcessedEvent} containing the processed order.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onOrderProcessed(OrderProcessedEvent event) {
+        OrderStatusChange change = OrderStatusChange.of(event.getProcessedOrder());
+
+        senderExecutor.execute(() -> publish(change));
+    }
+
+    /**
+     * Publishes a status change to the subscribers of the order on every
+     * instance.
+     *
+     * @param change The status change.
+     */
+    public void publish(OrderStatusChange change) {
+        publishedChangesCounter.increment();
+
+        try {
+            redisTemplate.convertAndSend(channel, objectMapper.writeValueAsString(change));
+        } catch (Exception e) {
+            log.warn("Failed to publish the status change of order {} to channel {}, delivering it locally: {}",
+                    change.orderId(), channel, e.getMessage());
+            deliver(change);
+        }
+    }
+
+    /**
+     * Handles a status change published by any instance, delivering it to the
+     * subscribers of the order on this instance.
+     *
+     * @param message The Redis pub/sub message.
+     * @param pattern The pattern that matched the channel, if any.
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            deliver(objectMapper.readValue(message.getBody(), OrderStatusChange.class));
+        } catch (IOException e) {
+            log.warn("Ignoring malformed order status change message: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Buffers a status change for every subscriber of the order on this
+     * instance.
+     *
+     * @param change The status change.
+     */
+    void deliver(OrderStatusChange change) {
+        Set<Subscriber> orderSubscribers = subscribers.get(change.orderId());
+
+        if (orderSubscribers != null) {
+            orderSubscribers.forEach(subscriber -> subscriber.offer(change));
+        }
+    }
+
+    /**
+     * Creates the emitter of a new subscriber.
+     *
+     * @return The emitter, timing out after the configured timeout.
+     */
+    SseEmitter createEmitter() {
+        return new SseEmitter(timeout.toMillis());
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        if (!subscriber.closed.compareAndSet(false, true)) {
+            return;
+        }
+
+        subscribers.computeIfPresent(subscriber.orderId, (orderId, orderSubscribers) -> {
+            orderSubscribers.remove(subscriber);
+            return orderSubscribers.isEmpty() ? null : orderSubscribers;
+        });
+        subscriberCount.decrementAndGet();
+    }
+
+    /**
+     * A client subscribed to the status stream of an order, with its buffer of
+     * changes not sent yet.
+     */
+    private final class Subscriber {
+        private final UUID orderId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<OrderStatusChange> buffer = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        Subscriber(UUID orderId, SseEmitter emitter) {
+            this.orderId = orderId;
+            this.emitter = emitter;
+
+            emitter.onCompletion(() -> unsubscribe(this));
+            emitter.onTimeout(() -> unsubscribe(this));
+            emitter.onError(e -> unsubscribe(this));
+        }
+
+        void offer(OrderStatusChange change) {
+            if (closed.get()) {
+                return;
+            }
+
+            if (!buffer.offer(change)) {
+                log.warn("Disconnecting a slow subscriber of order {} after {} unsent status changes", orderId,
+                        bufferSize);
+                overflowedSubscribersCounter.increment();
+                unsubscribe(this);
+                emitter.complete();
+                return;
+            }
+
+            if (draining.compareAndSet(false, true)) {
+                senderExecutor.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            do {
+                OrderStatusChange change;
+
+                while ((change = buffer.poll()) != null) {
+                    if (!send(change)) {
+                        return;
+                    }
+                }
+                draining.set(false);
+            } while (!buffer.isEmpty() && draining.compareAndSet(false, true));
+        }
+
+        private boolean send(OrderStatusChange change) {
+            if (closed.get()) {
+                return false;
+            }
+
+            try {
+                emitter.send(SseEmitter.event().name("status").data(change, MediaType.APPLICATION_JSON));
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Subscriber of order {} is gone: {}", orderId, e.getMessage());
+                unsubscribe(this);
+                return false;
+            }
+
+            if (change.status().isTerminal()) {
+                unsubscribe(this);
+                emitter.complete();
+                return false;
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package info.mouts.orderservice.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidOrderSearchException extends RuntimeException {
+    public InvalidOrderSearchException(String message) {
+        super(message);
+    }
+}
@@ -5,6 +5,7 @@ import java.time.Instant;
 
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ProblemDetail;
+import org.springframework.web.bind.MissingServletRequestParameterException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
@@ -65,6 +66,70 @@ public class RestExceptionHandler {
         return problemDetail;
     }
 
+    /**
+     * Capture {@link InvalidCursorException} and returns HTTP 400 Bad Request.
+     * Uses the ProblemDetail (RFC 7807) format for the response.
+     *
+     * @param ex      The caught {@link InvalidCursorException}.
+     * @param request The current web request.
+     * @return A {@link ProblemDetail} object representing the error.
+     */
+    @ExceptionHandler(InvalidCursorException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ProblemDetail handleInvalidCursorException(InvalidCursorException ex, WebRequest request) {
+        log.warn("Handling InvalidCursorException: {}", ex.getMessage());
+
+        ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, ex.getMessage());
+        problemDetail.setTitle("Invalid Cursor");
+        problemDetail.setProperty("timestamp", Instant.now());
+        problemDetail.setInstance(URI.create(request.getDescription(false)));
+
+        return problemDetail;
+    }
+
+    /**
+     * Capture {@link InvalidOrderSearchException} and returns HTTP 400 Bad
+     * Request.
+     * Uses the ProblemDetail (RFC 7807) format for the response.
+     *
+     * @param ex      The caught {@link InvalidOrderSearchException}.
+     * @param request The current web request.
+     * @return A {@link ProblemDetail} object representing the error.
+     */
+    @ExceptionHandler(InvalidOrderSearchException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ProblemDetail handleInvalidOrderSearchException(InvalidOrderSearchException ex, WebRequest request) {
+        log.warn("Handling InvalidOrderSearchException: {}", ex.getMessage());
+
+        ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, ex.getMessage());
+        problemDetail.setTitle("Invalid Order Search");
+        problemDetail.setProperty("timestamp", Instant.now());
+        problemDetail.setInstance(URI.create(request.getDescription(false)));
+
+        return problemDetail;
+    }
+
+    /**
+     * Capture {@link TooManyOrderIdsException} and returns HTTP 400 Bad Request.
+     * Uses the ProblemDetail (RFC 7807) format for the response.
+     *
+     * @param ex      The caught {@link TooManyOrderIdsException}.
+     * @param request The current web request.
+     * @return A {@link ProblemDetail} object representing the error.
+     */
+    @ExceptionHandler(TooManyOrderIdsException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ProblemDetail handleTooManyOrderIdsException(TooManyOrderIdsException ex, WebRequest request) {
+        log.warn("Handling TooManyOrderIdsException: {}", ex.getMessage());
+
+        ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, ex.getMessage());
+        problemDetail.setTitle("Too Many Order IDs");
+        problemDetail.setProperty("timestamp", Instant.now());
+        problemDetail.setInstance(URI.create(request.getDescription(false)));
+
+        return problemDetail;
+    }
+
     /**
      * Capture {@link MethodArgumentTypeMismatchException} and returns HTTP 400 Bad
      * Request.
@@ -90,6 +155,31 @@ public class RestExceptionHandler {
         return problemDetail;
     }
 
+    /**
+     * Capture {@link MissingServletRequestParameterException} and returns HTTP
+     * 400 Bad Request.
+     * This occurs when a required request parameter, such as the date range of
+     * an export, is not given.
+     * Uses the ProblemDetail (RFC 7807) format for the response.
+     *
+     * @param ex      The caught {@link MissingServletRequestParameterException}.
+     * @param request The current web request.
+     * @return A {@link ProblemDetail} object representing the error.
+     */
+    @ExceptionHandler(MissingServletRequestParameterException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ProblemDetail handleMissingServletRequestParameterException(MissingServletRequestParameterException ex,
+            WebRequest request) {
+        log.warn("Handling MissingServletRequestParameterException: {}", ex.getMessage());
+
+        ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, ex.getMessage());
+        problemDetail.setTitle("Missing Parameter");
+        problemDetail.setProperty("timestamp", Instant.now());
+        problemDetail.setInstance(URI.create(request.getDescription(false)));
+
+        return problemDetail;
+    }
+
     /**
      * Catches any other unhandled exceptions that may occur during request
      * processing.
@@ -0,0 +1,11 @@
+package info.mouts.orderservice.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class TooManyOrderIdsException extends RuntimeException {
+    public TooManyOrderIdsException(int count, int maxCount) {
+        super("Too many order IDs: " + count + ", at most " + maxCount + " can be requested at once");
+    }
+}
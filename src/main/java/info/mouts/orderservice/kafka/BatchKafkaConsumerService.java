@@ -0,0 +1,235 @@
+package info.mouts.orderservice.kafka;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.stereotype.Service;
+
+import info.mouts.orderservice.domain.IdempotencyStatus;
+import info.mouts.orderservice.dto.OrderRequestDTO;
+import info.mouts.orderservice.monitoring.IngestStage;
+import info.mouts.orderservice.service.IdempotencyStore;
+import info.mouts.orderservice.service.OrderService;
+import info.mouts.orderservice.util.KafkaUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Batch variant of {@link KafkaConsumerService} for the main orders topic.
+ * It receives a whole poll at once, claims the idempotency keys of all records
+ * with a single call to the {@link IdempotencyStore}, and saves every new order within
+ * one transaction through {@link OrderService#processIncomingOrders}.
+ * It is only started when {@code app.kafka.consumer.mode} is {@code batch}.
+ */
+@Service
+@Slf4j
+public class BatchKafkaConsumerService {
+    private final OrderService orderService;
+    private final IdempotencyStore idempotencyStore;
+    private final MeterRegistry meterRegistry;
+
+    private Counter receivedOrdersCounter;
+    private Counter processedOrdersCounter;
+    private Counter failedOrdersCounter;
+    private DistributionSummary batchSizeSummary;
+    private Timer claimTimer;
+
+    /**
+     * Constructs an instance of {@code BatchKafkaConsumerService}.
+     *
+     * @param orderService     The service responsible for processing order logic.
+     * @param idempotencyStore The store used to claim and finalize idempotency
+     *                         keys.
+     * @param meterRegistry    The registry for collecting metrics.
+     */
+    public BatchKafkaConsumerService(OrderService orderService, IdempotencyStore idempotencyStore,
+            MeterRegistry meterRegistry) {
+        this.orderService = orderService;
+        this.idempotencyStore = idempotencyStore;
+        this.meterRegistry = meterRegistry;
+
+        initializeMetrics(this.meterRegistry);
+    }
+
+    /**
+     * Kafka batch listener method for the main orders topic.
+     * <p>
+     * The processing follows these steps:
+     * </p>
+     * <ol>
+     * <li>Records without an idempotency key header or payload are marked as
+     * failed</li>
+     * <li>The idempotency keys of the remaining records are claimed in a single
+     * round trip, records whose key is already claimed are skipped</li>
+     * <li>All claimed orders are processed and saved in one transaction. If that
+     * fails, each order is processed on its own so that only the offending
+     * records fail. Orders whose key was already saved are skipped as
+     * duplicates</li>
+     * <li>Keys of processed orders are marked as PROCESSED and keys of failed
+     * orders are released, each in a single round trip</li>
+     * <li>If any record failed, a {@link BatchListenerFailedException} is thrown
+     * for the first one, so the error handler commits the records before it and
+     * retries or dead-letters only that record</li>
+     * </ol>
+     *
+     * @param records The records of the current poll.
+     * @throws BatchListenerFailedException If processing of any record failed.
+     */
+    @KafkaListener(topics = "${app.kafka.orders-received-topic}", groupId = "${spring.kafka.consumer.group-id}", containerFactory = "batchKafkaListenerContainerFactory", autoStartup = "#{'${app.kafka.consumer.mode:record}' == 'batch'}")
+    public void listen(List<ConsumerRecord<String, OrderRequestDTO>> records) {
+        log.info("Received a batch of {} incoming order requests to process", records.size());
+
+        receivedOrdersCounter.increment(records.size());
+        batchSizeSummary.record(records.size());
+
+        Map<Integer, Exception> failuresByIndex = new TreeMap<>();
+        Map<String, Integer> indexByKey = new LinkedHashMap<>();
+
+        for (int index = 0; index < records.size(); index++) {
+            ConsumerRecord<String, OrderRequestDTO> consumerRecord = records.get(index);
+            String idempotencyKey = IdempotencyKeys.fromHeaders(consumerRecord);
+
+            if (idempotencyKey == null) {
+                failuresByIndex.put(index, new IllegalArgumentException(
+                        "Missing " + KafkaUtils.IDEMPOTENCY_KEY_HEADER + " header"));
+            } else if (consumerRecord.value() == null) {
+                failuresByIndex.put(index, new IllegalArgumentException(
+                        "Missing order request payload for idempotency key " + idempotencyKey));
+            } else if (indexByKey.putIfAbsent(idempotencyKey, index) != null) {
+                log.warn("Skipping duplicate idempotency key {} within the same batch", idempotencyKey);
+            }
+        }
+
+        Map<String, OrderRequestDTO> claimedRequests = claimIdempotencyKeys(records, indexByKey);
+        List<String> processedKeys = processClaimedRequests(claimedRequests, indexByKey, failuresByIndex);
+
+        idempotencyStore.markProcessed(processedKeys);
+        idempotencyStore.release(claimedRequests.keySet().stream()
+                .filter(key -> failuresByIndex.containsKey(indexByKey.get(key)))
+                .toList());
+
+        processedOrdersCounter.increment(processedKeys.size());
+
+        if (!failuresByIndex.isEmpty()) {
+            failedOrdersCounter.increment(failuresByIndex.size());
+
+            Map.Entry<Integer, Exception> firstFailure = failuresByIndex.entrySet().iterator().next();
+            log.error("{} of {} records failed in the batch, first failure at index {}: {}",
+                    failuresByIndex.size(), records.size(), firstFailure.getKey(),
+                    firstFailure.getValue().getMessage());
+
+            throw new BatchListenerFailedException(firstFailure.getValue().getMessage(), firstFailure.getValue(),
+                    firstFailure.getKey());
+        }
+    }
+
+    /**
+     * Claims the idempotency keys of the given records with a single call to the
+     * {@link IdempotencyStore}. Records whose key is already claimed are logged
+     * and skipped.
+     *
+     * @param records    The records of the current poll.
+     * @param indexByKey The record index for each idempotency key to claim.
+     * @return The order requests whose key was claimed, keyed by idempotency key.
+     */
+    private Map<String, OrderRequestDTO> claimIdempotencyKeys(List<ConsumerRecord<String, OrderRequestDTO>> records,
+            Map<String, Integer> indexByKey) {
+        Map<String, IdempotencyStatus> statuses = claimTimer
+                .record(() -> idempotencyStore.claim(indexByKey.keySet()));
+        Map<String, OrderRequestDTO> claimedRequests = new LinkedHashMap<>();
+
+        statuses.forEach((idempotencyKey, status) -> {
+            if (status == IdempotencyStatus.NEW) {
+                claimedRequests.put(idempotencyKey, records.get(indexByKey.get(idempotencyKey)).value());
+            } else if (status == IdempotencyStatus.PROCESSED) {
+                log.info("Order with idempotency key {} already processed, skipping", idempotencyKey);
+            } else {
+                log.warn("Skipping processing for key {} as it is already marked as PROCESSING.", idempotencyKey);
+            }
+        });
+
+        log.info("Claimed {} of {} idempotency keys in the batch", claimedRequests.size(), statuses.size());
+        return claimedRequests;
+    }
+
+    /**
+     * Processes the claimed order requests, first as a single transaction and, if
+     * that fails, one by one to isolate the failing records.
+     *
+     * @param claimedRequests The order requests whose key was claimed.
+     * @param indexByKey      The record index for each idempotency key.
+     * @param failuresByIndex The failures collected so far, keyed by record index.
+     *                        Failures found here are added to it.
+     * @return The idempotency keys of the successfully processed orders.
+     */
+    private List<String> processClaimedRequests(Map<String, OrderRequestDTO> claimedRequests,
+            Map<String, Integer> indexByKey, Map<Integer, Exception> failuresByIndex) {
+        if (claimedRequests.isEmpty()) {
+            return List.of();
+        }
+
+        try {
+            orderService.processIncomingOrders(claimedRequests);
+            return new ArrayList<>(claimedRequests.keySet());
+        } catch (Exception e) {
+            log.warn("Failed to process batch of {} orders in a single transaction, processing them one by one: {}",
+                    claimedRequests.size(), e.getMessage());
+        }
+
+        List<String> processedKeys = new ArrayList<>();
+
+        claimedRequests.forEach((idempotencyKey, request) -> {
+            try {
+                orderService.processIncomingOrder(request, idempotencyKey);
+                processedKeys.add(idempotencyKey);
+            } catch (Exception e) {
+                if (IdempotencyKeys.isAlreadySaved(orderService, idempotencyKey, e)) {
+                    log.warn("Order with idempotency key {} was already saved by another consumer, skipping",
+                            idempotencyKey);
+                    processedKeys.add(idempotencyKey);
+                    return;
+                }
+
+                log.error("Error processing message for idempotency key {}: {}", idempotencyKey, e.getMessage(), e);
+                failuresByIndex.put(indexByKey.get(idempotencyKey), e);
+            }
+        });
+
+        return processedKeys;
+    }
+
+    /**
+     * Initializes the Micrometer metrics for the batch consumer.
+     * Shares the received, processed and failed counters with
+     * {@link KafkaConsumerService}, as well as the timer of the idempotency
+     * claims, and registers a summary of the batch sizes.
+     *
+     * @param registry The meter registry to register the metrics with.
+     */
+    private void initializeMetrics(MeterRegistry registry) {
+        this.receivedOrdersCounter = Counter.builder("orders.received")
+                .description("Total number of orders received from Kafka")
+                .register(registry);
+        this.processedOrdersCounter = Counter.builder("orders.processed")
+                .description("Total number of orders successfully processed")
+                .register(registry);
+        this.failedOrdersCounter = Counter.builder("orders.failed")
+                .description("Total number of orders failed during processing (before DLT)")
+                .tag("reason", "processing_exception")
+                .register(registry);
+        this.batchSizeSummary = DistributionSummary.builder("orders.batch.size")
+                .description("Number of records received per batch")
+                .publishPercentiles(0.5, 0.95)
+                .register(registry);
+        this.claimTimer = IngestStage.CLAIM.timer(registry);
+    }
+}
@@ -16,6 +16,8 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import info.mouts.orderservice.domain.Order;
 import info.mouts.orderservice.domain.OrderStatus;
 import info.mouts.orderservice.dto.OrderRequestDTO;
+import info.mouts.orderservice.dto.OrderStatusChange;
+import info.mouts.orderservice.event.OrderStatusBroadcaster;
 import info.mouts.orderservice.mapper.OrderMapper;
 import info.mouts.orderservice.repository.OrderRepository;
 import info.mouts.orderservice.util.KafkaUtils;
@@ -31,7 +33,8 @@ import lombok.extern.slf4j.Slf4j;
  * here.
  * This service attempts to mark the corresponding order as FAILED in the
  * database,
- * either by updating an existing record or creating a new one if necessary.
+ * either by updating an existing record or creating a new one if necessary,
+ * and pushes the failure to the order status streams.
  * It also collects metrics related to DLT processing.
  */
 @Service
@@ -40,6 +43,7 @@ public class DltConsumerService {
     private final OrderRepository orderRepository;
     private final ObjectMapper objectMapper;
     private final OrderMapper orderMapper;
+    private final OrderStatusBroadcaster orderStatusBroadcaster;
     private final MeterRegistry meterRegistry;
 
     private Counter dltMessagesReceivedCounter;
@@ -53,14 +57,16 @@ public class DltConsumerService {
      *
      * @param orderRepository The repository for order data access.
      * @param objectMapper    The Jackson object mapper for deserialization.
-     * @param orderMapper     The mapper for converting DTOs to entities.
-     * @param meterRegistry   The registry for collecting metrics.
+     * @param orderMapper            The mapper for converting DTOs to entities.
+     * @param orderStatusBroadcaster The broadcaster of order status changes.
+     * @param meterRegistry          The registry for collecting metrics.
      */
     public DltConsumerService(OrderRepository orderRepository, ObjectMapper objectMapper, OrderMapper orderMapper,
-            MeterRegistry meterRegistry) {
+            OrderStatusBroadcaster orderStatusBroadcaster, MeterRegistry meterRegistry) {
         this.orderRepository = orderRepository;
         this.objectMapper = objectMapper;
         this.orderMapper = orderMapper;
+        this.orderStatusBroadcaster = orderStatusBroadcaster;
         this.meterRegistry = meterRegistry;
 
         initializeMetrics(meterRegistry);
@@ -85,7 +91,7 @@ public class DltConsumerService {
             dltProcessingTimer.record(() -> {
                 log.error("Received a message from DLT to process");
 
-                String idempotencyKey = getIdempotencyKeyFromHeaders(consumerRecord);
+                String idempotencyKey = IdempotencyKeys.fromHeaders(consumerRecord);
 
                 if (idempotencyKey == null) {
                     log.error(
@@ -107,22 +113,6 @@ public class DltConsumerService {
         }
     }
 
-    /**
-     * Extracts the idempotency key from the Kafka message headers.
-     *
-     * @param record The Kafka consumer record.
-     * @return The idempotency key as a String, or null if the header is not found
-     *         or has no value.
-     */
-    private String getIdempotencyKeyFromHeaders(ConsumerRecord<?, ?> record) {
-        Header header = record.headers().lastHeader(KafkaUtils.IDEMPOTENCY_KEY_HEADER);
-
-        if (header != null && header.value() != null) {
-            return new String(header.value());
-        }
-        return null;
-    }
-
     /**
      * Attempts to deserialize the message payload byte array into an
      * {@link OrderRequestDTO}.
@@ -196,9 +186,10 @@ public class DltConsumerService {
                     order.setStatus(OrderStatus.FAILED);
                     order.setFailureReason(failureReason);
 
-                    orderRepository.save(order);
+                    Order savedOrder = orderRepository.save(order);
                     log.info("Marked existing order with key {} as FAILED.", idempotencyKey);
                     dltOrdersMarkedFailedCounter.increment();
+                    publishFailure(savedOrder);
                 } else {
                     log.warn(
                             "Order with key {} already in terminal status {} or completed status {}. Not marking as FAILED.",
@@ -220,9 +211,10 @@ public class DltConsumerService {
                     failedOrder.getItems().forEach(item -> item.setOrder(failedOrder));
                 }
 
-                orderRepository.save(failedOrder);
+                Order savedOrder = orderRepository.save(failedOrder);
                 log.info("Created new order record with key {} in FAILED status.", idempotencyKey);
                 dltOrdersMarkedFailedCounter.increment();
+                publishFailure(savedOrder);
             } else {
                 // Do not find an existing order and we could not parse the DTO. Only log.
                 log.error("Order with key {} not found and DTO could not be parsed. Cannot update status.",
@@ -239,6 +231,19 @@ public class DltConsumerService {
         }
     }
 
+    /**
+     * Pushes the failure of an order to the subscribers of its status stream.
+     *
+     * @param failedOrder The order marked as FAILED, as returned by the
+     *                    repository, so its change time is the one persisted.
+     */
+    private void publishFailure(Order failedOrder) {
+        if (failedOrder.getId() == null) {
+            return;
+        }
+        orderStatusBroadcaster.publish(OrderStatusChange.of(failedOrder));
+    }
+
     /**
      * Extracts a failure reason string from Kafka DLT headers.
      * Prefers the exception message, optionally prefixed by the exception class
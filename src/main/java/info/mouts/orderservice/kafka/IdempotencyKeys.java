@@ -0,0 +1,62 @@
+package info.mouts.orderservice.kafka;
+
+import java.nio.charset.StandardCharsets;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import info.mouts.orderservice.service.OrderService;
+import info.mouts.orderservice.util.KafkaUtils;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Idempotency key handling shared by the consumers of the orders topic and of
+ * its Dead Letter Topic.
+ */
+@Slf4j
+final class IdempotencyKeys {
+
+    private IdempotencyKeys() {
+    }
+
+    /**
+     * Extracts the idempotency key from the Kafka message headers.
+     *
+     * @param consumerRecord The Kafka consumer record.
+     * @return The idempotency key as a String, or null if the header is not found
+     *         or has no value.
+     */
+    static String fromHeaders(ConsumerRecord<?, ?> consumerRecord) {
+        Header header = consumerRecord.headers().lastHeader(KafkaUtils.IDEMPOTENCY_KEY_HEADER);
+
+        if (header != null && header.value() != null) {
+            return new String(header.value(), StandardCharsets.UTF_8);
+        }
+        return null;
+    }
+
+    /**
+     * Checks whether a processing failure is a violation of the unique
+     * idempotency key of an order that was already saved, for example by
+     * another instance whose claim was deferred.
+     *
+     * @param orderService   The service used to look the order up.
+     * @param idempotencyKey The idempotency key of the failed order.
+     * @param exception      The processing failure.
+     * @return {@code true} if the order was already saved.
+     */
+    static boolean isAlreadySaved(OrderService orderService, String idempotencyKey, Exception exception) {
+        if (!(exception instanceof DataIntegrityViolationException)) {
+            return false;
+        }
+
+        try {
+            return orderService.existsByIdempotencyKey(idempotencyKey);
+        } catch (Exception e) {
+            log.warn("Failed to check whether an order with idempotency key {} exists: {}", idempotencyKey,
+                    e.getMessage());
+            return false;
+        }
+    }
+}
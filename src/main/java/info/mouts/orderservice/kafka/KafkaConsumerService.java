@@ -1,45 +1,54 @@
 package info.mouts.orderservice.kafka;
 
-import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.stereotype.Service;
 
+import info.mouts.orderservice.domain.IdempotencyStatus;
 import info.mouts.orderservice.dto.OrderRequestDTO;
+import info.mouts.orderservice.monitoring.IngestStage;
+import info.mouts.orderservice.service.IdempotencyStore;
 import info.mouts.orderservice.service.OrderService;
 import info.mouts.orderservice.util.KafkaUtils;
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 
 /**
  * Service responsible for consuming messages from the main Kafka orders topic.
- * It handles incoming order requests, ensures idempotency using Redis,
+ * It handles incoming order requests, ensures idempotency using the
+ * {@link IdempotencyStore},
  * and delegates the actual order processing to the {@link OrderService}.
+ * It is only started when {@code app.kafka.consumer.mode} is {@code record}
+ * (the default), see {@link BatchKafkaConsumerService} for the batch mode and
+ * {@link ParallelKafkaConsumerService} for the parallel mode.
  */
 @Service
 @Slf4j
 public class KafkaConsumerService {
     private final OrderService orderService;
-    private final StringRedisTemplate redisTemplate;
+    private final IdempotencyStore idempotencyStore;
     private final MeterRegistry meterRegistry;
 
     private Counter receivedOrdersCounter;
     private Counter processedOrdersCounter;
     private Counter failedOrdersCounter;
+    private Timer claimTimer;
 
     /**
      * Constructs an instance of {@code KafkaConsumerService}.
      *
-     * @param orderService  The service responsible for processing order logic.
-     * @param redisTemplate The Spring Redis template for interacting with Redis
-     *                      (used for idempotency).
+     * @param orderService     The service responsible for processing order logic.
+     * @param idempotencyStore The store used to claim and finalize idempotency
+     *                         keys.
+     * @param meterRegistry    The registry for collecting metrics.
      */
-    public KafkaConsumerService(OrderService orderService, StringRedisTemplate redisTemplate,
+    public KafkaConsumerService(OrderService orderService, IdempotencyStore idempotencyStore,
             MeterRegistry meterRegistry) {
         this.orderService = orderService;
-        this.redisTemplate = redisTemplate;
+        this.idempotencyStore = idempotencyStore;
         this.meterRegistry = meterRegistry;
 
         initializeMetrics(this.meterRegistry);
@@ -48,12 +57,16 @@ public class KafkaConsumerService {
     /**
      * Kafka listener method for the main orders topic.
      * Receives {@link OrderRequestDTO} messages.
-     * Performs an idempotency check using Redis based on the provided idempotency
-     * key header.
+     * Claims the provided idempotency key header in the {@link IdempotencyStore}
+     * with a single round trip.
      * If the key is new it delegates to
      * {@link OrderService#processIncomingOrder}.
      * If the key indicates the message is already being processed or has been
-     * processed, it skips the processing.
+     * processed, it skips the processing. If saving the order fails because an
+     * order with the same key was already saved, for example by another instance
+     * whose claim was deferred, the message is skipped as a duplicate as well.
+     * If processing fails otherwise the key is released, so the retries can claim
+     * it again.
      *
      * @param orderRequestDTO The deserialized order request payload.
      * @param idempotencyKey  The idempotency key extracted from the message headers
@@ -61,21 +74,18 @@ public class KafkaConsumerService {
      * @throws Exception If an error occurs during order processing (re-thrown to
      *                   trigger Kafka retries/DLT).
      */
-    @KafkaListener(topics = "${app.kafka.orders-received-topic}", groupId = "${spring.kafka.consumer.group-id}")
+    @KafkaListener(topics = "${app.kafka.orders-received-topic}", groupId = "${spring.kafka.consumer.group-id}", autoStartup = "#{'${app.kafka.consumer.mode:record}' == 'record'}")
     public void listen(@Payload OrderRequestDTO orderRequestDTO,
             @Header(name = KafkaUtils.IDEMPOTENCY_KEY_HEADER, required = true) String idempotencyKey) {
         log.info("Received incoming order request to process");
 
         receivedOrdersCounter.increment();
 
-        String redisKey = KafkaUtils.IDEMPOTENCY_KEY_PREFIX + idempotencyKey;
+        IdempotencyStatus status = claimTimer.record(() -> idempotencyStore.claim(idempotencyKey));
 
-        Boolean lockAcquired = redisTemplate.opsForValue().setIfAbsent(redisKey,
-                KafkaUtils.PROCESSING_STATUS, KafkaUtils.PROCESSING_TTL);
-
-        if (Boolean.FALSE.equals(lockAcquired)) {
+        if (status != IdempotencyStatus.NEW) {
             failedOrdersCounter.increment();
-            handleExistingKey(idempotencyKey, redisKey);
+            handleExistingKey(idempotencyKey, status);
             return;
         }
 
@@ -84,48 +94,50 @@ public class KafkaConsumerService {
 
         try {
             orderService.processIncomingOrder(orderRequestDTO, idempotencyKey);
-            redisTemplate.opsForValue().set(redisKey, KafkaUtils.PROCESSED_STATUS,
-                    KafkaUtils.PROCESSED_TTL);
+            idempotencyStore.markProcessed(idempotencyKey);
             processedOrdersCounter.increment();
         } catch (Exception e) {
+            if (IdempotencyKeys.isAlreadySaved(orderService, idempotencyKey, e)) {
+                log.warn("Order with idempotency key {} was already saved by another consumer, skipping",
+                        idempotencyKey);
+                failedOrdersCounter.increment();
+                idempotencyStore.markProcessed(idempotencyKey);
+                return;
+            }
+
             log.error("Error processing message for idempotency key {}: {}", idempotencyKey, e.getMessage(), e);
             failedOrdersCounter.increment();
+            idempotencyStore.release(idempotencyKey);
             throw e;
         }
     }
 
     /**
-     * Handles the scenario when an idempotency key is already found in Redis during
-     * the initial check.
-     * Logs the current status (PROCESSING or PROCESSED) and determines whether to
-     * skip the current message.
+     * Handles the scenario when an idempotency key was already claimed.
+     * Logs the current status (PROCESSING or PROCESSED) and skips the current
+     * message.
      *
      * @param idempotencyKey The idempotency key that already exists.
-     * @param redisKey       The corresponding key used in Redis (prefix +
-     *                       idempotencyKey).
+     * @param currentStatus  The current status of the key.
      */
-    private void handleExistingKey(String idempotencyKey, String redisKey) {
-        String currentStatus = redisTemplate.opsForValue().get(redisKey);
-        log.warn("Idempotency key {} already exists in Redis with status: {}", idempotencyKey, currentStatus);
+    private void handleExistingKey(String idempotencyKey, IdempotencyStatus currentStatus) {
+        log.warn("Idempotency key {} already exists with status: {}", idempotencyKey, currentStatus);
 
-        if (KafkaUtils.PROCESSED_STATUS.equals(currentStatus)) {
+        if (currentStatus == IdempotencyStatus.PROCESSED) {
             // The order was already processed, so we can skip processing it again.
             log.info("Order with idempotency key {} already processed, skipping", idempotencyKey);
-        } else if (KafkaUtils.PROCESSING_STATUS.equals(currentStatus)) {
-            // Another instance might be processing or the previous one failed.
+        } else {
+            // Another instance might be processing the same message.
             // Logging and NOT processing again here avoids duplicate processing.
             // The instance that originally set the key (or its retries) is responsible.
             log.warn("Skipping processing for key {} as it is already marked as PROCESSING.", idempotencyKey);
-        } else {
-            // This is an unexpected status, so we skip processing it.
-            log.error("Skipping processing for key {} due to unexpected status in Redis: {}", idempotencyKey,
-                    currentStatus);
         }
     }
 
     /**
      * Initializes the Micrometer metrics for the order service.
-     * Registers counters for received, processed, and failed orders
+     * Registers counters for received, processed, and failed orders, and the
+     * timer of the idempotency claims.
      *
      * @param registry The meter registry to register the metrics with.
      */
@@ -140,5 +152,6 @@ public class KafkaConsumerService {
                 .description("Total number of orders failed during processing (before DLT)")
                 .tag("reason", "processing_exception")
                 .register(registry);
+        this.claimTimer = IngestStage.CLAIM.timer(registry);
     }
 }
@@ -0,0 +1,74 @@
+package info.mouts.orderservice.kafka;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Serializer;
+import org.springframework.kafka.support.mapping.AbstractJavaTypeMapper;
+
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import info.mouts.orderservice.dto.OrderProcessedEventDTO;
+
+/**
+ * Kafka serializer specialized for {@link OrderProcessedEventDTO}.
+ * <p>
+ * Unlike the generic {@code JsonSerializer}, it resolves the Jackson serializer
+ * and the type header once, when it is created, and writes each event into a
+ * buffer pre-sized from its number of items, so most events are written
+ * without growing the buffer. The output is the same JSON, with the same
+ * {@code __TypeId__} header, so consumers see no difference.
+ * </p>
+ */
+public class OrderProcessedEventSerializer implements Serializer<OrderProcessedEventDTO> {
+    /**
+     * The value of the type header, which is always the event class.
+     */
+    public static final String TYPE_ID = OrderProcessedEventDTO.class.getName();
+
+    private static final byte[] TYPE_ID_BYTES = TYPE_ID.getBytes(StandardCharsets.UTF_8);
+
+    private static final int BASE_SIZE = 256;
+    private static final int SIZE_PER_ITEM = 96;
+
+    private final ObjectWriter writer;
+
+    /**
+     * Constructs an instance of {@code OrderProcessedEventSerializer}.
+     *
+     * @param objectMapper The object mapper whose configuration is used to write
+     *                     the events.
+     */
+    public OrderProcessedEventSerializer(ObjectMapper objectMapper) {
+        this.writer = objectMapper.writerFor(OrderProcessedEventDTO.class);
+    }
+
+    @Override
+    public byte[] serialize(String topic, OrderProcessedEventDTO data) {
+        if (data == null) {
+            return null;
+        }
+
+        int itemCount = data.getItems() != null ? data.getItems().size() : 0;
+
+        try (ByteArrayBuilder buffer = new ByteArrayBuilder(BASE_SIZE + itemCount * SIZE_PER_ITEM)) {
+            writer.writeValue(buffer, data);
+            return buffer.toByteArray();
+        } catch (IOException e) {
+            throw new SerializationException("Can't serialize processed order event for topic " + topic, e);
+        }
+    }
+
+    @Override
+    public byte[] serialize(String topic, Headers headers, OrderProcessedEventDTO data) {
+        if (data != null) {
+            headers.remove(AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME);
+            headers.add(AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME, TYPE_ID_BYTES);
+        }
+        return serialize(topic, data);
+    }
+}
@@ -0,0 +1,216 @@
+package info.mouts.orderservice.kafka;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.internals.RecordHeader;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.kafka.support.mapping.AbstractJavaTypeMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import info.mouts.orderservice.domain.OutboxEvent;
+import info.mouts.orderservice.monitoring.EventAge;
+import info.mouts.orderservice.monitoring.IngestStage;
+import info.mouts.orderservice.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Publishes the events of the transactional outbox to Kafka.
+ * <p>
+ * On every run it locks a batch of the oldest events with
+ * {@code FOR UPDATE SKIP LOCKED}, sends all of them through the
+ * {@code processedEventsKafkaTemplate} without waiting for each
+ * acknowledgement, waits for the whole batch and deletes the published events
+ * with a single statement, all within one transaction. Events whose send fails
+ * stay in the outbox and are retried on the next run, so delivery is
+ * at-least-once. Since locked rows are skipped, any number of instances can run
+ * the relay at the same time.
+ * </p>
+ * <p>
+ * The payloads are already serialized, so they are sent as is, with the type
+ * header the {@link OrderProcessedEventSerializer} would have added.
+ * </p>
+ * It is only active when {@code app.outbox.enabled} is {@code true}.
+ */
+@Component
+@ConditionalOnProperty(name = "app.outbox.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class OutboxRelay {
+    private final OutboxEventRepository outboxEventRepository;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final int batchSize;
+    private final Duration sendTimeout;
+
+    private DistributionSummary batchSizeSummary;
+    private Timer relayLagTimer;
+    private Counter publishedEventsCounter;
+    private Counter failedEventsCounter;
+    private Timer publishTimer;
+    private Timer publishedAgeTimer;
+
+    /**
+     * Constructs an instance of {@code OutboxRelay}.
+     *
+     * @param outboxEventRepository The repository for outbox data access.
+     * @param kafkaTemplate         The Kafka template used to publish the events.
+     * @param transactionManager    The transaction manager for each relay run.
+     * @param meterRegistry         The registry for collecting metrics.
+     * @param batchSize             The maximum number of events published per
+     *                              transaction.
+     * @param sendTimeout           How long to wait for Kafka to acknowledge a
+     *                              batch.
+     */
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+            @Qualifier("processedEventsKafkaTemplate") KafkaTemplate<String, Object> kafkaTemplate,
+            PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+            @Value("${app.outbox.relay.batch-size:500}") int batchSize,
+            @Value("${app.outbox.relay.send-timeout:30s}") Duration sendTimeout) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.kafkaTemplate = kafkaTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.batchSize = batchSize;
+        this.sendTimeout = sendTimeout;
+
+        initializeMetrics(this.meterRegistry);
+    }
+
+    /**
+     * Drains the outbox, one batch per transaction, until a batch comes back
+     * smaller than the batch size or a send fails.
+     */
+    @Scheduled(fixedDelayString = "${app.outbox.relay.interval:100ms}")
+    public void relay() {
+        int published;
+
+        do {
+            published = transactionTemplate.execute(status -> relayBatch());
+        } while (published == batchSize);
+    }
+
+    /**
+     * Publishes a single batch of outbox events and deletes the published ones.
+     * Must be called within a transaction.
+     *
+     * @return The number of published events, or -1 if any send failed.
+     */
+    int relayBatch() {
+        List<OutboxEvent> batch = outboxEventRepository.lockNextBatch(batchSize);
+
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        batchSizeSummary.record(batch.size());
+
+        List<CompletableFuture<SendResult<String, Object>>> sends = new ArrayList<>(batch.size());
+
+        for (OutboxEvent outboxEvent : batch) {
+            sends.add(send(outboxEvent));
+        }
+
+        try {
+            CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new))
+                    .get(sendTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            // Failed sends are counted and logged below
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<UUID> publishedIds = new ArrayList<>(batch.size());
+
+        for (int i = 0; i < batch.size(); i++) {
+            OutboxEvent outboxEvent = batch.get(i);
+            CompletableFuture<SendResult<String, Object>> sendResult = sends.get(i);
+
+            if (sendResult.isDone() && !sendResult.isCompletedExceptionally()) {
+                publishedIds.add(outboxEvent.getId());
+                relayLagTimer.record(Duration.between(outboxEvent.getCreatedAt(), now));
+            } else {
+                log.error("Failed to publish outbox event {} for aggregate {} to topic {}, it will be retried",
+                        outboxEvent.getId(), outboxEvent.getAggregateId(), outboxEvent.getTopic());
+            }
+        }
+
+        outboxEventRepository.deleteAllByIdInBatch(publishedIds);
+
+        publishedEventsCounter.increment(publishedIds.size());
+        failedEventsCounter.increment(batch.size() - publishedIds.size());
+
+        log.info("Published {} of {} outbox events", publishedIds.size(), batch.size());
+        return publishedIds.size() == batch.size() ? batch.size() : -1;
+    }
+
+    private CompletableFuture<SendResult<String, Object>> send(OutboxEvent outboxEvent) {
+        List<Header> headers = List.of(new RecordHeader(AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME,
+                OrderProcessedEventSerializer.TYPE_ID.getBytes(StandardCharsets.UTF_8)));
+
+        try {
+            long start = System.nanoTime();
+
+            return kafkaTemplate.send(new ProducerRecord<>(outboxEvent.getTopic(), null, outboxEvent.getMessageKey(),
+                    outboxEvent.getPayload().getBytes(StandardCharsets.UTF_8), headers))
+                    .whenComplete((result, ex) -> {
+                        if (ex == null) {
+                            publishTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                            EventAge.record(publishedAgeTimer, outboxEvent.getReceivedAt());
+                        }
+                    });
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Initializes the Micrometer metrics for the outbox relay.
+     * Registers a summary of the batch sizes, a timer of the time events spent in
+     * the outbox before being published, counters for published and failed
+     * events, the timer of the publish {@link IngestStage} and the timer of the
+     * published {@link EventAge}.
+     *
+     * @param registry The meter registry to register the metrics with.
+     */
+    private void initializeMetrics(MeterRegistry registry) {
+        this.batchSizeSummary = DistributionSummary.builder("outbox.relay.batch.size")
+                .description("Number of outbox events locked per relay batch")
+                .publishPercentiles(0.5, 0.95)
+                .register(registry);
+        this.relayLagTimer = Timer.builder("outbox.relay.lag")
+                .description("Time between writing an event to the outbox and publishing it to Kafka")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(registry);
+        this.publishedEventsCounter = Counter.builder("outbox.relay.events")
+                .description("Total number of outbox events handled by the relay")
+                .tag("result", "published")
+                .register(registry);
+        this.failedEventsCounter = Counter.builder("outbox.relay.events")
+                .description("Total number of outbox events handled by the relay")
+                .tag("result", "failed")
+                .register(registry);
+        this.publishTimer = IngestStage.PUBLISH.timer(registry);
+        this.publishedAgeTimer = EventAge.PUBLISHED.timer(registry);
+    }
+}
@@ -0,0 +1,191 @@
+package info.mouts.orderservice.kafka;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.stereotype.Service;
+
+import info.mouts.orderservice.dto.OrderRequestDTO;
+import info.mouts.orderservice.util.KafkaUtils;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Parallel variant of {@link KafkaConsumerService} for the main orders topic.
+ * It receives a whole poll at once and processes the records of different keys
+ * concurrently on virtual threads, while the records of the same key are still
+ * processed one after another, in offset order.
+ * Each record goes through {@link KafkaConsumerService#listen}, so idempotency
+ * handling and metrics are the same as in the record mode.
+ * It is only started when {@code app.kafka.consumer.mode} is {@code parallel}.
+ */
+@Service
+@Slf4j
+public class ParallelKafkaConsumerService {
+    private final KafkaConsumerService kafkaConsumerService;
+    private final MeterRegistry meterRegistry;
+    private final Semaphore permits;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private DistributionSummary keyGroupsSummary;
+
+    /**
+     * Constructs an instance of {@code ParallelKafkaConsumerService}.
+     *
+     * @param kafkaConsumerService The record consumer that processes each record.
+     * @param meterRegistry        The registry for collecting metrics.
+     * @param maxConcurrency       The maximum number of keys processed at the same
+     *                             time.
+     */
+    public ParallelKafkaConsumerService(KafkaConsumerService kafkaConsumerService, MeterRegistry meterRegistry,
+            @Value("${app.kafka.consumer.parallel.max-concurrency:16}") int maxConcurrency) {
+        this.kafkaConsumerService = kafkaConsumerService;
+        this.meterRegistry = meterRegistry;
+        this.permits = new Semaphore(maxConcurrency);
+
+        initializeMetrics(this.meterRegistry);
+    }
+
+    /**
+     * Kafka batch listener method for the main orders topic.
+     * <p>
+     * The records are grouped by message key (or by idempotency key when the
+     * message has no key). Each group runs on its own virtual thread, with at
+     * most {@code app.kafka.consumer.parallel.max-concurrency} groups running at
+     * the same time. When a record fails, the remaining records of its group are
+     * not processed, so they are never handled before it.
+     * </p>
+     * <p>
+     * The listener returns once every group is done. If any record failed, a
+     * {@link BatchListenerFailedException} is thrown for the one with the lowest
+     * index, so the error handler commits the offsets of the contiguous completed
+     * records before it and redelivers the rest. Records after it that already
+     * completed are skipped on redelivery by the idempotency check.
+     * </p>
+     *
+     * @param records The records of the current poll.
+     * @throws BatchListenerFailedException If processing of any record failed.
+     */
+    @KafkaListener(topics = "${app.kafka.orders-received-topic}", groupId = "${spring.kafka.consumer.group-id}", containerFactory = "batchKafkaListenerContainerFactory", autoStartup = "#{'${app.kafka.consumer.mode:record}' == 'parallel'}")
+    public void listen(List<ConsumerRecord<String, OrderRequestDTO>> records) {
+        Map<String, List<Integer>> indexesByKey = new LinkedHashMap<>();
+
+        for (int index = 0; index < records.size(); index++) {
+            indexesByKey.computeIfAbsent(getOrderingKey(records.get(index), index), key -> new ArrayList<>())
+                    .add(index);
+        }
+
+        log.info("Received a batch of {} incoming order requests with {} distinct keys to process", records.size(),
+                indexesByKey.size());
+
+        keyGroupsSummary.record(indexesByKey.size());
+
+        Map<Integer, Exception> failuresByIndex = new ConcurrentSkipListMap<>();
+        List<CompletableFuture<Void>> tasks = indexesByKey.values().stream()
+                .map(indexes -> CompletableFuture.runAsync(() -> processInOrder(records, indexes, failuresByIndex),
+                        executor))
+                .toList();
+
+        CompletableFuture.allOf(tasks.toArray(CompletableFuture[]::new)).join();
+
+        if (!failuresByIndex.isEmpty()) {
+            Map.Entry<Integer, Exception> firstFailure = failuresByIndex.entrySet().iterator().next();
+            log.error("{} of {} records failed in the batch, first failure at index {}: {}",
+                    failuresByIndex.size(), records.size(), firstFailure.getKey(),
+                    firstFailure.getValue().getMessage());
+
+            throw new BatchListenerFailedException(firstFailure.getValue().getMessage(), firstFailure.getValue(),
+                    firstFailure.getKey());
+        }
+    }
+
+    /**
+     * Processes the records of a single key one after another, stopping at the
+     * first failure.
+     *
+     * @param records         The records of the current poll.
+     * @param indexes         The indexes of the records of the key, in offset
+     *                        order.
+     * @param failuresByIndex The failures of the batch, keyed by record index.
+     */
+    private void processInOrder(List<ConsumerRecord<String, OrderRequestDTO>> records, List<Integer> indexes,
+            Map<Integer, Exception> failuresByIndex) {
+        permits.acquireUninterruptibly();
+
+        try {
+            for (int index : indexes) {
+                ConsumerRecord<String, OrderRequestDTO> consumerRecord = records.get(index);
+
+                try {
+                    String idempotencyKey = IdempotencyKeys.fromHeaders(consumerRecord);
+
+                    if (idempotencyKey == null) {
+                        throw new IllegalArgumentException("Missing " + KafkaUtils.IDEMPOTENCY_KEY_HEADER + " header");
+                    }
+
+                    kafkaConsumerService.listen(consumerRecord.value(), idempotencyKey);
+                } catch (Exception e) {
+                    failuresByIndex.put(index, e);
+
+                    if (indexes.size() > 1) {
+                        log.warn("Holding back the remaining records of key {} until the record at index {} succeeds",
+                                consumerRecord.key(), index);
+                    }
+                    return;
+                }
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Returns the key that decides which records must be processed in order:
+     * the message key, the idempotency key if there is no message key, or a key
+     * unique to the record if it has neither.
+     *
+     * @param consumerRecord The Kafka consumer record.
+     * @param index          The index of the record in the batch.
+     * @return The ordering key of the record.
+     */
+    private String getOrderingKey(ConsumerRecord<String, OrderRequestDTO> consumerRecord, int index) {
+        if (consumerRecord.key() != null) {
+            return "key:" + consumerRecord.key();
+        }
+
+        String idempotencyKey = IdempotencyKeys.fromHeaders(consumerRecord);
+        return idempotencyKey != null ? "idempotency:" + idempotencyKey : "index:" + index;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Initializes the Micrometer metrics for the parallel consumer.
+     * Registers a summary of the number of distinct keys per batch, which bounds
+     * the parallelism of each batch.
+     *
+     * @param registry The meter registry to register the metrics with.
+     */
+    private void initializeMetrics(MeterRegistry registry) {
+        this.keyGroupsSummary = DistributionSummary.builder("orders.parallel.key.groups")
+                .description("Number of distinct keys processed concurrently per batch")
+                .publishPercentiles(0.5, 0.95)
+                .register(registry);
+    }
+}
@@ -0,0 +1,61 @@
+package info.mouts.orderservice.kafka;
+
+import java.time.Instant;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.springframework.kafka.listener.BatchInterceptor;
+import org.springframework.kafka.listener.RecordInterceptor;
+import org.springframework.stereotype.Component;
+
+import info.mouts.orderservice.dto.OrderRequestDTO;
+
+/**
+ * Copies the timestamp of each incoming record to its
+ * {@link OrderRequestDTO}, so the age of the record can be measured once its
+ * order is persisted and its processed event published, see
+ * {@link info.mouts.orderservice.monitoring.EventAge}.
+ * <p>
+ * Spring Boot applies it to the listener container factories it configures,
+ * for the record, batch and parallel consumer modes alike. Records with any
+ * other value are passed through untouched.
+ * </p>
+ */
+@Component
+public class RecordTimestampInterceptor implements RecordInterceptor<Object, Object>, BatchInterceptor<Object, Object> {
+
+    /**
+     * Sets the received timestamp of an incoming order request.
+     *
+     * @param consumerRecord The record about to be passed to the listener.
+     * @param consumer       The consumer that polled the record.
+     * @return The same record.
+     */
+    @Override
+    public ConsumerRecord<Object, Object> intercept(ConsumerRecord<Object, Object> consumerRecord,
+            Consumer<Object, Object> consumer) {
+        stampReceivedAt(consumerRecord);
+        return consumerRecord;
+    }
+
+    /**
+     * Sets the received timestamp of every incoming order request of a batch.
+     *
+     * @param records  The records about to be passed to the listener.
+     * @param consumer The consumer that polled the records.
+     * @return The same records.
+     */
+    @Override
+    public ConsumerRecords<Object, Object> intercept(ConsumerRecords<Object, Object> records,
+            Consumer<Object, Object> consumer) {
+        records.forEach(this::stampReceivedAt);
+        return records;
+    }
+
+    private void stampReceivedAt(ConsumerRecord<Object, Object> consumerRecord) {
+        if (consumerRecord.value() instanceof OrderRequestDTO request && consumerRecord.timestamp() >= 0) {
+            request.setReceivedAt(Instant.ofEpochMilli(consumerRecord.timestamp()));
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package info.mouts.orderservice.kafka;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * {@link Deserializer} recording the time taken by another one, including the
+ * records it fails to deserialize.
+ *
+ * @param <T> The type of the deserialized values.
+ */
+public class TimedDeserializer<T> implements Deserializer<T> {
+    private final Deserializer<T> delegate;
+    private final Timer timer;
+
+    /**
+     * Constructs an instance of {@code TimedDeserializer}.
+     *
+     * @param delegate The deserializer doing the work.
+     * @param timer    The timer recording each deserialization.
+     */
+    public TimedDeserializer(Deserializer<T> delegate, Timer timer) {
+        this.delegate = delegate;
+        this.timer = timer;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        delegate.configure(configs, isKey);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public T deserialize(String topic, byte[] data) {
+        long start = System.nanoTime();
+
+        try {
+            return delegate.deserialize(topic, data);
+        } finally {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public T deserialize(String topic, Headers headers, byte[] data) {
+        long start = System.nanoTime();
+
+        try {
+            return delegate.deserialize(topic, headers, data);
+        } finally {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public T deserialize(String topic, Headers headers, ByteBuffer data) {
+        long start = System.nanoTime();
+
+        try {
+            return delegate.deserialize(topic, headers, data);
+        } finally {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() {
+        delegate.close();
+    }
+}
@@ -14,6 +14,7 @@ import info.mouts.orderservice.dto.OrderItemResponseDTO;
 import info.mouts.orderservice.dto.OrderProcessedEventDTO;
 import info.mouts.orderservice.dto.OrderRequestDTO;
 import info.mouts.orderservice.dto.OrderResponseDTO;
+import info.mouts.orderservice.dto.OrderSummary;
 
 /**
  * Mapper interface for converting between Order DTOs (Data Transfer Objects)
@@ -99,6 +100,14 @@ public interface OrderMapper {
     @Mapping(source = "updatedAt", target = "processedAt")
     OrderResponseDTO toOrderResponseDto(Order entity);
 
+    /**
+     * Maps an {@link OrderSummary} row to an {@link OrderResponseDTO}.
+     *
+     * @param summary The source {@link OrderSummary}.
+     * @return The mapped {@link OrderResponseDTO}.
+     */
+    OrderResponseDTO toOrderResponseDto(OrderSummary summary);
+
     /**
      * Maps an {@link Order} entity to an {@link OrderProcessedEventDTO}.
      * Used for creating event payloads after an order is processed.
@@ -0,0 +1,255 @@
+package info.mouts.orderservice.monitoring;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.admin.ListOffsetsResult.ListOffsetsResultInfo;
+import org.apache.kafka.clients.admin.OffsetSpec;
+import org.apache.kafka.clients.admin.TopicDescription;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.KafkaFuture;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.UnknownTopicOrPartitionException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MultiGauge;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Publishes the lag of the consumer groups of the Kafka listener containers,
+ * per partition, as the {@value #METER_NAME} gauge tagged with {@code group},
+ * {@code topic} and {@code partition}.
+ * <p>
+ * On every run it reads, through an {@link Admin} client, the committed
+ * offsets of each group and the end offsets of the topics it listens to, the
+ * same way external lag exporters do. Unlike the lag reported by the consumers
+ * themselves, it keeps growing while a listener is stuck, retrying or stopped.
+ * Partitions without a committed offset count from their first offset, as the
+ * consumers start there. A group whose offsets cannot be read is left out until
+ * the next run instead of reporting a stale lag.
+ * </p>
+ * It is active unless {@code app.kafka.lag-monitor.enabled} is {@code false}.
+ */
+@Component
+@ConditionalOnProperty(name = "app.kafka.lag-monitor.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class ConsumerLagMonitor {
+    public static final String METER_NAME = "kafka.consumer.group.lag";
+
+    private final KafkaListenerEndpointRegistry endpointRegistry;
+    private final Admin admin;
+    private final Duration timeout;
+
+    private MultiGauge lagGauge;
+    private Counter failedRefreshesCounter;
+
+    /**
+     * Constructs an instance of {@code ConsumerLagMonitor}.
+     *
+     * @param endpointRegistry The registry of the Kafka listener containers.
+     * @param meterRegistry    The registry for collecting metrics.
+     * @param kafkaAdmin       The Kafka admin whose client configuration,
+     *                         security and SSL included, is used for the admin
+     *                         client.
+     * @param kafkaProperties  The Kafka properties, for the brokers the
+     *                         consumers connect to.
+     * @param timeout          How long to wait for the offsets of a group.
+     */
+    public ConsumerLagMonitor(KafkaListenerEndpointRegistry endpointRegistry, MeterRegistry meterRegistry,
+            KafkaAdmin kafkaAdmin, KafkaProperties kafkaProperties,
+            @Value("${app.kafka.lag-monitor.timeout:5s}") Duration timeout) {
+        this.endpointRegistry = endpointRegistry;
+        this.admin = Admin.create(adminProperties(kafkaAdmin, kafkaProperties));
+        this.timeout = timeout;
+
+        initializeMetrics(meterRegistry);
+    }
+
+    /**
+     * Returns the configuration of the admin client: the one of the Kafka admin,
+     * connected to the brokers of the consumers when they have their own.
+     *
+     * @param kafkaAdmin      The Kafka admin.
+     * @param kafkaProperties The Kafka properties.
+     * @return The admin client configuration.
+     */
+    static Map<String, Object> adminProperties(KafkaAdmin kafkaAdmin, KafkaProperties kafkaProperties) {
+        Map<String, Object> properties = new HashMap<>(kafkaAdmin.getConfigurationProperties());
+        List<String> consumerBootstrapServers = kafkaProperties.getConsumer().getBootstrapServers();
+
+        if (consumerBootstrapServers != null) {
+            properties.put(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, consumerBootstrapServers);
+        }
+        return properties;
+    }
+
+    /**
+     * Reads the lag of every consumer group and replaces the rows of the lag
+     * gauge with it.
+     */
+    @Scheduled(fixedDelayString = "${app.kafka.lag-monitor.interval:15s}")
+    public void refresh() {
+        List<MultiGauge.Row<?>> rows = new ArrayList<>();
+
+        topicsByGroup().forEach((groupId, topics) -> {
+            try {
+                lagByPartition(groupId, topics).forEach((partition, lag) -> rows.add(MultiGauge.Row.of(
+                        Tags.of("group", groupId, "topic", partition.topic(), "partition",
+                                String.valueOf(partition.partition())),
+                        lag)));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failedRefreshesCounter.increment();
+            } catch (ExecutionException | TimeoutException e) {
+                failedRefreshesCounter.increment();
+                log.warn("Failed to read the lag of consumer group {} on topics {}: {}", groupId, topics,
+                        e.getMessage());
+            }
+        });
+
+        lagGauge.register(rows, true);
+    }
+
+    /**
+     * Returns the topics of the listener containers, by consumer group. Stopped
+     * containers are included, since their group may still be consumed by
+     * another container or instance.
+     *
+     * @return The topics each consumer group listens to.
+     */
+    Map<String, Set<String>> topicsByGroup() {
+        Map<String, Set<String>> topicsByGroup = new TreeMap<>();
+
+        for (MessageListenerContainer container : endpointRegistry.getListenerContainers()) {
+            String[] topics = container.getContainerProperties().getTopics();
+
+            if (container.getGroupId() != null && topics != null) {
+                topicsByGroup.computeIfAbsent(container.getGroupId(), groupId -> new TreeSet<>())
+                        .addAll(Arrays.asList(topics));
+            }
+        }
+        return topicsByGroup;
+    }
+
+    /**
+     * Computes the lag of a consumer group on every partition of the given
+     * topics. Topics that do not exist yet are skipped.
+     *
+     * @param groupId The consumer group.
+     * @param topics  The topics the group listens to.
+     * @return The number of records not yet committed by the group, by
+     *         partition.
+     * @throws ExecutionException   If any of the offsets cannot be read.
+     * @throws TimeoutException     If the offsets are not read within the
+     *                              timeout.
+     * @throws InterruptedException If interrupted while waiting for the offsets.
+     */
+    Map<TopicPartition, Long> lagByPartition(String groupId, Set<String> topics)
+            throws ExecutionException, TimeoutException, InterruptedException {
+        Map<TopicPartition, OffsetAndMetadata> committedOffsets = await(
+                admin.listConsumerGroupOffsets(groupId).partitionsToOffsetAndMetadata());
+        List<TopicPartition> partitions = partitionsOf(topics);
+
+        if (partitions.isEmpty()) {
+            return Map.of();
+        }
+
+        Map<TopicPartition, ListOffsetsResultInfo> endOffsets = listOffsets(partitions, OffsetSpec.latest());
+        List<TopicPartition> uncommitted = partitions.stream()
+                .filter(partition -> committedOffsets.get(partition) == null)
+                .toList();
+        Map<TopicPartition, ListOffsetsResultInfo> startOffsets = uncommitted.isEmpty()
+                ? Map.of()
+                : listOffsets(uncommitted, OffsetSpec.earliest());
+
+        Map<TopicPartition, Long> lagByPartition = new HashMap<>();
+
+        for (TopicPartition partition : partitions) {
+            OffsetAndMetadata committed = committedOffsets.get(partition);
+            long position = committed != null ? committed.offset() : startOffsets.get(partition).offset();
+
+            lagByPartition.put(partition, Math.max(0, endOffsets.get(partition).offset() - position));
+        }
+        return lagByPartition;
+    }
+
+    private List<TopicPartition> partitionsOf(Set<String> topics)
+            throws ExecutionException, TimeoutException, InterruptedException {
+        List<TopicPartition> partitions = new ArrayList<>();
+
+        for (Map.Entry<String, KafkaFuture<TopicDescription>> description : admin.describeTopics(topics)
+                .topicNameValues().entrySet()) {
+            try {
+                await(description.getValue()).partitions()
+                        .forEach(partition -> partitions.add(new TopicPartition(description.getKey(),
+                                partition.partition())));
+            } catch (ExecutionException e) {
+                if (!(e.getCause() instanceof UnknownTopicOrPartitionException)) {
+                    throw e;
+                }
+                log.debug("Topic {} does not exist yet, skipping its lag", description.getKey());
+            }
+        }
+        return partitions;
+    }
+
+    private Map<TopicPartition, ListOffsetsResultInfo> listOffsets(List<TopicPartition> partitions, OffsetSpec spec)
+            throws ExecutionException, TimeoutException, InterruptedException {
+        Map<TopicPartition, OffsetSpec> specs = new HashMap<>();
+        partitions.forEach(partition -> specs.put(partition, spec));
+
+        return await(admin.listOffsets(specs).all());
+    }
+
+    private <T> T await(KafkaFuture<T> future) throws ExecutionException, TimeoutException, InterruptedException {
+        return future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Closes the admin client.
+     */
+    @PreDestroy
+    public void close() {
+        admin.close(timeout);
+    }
+
+    /**
+     * Initializes the Micrometer metrics for the lag monitor.
+     * Registers the lag gauge, whose rows are replaced on every run, and a
+     * counter of the groups whose lag could not be read.
+     *
+     * @param registry The meter registry to register the metrics with.
+     */
+    private void initializeMetrics(MeterRegistry registry) {
+        this.lagGauge = MultiGauge.builder(METER_NAME)
+                .description("Number of records of a partition not yet committed by a consumer group")
+                .baseUnit("records")
+                .register(registry);
+        this.failedRefreshesCounter = Counter.builder("kafka.consumer.group.lag.failures")
+                .description("Total number of times the lag of a consumer group could not be read")
+                .register(registry);
+    }
+}
@@ -0,0 +1,83 @@
+package info.mouts.orderservice.monitoring;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Points an incoming order reaches after its record was written to the orders
+ * topic, each recording the age of the record at that point with the
+ * {@value #METER_NAME} timer and its {@code stage} tag.
+ * <p>
+ * The age is measured from the record timestamp, which is set by the producer
+ * unless the topic uses log append time, so skew between the producer clock
+ * and this service shows up in the ages. Negative ages are ignored. Like the
+ * {@link IngestStage} timers, the timers publish fixed histogram buckets, for
+ * freshness SLOs such as {@code sum by (le) (rate(orders_event_age_seconds_bucket{stage="published"}[5m]))}.
+ * </p>
+ */
+public enum EventAge {
+    /**
+     * The transaction saving the order committed.
+     */
+    PERSISTED("persisted"),
+
+    /**
+     * Kafka acknowledged the processed event of the order.
+     */
+    PUBLISHED("published");
+
+    public static final String METER_NAME = "orders.event.age";
+
+    private static final Duration[] BUCKETS = {
+            Duration.ofMillis(10), Duration.ofMillis(25), Duration.ofMillis(50), Duration.ofMillis(100),
+            Duration.ofMillis(250), Duration.ofMillis(500), Duration.ofSeconds(1), Duration.ofMillis(2500),
+            Duration.ofSeconds(5), Duration.ofSeconds(10), Duration.ofSeconds(30), Duration.ofMinutes(1),
+            Duration.ofMinutes(2), Duration.ofMinutes(5), Duration.ofMinutes(10), Duration.ofMinutes(30)
+    };
+
+    private final String tag;
+
+    EventAge(String tag) {
+        this.tag = tag;
+    }
+
+    /**
+     * Returns the value of the {@code stage} tag of the point.
+     *
+     * @return The tag value.
+     */
+    public String tag() {
+        return tag;
+    }
+
+    /**
+     * Registers the timer of the point, or returns it if it is already
+     * registered.
+     *
+     * @param registry The meter registry to register the timer with.
+     * @return The timer of the point.
+     */
+    public Timer timer(MeterRegistry registry) {
+        return Timer.builder(METER_NAME)
+                .description("Age of incoming order records, from their timestamp to each point of their processing")
+                .tag("stage", tag)
+                .serviceLevelObjectives(BUCKETS)
+                .register(registry);
+    }
+
+    /**
+     * Records the age of a record on the given timer of this enum, unless its
+     * timestamp is unknown.
+     *
+     * @param timer      The timer of the point reached.
+     * @param receivedAt The timestamp of the record, or {@code null}.
+     */
+    public static void record(Timer timer, Instant receivedAt) {
+        if (receivedAt != null) {
+            timer.record(Duration.between(receivedAt, Instant.now()));
+        }
+    }
+}
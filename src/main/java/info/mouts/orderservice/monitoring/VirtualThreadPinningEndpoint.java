@@ -0,0 +1,35 @@
+package info.mouts.orderservice.monitoring;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import info.mouts.orderservice.monitoring.VirtualThreadPinningMonitor.PinningReport;
+
+/**
+ * Actuator endpoint, at {@code /actuator/pinning}, that reports where virtual
+ * threads were pinned to their carrier, as recorded by the
+ * {@link VirtualThreadPinningMonitor}.
+ */
+@Endpoint(id = "pinning")
+public class VirtualThreadPinningEndpoint {
+    private final VirtualThreadPinningMonitor pinningMonitor;
+
+    /**
+     * Constructs an instance of {@code VirtualThreadPinningEndpoint}.
+     *
+     * @param pinningMonitor The monitor recording the pinning events.
+     */
+    public VirtualThreadPinningEndpoint(VirtualThreadPinningMonitor pinningMonitor) {
+        this.pinningMonitor = pinningMonitor;
+    }
+
+    /**
+     * Returns the pinning recorded since the application started.
+     *
+     * @return The pinning report.
+     */
+    @ReadOperation
+    public PinningReport pinning() {
+        return pinningMonitor.report();
+    }
+}
@@ -0,0 +1,222 @@
+package info.mouts.orderservice.monitoring;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.context.SmartLifecycle;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Records, through a JFR event stream, every time a virtual thread blocks
+ * while pinned to its carrier thread for longer than a threshold.
+ * <p>
+ * A virtual thread is pinned when it blocks inside a {@code synchronized}
+ * block or a native frame, which on Java 21 is still common in JDBC drivers,
+ * connection pools and Hibernate. While pinned it holds its carrier, so a few
+ * of them can stall every other virtual thread.
+ * </p>
+ * <p>
+ * Pinning events are grouped by the first frame outside the JDK, so the report
+ * points at the code holding the monitor. At most {@value #MAX_SITES} sites are
+ * kept; events of further sites are only counted.
+ * </p>
+ */
+@Slf4j
+public class VirtualThreadPinningMonitor implements SmartLifecycle {
+    static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    static final int MAX_SITES = 100;
+    private static final int MAX_STACK_DEPTH = 32;
+
+    private final Duration threshold;
+    private final Map<String, Site> sites = new ConcurrentHashMap<>();
+    private final LongAdder droppedEvents = new LongAdder();
+
+    private Counter pinnedEventsCounter;
+    private Timer pinnedDurationTimer;
+    private volatile RecordingStream recordingStream;
+
+    /**
+     * Constructs an instance of {@code VirtualThreadPinningMonitor}.
+     *
+     * @param meterRegistry The registry for collecting metrics.
+     * @param threshold     How long a virtual thread must stay pinned to be
+     *                      recorded.
+     */
+    public VirtualThreadPinningMonitor(MeterRegistry meterRegistry, Duration threshold) {
+        this.threshold = threshold;
+
+        initializeMetrics(meterRegistry);
+    }
+
+    /**
+     * Initializes the Micrometer metrics used by the monitor.
+     *
+     * @param meterRegistry The registry for collecting metrics.
+     */
+    private void initializeMetrics(MeterRegistry meterRegistry) {
+        this.pinnedEventsCounter = Counter.builder("jvm.threads.virtual.pinned")
+                .description("Number of times a virtual thread blocked while pinned to its carrier")
+                .register(meterRegistry);
+
+        this.pinnedDurationTimer = Timer.builder("jvm.threads.virtual.pinned.duration")
+                .description("Time virtual threads spent blocked while pinned to their carrier")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Starts streaming the pinning events of this JVM.
+     */
+    @Override
+    public void start() {
+        RecordingStream stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::record);
+        stream.startAsync();
+
+        recordingStream = stream;
+        log.info("Recording virtual thread pinning longer than {}", threshold);
+    }
+
+    /**
+     * Stops streaming the pinning events.
+     */
+    @Override
+    public void stop() {
+        RecordingStream stream = recordingStream;
+
+        if (stream != null) {
+            recordingStream = null;
+            stream.close();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return recordingStream != null;
+    }
+
+    /**
+     * Returns the pinning recorded so far, with the sites that pinned the most
+     * first.
+     *
+     * @return The pinning report.
+     */
+    public PinningReport report() {
+        List<PinningSite> pinningSites = sites.entrySet().stream()
+                .map(entry -> entry.getValue().toPinningSite(entry.getKey()))
+                .sorted(Comparator.comparing(PinningSite::totalDuration).reversed())
+                .toList();
+
+        return new PinningReport(threshold, (long) pinnedEventsCounter.count(), droppedEvents.sum(), pinningSites);
+    }
+
+    private void record(RecordedEvent event) {
+        Duration duration = event.getDuration();
+        List<RecordedFrame> frames = frames(event.getStackTrace());
+
+        pinnedEventsCounter.increment();
+        pinnedDurationTimer.record(duration);
+
+        String location = frames.stream()
+                .filter(frame -> !isJdkFrame(frame))
+                .findFirst()
+                .or(() -> frames.stream().findFirst())
+                .map(VirtualThreadPinningMonitor::describe)
+                .orElse("unknown");
+
+        Site site = sites.get(location);
+
+        if (site == null) {
+            if (sites.size() >= MAX_SITES) {
+                droppedEvents.increment();
+                return;
+            }
+            site = sites.computeIfAbsent(location, key -> new Site(frames.stream()
+                    .limit(MAX_STACK_DEPTH)
+                    .map(VirtualThreadPinningMonitor::describe)
+                    .toList()));
+        }
+        site.record(duration);
+    }
+
+    private static List<RecordedFrame> frames(RecordedStackTrace stackTrace) {
+        return stackTrace != null ? stackTrace.getFrames() : List.of();
+    }
+
+    private static boolean isJdkFrame(RecordedFrame frame) {
+        String className = frame.getMethod().getType().getName();
+
+        return className.startsWith("java.") || className.startsWith("jdk.") || className.startsWith("sun.");
+    }
+
+    private static String describe(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":"
+                + frame.getLineNumber();
+    }
+
+    /**
+     * Pinning recorded at one site.
+     */
+    private static final class Site {
+        private final List<String> stackTrace;
+        private final AtomicLong count = new AtomicLong();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+        Site(List<String> stackTrace) {
+            this.stackTrace = stackTrace;
+        }
+
+        void record(Duration duration) {
+            count.incrementAndGet();
+            totalNanos.add(duration.toNanos());
+            maxNanos.accumulate(duration.toNanos());
+        }
+
+        PinningSite toPinningSite(String location) {
+            return new PinningSite(location, count.get(), Duration.ofNanos(totalNanos.sum()),
+                    Duration.ofNanos(maxNanos.get()), stackTrace);
+        }
+    }
+
+    /**
+     * The pinning recorded since the application started.
+     *
+     * @param threshold     How long a virtual thread must stay pinned to be
+     *                      recorded.
+     * @param events        The number of recorded pinning events.
+     * @param droppedEvents The events left out of the sites because too many
+     *                      sites were already kept.
+     * @param sites         The sites that pinned, the longest total first.
+     */
+    public record PinningReport(Duration threshold, long events, long droppedEvents, List<PinningSite> sites) {
+    }
+
+    /**
+     * The pinning recorded at one site.
+     *
+     * @param location      The first frame outside the JDK.
+     * @param count         The number of pinning events.
+     * @param totalDuration The total time pinned.
+     * @param maxDuration   The longest time pinned at once.
+     * @param stackTrace    The stack trace of the first event, innermost frame
+     *                      first.
+     */
+    public record PinningSite(String location, long count, Duration totalDuration, Duration maxDuration,
+            List<String> stackTrace) {
+    }
+}
@@ -1,18 +1,40 @@
 package info.mouts.orderservice.repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import info.mouts.orderservice.domain.Order;
+import info.mouts.orderservice.dto.OrderSummary;
+import info.mouts.orderservice.dto.OrderVersion;
+import jakarta.persistence.QueryHint;
 
 /**
  * Repository interface for managing {@link Order} entities.
+ * Searches by any combination of filters are implemented by
+ * {@link OrderSearchRepository}.
  */
 @Repository
-public interface OrderRepository extends JpaRepository<Order, UUID> {
+public interface OrderRepository extends JpaRepository<Order, UUID>, OrderSearchRepository {
+    /**
+     * Constructor expression selecting an {@link OrderSummary} from the order
+     * aliased {@code o}.
+     */
+    String SUMMARY_COLUMNS = "new info.mouts.orderservice.dto.OrderSummary("
+            + "o.id, o.idempotencyKey, o.status, o.total, o.createdAt, o.updatedAt)";
+
     /**
      * Finds an order by its idempotency key.
      * 
@@ -20,4 +42,71 @@ public interface OrderRepository extends JpaRepository<Order, UUID> {
      * @return an optional containing the order if found, or empty if not found
      */
     Optional<Order> findByIdempotencyKey(String idempotencyKey);
+
+    /**
+     * Checks whether an order with the given idempotency key exists.
+     *
+     * @param idempotencyKey the idempotency key to search for
+     * @return true if an order with the key exists
+     */
+    boolean existsByIdempotencyKey(String idempotencyKey);
+
+    /**
+     * Finds the version of an order, without loading the order.
+     *
+     * @param id the ID of the order
+     * @return an optional containing the version if the order exists, or empty
+     *         if not found
+     */
+    @Query("SELECT new info.mouts.orderservice.dto.OrderVersion(o.id, o.version, o.updatedAt) "
+            + "FROM Order o WHERE o.id = :id")
+    Optional<OrderVersion> findVersionById(@Param("id") UUID id);
+
+    /**
+     * Streams the idempotency keys of all orders created since the given instant,
+     * fetching them from the database in chunks rather than all at once.
+     * Must be called within a transaction, and the stream must be closed.
+     *
+     * @param since the lower bound (inclusive) of the creation timestamp
+     * @return the idempotency keys of the matching orders
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT o.idempotencyKey FROM Order o WHERE o.createdAt >= :since")
+    Stream<String> streamIdempotencyKeysCreatedSince(@Param("since") LocalDateTime since);
+
+    /**
+     * Finds a page of order summaries, selecting only the listed columns
+     * instead of loading the entities.
+     *
+     * @param pageable the pagination and sorting information
+     * @return a page of order summaries
+     */
+    @Query(value = "SELECT " + SUMMARY_COLUMNS + " FROM Order o", countQuery = "SELECT COUNT(o) FROM Order o")
+    Page<OrderSummary> findAllSummaries(Pageable pageable);
+
+    /**
+     * Finds the summaries of the first orders sorted by creation timestamp and
+     * ID, both descending.
+     *
+     * @param limit the maximum number of orders to return
+     * @return the summaries of the newest orders
+     */
+    @Query("SELECT " + SUMMARY_COLUMNS + " FROM Order o ORDER BY o.createdAt DESC, o.id DESC")
+    List<OrderSummary> findFirstPage(Limit limit);
+
+    /**
+     * Finds the summaries of the orders that come after the given position when
+     * sorted by creation timestamp and ID, both descending.
+     * The row value comparison lets the database seek directly to the position
+     * through the {@code (created_at, id)} index, however deep it is.
+     *
+     * @param createdAt the creation timestamp of the last order already read
+     * @param id        the ID of the last order already read
+     * @param limit     the maximum number of orders to return
+     * @return the summaries of the orders following the given position
+     */
+    @Query("SELECT " + SUMMARY_COLUMNS
+            + " FROM Order o WHERE (o.createdAt, o.id) < (:createdAt, :id) ORDER BY o.createdAt DESC, o.id DESC")
+    List<OrderSummary> findPageAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") UUID id,
+            Limit limit);
 }
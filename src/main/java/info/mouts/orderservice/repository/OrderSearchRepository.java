@@ -0,0 +1,29 @@
+package info.mouts.orderservice.repository;
+
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+
+import info.mouts.orderservice.dto.OrderCursor;
+import info.mouts.orderservice.dto.OrderSearchCriteria;
+import info.mouts.orderservice.dto.OrderSummary;
+
+/**
+ * Repository fragment searching orders by any combination of filters.
+ */
+public interface OrderSearchRepository {
+    /**
+     * Finds the summaries of the orders matching the given filters, sorted by
+     * creation timestamp and ID, both descending, starting after the given
+     * position.
+     * Only the conditions of the given filters are part of the query, so each
+     * combination of filters gets its own plan instead of a generic one.
+     *
+     * @param criteria the filters the orders must match
+     * @param after    the position of the last order already read, or null for
+     *                 the first page
+     * @param limit    the maximum number of orders to return
+     * @return the summaries of the matching orders
+     */
+    List<OrderSummary> searchSummaries(OrderSearchCriteria criteria, OrderCursor after, Limit limit);
+}
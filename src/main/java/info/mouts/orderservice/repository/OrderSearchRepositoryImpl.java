@@ -0,0 +1,93 @@
+package info.mouts.orderservice.repository;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.data.domain.Limit;
+
+import info.mouts.orderservice.dto.OrderCursor;
+import info.mouts.orderservice.dto.OrderSearchCriteria;
+import info.mouts.orderservice.dto.OrderSummary;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+
+/**
+ * Implementation of {@link OrderSearchRepository} building the JPQL query from
+ * the given filters only.
+ * <p>
+ * Optional filters written as {@code (:status IS NULL OR o.status = :status)}
+ * would give every search the same query, which the database can only plan
+ * without knowing which filters are present, typically as a scan of the whole
+ * table. Here each condition maps onto an index:
+ * </p>
+ * <ul>
+ * <li>status, with or without a date range, seeks on
+ * {@code idx_order_status_created_at_id}, already in the order of the
+ * listing;</li>
+ * <li>a date range alone seeks on {@code idx_order_created_at_id};</li>
+ * <li>a product is checked with an index-only scan of
+ * {@code idx_orderitem_product_id_order_id}.</li>
+ * </ul>
+ * In every case the database reads the orders in the listing order and stops
+ * at the limit, without sorting them.
+ */
+public class OrderSearchRepositoryImpl implements OrderSearchRepository {
+    private final EntityManager entityManager;
+
+    /**
+     * Constructs an instance of {@code OrderSearchRepositoryImpl}.
+     *
+     * @param entityManager The entity manager running the queries.
+     */
+    public OrderSearchRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<OrderSummary> searchSummaries(OrderSearchCriteria criteria, OrderCursor after, Limit limit) {
+        List<String> conditions = new ArrayList<>();
+        Map<String, Object> parameters = new LinkedHashMap<>();
+
+        if (criteria.status() != null) {
+            conditions.add("o.status = :status");
+            parameters.put("status", criteria.status());
+        }
+        if (criteria.from() != null) {
+            conditions.add("o.createdAt >= :from");
+            parameters.put("from", criteria.from());
+        }
+        if (criteria.to() != null) {
+            conditions.add("o.createdAt < :to");
+            parameters.put("to", criteria.to());
+        }
+        if (criteria.productId() != null) {
+            conditions.add("EXISTS (SELECT 1 FROM OrderItem i WHERE i.order = o AND i.productId = :productId)");
+            parameters.put("productId", criteria.productId());
+        }
+        if (after != null) {
+            conditions.add("(o.createdAt, o.id) < (:afterCreatedAt, :afterId)");
+            parameters.put("afterCreatedAt", after.createdAt());
+            parameters.put("afterId", after.id());
+        }
+
+        StringBuilder jpql = new StringBuilder("SELECT ").append(OrderRepository.SUMMARY_COLUMNS)
+                .append(" FROM Order o");
+        if (!conditions.isEmpty()) {
+            jpql.append(" WHERE ").append(String.join(" AND ", conditions));
+        }
+        jpql.append(" ORDER BY o.createdAt DESC, o.id DESC");
+
+        TypedQuery<OrderSummary> query = entityManager.createQuery(jpql.toString(), OrderSummary.class);
+        parameters.forEach(query::setParameter);
+        if (limit.isLimited()) {
+            query.setMaxResults(limit.max());
+        }
+
+        return query.getResultList();
+    }
+}
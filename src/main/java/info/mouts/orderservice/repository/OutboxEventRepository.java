@@ -0,0 +1,29 @@
+package info.mouts.orderservice.repository;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import info.mouts.orderservice.domain.OutboxEvent;
+
+/**
+ * Repository interface for managing {@link OutboxEvent} entities.
+ */
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, UUID> {
+    /**
+     * Locks the oldest outbox events for publishing, skipping the ones already
+     * locked by another relay, so several instances can drain the outbox at the
+     * same time without publishing the same event twice.
+     * Must be called within a transaction, which holds the locks until it ends.
+     *
+     * @param limit the maximum number of events to lock
+     * @return the locked events, oldest first
+     */
+    @Query(value = "SELECT * FROM order_outbox ORDER BY created_at LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<OutboxEvent> lockNextBatch(@Param("limit") int limit);
+}
@@ -0,0 +1,64 @@
+package info.mouts.orderservice.service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import info.mouts.orderservice.domain.IdempotencyStatus;
+
+public interface IdempotencyStore {
+    /**
+     * Tries to claim the given idempotency keys for processing.
+     * Keys that do not exist yet are marked as PROCESSING and reported as
+     * {@link IdempotencyStatus#NEW}, existing keys are left untouched and reported
+     * with their current status.
+     *
+     * @param idempotencyKeys The idempotency keys to claim.
+     * @return The status of each key, in the iteration order of the given keys.
+     */
+    Map<String, IdempotencyStatus> claim(Collection<String> idempotencyKeys);
+
+    /**
+     * Tries to claim a single idempotency key for processing.
+     *
+     * @param idempotencyKey The idempotency key to claim.
+     * @return {@link IdempotencyStatus#NEW} if the key was claimed by the caller,
+     *         otherwise the current status of the key.
+     */
+    default IdempotencyStatus claim(String idempotencyKey) {
+        return claim(List.of(idempotencyKey)).get(idempotencyKey);
+    }
+
+    /**
+     * Marks the given idempotency keys as PROCESSED.
+     *
+     * @param idempotencyKeys The idempotency keys of the processed messages.
+     */
+    void markProcessed(Collection<String> idempotencyKeys);
+
+    /**
+     * Marks a single idempotency key as PROCESSED.
+     *
+     * @param idempotencyKey The idempotency key of the processed message.
+     */
+    default void markProcessed(String idempotencyKey) {
+        markProcessed(List.of(idempotencyKey));
+    }
+
+    /**
+     * Releases the given idempotency keys if they are still marked as PROCESSING,
+     * so the messages can be claimed again when they are retried.
+     *
+     * @param idempotencyKeys The idempotency keys of the failed messages.
+     */
+    void release(Collection<String> idempotencyKeys);
+
+    /**
+     * Releases a single idempotency key if it is still marked as PROCESSING.
+     *
+     * @param idempotencyKey The idempotency key of the failed message.
+     */
+    default void release(String idempotencyKey) {
+        release(List.of(idempotencyKey));
+    }
+}
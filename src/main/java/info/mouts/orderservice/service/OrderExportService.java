@@ -0,0 +1,24 @@
+package info.mouts.orderservice.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+
+import info.mouts.orderservice.dto.OrderExportFormat;
+
+public interface OrderExportService {
+    /**
+     * Writes every order created within the given range to the output stream,
+     * oldest first, without holding them all in memory.
+     *
+     * @param from         The start of the range (inclusive).
+     * @param to           The end of the range (exclusive).
+     * @param format       The format to write the orders in.
+     * @param outputStream The stream to write the orders to. It is flushed but
+     *                     not closed.
+     * @return The number of exported orders.
+     * @throws IOException If writing to the output stream fails.
+     */
+    long exportOrders(LocalDateTime from, LocalDateTime to, OrderExportFormat format, OutputStream outputStream)
+            throws IOException;
+}
@@ -1,13 +1,20 @@
 package info.mouts.orderservice.service;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Window;
 
 import info.mouts.orderservice.domain.Order;
+import info.mouts.orderservice.dto.OrderCursor;
 import info.mouts.orderservice.dto.OrderRequestDTO;
+import info.mouts.orderservice.dto.OrderSearchCriteria;
+import info.mouts.orderservice.dto.OrderSummary;
+import info.mouts.orderservice.dto.OrderVersion;
 
 public interface OrderService {
     /**
@@ -21,6 +28,28 @@ public interface OrderService {
      */
     Order processIncomingOrder(OrderRequestDTO request, String idempotencyKey);
 
+    /**
+     * Processes a batch of incoming order requests received from Kafka.
+     * All orders are mapped, calculated and persisted within a single
+     * transaction, so any failure rolls back the whole batch.
+     *
+     * @param requestsByIdempotencyKey The {@link OrderRequestDTO}s to process,
+     *                                 keyed by their idempotency key, in the
+     *                                 order they were received.
+     * @return The processed and saved {@link Order} entities, in the same order
+     *         as the given requests.
+     */
+    List<Order> processIncomingOrders(Map<String, OrderRequestDTO> requestsByIdempotencyKey);
+
+    /**
+     * Checks whether an order was already saved for the given idempotency key,
+     * straight from the database.
+     *
+     * @param idempotencyKey The idempotency key of the order.
+     * @return {@code true} if an order with the key exists.
+     */
+    boolean existsByIdempotencyKey(String idempotencyKey);
+
     /**
      * Finds an order by its unique ID.
      *
@@ -30,11 +59,43 @@ public interface OrderService {
      */
     Order findByOrderId(UUID orderId);
 
+    /**
+     * Finds many orders by their unique IDs at once.
+     *
+     * @param orderIds The UUIDs of the orders to find.
+     * @return The found orders, in the order of the given IDs. IDs without an
+     *         order are left out.
+     */
+    List<Order> findByOrderIds(Collection<UUID> orderIds);
+
+    /**
+     * Finds the current version of an order, without loading the order.
+     *
+     * @param orderId The UUID of the order.
+     * @return The version of the order.
+     * @throws OrderNotFoundException if no order exists with the given ID.
+     */
+    OrderVersion findVersionByOrderId(UUID orderId);
+
+    /**
+     * Loads an order by its unique ID from the database, bypassing the cache,
+     * and replaces its cached copy.
+     *
+     * @param orderId The UUID of the order to load.
+     * @return The current Order entity.
+     * @throws OrderNotFoundException if no order exists with the given ID.
+     */
+    Order refreshByOrderId(UUID orderId);
+
     /**
      * Finds all orders.
      *
      * @return A list of all orders.
+     * @deprecated Loads the whole table into memory. Use
+     *             {@link #findAllSummaries(Pageable)} to list orders or
+     *             {@link OrderExportService} to export them.
      */
+    @Deprecated
     List<Order> findAll();
 
     /**
@@ -44,4 +105,36 @@ public interface OrderService {
      * @return A page of orders.
      */
     Page<Order> findAll(Pageable pageable);
+
+    /**
+     * Finds the summaries of all orders with pagination, without loading the
+     * order entities.
+     *
+     * @param pageable The pagination information.
+     * @return A page of order summaries.
+     */
+    Page<OrderSummary> findAllSummaries(Pageable pageable);
+
+    /**
+     * Finds a page of orders, newest first, starting right after the given
+     * cursor. Unlike {@link #findAll(Pageable)} it does not count the orders.
+     *
+     * @param cursor The position to start after, or null for the first page.
+     * @param size   The maximum number of orders to return.
+     * @return A window of order summaries telling whether more orders follow.
+     */
+    Window<OrderSummary> findAllAfter(OrderCursor cursor, int size);
+
+    /**
+     * Searches orders by status, creation date range and product, newest first,
+     * starting right after the given cursor. Unlike
+     * {@link #findAll(Pageable)} it does not count the orders.
+     *
+     * @param criteria The filters the orders must match.
+     * @param cursor   The position to start after, or null for the first page.
+     * @param size     The maximum number of orders to return.
+     * @return A window of order summaries telling whether more orders follow.
+     * @throws InvalidOrderSearchException if the creation date range is empty.
+     */
+    Window<OrderSummary> search(OrderSearchCriteria criteria, OrderCursor cursor, int size);
 }
@@ -0,0 +1,212 @@
+package info.mouts.orderservice.service.impl;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import info.mouts.orderservice.domain.IdempotencyStatus;
+import info.mouts.orderservice.repository.OrderRepository;
+import info.mouts.orderservice.service.IdempotencyStore;
+import info.mouts.orderservice.util.KafkaUtils;
+import info.mouts.orderservice.util.RotatingBloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * {@link IdempotencyStore} that keeps an in-process Bloom filter of recently
+ * processed idempotency keys in front of the {@link RedisIdempotencyStore}.
+ * <p>
+ * The filter rotates on windows of {@link KafkaUtils#PROCESSED_TTL} and is
+ * rebuilt at startup from the idempotency keys of the orders created within
+ * that period. A Bloom filter can only tell for sure that a key is new, so keys
+ * it reports as possible duplicates are always claimed in Redis, which has the
+ * final word.
+ * </p>
+ * <p>
+ * When {@code app.idempotency.filter.defer-claims} is enabled, keys the filter
+ * reports as new skip the Redis claim and are only written to Redis when they
+ * are marked as processed. Since orders are keyed by idempotency key,
+ * duplicates usually land on the same partition and are consumed sequentially.
+ * Duplicates that reach another instance, after a rebalance or through a
+ * producer retry on another partition, are stopped by the unique index on
+ * {@code orders.idempotency_key}; the consumers then find the order already
+ * saved and skip the record as a duplicate instead of retrying it.
+ * </p>
+ */
+@Service
+@Primary
+@ConditionalOnProperty(name = "app.idempotency.filter.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class BloomFilterIdempotencyStore implements IdempotencyStore {
+    private final RedisIdempotencyStore delegate;
+    private final OrderRepository orderRepository;
+    private final RotatingBloomFilter filter;
+    private final boolean deferClaims;
+    private final TransactionTemplate transactionTemplate;
+
+    private volatile boolean warmedUp;
+
+    private Counter negativeLookupsCounter;
+    private Counter positiveLookupsCounter;
+    private Counter falsePositivesCounter;
+    private Counter deferredClaimsCounter;
+
+    /**
+     * Constructs an instance of {@code BloomFilterIdempotencyStore}.
+     *
+     * @param delegate                 The Redis store that has the final word on
+     *                                 every key.
+     * @param orderRepository          The repository used to rebuild the filter
+     *                                 at startup.
+     * @param transactionManager       The transaction manager for the read of the
+     *                                 recent keys at startup.
+     * @param meterRegistry            The registry for collecting metrics.
+     * @param expectedInsertions       The expected number of keys processed per
+     *                                 {@link KafkaUtils#PROCESSED_TTL} window.
+     * @param falsePositiveProbability The desired false positive probability of
+     *                                 the filter.
+     * @param deferClaims              Whether keys reported as new skip the Redis
+     *                                 claim.
+     */
+    public BloomFilterIdempotencyStore(RedisIdempotencyStore delegate, OrderRepository orderRepository,
+            PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+            @Value("${app.idempotency.filter.expected-insertions:1000000}") long expectedInsertions,
+            @Value("${app.idempotency.filter.false-positive-probability:0.01}") double falsePositiveProbability,
+            @Value("${app.idempotency.filter.defer-claims:false}") boolean deferClaims) {
+        this.delegate = delegate;
+        this.orderRepository = orderRepository;
+        this.filter = new RotatingBloomFilter(expectedInsertions, falsePositiveProbability,
+                KafkaUtils.PROCESSED_TTL, Clock.systemUTC());
+        this.deferClaims = deferClaims;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+
+        initializeMetrics(meterRegistry);
+    }
+
+    /**
+     * Rebuilds the filter from the idempotency keys of the orders created within
+     * the last {@link KafkaUtils#PROCESSED_TTL}. The keys are streamed into the
+     * filter as they are fetched, so they are never all held in memory.
+     * Until it succeeds, claims are never deferred.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            long recentKeys = transactionTemplate.execute(status -> {
+                try (Stream<String> keys = orderRepository
+                        .streamIdempotencyKeysCreatedSince(LocalDateTime.now().minus(KafkaUtils.PROCESSED_TTL))) {
+                    long count = 0;
+
+                    for (Iterator<String> iterator = keys.iterator(); iterator.hasNext(); count++) {
+                        filter.put(iterator.next());
+                    }
+                    return count;
+                }
+            });
+            warmedUp = true;
+
+            log.info("Idempotency filter warmed up with {} recent keys", recentKeys);
+        } catch (Exception e) {
+            log.warn("Failed to warm up the idempotency filter, all keys will be claimed in Redis: {}",
+                    e.getMessage());
+        }
+    }
+
+    @Override
+    public Map<String, IdempotencyStatus> claim(Collection<String> idempotencyKeys) {
+        Map<String, IdempotencyStatus> statuses = new LinkedHashMap<>();
+        List<String> keysToClaim = new ArrayList<>();
+        List<String> possibleDuplicates = new ArrayList<>();
+
+        for (String idempotencyKey : idempotencyKeys) {
+            if (filter.mightContain(idempotencyKey)) {
+                positiveLookupsCounter.increment();
+                possibleDuplicates.add(idempotencyKey);
+            } else {
+                negativeLookupsCounter.increment();
+
+                if (deferClaims && warmedUp) {
+                    deferredClaimsCounter.increment();
+                    statuses.put(idempotencyKey, IdempotencyStatus.NEW);
+                    continue;
+                }
+            }
+
+            // Keep the iteration order of the given keys
+            statuses.put(idempotencyKey, null);
+            keysToClaim.add(idempotencyKey);
+        }
+
+        delegate.claim(keysToClaim).forEach((idempotencyKey, status) -> {
+            statuses.put(idempotencyKey, status);
+
+            if (status != IdempotencyStatus.NEW) {
+                // Also covers keys processed by another instance since the warm up
+                filter.put(idempotencyKey);
+            }
+        });
+
+        possibleDuplicates.stream()
+                .filter(idempotencyKey -> statuses.get(idempotencyKey) == IdempotencyStatus.NEW)
+                .forEach(idempotencyKey -> falsePositivesCounter.increment());
+
+        return statuses;
+    }
+
+    @Override
+    public void markProcessed(Collection<String> idempotencyKeys) {
+        delegate.markProcessed(idempotencyKeys);
+        idempotencyKeys.forEach(filter::put);
+    }
+
+    @Override
+    public void release(Collection<String> idempotencyKeys) {
+        delegate.release(idempotencyKeys);
+    }
+
+    /**
+     * Initializes the Micrometer metrics for the idempotency filter.
+     * Registers counters for negative and positive lookups, false positives
+     * (possible duplicates that Redis reported as new) and deferred claims, and a
+     * gauge of the filter fill ratio.
+     *
+     * @param registry The meter registry to register the metrics with.
+     */
+    private void initializeMetrics(MeterRegistry registry) {
+        this.negativeLookupsCounter = Counter.builder("idempotency.filter.lookups")
+                .description("Total number of idempotency keys looked up in the local filter")
+                .tag("result", "negative")
+                .register(registry);
+        this.positiveLookupsCounter = Counter.builder("idempotency.filter.lookups")
+                .description("Total number of idempotency keys looked up in the local filter")
+                .tag("result", "positive")
+                .register(registry);
+        this.falsePositivesCounter = Counter.builder("idempotency.filter.false.positives")
+                .description("Total number of keys reported as possible duplicates that were new in Redis")
+                .register(registry);
+        this.deferredClaimsCounter = Counter.builder("idempotency.filter.deferred.claims")
+                .description("Total number of keys whose Redis claim was skipped")
+                .register(registry);
+        Gauge.builder("idempotency.filter.fill.ratio", filter, RotatingBloomFilter::fillRatio)
+                .description("Fraction of bits set in the current generation of the local filter")
+                .register(registry);
+    }
+}
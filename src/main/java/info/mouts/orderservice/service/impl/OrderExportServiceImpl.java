@@ -0,0 +1,232 @@
+package info.mouts.orderservice.service.impl;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import info.mouts.orderservice.domain.OrderStatus;
+import info.mouts.orderservice.dto.OrderExportFormat;
+import info.mouts.orderservice.dto.OrderSummary;
+import info.mouts.orderservice.service.OrderExportService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Implementation of the {@link OrderExportService} interface.
+ * <p>
+ * Orders are read with a forward-only, read-only JDBC query using a fixed fetch
+ * size, inside a read-only transaction so that the PostgreSQL driver reads them
+ * through a server-side cursor instead of buffering the whole result. Each row
+ * is written to the output stream as soon as it is read, so memory use does not
+ * depend on the number of exported orders.
+ * </p>
+ */
+@Service
+@Slf4j
+public class OrderExportServiceImpl implements OrderExportService {
+    private static final String EXPORT_QUERY = "SELECT id, idempotency_key, status, total, created_at, updated_at "
+            + "FROM orders WHERE created_at >= ? AND created_at < ? ORDER BY created_at, id";
+    private static final String CSV_HEADER = "id,idempotency_key,status,total,created_at,processed_at\n";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectWriter ndjsonWriter;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final int fetchSize;
+
+    private final Map<OrderExportFormat, Counter> exportedOrdersCounters = new EnumMap<>(OrderExportFormat.class);
+    private final Map<OrderExportFormat, Timer> exportTimers = new EnumMap<>(OrderExportFormat.class);
+
+    /**
+     * Constructs an instance of {@code OrderExportServiceImpl}.
+     *
+     * @param jdbcTemplate  The JDBC template used to stream the orders.
+     * @param objectMapper  The object mapper used to write NDJSON lines.
+     * @param meterRegistry The registry for collecting metrics.
+     * @param fetchSize     The number of rows fetched from the database per round
+     *                      trip.
+     */
+    public OrderExportServiceImpl(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+            @Value("${app.export.fetch-size:1000}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.ndjsonWriter = objectMapper.writerFor(OrderSummary.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.meterRegistry = meterRegistry;
+        this.fetchSize = fetchSize;
+
+        initializeMetrics(this.meterRegistry);
+    }
+
+    /**
+     * Streams the orders created within the given range to the output stream in
+     * the given format.
+     *
+     * @param from         The start of the range (inclusive).
+     * @param to           The end of the range (exclusive).
+     * @param format       The format to write the orders in.
+     * @param outputStream The stream to write the orders to.
+     * @return The number of exported orders.
+     * @throws IOException If writing to the output stream fails.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public long exportOrders(LocalDateTime from, LocalDateTime to, OrderExportFormat format,
+            OutputStream outputStream) throws IOException {
+        log.info("Exporting orders created from {} to {} as {}", from, to, format);
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        long exportedOrders;
+
+        if (format == OrderExportFormat.CSV) {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            writer.write(CSV_HEADER);
+            exportedOrders = streamOrders(from, to, order -> writeCsvLine(writer, order));
+            writer.flush();
+        } else {
+            JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            exportedOrders = streamOrders(from, to, order -> {
+                ndjsonWriter.writeValue(generator, order);
+                generator.writeRaw('\n');
+            });
+            generator.flush();
+        }
+
+        sample.stop(exportTimers.get(format));
+        exportedOrdersCounters.get(format).increment(exportedOrders);
+        log.info("Exported {} orders created from {} to {} as {}", exportedOrders, from, to, format);
+
+        return exportedOrders;
+    }
+
+    /**
+     * Runs the export query and hands every row to the given writer as it is
+     * read.
+     *
+     * @param from       The start of the range (inclusive).
+     * @param to         The end of the range (exclusive).
+     * @param lineWriter The writer of each order.
+     * @return The number of rows read.
+     * @throws IOException If writing a row fails.
+     */
+    private long streamOrders(LocalDateTime from, LocalDateTime to, OrderLineWriter lineWriter) throws IOException {
+        long[] rowCount = { 0 };
+
+        try {
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(EXPORT_QUERY, ResultSet.TYPE_FORWARD_ONLY,
+                        ResultSet.CONCUR_READ_ONLY);
+                statement.setFetchSize(fetchSize);
+                statement.setTimestamp(1, Timestamp.valueOf(from));
+                statement.setTimestamp(2, Timestamp.valueOf(to));
+                return statement;
+            }, resultSet -> {
+                try {
+                    lineWriter.write(toOrderSummary(resultSet));
+                    rowCount[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return rowCount[0];
+    }
+
+    private OrderSummary toOrderSummary(ResultSet resultSet) throws SQLException {
+        return new OrderSummary(
+                resultSet.getObject("id", UUID.class),
+                resultSet.getString("idempotency_key"),
+                OrderStatus.valueOf(resultSet.getString("status")),
+                resultSet.getBigDecimal("total"),
+                resultSet.getObject("created_at", LocalDateTime.class),
+                resultSet.getObject("updated_at", LocalDateTime.class));
+    }
+
+    private void writeCsvLine(Writer writer, OrderSummary order) throws IOException {
+        BigDecimal total = order.total();
+
+        writer.write(order.id().toString());
+        writer.write(',');
+        writer.write(escapeCsv(order.idempotencyKey()));
+        writer.write(',');
+        writer.write(order.status().name());
+        writer.write(',');
+        writer.write(total != null ? total.toPlainString() : "");
+        writer.write(',');
+        writer.write(order.createdAt().toString());
+        writer.write(',');
+        writer.write(order.processedAt() != null ? order.processedAt().toString() : "");
+        writer.write('\n');
+    }
+
+    /**
+     * Quotes a CSV field if it contains a separator, a quote or a line break,
+     * doubling any quotes within it.
+     *
+     * @param value The field value.
+     * @return The value to write.
+     */
+    private String escapeCsv(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0
+                && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    /**
+     * Initializes the Micrometer metrics for the order export.
+     * Registers a counter of exported orders and an export duration timer per
+     * format.
+     *
+     * @param registry The meter registry to register the metrics with.
+     */
+    private void initializeMetrics(MeterRegistry registry) {
+        for (OrderExportFormat format : OrderExportFormat.values()) {
+            String formatTag = format.getFileExtension();
+
+            exportedOrdersCounters.put(format, Counter.builder("orders.export.rows")
+                    .description("Total number of orders written by exports")
+                    .tag("format", formatTag)
+                    .register(registry));
+            exportTimers.put(format, Timer.builder("orders.export.time")
+                    .description("Time taken to stream an order export")
+                    .tag("format", formatTag)
+                    .register(registry));
+        }
+    }
+
+    @FunctionalInterface
+    private interface OrderLineWriter {
+        void write(OrderSummary order) throws IOException;
+    }
+}
@@ -35,7 +35,8 @@ public class OrderItemServiceImpl implements OrderItemService {
 
     /**
      * Finds all order items associated with a specific order ID.
-     * Uses caching based on the order ID.
+     * Uses caching based on the order ID. Concurrent cache misses for the same
+     * order share a single database load.
      *
      * @param orderId The UUID of the order.
      * @return A {@link List} of {@link OrderItem} entities associated with the
@@ -43,7 +44,7 @@ public class OrderItemServiceImpl implements OrderItemService {
      */
     @Override
     @Transactional(readOnly = true)
-    @Cacheable(cacheNames = "order::items", key = "#orderId")
+    @Cacheable(cacheNames = "order::items", key = "#orderId", sync = true)
     public List<OrderItem> findOrderItemsByOrderId(UUID orderId) {
         log.info("Cache miss, attempting to find order items for the order with ID: {}", orderId);
 
@@ -52,7 +53,8 @@ public class OrderItemServiceImpl implements OrderItemService {
 
     /**
      * Finds a specific order item by its unique identifier (UUID).
-     * Uses caching based on the item ID.
+     * Uses caching based on the item ID. Concurrent cache misses for the same
+     * item share a single database load.
      *
      * @param itemId The UUID of the order item to find.
      * @return The {@link OrderItem} entity if found.
@@ -61,7 +63,7 @@ public class OrderItemServiceImpl implements OrderItemService {
      */
     @Override
     @Transactional(readOnly = true)
-    @Cacheable(cacheNames = "order::item", key = "#itemId")
+    @Cacheable(cacheNames = "order::item", key = "#itemId", sync = true)
     public OrderItem findById(UUID itemId) {
         log.info("Cache miss, attempting to find order item by ID from database: {}", itemId);
 
@@ -71,7 +73,8 @@ public class OrderItemServiceImpl implements OrderItemService {
     /**
      * Finds a specific order item by its unique identifier (UUID) and validates
      * whether it belongs to the parent order with the given ID.
-     * Uses caching based on the item ID.
+     * Uses caching based on the item ID. Concurrent cache misses for the same
+     * item share a single database load.
      *
      * @param orderId The UUID of the expected parent order
      * @param itemId  The UUID of the order item to find.
@@ -81,7 +84,7 @@ public class OrderItemServiceImpl implements OrderItemService {
      */
     @Override
     @Transactional(readOnly = true)
-    @Cacheable(cacheNames = "order::item", key = "#orderId + '_' + #itemId")
+    @Cacheable(cacheNames = "order::item", key = "#orderId + '_' + #itemId", sync = true)
     public OrderItem findByOrderIdAndItemId(UUID orderId, UUID itemId) {
         log.debug("Cache miss, attempting to find order item by ID: {} for order ID: {}", itemId, orderId);
 
@@ -1,27 +1,55 @@
 package info.mouts.orderservice.service.impl;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheConfig;
 import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.Ordered;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import info.mouts.orderservice.cache.MultiGetCache;
+import info.mouts.orderservice.domain.Money;
 import info.mouts.orderservice.domain.Order;
+import info.mouts.orderservice.domain.OrderItem;
 import info.mouts.orderservice.domain.OrderStatus;
+import info.mouts.orderservice.dto.OrderCursor;
 import info.mouts.orderservice.dto.OrderRequestDTO;
+import info.mouts.orderservice.dto.OrderSearchCriteria;
+import info.mouts.orderservice.dto.OrderSummary;
+import info.mouts.orderservice.dto.OrderVersion;
 import info.mouts.orderservice.event.OrderProcessedEvent;
+import info.mouts.orderservice.exception.InvalidOrderSearchException;
 import info.mouts.orderservice.exception.OrderNotFoundException;
 import info.mouts.orderservice.mapper.OrderMapper;
+import info.mouts.orderservice.monitoring.EventAge;
+import info.mouts.orderservice.monitoring.IngestStage;
 import info.mouts.orderservice.repository.OrderRepository;
+import info.mouts.orderservice.service.OrderExportService;
 import info.mouts.orderservice.service.OrderService;
+import io.micrometer.core.instrument.DistributionSummary;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
@@ -34,15 +62,23 @@ import lombok.extern.slf4j.Slf4j;
  */
 @Service
 @Slf4j
-@CacheConfig(cacheNames = "order")
+@CacheConfig(cacheNames = OrderServiceImpl.ORDER_CACHE)
 public class OrderServiceImpl implements OrderService {
+    static final String ORDER_CACHE = "order";
 
     private final OrderRepository orderRepository;
     private final OrderMapper orderMapper;
     private final ApplicationEventPublisher eventPublisher;
+    private final CacheManager cacheManager;
     private final MeterRegistry meterRegistry;
 
     private Timer orderProcessingTimer;
+    private Timer batchProcessingTimer;
+    private DistributionSummary bulkLookupMissesSummary;
+    private Timer mapTimer;
+    private Timer flushTimer;
+    private Timer commitTimer;
+    private Timer persistedAgeTimer;
 
     /**
      * Constructs an instance of {@code OrderServiceImpl}.
@@ -50,13 +86,16 @@ public class OrderServiceImpl implements OrderService {
      * @param orderRepository The repository for order data access.
      * @param orderMapper     The mapper for converting between DTOs and entities.
      * @param eventPublisher  The application event publisher for order events.
+     * @param cacheManager    The cache manager holding the order cache, used for
+     *                        bulk lookups.
      * @param meterRegistry   The registry for collecting metrics.
      */
     public OrderServiceImpl(OrderRepository orderRepository, OrderMapper orderMapper,
-            ApplicationEventPublisher eventPublisher, MeterRegistry meterRegistry) {
+            ApplicationEventPublisher eventPublisher, CacheManager cacheManager, MeterRegistry meterRegistry) {
         this.orderRepository = orderRepository;
         this.orderMapper = orderMapper;
         this.eventPublisher = eventPublisher;
+        this.cacheManager = cacheManager;
         this.meterRegistry = meterRegistry;
 
         initializeMetrics(this.meterRegistry);
@@ -86,38 +125,16 @@ public class OrderServiceImpl implements OrderService {
         return this.orderProcessingTimer.record(() -> {
             log.info("Processing incoming order for idempotency key: {}", idempotencyKey);
 
-            Order order = orderMapper.toEntity(request);
-            order.setStatus(OrderStatus.RECEIVED);
-            order.setIdempotencyKey(idempotencyKey);
-
-            if (order.getItems() != null && !order.getItems().isEmpty()) {
-                order.getItems().forEach(item -> item.setOrder(order));
-            } else {
-                log.error("Order with key {} has no items after mapping!", idempotencyKey);
-                throw new IllegalArgumentException("Order must contain items.");
-            }
-
-            order.setStatus(OrderStatus.PROCESSING);
-            log.info("Order status changed to PROCESSING for key {}", idempotencyKey);
-
-            BigDecimal totalAmount = calculateTotalAmount(order);
-            order.setTotal(totalAmount);
-            log.info("Calculated total amount {} for order key {}", totalAmount, idempotencyKey);
-
-            order.setStatus(OrderStatus.PROCESSED);
-            log.info("Order status changed to PROCESSED for key {}", idempotencyKey);
+            Order order = mapTimer.record(() -> buildProcessedOrder(request, idempotencyKey));
 
             try {
                 Order savedOrder = orderRepository.save(order);
+                flushTimer.record(orderRepository::flush);
                 log.info("Order successfully processed and saved with ID {} for key {}", savedOrder.getId(),
                         idempotencyKey);
 
-                log.debug("Publishing a processed order event for Order ID: {}", savedOrder.getId());
-
-                OrderProcessedEvent event = new OrderProcessedEvent(this, savedOrder);
-                eventPublisher.publishEvent(event);
-
-                log.debug("Processed order event published for Order ID: {}", savedOrder.getId());
+                publishProcessedEvent(savedOrder);
+                timeCommit(List.of(savedOrder));
 
                 return savedOrder;
             } catch (DataIntegrityViolationException e) {
@@ -130,10 +147,165 @@ public class OrderServiceImpl implements OrderService {
         });
     }
 
+    /**
+     * Processes a batch of incoming order requests and saves them all within a
+     * single transaction, publishing one event per saved order.
+     * The orders are not put in the cache here, they will be cached on the first
+     * lookup.
+     *
+     * @param requestsByIdempotencyKey The {@link OrderRequestDTO}s to process,
+     *                                 keyed by their idempotency key.
+     * @return The saved {@link Order} entities, in the same order as the
+     *         requests.
+     * @throws IllegalArgumentException        If any order request does not
+     *                                         contain items.
+     * @throws DataIntegrityViolationException If there's a data integrity issue
+     *                                         during persistence of any order.
+     */
+    @Override
+    @Transactional
+    public List<Order> processIncomingOrders(Map<String, OrderRequestDTO> requestsByIdempotencyKey) {
+        return this.batchProcessingTimer.record(() -> {
+            log.info("Processing a batch of {} incoming orders", requestsByIdempotencyKey.size());
+
+            List<Order> orders = new ArrayList<>(requestsByIdempotencyKey.size());
+            requestsByIdempotencyKey.forEach((idempotencyKey, request) -> orders
+                    .add(mapTimer.record(() -> buildProcessedOrder(request, idempotencyKey))));
+
+            try {
+                List<Order> savedOrders = orderRepository.saveAll(orders);
+                flushTimer.record(orderRepository::flush);
+                log.info("Batch of {} orders successfully processed and saved", savedOrders.size());
+
+                savedOrders.forEach(this::publishProcessedEvent);
+                timeCommit(savedOrders);
+
+                return savedOrders;
+            } catch (DataIntegrityViolationException e) {
+                log.error("Data integrity violation while saving a batch of {} orders: {}", orders.size(),
+                        e.getMessage());
+                throw e;
+            }
+        });
+    }
+
+    /**
+     * Maps an incoming order request to an {@link Order} entity, associates its
+     * items, calculates the total amount and moves it to the PROCESSED status.
+     *
+     * @param request        The {@link OrderRequestDTO} containing the order
+     *                       details.
+     * @param idempotencyKey The idempotency key of the order.
+     * @return The processed, not yet persisted, {@link Order} entity.
+     * @throws IllegalArgumentException If the order request does not contain
+     *                                  items.
+     */
+    private Order buildProcessedOrder(OrderRequestDTO request, String idempotencyKey) {
+        Order order = orderMapper.toEntity(request);
+        order.setStatus(OrderStatus.RECEIVED);
+        order.setIdempotencyKey(idempotencyKey);
+
+        if (order.getItems() != null && !order.getItems().isEmpty()) {
+            order.getItems().forEach(item -> item.setOrder(order));
+        } else {
+            log.error("Order with key {} has no items after mapping!", idempotencyKey);
+            throw new IllegalArgumentException("Order must contain items.");
+        }
+
+        order.setStatus(OrderStatus.PROCESSING);
+        log.info("Order status changed to PROCESSING for key {}", idempotencyKey);
+
+        BigDecimal totalAmount = calculateTotalAmount(order);
+        order.setTotal(totalAmount);
+        log.info("Calculated total amount {} for order key {}", totalAmount, idempotencyKey);
+
+        order.setStatus(OrderStatus.PROCESSED);
+        log.info("Order status changed to PROCESSED for key {}", idempotencyKey);
+
+        return order;
+    }
+
+    /**
+     * Publishes an {@link OrderProcessedEvent} for the given saved order.
+     * The event is written to the outbox within the current transaction or, with
+     * the outbox disabled, sent to Kafka after the transaction commits.
+     *
+     * @param savedOrder The saved {@link Order} entity.
+     */
+    private void publishProcessedEvent(Order savedOrder) {
+        log.debug("Publishing a processed order event for Order ID: {}", savedOrder.getId());
+
+        OrderProcessedEvent event = new OrderProcessedEvent(this, savedOrder);
+        eventPublisher.publishEvent(event);
+
+        log.debug("Processed order event published for Order ID: {}", savedOrder.getId());
+    }
+
+    /**
+     * Times the commit of the current transaction as the {@code commit}
+     * {@link IngestStage}. The clock starts in the last before commit callback,
+     * after the before commit listeners such as the outbox writer, which is
+     * timed as the {@code outbox} stage, so the two stages do not overlap.
+     * The orders are already flushed, see the {@code flush} stage, so this is
+     * mostly the insert of the outbox rows and the commit itself, plus the
+     * flush on commit dirty checking the flushed orders a second time. Once
+     * committed, the age of the records of the given orders is recorded as the
+     * {@code persisted} {@link EventAge}. Nothing is recorded if the
+     * transaction rolls back.
+     *
+     * @param savedOrders The orders saved by the transaction.
+     */
+    private void timeCommit(List<Order> savedOrders) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+
+        AtomicLong start = new AtomicLong();
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public int getOrder() {
+                // After the before commit listeners writing the outbox
+                return Ordered.LOWEST_PRECEDENCE;
+            }
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                start.set(System.nanoTime());
+            }
+        });
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public int getOrder() {
+                // Before the after commit listeners sending the processed events
+                return Ordered.HIGHEST_PRECEDENCE;
+            }
+
+            @Override
+            public void afterCommit() {
+                commitTimer.record(System.nanoTime() - start.get(), TimeUnit.NANOSECONDS);
+                savedOrders.forEach(order -> EventAge.record(persistedAgeTimer, order.getReceivedAt()));
+            }
+        });
+    }
+
+    /**
+     * Checks whether an order was already saved for the given idempotency key.
+     *
+     * @param idempotencyKey The idempotency key of the order.
+     * @return {@code true} if an order with the key exists.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public boolean existsByIdempotencyKey(String idempotencyKey) {
+        return orderRepository.existsByIdempotencyKey(idempotencyKey);
+    }
+
     /**
      * Finds an order by its unique identifier (UUID).
      * Uses caching to improve performance. If the order is not found in the cache,
      * it retrieves it from the database.
+     * Concurrent cache misses for the same order share a single database load.
      *
      * @param orderId The UUID of the order to find.
      * @return The {@link Order} entity if found.
@@ -141,7 +313,7 @@ public class OrderServiceImpl implements OrderService {
      */
     @Override
     @Transactional(readOnly = true)
-    @Cacheable(key = "#orderId")
+    @Cacheable(key = "#orderId", sync = true)
     public Order findByOrderId(UUID orderId) {
         log.info("Cache miss, attempting to find order by ID from database: {}", orderId);
 
@@ -152,14 +324,110 @@ public class OrderServiceImpl implements OrderService {
                 });
     }
 
+    /**
+     * Finds the current version of an order straight from the database,
+     * selecting only its ID, version and update timestamp.
+     * It is meant for checking whether the cached copy of an order is current,
+     * so it bypasses the cache.
+     *
+     * @param orderId The UUID of the order.
+     * @return The {@link OrderVersion} of the order.
+     * @throws OrderNotFoundException If no order is found with the given ID.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public OrderVersion findVersionByOrderId(UUID orderId) {
+        log.debug("Attempting to find the version of order: {}", orderId);
+
+        return orderRepository.findVersionById(orderId)
+                .orElseThrow(() -> {
+                    log.warn("Order not found for ID: {}", orderId);
+                    return new OrderNotFoundException(orderId);
+                });
+    }
+
+    /**
+     * Loads an order by its unique identifier (UUID) straight from the database
+     * and puts it in the cache, replacing a stale copy.
+     * It is meant for conditional requests whose cached order is older than the
+     * one in the database, see {@link #findVersionByOrderId(UUID)}.
+     *
+     * @param orderId The UUID of the order to load.
+     * @return The current {@link Order} entity.
+     * @throws OrderNotFoundException If no order is found with the given ID.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    @CachePut(key = "#orderId")
+    public Order refreshByOrderId(UUID orderId) {
+        log.debug("Refreshing the cached copy of order: {}", orderId);
+
+        return orderRepository.findById(orderId)
+                .orElseThrow(() -> {
+                    log.warn("Order not found for ID: {}", orderId);
+                    return new OrderNotFoundException(orderId);
+                });
+    }
+
+    /**
+     * Finds many orders by their unique identifiers (UUIDs) at once.
+     * All IDs are looked up in the order cache together, a single {@code MGET}
+     * for the ones not held in memory, and only the misses are loaded from the
+     * database, with a single {@code IN} query, and then cached together.
+     *
+     * @param orderIds The UUIDs of the orders to find.
+     * @return The found {@link Order} entities, in the order of the given IDs.
+     *         IDs without an order are left out.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<Order> findByOrderIds(Collection<UUID> orderIds) {
+        Cache cache = cacheManager.getCache(ORDER_CACHE);
+        Map<Object, Object> orders = cache != null
+                ? new HashMap<>(MultiGetCache.getAll(cache, orderIds))
+                : new HashMap<>();
+        List<UUID> missingIds = orderIds.stream()
+                .filter(orderId -> !orders.containsKey(orderId))
+                .distinct()
+                .toList();
+
+        bulkLookupMissesSummary.record(missingIds.size());
+
+        if (!missingIds.isEmpty()) {
+            log.info("Cache miss for {} of {} orders, attempting to find them from database", missingIds.size(),
+                    orderIds.size());
+
+            Map<UUID, Order> loadedOrders = new LinkedHashMap<>();
+
+            for (Order order : orderRepository.findAllById(missingIds)) {
+                loadedOrders.put(order.getId(), order);
+            }
+            orders.putAll(loadedOrders);
+
+            if (cache != null && !loadedOrders.isEmpty()) {
+                MultiGetCache.putAll(cache, loadedOrders);
+            }
+        }
+
+        return orderIds.stream()
+                .map(orders::get)
+                .filter(Objects::nonNull)
+                .map(Order.class::cast)
+                .toList();
+    }
+
     /**
      * Retrieves all orders from the database.
      * Note: This might be inefficient for large datasets. Consider using
      * pagination.
      *
      * @return A {@link List} of all {@link Order} entities.
+     * @deprecated Loads the whole table into memory. Use
+     *             {@link #findAllSummaries(Pageable)} to list orders or
+     *             {@link OrderExportService} to export them.
      */
     @Override
+    @Deprecated
     @Transactional(readOnly = true)
     public List<Order> findAll() {
         log.debug("Attempting to find all orders");
@@ -182,27 +450,123 @@ public class OrderServiceImpl implements OrderService {
         return orderRepository.findAll(pageable);
     }
 
+    /**
+     * Retrieves a paginated list of order summaries from the database.
+     * Only the listed columns are selected, so no {@link Order} entity is
+     * instantiated, proxied or tracked by the persistence context.
+     *
+     * @param pageable The pagination information (page number, size, sort).
+     * @return A {@link Page} containing the {@link OrderSummary} rows for the
+     *         requested page.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Page<OrderSummary> findAllSummaries(Pageable pageable) {
+        log.debug("Attempting to find order summaries with pagination: {}", pageable);
+
+        return orderRepository.findAllSummaries(pageable);
+    }
+
+    /**
+     * Retrieves a page of orders, newest first, seeking right after the given
+     * cursor instead of skipping the previous pages, so deep pages cost the same
+     * as the first one.
+     * One extra order is fetched to tell whether another page follows, so no
+     * count query is needed.
+     *
+     * @param cursor The position to start after, or null for the first page.
+     * @param size   The maximum number of orders to return.
+     * @return A {@link Window} containing the {@link OrderSummary} rows of the
+     *         page.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Window<OrderSummary> findAllAfter(OrderCursor cursor, int size) {
+        log.debug("Attempting to find {} orders after cursor: {}", size, cursor);
+
+        Limit limit = Limit.of(size + 1);
+        List<OrderSummary> orders = cursor == null
+                ? orderRepository.findFirstPage(limit)
+                : orderRepository.findPageAfter(cursor.createdAt(), cursor.id(), limit);
+
+        return toWindow(orders, size);
+    }
+
+    /**
+     * Searches orders matching the given filters, newest first, seeking right
+     * after the given cursor like {@link #findAllAfter(OrderCursor, int)}.
+     *
+     * @param criteria The filters the orders must match.
+     * @param cursor   The position to start after, or null for the first page.
+     * @param size     The maximum number of orders to return.
+     * @return A {@link Window} containing the {@link OrderSummary} rows of the
+     *         page.
+     * @throws InvalidOrderSearchException if the creation date range is empty.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Window<OrderSummary> search(OrderSearchCriteria criteria, OrderCursor cursor, int size) {
+        log.debug("Attempting to search {} orders matching {} after cursor: {}", size, criteria, cursor);
+
+        if (criteria.hasEmptyDateRange()) {
+            throw new InvalidOrderSearchException(
+                    "Invalid date range: 'from' (" + criteria.from() + ") must be before 'to' (" + criteria.to() + ")");
+        }
+
+        List<OrderSummary> orders = orderRepository.searchSummaries(criteria, cursor, Limit.of(size + 1));
+
+        return toWindow(orders, size);
+    }
+
+    /**
+     * Wraps a page of orders fetched with one extra order into a {@link Window},
+     * the extra order only telling that another page follows.
+     *
+     * @param orders The orders fetched, at most {@code size + 1}.
+     * @param size   The page size.
+     * @return A {@link Window} of at most {@code size} orders.
+     */
+    private Window<OrderSummary> toWindow(List<OrderSummary> orders, int size) {
+        boolean hasNext = orders.size() > size;
+
+        return Window.from(hasNext ? orders.subList(0, size) : orders,
+                index -> ScrollPosition.forward(Map.of("createdAt", orders.get(index).createdAt(),
+                        "id", orders.get(index).id())),
+                hasNext);
+    }
+
     /**
      * Calculates the total amount for the given order based on its items.
-     * Sums the product of price and quantity for each item.
+     * Sums the product of price and quantity for each item, in {@link Money}, so
+     * only the prices read and the total returned are {@link BigDecimal}s.
      *
      * @param order The order entity (must have items loaded).
      * @return The calculated total amount as a {@link BigDecimal}. Returns
      *         {@code BigDecimal.ZERO} if the order or its items are null/empty.
+     * @throws ArithmeticException If a price or the total exceeds the precision
+     *                             of the columns.
      */
     private BigDecimal calculateTotalAmount(Order order) {
         if (order == null || order.getItems() == null || order.getItems().isEmpty()) {
             return BigDecimal.ZERO;
         }
 
-        return order.getItems().stream()
-                .map(item -> item.getPrice().multiply(new BigDecimal(item.getQuantity())))
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        // Summed as a long, as a Money carried across iterations would be allocated
+        // on each one, while the short-lived ones are eliminated by the JIT
+        long totalMinorUnits = 0;
+        for (OrderItem item : order.getItems()) {
+            totalMinorUnits = Math.addExact(totalMinorUnits,
+                    Money.of(item.getPrice()).times(item.getQuantity()).minorUnits());
+        }
+        return new Money(totalMinorUnits).toBigDecimal();
     }
 
     /**
      * Initializes the Micrometer metrics for the order service.
-     * Registers a timer for processing duration.
+     * Registers timers for single and batch processing duration, the timers of
+     * the map, flush and commit {@link IngestStage}s, the timer of the
+     * persisted {@link EventAge}, and a summary of the cache misses per bulk
+     * lookup.
      *
      * @param registry The meter registry to register the metrics with.
      */
@@ -211,5 +575,17 @@ public class OrderServiceImpl implements OrderService {
                 .description("Time taken to process an incoming order")
                 .publishPercentiles(0.5, 0.95, 0.99)
                 .register(registry);
+        this.batchProcessingTimer = Timer.builder("orders.batch.processing.time")
+                .description("Time taken to process a batch of incoming orders")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(registry);
+        this.bulkLookupMissesSummary = DistributionSummary.builder("orders.bulk.lookup.misses")
+                .description("Number of orders per bulk lookup loaded from the database after a cache miss")
+                .publishPercentiles(0.5, 0.95)
+                .register(registry);
+        this.mapTimer = IngestStage.MAP.timer(registry);
+        this.flushTimer = IngestStage.FLUSH.timer(registry);
+        this.commitTimer = IngestStage.COMMIT.timer(registry);
+        this.persistedAgeTimer = EventAge.PERSISTED.timer(registry);
     }
 }
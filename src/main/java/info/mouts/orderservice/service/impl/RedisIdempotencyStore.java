@@ -0,0 +1,146 @@
+package info.mouts.orderservice.service.impl;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.data.redis.connection.RedisStringCommands.SetOption;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.stereotype.Service;
+
+import info.mouts.orderservice.domain.IdempotencyStatus;
+import info.mouts.orderservice.service.IdempotencyStore;
+import info.mouts.orderservice.util.KafkaUtils;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Redis implementation of {@link IdempotencyStore}.
+ * Every operation costs a single round trip to Redis regardless of the number
+ * of keys: claiming and releasing run as Lua scripts and marking as processed
+ * is pipelined.
+ */
+@Service
+@Slf4j
+public class RedisIdempotencyStore implements IdempotencyStore {
+    /**
+     * Sets every key to ARGV[1] with a TTL of ARGV[2] milliseconds if it does not
+     * exist yet. Returns an empty string for the claimed keys and the current
+     * value for the existing ones.
+     */
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> CLAIM_SCRIPT = RedisScript.of("""
+            local statuses = {}
+            for i, key in ipairs(KEYS) do
+                if redis.call('SET', key, ARGV[1], 'NX', 'PX', ARGV[2]) then
+                    statuses[i] = ''
+                else
+                    statuses[i] = redis.call('GET', key) or ''
+                end
+            end
+            return statuses
+            """, List.class);
+
+    /**
+     * Deletes every key whose value is still ARGV[1]. Returns the number of
+     * deleted keys.
+     */
+    private static final RedisScript<Long> RELEASE_SCRIPT = RedisScript.of("""
+            local released = 0
+            for _, key in ipairs(KEYS) do
+                if redis.call('GET', key) == ARGV[1] then
+                    released = released + redis.call('DEL', key)
+                end
+            end
+            return released
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    /**
+     * Constructs an instance of {@code RedisIdempotencyStore}.
+     *
+     * @param redisTemplate The Spring Redis template for interacting with Redis.
+     */
+    public RedisIdempotencyStore(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    @Override
+    public Map<String, IdempotencyStatus> claim(Collection<String> idempotencyKeys) {
+        Map<String, IdempotencyStatus> statuses = new LinkedHashMap<>();
+
+        if (idempotencyKeys.isEmpty()) {
+            return statuses;
+        }
+
+        List<String> keys = List.copyOf(idempotencyKeys);
+        List<?> results = redisTemplate.execute(CLAIM_SCRIPT, toRedisKeys(keys), KafkaUtils.PROCESSING_STATUS,
+                String.valueOf(KafkaUtils.PROCESSING_TTL.toMillis()));
+
+        for (int i = 0; i < keys.size(); i++) {
+            statuses.put(keys.get(i), toStatus(keys.get(i), results.get(i)));
+        }
+
+        return statuses;
+    }
+
+    @Override
+    public void markProcessed(Collection<String> idempotencyKeys) {
+        if (idempotencyKeys.isEmpty()) {
+            return;
+        }
+
+        byte[] processedStatus = KafkaUtils.PROCESSED_STATUS.getBytes(StandardCharsets.UTF_8);
+        Expiration expiration = Expiration.from(KafkaUtils.PROCESSED_TTL);
+
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            idempotencyKeys.forEach(key -> connection.stringCommands().set(
+                    (KafkaUtils.IDEMPOTENCY_KEY_PREFIX + key).getBytes(StandardCharsets.UTF_8), processedStatus,
+                    expiration, SetOption.upsert()));
+            return null;
+        });
+    }
+
+    @Override
+    public void release(Collection<String> idempotencyKeys) {
+        if (idempotencyKeys.isEmpty()) {
+            return;
+        }
+
+        Long released = redisTemplate.execute(RELEASE_SCRIPT, toRedisKeys(idempotencyKeys),
+                KafkaUtils.PROCESSING_STATUS);
+        log.debug("Released {} of {} idempotency keys", released, idempotencyKeys.size());
+    }
+
+    /**
+     * Converts a value returned by the claim script into an
+     * {@link IdempotencyStatus}.
+     * Unexpected values are reported as PROCESSING, so the message is not
+     * processed twice.
+     *
+     * @param idempotencyKey The idempotency key the value belongs to.
+     * @param value          The value returned by the script.
+     * @return The status of the key.
+     */
+    private IdempotencyStatus toStatus(String idempotencyKey, Object value) {
+        if (value == null || "".equals(value)) {
+            return IdempotencyStatus.NEW;
+        }
+        if (KafkaUtils.PROCESSED_STATUS.equals(value)) {
+            return IdempotencyStatus.PROCESSED;
+        }
+        if (!KafkaUtils.PROCESSING_STATUS.equals(value)) {
+            log.error("Unexpected status in Redis for idempotency key {}: {}", idempotencyKey, value);
+        }
+        return IdempotencyStatus.PROCESSING;
+    }
+
+    private List<String> toRedisKeys(Collection<String> idempotencyKeys) {
+        return idempotencyKeys.stream().map(key -> KafkaUtils.IDEMPOTENCY_KEY_PREFIX + key).toList();
+    }
+}
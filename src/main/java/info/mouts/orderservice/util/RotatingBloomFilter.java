@@ -0,0 +1,198 @@
+package info.mouts.orderservice.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe Bloom filter of strings that forgets old entries by rotating on
+ * fixed time windows.
+ * <p>
+ * Entries are added to the current generation and looked up in both the
+ * current and the previous one. When a window elapses the current generation
+ * becomes the previous one and a new empty generation is started, so every
+ * entry is remembered for at least one window and at most two.
+ * </p>
+ * <p>
+ * Like any Bloom filter it never reports an added entry as absent within that
+ * period, but it may report an entry that was never added as present, with a
+ * probability close to the configured false positive probability.
+ * </p>
+ */
+public class RotatingBloomFilter {
+    private final int numBits;
+    private final int numHashFunctions;
+    private final Duration window;
+    private final Clock clock;
+
+    private volatile Generation current;
+    private volatile Generation previous;
+    private volatile Instant nextRotation;
+
+    /**
+     * Constructs a filter sized for the given number of entries per window.
+     *
+     * @param expectedInsertions       The expected number of entries added per
+     *                                 window.
+     * @param falsePositiveProbability The desired false positive probability,
+     *                                 between 0 and 1 (exclusive).
+     * @param window                   How long each generation receives new
+     *                                 entries before it is rotated.
+     * @param clock                    The clock used to decide when to rotate.
+     */
+    public RotatingBloomFilter(long expectedInsertions, double falsePositiveProbability, Duration window,
+            Clock clock) {
+        if (expectedInsertions <= 0) {
+            throw new IllegalArgumentException("Expected insertions must be positive.");
+        }
+        if (falsePositiveProbability <= 0 || falsePositiveProbability >= 1) {
+            throw new IllegalArgumentException("False positive probability must be between 0 and 1.");
+        }
+
+        long optimalBits = (long) Math.ceil(
+                -expectedInsertions * Math.log(falsePositiveProbability) / (Math.log(2) * Math.log(2)));
+
+        this.numBits = (int) Math.min(Math.max(optimalBits, Long.SIZE), Integer.MAX_VALUE - Long.SIZE);
+        this.numHashFunctions = Math.max(1, (int) Math.round((double) numBits / expectedInsertions * Math.log(2)));
+        this.window = window;
+        this.clock = clock;
+        this.current = new Generation(numBits);
+        this.previous = new Generation(numBits);
+        this.nextRotation = clock.instant().plus(window);
+    }
+
+    /**
+     * Adds an entry to the current generation.
+     *
+     * @param value The entry to add.
+     */
+    public void put(String value) {
+        rotateIfNeeded();
+
+        long hash = hash(value);
+        Generation generation = current;
+
+        for (int i = 0; i < numHashFunctions; i++) {
+            generation.set(bitIndex(hash, i));
+        }
+    }
+
+    /**
+     * Checks whether an entry may have been added to the filter.
+     *
+     * @param value The entry to look up.
+     * @return {@code false} if the entry was definitely not added in the current
+     *         or previous window, {@code true} if it probably was.
+     */
+    public boolean mightContain(String value) {
+        rotateIfNeeded();
+
+        long hash = hash(value);
+        return contains(current, hash) || contains(previous, hash);
+    }
+
+    /**
+     * Returns the fraction of bits set in the current generation, which grows
+     * towards 0.5 as the generation reaches the expected number of insertions.
+     *
+     * @return The fill ratio of the current generation, between 0 and 1.
+     */
+    public double fillRatio() {
+        return (double) current.bitCount() / numBits;
+    }
+
+    private boolean contains(Generation generation, long hash) {
+        for (int i = 0; i < numHashFunctions; i++) {
+            if (!generation.get(bitIndex(hash, i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void rotateIfNeeded() {
+        Instant now = clock.instant();
+
+        if (now.isBefore(nextRotation)) {
+            return;
+        }
+
+        synchronized (this) {
+            if (now.isBefore(nextRotation)) {
+                return;
+            }
+
+            // After more than one idle window the current generation is stale too
+            boolean skippedWindow = !now.isBefore(nextRotation.plus(window));
+
+            previous = skippedWindow ? new Generation(numBits) : current;
+            current = new Generation(numBits);
+            nextRotation = now.plus(window);
+        }
+    }
+
+    /**
+     * Derives the index of the i-th bit from a 64-bit hash, using the two
+     * 32-bit halves as the two base hashes of double hashing.
+     */
+    private int bitIndex(long hash, int i) {
+        int combined = (int) hash + i * (int) (hash >>> 32);
+        return (combined & Integer.MAX_VALUE) % numBits;
+    }
+
+    /**
+     * 64-bit FNV-1a over the UTF-8 bytes, finished with the MurmurHash3 mixer so
+     * both halves are well distributed.
+     */
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    private static final class Generation {
+        private final AtomicLongArray words;
+
+        private Generation(int numBits) {
+            this.words = new AtomicLongArray((numBits + Long.SIZE - 1) / Long.SIZE);
+        }
+
+        private void set(int bitIndex) {
+            int wordIndex = bitIndex >>> 6;
+            long mask = 1L << bitIndex;
+            long word;
+
+            do {
+                word = words.get(wordIndex);
+                if ((word & mask) != 0) {
+                    return;
+                }
+            } while (!words.compareAndSet(wordIndex, word, word | mask));
+        }
+
+        private boolean get(int bitIndex) {
+            return (words.get(bitIndex >>> 6) & (1L << bitIndex)) != 0;
+        }
+
+        private long bitCount() {
+            long count = 0;
+
+            for (int i = 0; i < words.length(); i++) {
+                count += Long.bitCount(words.get(i));
+            }
+            return count;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package info.mouts.orderservice.util;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.uuid.UuidValueGenerator;
+
+/**
+ * Generates time-ordered version 7 UUIDs (RFC 9562), to be plugged into
+ * Hibernate with {@code @UuidGenerator(algorithm = UuidV7Generator.class)}.
+ * <p>
+ * The first 48 bits hold the Unix timestamp in milliseconds and the next 12
+ * bits a counter that keeps the UUIDs generated in the same millisecond
+ * increasing, so new keys are always appended to the right-most leaf of a
+ * B-tree index. The remaining 62 bits are random. If the counter overflows it
+ * carries into the timestamp, which then runs slightly ahead of the clock until
+ * the clock catches up.
+ * </p>
+ * <p>
+ * Generation is lock-free: the timestamp and counter are advanced together
+ * with a compare-and-set on a single {@link AtomicLong} shared by the whole
+ * process. The random bits come from {@link ThreadLocalRandom}, so the UUIDs
+ * are unique but not meant to be unguessable.
+ * </p>
+ */
+public class UuidV7Generator implements UuidValueGenerator {
+    private static final int COUNTER_BITS = 12;
+    private static final long VERSION_7 = 0x7000L;
+    private static final long VARIANT_RFC_9562 = 0x8000000000000000L;
+    private static final long RANDOM_MASK = 0x3fffffffffffffffL;
+
+    /**
+     * The timestamp of the last generated UUID shifted left by
+     * {@link #COUNTER_BITS}, plus its counter.
+     */
+    private static final AtomicLong LAST_TIMESTAMP_AND_COUNTER = new AtomicLong();
+
+    @Override
+    public UUID generateUuid(SharedSessionContractImplementor session) {
+        return generate();
+    }
+
+    /**
+     * Generates a new version 7 UUID, greater than every UUID previously
+     * generated by this process.
+     *
+     * @return The generated UUID.
+     */
+    public static UUID generate() {
+        long timestampAndCounter = nextTimestampAndCounter(System.currentTimeMillis());
+        long timestamp = timestampAndCounter >>> COUNTER_BITS;
+        long counter = timestampAndCounter & ((1L << COUNTER_BITS) - 1);
+
+        long mostSigBits = (timestamp << 16) | VERSION_7 | counter;
+        long leastSigBits = VARIANT_RFC_9562 | (ThreadLocalRandom.current().nextLong() & RANDOM_MASK);
+
+        return new UUID(mostSigBits, leastSigBits);
+    }
+
+    private static long nextTimestampAndCounter(long currentTimeMillis) {
+        long candidate = currentTimeMillis << COUNTER_BITS;
+
+        while (true) {
+            long last = LAST_TIMESTAMP_AND_COUNTER.get();
+            long next = Math.max(candidate, last + 1);
+
+            if (LAST_TIMESTAMP_AND_COUNTER.compareAndSet(last, next)) {
+                return next;
+            }
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package info.mouts.orderservice.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.connection.RedisStringCommands.SetOption;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.serializer.RedisSerializationContext.SerializationPair;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+@ExtendWith(MockitoExtension.class)
+public class MultiGetRedisCacheTest {
+    @Mock
+    private RedisConnectionFactory connectionFactory;
+
+    @Mock
+    private RedisConnection connection;
+
+    @Mock
+    private RedisStringCommands stringCommands;
+
+    @Mock
+    private RedisCacheWriter cacheWriter;
+
+    private MultiGetRedisCache cache;
+
+    @BeforeEach
+    void setUp() {
+        RedisCacheConfiguration cacheConfiguration = RedisCacheConfiguration.defaultCacheConfig()
+                .entryTtl(Duration.ofMinutes(10))
+                .serializeValuesWith(SerializationPair.fromSerializer(RedisSerializer.string()));
+        cache = new MultiGetRedisCache("order", cacheWriter, cacheConfiguration, connectionFactory);
+    }
+
+    @Test
+    @DisplayName("Should look up every key with a single MGET and leave out the misses")
+    void getAll_shouldUseSingleMget() {
+        when(connectionFactory.getConnection()).thenReturn(connection);
+        when(connection.stringCommands()).thenReturn(stringCommands);
+        when(stringCommands.mGet(any(byte[][].class))).thenAnswer(invocation -> {
+            byte[][] keys = (byte[][]) invocation.getRawArguments()[0];
+            assertThat(Arrays.stream(keys).map(key -> new String(key, StandardCharsets.UTF_8)))
+                    .containsExactly("order::KEY-1", "order::KEY-2", "order::KEY-3");
+            return Arrays.asList(bytes("first"), null, bytes("third"));
+        });
+
+        Map<Object, Object> values = cache.getAll(List.of("KEY-1", "KEY-2", "KEY-3"));
+
+        assertThat(values).containsExactly(Map.entry("KEY-1", "first"), Map.entry("KEY-3", "third"));
+        verify(connection).close();
+        verify(cacheWriter, never()).get(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should not connect to Redis when there is no key to look up")
+    void getAll_noKeys_shouldNotConnect() {
+        assertThat(cache.getAll(List.of())).isEmpty();
+
+        verify(connectionFactory, never()).getConnection();
+    }
+
+    @Test
+    @DisplayName("Should write every entry with its time to live in a single pipeline")
+    void putAll_shouldPipelineSets() {
+        when(connectionFactory.getConnection()).thenReturn(connection);
+        when(connection.stringCommands()).thenReturn(stringCommands);
+        Map<String, String> entries = new LinkedHashMap<>();
+        entries.put("KEY-1", "first");
+        entries.put("KEY-2", null);
+        entries.put("KEY-3", "third");
+
+        cache.putAll(entries);
+
+        InOrder inOrder = inOrder(connection, stringCommands);
+        inOrder.verify(connection).openPipeline();
+        inOrder.verify(stringCommands).set(eq(bytes("order::KEY-1")), eq(bytes("first")),
+                eq(Expiration.from(Duration.ofMinutes(10))), eq(SetOption.upsert()));
+        inOrder.verify(stringCommands).set(eq(bytes("order::KEY-3")), eq(bytes("third")),
+                eq(Expiration.from(Duration.ofMinutes(10))), eq(SetOption.upsert()));
+        inOrder.verify(connection).closePipeline();
+        inOrder.verify(connection).close();
+        verify(cacheWriter, never()).put(any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should not connect to Redis when there is no entry to write")
+    void putAll_noEntries_shouldNotConnect() {
+        cache.putAll(Map.of());
+
+        verify(connectionFactory, never()).getConnection();
+    }
+
+    private byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,108 @@
+package info.mouts.orderservice.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+
+import info.mouts.orderservice.domain.Order;
+import info.mouts.orderservice.domain.OrderItem;
+import info.mouts.orderservice.domain.OrderStatus;
+
+public class OrderCacheSerializerTest {
+    private final OrderCacheSerializer serializer = new OrderCacheSerializer(getClass().getClassLoader());
+
+    @Test
+    @DisplayName("Should rebuild an order with its items")
+    void roundTrip_order_shouldRebuildOrderAndItems() {
+        Order order = createOrder(3);
+
+        Order cachedOrder = (Order) serializer.deserialize(serializer.serialize(order));
+
+        assertThat(cachedOrder).usingRecursiveComparison().ignoringFields("items").isEqualTo(order);
+        assertThat(cachedOrder.getItems()).hasSize(3);
+        assertThat(cachedOrder.getItems()).allSatisfy(item -> assertThat(item.getOrder()).isSameAs(cachedOrder));
+        assertThat(cachedOrder.getItems()).usingRecursiveFieldByFieldElementComparatorIgnoringFields("order")
+                .containsExactlyElementsOf(order.getItems());
+    }
+
+    @Test
+    @DisplayName("Should rebuild order items referencing their order by ID")
+    void roundTrip_orderItems_shouldKeepOrderId() {
+        Order order = createOrder(2);
+
+        @SuppressWarnings("unchecked")
+        List<OrderItem> cachedItems = (List<OrderItem>) serializer.deserialize(serializer.serialize(order.getItems()));
+        OrderItem cachedItem = (OrderItem) serializer.deserialize(serializer.serialize(order.getItems().get(0)));
+
+        assertThat(cachedItems).usingRecursiveFieldByFieldElementComparatorIgnoringFields("order")
+                .containsExactlyElementsOf(order.getItems());
+        assertThat(cachedItems).allSatisfy(item -> assertThat(item.getOrder().getId()).isEqualTo(order.getId()));
+        assertThat(cachedItem.getOrder().getId()).isEqualTo(order.getId());
+        assertThat(cachedItem.getProductId()).isEqualTo(order.getItems().get(0).getProductId());
+    }
+
+    @Test
+    @DisplayName("Should read entries written with JDK serialization as cache misses")
+    void deserialize_jdkSerializedEntry_shouldReturnNull() {
+        byte[] jdkSerialized = new JdkSerializationRedisSerializer().serialize(createOrder(1));
+
+        assertThat(serializer.deserialize(jdkSerialized)).isNull();
+    }
+
+    @Test
+    @DisplayName("Should read entries written with another format version as cache misses")
+    void deserialize_otherFormatVersion_shouldReturnNull() {
+        byte[] bytes = serializer.serialize(createOrder(1));
+        bytes[0] = OrderCacheSerializer.FORMAT_VERSION + 1;
+
+        assertThat(serializer.deserialize(bytes)).isNull();
+    }
+
+    @Test
+    @DisplayName("Should fall back to JDK serialization for other values")
+    void roundTrip_otherValue_shouldUseJdkSerialization() {
+        Map<String, Integer> value = Map.of("count", 1);
+
+        assertThat(serializer.deserialize(serializer.serialize(value))).isEqualTo(value);
+    }
+
+    @Test
+    @DisplayName("Should write orders in much less space than JDK serialization")
+    void serialize_order_shouldBeSmallerThanJdkSerialization() {
+        Order order = createOrder(10);
+
+        byte[] jdkSerialized = new JdkSerializationRedisSerializer().serialize(order);
+
+        assertThat(serializer.serialize(order).length).isLessThan(jdkSerialized.length / 2);
+    }
+
+    private Order createOrder(int itemCount) {
+        Order order = Order.builder()
+                .id(UUID.randomUUID())
+                .idempotencyKey(UUID.randomUUID().toString())
+                .status(OrderStatus.PROCESSED)
+                .total(new BigDecimal("123.45"))
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .version(2)
+                .build();
+
+        for (int i = 0; i < itemCount; i++) {
+            order.addItem(OrderItem.builder()
+                    .id(UUID.randomUUID())
+                    .productId("PROD-" + i)
+                    .quantity(i + 1)
+                    .price(new BigDecimal("10.50"))
+                    .build());
+        }
+        return order;
+    }
+}
@@ -0,0 +1,65 @@
+package info.mouts.orderservice.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+@ExtendWith(MockitoExtension.class)
+public class RefreshAheadPolicyTest {
+    private static final long NOW = 1_000_000L;
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    private final RedisCacheConfiguration cacheConfiguration = RedisCacheConfiguration.defaultCacheConfig();
+
+    @Test
+    @DisplayName("Should refresh written entries one window before their time to live")
+    void refreshTimeAfterWrite_shouldSubtractWindowFromTimeToLive() {
+        RefreshAheadPolicy policy = createPolicy(Duration.ofMinutes(10), Duration.ofMinutes(1));
+
+        assertThat(policy.refreshTimeAfterWrite(NOW)).isEqualTo(NOW + Duration.ofMinutes(9).toMillis());
+    }
+
+    @Test
+    @DisplayName("Should refresh shared entries one window before their remaining time to live")
+    void refreshTimeOfSharedEntry_shouldUseRemainingTimeToLive() {
+        RefreshAheadPolicy policy = createPolicy(Duration.ofMinutes(10), Duration.ofMinutes(1));
+        when(redisTemplate.getExpire("order::KEY-1", TimeUnit.MILLISECONDS))
+                .thenReturn(Duration.ofMinutes(3).toMillis());
+
+        assertThat(policy.refreshTimeOfSharedEntry("order", "KEY-1", NOW))
+                .isEqualTo(NOW + Duration.ofMinutes(2).toMillis());
+    }
+
+    @Test
+    @DisplayName("Should never refresh shared entries whose expiration is unknown")
+    void refreshTimeOfSharedEntry_unknownExpiration_shouldNeverRefresh() {
+        RefreshAheadPolicy policy = createPolicy(Duration.ofMinutes(10), Duration.ofMinutes(1));
+        when(redisTemplate.getExpire("order::KEY-1", TimeUnit.MILLISECONDS)).thenReturn(-2L);
+
+        assertThat(policy.refreshTimeOfSharedEntry("order", "KEY-1", NOW)).isEqualTo(Long.MAX_VALUE);
+    }
+
+    @Test
+    @DisplayName("Should reject a window not shorter than the time to live")
+    void constructor_windowNotShorterThanTimeToLive_shouldThrow() {
+        assertThatThrownBy(() -> createPolicy(Duration.ofMinutes(1), Duration.ofMinutes(1)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private RefreshAheadPolicy createPolicy(Duration timeToLive, Duration window) {
+        return new RefreshAheadPolicy(redisTemplate, cacheConfiguration, timeToLive, window, Runnable::run);
+    }
+}
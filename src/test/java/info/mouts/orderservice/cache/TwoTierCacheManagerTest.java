@@ -0,0 +1,97 @@
+package info.mouts.orderservice.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+public class TwoTierCacheManagerTest {
+    private static final String CHANNEL = "orders-service.cache.invalidation";
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    private ConcurrentMapCacheManager sharedCacheManager;
+
+    @BeforeEach
+    void setUp() {
+        sharedCacheManager = new ConcurrentMapCacheManager("order", "order::items", "order::item");
+    }
+
+    @Test
+    @DisplayName("Should wrap each shared cache once")
+    void getCache_shouldReturnSameTwoTierCache() {
+        TwoTierCacheManager cacheManager = createCacheManager(new CacheInvalidationChannel(redisTemplate, CHANNEL));
+
+        Cache cache = cacheManager.getCache("order::items");
+
+        assertThat(cache).isInstanceOf(TwoTierCache.class);
+        assertThat(cacheManager.getCache("order::items")).isSameAs(cache);
+        assertThat(cacheManager.getCacheNames()).containsExactlyInAnyOrder("order", "order::items", "order::item");
+    }
+
+    @Test
+    @DisplayName("Should evict the local copy when another instance changes a key")
+    void onMessage_fromOtherInstance_shouldEvictLocalCopy() {
+        TwoTierCacheManager cacheManager = createCacheManager(new CacheInvalidationChannel(redisTemplate, CHANNEL));
+        TwoTierCacheManager otherCacheManager = createCacheManager(
+                new CacheInvalidationChannel(redisTemplate, CHANNEL));
+        UUID orderId = UUID.randomUUID();
+        Cache cache = cacheManager.getCache("order");
+        cache.put(orderId, "order");
+
+        otherCacheManager.getCache("order").evict(orderId);
+        deliverPublishedMessages(cacheManager, 1);
+
+        assertThat(cache.get(orderId)).isNull();
+    }
+
+    @Test
+    @DisplayName("Should ignore invalidations sent by the same instance")
+    void onMessage_fromSameInstance_shouldKeepLocalCopy() {
+        TwoTierCacheManager cacheManager = createCacheManager(new CacheInvalidationChannel(redisTemplate, CHANNEL));
+        UUID orderId = UUID.randomUUID();
+        Cache cache = cacheManager.getCache("order");
+        cache.put(orderId, "old");
+        cache.put(orderId, "order");
+        sharedCacheManager.getCache("order").evict(orderId);
+
+        deliverPublishedMessages(cacheManager, 1);
+
+        assertThat(cache.get(orderId).get()).isEqualTo("order");
+    }
+
+    private TwoTierCacheManager createCacheManager(CacheInvalidationChannel invalidationChannel) {
+        return new TwoTierCacheManager(sharedCacheManager, Caffeine.newBuilder().maximumSize(100),
+                invalidationChannel, null, new SimpleMeterRegistry());
+    }
+
+    private void deliverPublishedMessages(TwoTierCacheManager cacheManager, int expectedMessages) {
+        ArgumentCaptor<String> messageCaptor = ArgumentCaptor.forClass(String.class);
+        verify(redisTemplate, times(expectedMessages)).convertAndSend(anyString(), messageCaptor.capture());
+
+        messageCaptor.getAllValues().forEach(message -> cacheManager.onMessage(
+                new DefaultMessage(CHANNEL.getBytes(StandardCharsets.UTF_8), message.getBytes(StandardCharsets.UTF_8)),
+                null));
+    }
+}
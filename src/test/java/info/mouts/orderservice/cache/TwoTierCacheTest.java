@@ -0,0 +1,320 @@
+package info.mouts.orderservice.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+public class TwoTierCacheTest {
+    @Mock
+    private CacheInvalidationChannel invalidationChannel;
+
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private Cache sharedCache;
+    private TwoTierCache cache;
+
+    @BeforeEach
+    void setUp() {
+        sharedCache = spy(new ConcurrentMapCache("order", false));
+        cache = createCache(null);
+    }
+
+    @Test
+    @DisplayName("Should copy shared cache hits into the local tier")
+    void get_sharedHit_shouldServeNextLookupLocally() {
+        UUID orderId = UUID.randomUUID();
+        sharedCache.put(orderId, "order");
+
+        assertThat(cache.get(orderId).get()).isEqualTo("order");
+        assertThat(cache.get(orderId).get()).isEqualTo("order");
+
+        verify(sharedCache, times(1)).get(orderId);
+        assertThat(tierGets("l1", "hit")).isEqualTo(1);
+        assertThat(tierGets("l1", "miss")).isEqualTo(1);
+        assertThat(tierGets("l2", "hit")).isEqualTo(1);
+        assertThat(tierGets("l2", "miss")).isZero();
+    }
+
+    @Test
+    @DisplayName("Should count a miss on both tiers when the key is not cached")
+    void get_notCached_shouldReturnNull() {
+        assertThat(cache.get(UUID.randomUUID())).isNull();
+
+        assertThat(tierGets("l1", "miss")).isEqualTo(1);
+        assertThat(tierGets("l2", "miss")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should load missing values through the shared cache and keep them locally")
+    void get_withValueLoader_shouldLoadOnce() {
+        UUID orderId = UUID.randomUUID();
+
+        assertThat(cache.get(orderId, () -> "loaded")).isEqualTo("loaded");
+        assertThat(cache.get(orderId, () -> "loaded again")).isEqualTo("loaded");
+
+        assertThat(sharedCache.get(orderId).get()).isEqualTo("loaded");
+        assertThat(tierGets("l1", "hit")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should write both tiers without broadcasting an eviction on put of a new key")
+    void put_newKey_shouldWriteBothTiersWithoutPublishingEviction() {
+        UUID orderId = UUID.randomUUID();
+
+        cache.put(orderId, "order");
+
+        assertThat(sharedCache.get(orderId).get()).isEqualTo("order");
+        assertThat(cache.get(orderId).get()).isEqualTo("order");
+        assertThat(tierGets("l1", "hit")).isEqualTo(1);
+        verify(invalidationChannel, never()).publishEvict("order", orderId.toString());
+    }
+
+    @Test
+    @DisplayName("Should tell other instances to evict their copy on put of a key cached in the shared tier")
+    void put_keyInSharedTier_shouldOverwriteAndPublishEviction() {
+        UUID orderId = UUID.randomUUID();
+        sharedCache.put(orderId, "old");
+
+        cache.put(orderId, "order");
+
+        assertThat(sharedCache.get(orderId).get()).isEqualTo("order");
+        assertThat(cache.get(orderId).get()).isEqualTo("order");
+        verify(invalidationChannel).publishEvict("order", orderId.toString());
+    }
+
+    @Test
+    @DisplayName("Should overwrite keys cached locally without checking the shared tier first")
+    void put_keyInLocalTier_shouldOverwriteAndPublishEviction() {
+        UUID orderId = UUID.randomUUID();
+        cache.put(orderId, "old");
+
+        cache.put(orderId, "order");
+
+        assertThat(sharedCache.get(orderId).get()).isEqualTo("order");
+        verify(sharedCache, times(1)).putIfAbsent(orderId, "old");
+        verify(invalidationChannel).publishEvict("order", orderId.toString());
+    }
+
+    @Test
+    @DisplayName("Should evict both tiers and tell other instances to evict their copy")
+    void evict_shouldEvictBothTiersAndPublishEviction() {
+        UUID orderId = UUID.randomUUID();
+        cache.put(orderId, "order");
+
+        cache.evict(orderId);
+
+        assertThat(sharedCache.get(orderId)).isNull();
+        assertThat(cache.get(orderId)).isNull();
+        verify(invalidationChannel).publishEvict("order", orderId.toString());
+    }
+
+    @Test
+    @DisplayName("Should only evict the local tier on invalidations from other instances")
+    void evictLocal_shouldKeepSharedTier() {
+        UUID orderId = UUID.randomUUID();
+        sharedCache.put(orderId, "order");
+        cache.get(orderId);
+
+        cache.evictLocal(orderId.toString());
+        cache.get(orderId);
+
+        verify(sharedCache, times(2)).get(orderId);
+        verify(sharedCache, never()).evict(orderId);
+        assertThat(meterRegistry.get("cache.tier.invalidations").tag("cache", "order").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should clear both tiers and tell other instances to clear theirs")
+    void clear_shouldClearBothTiersAndPublishClear() {
+        UUID orderId = UUID.randomUUID();
+        cache.put(orderId, "order");
+
+        cache.clear();
+
+        assertThat(cache.get(orderId)).isNull();
+        verify(invalidationChannel).publishClear("order");
+    }
+
+    @Test
+    @DisplayName("Should share a single load between concurrent misses of the same key")
+    void get_concurrentMisses_shouldLoadOnce() throws Exception {
+        UUID orderId = UUID.randomUUID();
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Callable<String> loader = () -> {
+            loads.incrementAndGet();
+            loading.countDown();
+            release.await();
+            return "order";
+        };
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<String> first = executor.submit(() -> cache.get(orderId, loader));
+            loading.await();
+            Future<String> second = executor.submit(() -> cache.get(orderId, loader));
+            awaitCoalescedLoads(1);
+            release.countDown();
+
+            assertThat(first.get()).isEqualTo("order");
+            assertThat(second.get()).isEqualTo("order");
+        }
+
+        assertThat(loads).hasValue(1);
+        assertThat(tierGets("l2", "miss")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should rethrow the failure of a shared load to every waiting caller")
+    void get_concurrentMissesWithFailedLoad_shouldFailAllCallers() throws Exception {
+        UUID orderId = UUID.randomUUID();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Callable<String> loader = () -> {
+            loading.countDown();
+            release.await();
+            throw new IllegalStateException("Database unavailable");
+        };
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<String> first = executor.submit(() -> cache.get(orderId, loader));
+            loading.await();
+            Future<String> second = executor.submit(() -> cache.get(orderId, loader));
+            awaitCoalescedLoads(1);
+            release.countDown();
+
+            assertThatThrownBy(first::get).hasRootCauseInstanceOf(IllegalStateException.class);
+            assertThatThrownBy(second::get).hasRootCauseInstanceOf(IllegalStateException.class);
+        }
+
+        assertThat(cache.get(orderId)).isNull();
+    }
+
+    @Test
+    @DisplayName("Should reload entries in the background once they are due for a refresh")
+    void get_entryDueForRefresh_shouldReloadInBackground() {
+        RefreshAheadPolicy refreshAheadPolicy = mock(RefreshAheadPolicy.class);
+        when(refreshAheadPolicy.refreshTimeAfterWrite(anyLong())).thenReturn(0L);
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(0).run();
+            return null;
+        }).when(refreshAheadPolicy).execute(any(Runnable.class));
+        TwoTierCache refreshingCache = createCache(refreshAheadPolicy);
+        UUID orderId = UUID.randomUUID();
+
+        assertThat(refreshingCache.get(orderId, () -> "v1")).isEqualTo("v1");
+        assertThat(refreshingCache.get(orderId, () -> "v2")).isEqualTo("v1");
+
+        assertThat(refreshingCache.get(orderId).get()).isEqualTo("v2");
+        assertThat(sharedCache.get(orderId).get()).isEqualTo("v2");
+        verify(invalidationChannel).publishEvict("order", orderId.toString());
+        assertThat(meterRegistry.get("cache.tier.refreshes").tag("result", "success").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should not refresh entries that are not due yet")
+    void get_entryNotDueForRefresh_shouldNotReload() {
+        RefreshAheadPolicy refreshAheadPolicy = mock(RefreshAheadPolicy.class);
+        when(refreshAheadPolicy.refreshTimeAfterWrite(anyLong())).thenReturn(Long.MAX_VALUE);
+        TwoTierCache refreshingCache = createCache(refreshAheadPolicy);
+        UUID orderId = UUID.randomUUID();
+
+        refreshingCache.get(orderId, () -> "v1");
+
+        assertThat(refreshingCache.get(orderId, () -> "v2")).isEqualTo("v1");
+        verify(refreshAheadPolicy, never()).execute(any(Runnable.class));
+    }
+
+    @Test
+    @DisplayName("Should look up local misses in the shared cache and keep its hits locally")
+    void getAll_shouldCombineBothTiers() {
+        UUID localId = UUID.randomUUID();
+        UUID sharedId = UUID.randomUUID();
+        UUID missingId = UUID.randomUUID();
+        cache.put(localId, "local");
+        sharedCache.put(sharedId, "shared");
+
+        Map<Object, Object> values = cache.getAll(List.of(localId, sharedId, missingId));
+
+        assertThat(values).containsOnly(Map.entry(localId, "local"), Map.entry(sharedId, "shared"));
+        verify(sharedCache, never()).get(localId);
+        assertThat(tierGets("l1", "hit")).isEqualTo(1);
+        assertThat(tierGets("l1", "miss")).isEqualTo(2);
+        assertThat(tierGets("l2", "hit")).isEqualTo(1);
+        assertThat(tierGets("l2", "miss")).isEqualTo(1);
+
+        assertThat(cache.get(sharedId).get()).isEqualTo("shared");
+        verify(sharedCache, times(1)).get(sharedId);
+    }
+
+    @Test
+    @DisplayName("Should write loaded entries to both tiers without broadcasting evictions")
+    void putAll_shouldWriteBothTiersWithoutPublishingEvictions() {
+        UUID firstId = UUID.randomUUID();
+        UUID secondId = UUID.randomUUID();
+
+        cache.putAll(Map.of(firstId, "first", secondId, "second"));
+
+        assertThat(sharedCache.get(firstId).get()).isEqualTo("first");
+        assertThat(sharedCache.get(secondId).get()).isEqualTo("second");
+        assertThat(cache.getAll(List.of(firstId, secondId))).hasSize(2);
+        assertThat(tierGets("l1", "hit")).isEqualTo(2);
+        verify(invalidationChannel, never()).publishEvict(any(), any());
+    }
+
+    private TwoTierCache createCache(RefreshAheadPolicy refreshAheadPolicy) {
+        return new TwoTierCache(sharedCache, Caffeine.newBuilder().maximumSize(100), invalidationChannel,
+                refreshAheadPolicy, meterRegistry);
+    }
+
+    private void awaitCoalescedLoads(int expectedCount) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+
+        while (meterRegistry.get("cache.tier.coalesced.loads").counter().count() < expectedCount
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private double tierGets(String tier, String result) {
+        return meterRegistry.get("cache.tier.gets")
+                .tag("cache", "order")
+                .tag("tier", tier)
+                .tag("result", result)
+                .counter().count();
+    }
+}
@@ -1,28 +1,48 @@
 package info.mouts.orderservice.controller;
 
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
 
 import info.mouts.orderservice.dto.OrderItemResponseDTO;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.hateoas.MediaTypes;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import info.mouts.orderservice.domain.Order;
 import info.mouts.orderservice.domain.OrderItem;
+import info.mouts.orderservice.dto.OrderCursor;
+import info.mouts.orderservice.dto.OrderExportFormat;
 import info.mouts.orderservice.dto.OrderResponseDTO;
+import info.mouts.orderservice.dto.OrderSearchCriteria;
+import info.mouts.orderservice.dto.OrderStatusChange;
+import info.mouts.orderservice.dto.OrderSummary;
+import info.mouts.orderservice.dto.OrderVersion;
+import info.mouts.orderservice.event.OrderStatusBroadcaster;
+import info.mouts.orderservice.exception.InvalidOrderSearchException;
 import info.mouts.orderservice.exception.OrderItemNotFoundException;
 import info.mouts.orderservice.exception.OrderNotFoundException;
 import info.mouts.orderservice.mapper.OrderMapper;
+import info.mouts.orderservice.service.OrderExportService;
 import info.mouts.orderservice.service.OrderItemService;
 import info.mouts.orderservice.service.OrderService;
 
@@ -30,7 +50,13 @@ import org.springframework.data.web.PagedResourcesAssembler;
 
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.never;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 import static info.mouts.orderservice.domain.OrderStatus.*;
@@ -48,6 +74,12 @@ public class OrderControllerTest {
     @MockitoBean
     private OrderItemService orderItemService;
 
+    @MockitoBean
+    private OrderExportService orderExportService;
+
+    @MockitoBean
+    private OrderStatusBroadcaster orderStatusBroadcaster;
+
     @MockitoBean
     private OrderMapper orderMapper;
 
@@ -112,10 +144,239 @@ public class OrderControllerTest {
         }
     }
 
+    @Nested
+    @DisplayName("GET /orders/cursor Endpoint")
+    class GetOrdersByCursorTests {
+
+        @Test
+        @DisplayName("Should return 200 OK with the orders and a next link when more orders follow")
+        void getOrdersByCursor_whenMoreFollow_shouldReturnNextLink() throws Exception {
+            LocalDateTime dateTime = LocalDateTime.of(2025, 4, 1, 20, 0, 0);
+            OrderSummary order = new OrderSummary(UUID.randomUUID(), "key", PROCESSED, BigDecimal.TEN, dateTime,
+                    dateTime);
+            String nextCursor = OrderCursor.of(order).encode();
+
+            given(orderService.findAllAfter(isNull(), eq(1)))
+                    .willReturn(Window.from(List.of(order), index -> ScrollPosition.offset(index), true));
+            given(orderMapper.toOrderResponseDto(any(OrderSummary.class)))
+                    .willAnswer(invocation -> OrderResponseDTO.builder()
+                            .id(invocation.<OrderSummary>getArgument(0).id())
+                            .build());
+
+            mockMvc.perform(get(BASE_API_URL + "/cursor").param("size", "1"))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaTypes.HAL_JSON))
+                    .andExpect(jsonPath("$._embedded.orders", hasSize(1)))
+                    .andExpect(jsonPath("$._embedded.orders[0].id", is(order.id().toString())))
+                    .andExpect(jsonPath("$._embedded.orders[0]._links.self.href",
+                            endsWith(BASE_API_URL + "/" + order.id())))
+                    .andExpect(jsonPath("$._links.self.href", endsWith(BASE_API_URL + "/cursor?size=1")))
+                    .andExpect(jsonPath("$._links.next.href",
+                            endsWith(BASE_API_URL + "/cursor?cursor=" + nextCursor + "&size=1")))
+                    .andExpect(jsonPath("$.page").doesNotExist());
+        }
+
+        @Test
+        @DisplayName("Should seek after the given cursor and omit the next link on the last page")
+        void getOrdersByCursor_onLastPage_shouldNotReturnNextLink() throws Exception {
+            OrderCursor cursor = new OrderCursor(LocalDateTime.of(2025, 4, 1, 20, 0, 0), UUID.randomUUID());
+
+            given(orderService.findAllAfter(cursor, 100))
+                    .willReturn(Window.from(Collections.emptyList(), index -> ScrollPosition.offset(index), false));
+
+            mockMvc.perform(get(BASE_API_URL + "/cursor")
+                    .param("cursor", cursor.encode())
+                    .param("size", "1000"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$._links.self.href", containsString("size=100")))
+                    .andExpect(jsonPath("$._links.next").doesNotExist());
+        }
+
+        @Test
+        @DisplayName("Should return 400 Bad Request when the cursor is not valid")
+        void getOrdersByCursor_withInvalidCursor_shouldReturnBadRequest() throws Exception {
+            mockMvc.perform(get(BASE_API_URL + "/cursor").param("cursor", "not-a-cursor"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(content().contentType("application/problem+json"))
+                    .andExpect(jsonPath("$.title", is("Invalid Cursor")));
+        }
+    }
+
+    @Nested
+    @DisplayName("GET /orders/search Endpoint")
+    class SearchOrdersTests {
+
+        @Test
+        @DisplayName("Should search with the given filters and carry them in the next link")
+        void searchOrders_whenMoreFollow_shouldReturnNextLinkWithFilters() throws Exception {
+            LocalDateTime from = LocalDateTime.of(2025, 4, 1, 0, 0, 0);
+            LocalDateTime to = LocalDateTime.of(2025, 5, 1, 0, 0, 0);
+            OrderSearchCriteria criteria = new OrderSearchCriteria(PROCESSED, "prod 1", from, to);
+            OrderSummary order = new OrderSummary(UUID.randomUUID(), "key", PROCESSED, BigDecimal.TEN,
+                    from.plusDays(1), from.plusDays(1));
+            String nextCursor = OrderCursor.of(order).encode();
+
+            given(orderService.search(eq(criteria), isNull(), eq(1)))
+                    .willReturn(Window.from(List.of(order), index -> ScrollPosition.offset(index), true));
+            given(orderMapper.toOrderResponseDto(any(OrderSummary.class)))
+                    .willAnswer(invocation -> OrderResponseDTO.builder()
+                            .id(invocation.<OrderSummary>getArgument(0).id())
+                            .build());
+
+            mockMvc.perform(get(BASE_API_URL + "/search")
+                    .param("status", "PROCESSED")
+                    .param("productId", "prod 1")
+                    .param("from", "2025-04-01T00:00:00")
+                    .param("to", "2025-05-01T00:00:00")
+                    .param("size", "1"))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaTypes.HAL_JSON))
+                    .andExpect(jsonPath("$._embedded.orders", hasSize(1)))
+                    .andExpect(jsonPath("$._embedded.orders[0]._links.self.href",
+                            endsWith(BASE_API_URL + "/" + order.id())))
+                    .andExpect(jsonPath("$._links.self.href", endsWith(BASE_API_URL
+                            + "/search?size=1&status=PROCESSED&productId=prod%201"
+                            + "&from=2025-04-01T00:00&to=2025-05-01T00:00")))
+                    .andExpect(jsonPath("$._links.next.href", endsWith("&cursor=" + nextCursor)));
+        }
+
+        @Test
+        @DisplayName("Should search without filters after the given cursor and omit the next link on the last page")
+        void searchOrders_onLastPage_shouldNotReturnNextLink() throws Exception {
+            OrderCursor cursor = new OrderCursor(LocalDateTime.of(2025, 4, 1, 20, 0, 0), UUID.randomUUID());
+
+            given(orderService.search(new OrderSearchCriteria(null, null, null, null), cursor, 100))
+                    .willReturn(Window.from(Collections.emptyList(), index -> ScrollPosition.offset(index), false));
+
+            mockMvc.perform(get(BASE_API_URL + "/search")
+                    .param("cursor", cursor.encode())
+                    .param("size", "1000"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$._links.self.href",
+                            endsWith(BASE_API_URL + "/search?size=100&cursor=" + cursor.encode())))
+                    .andExpect(jsonPath("$._links.next").doesNotExist());
+        }
+
+        @Test
+        @DisplayName("Should return 400 Bad Request when the date range is empty")
+        void searchOrders_withEmptyDateRange_shouldReturnBadRequest() throws Exception {
+            given(orderService.search(any(), any(), eq(10)))
+                    .willThrow(new InvalidOrderSearchException("Invalid date range"));
+
+            mockMvc.perform(get(BASE_API_URL + "/search")
+                    .param("from", "2025-05-01T00:00:00")
+                    .param("to", "2025-04-01T00:00:00"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(content().contentType("application/problem+json"))
+                    .andExpect(jsonPath("$.title", is("Invalid Order Search")));
+        }
+
+        @Test
+        @DisplayName("Should return 400 Bad Request when the status is not valid")
+        void searchOrders_withInvalidStatus_shouldReturnBadRequest() throws Exception {
+            mockMvc.perform(get(BASE_API_URL + "/search").param("status", "SHIPPED"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(content().contentType("application/problem+json"));
+
+            then(orderService).should(never()).search(any(), any(), any(Integer.class));
+        }
+    }
+
+    @Nested
+    @DisplayName("GET /orders/export Endpoint")
+    class ExportOrdersTests {
+
+        @Test
+        @DisplayName("Should stream the exported orders as a CSV attachment")
+        void exportOrders_asCsv_shouldStreamAttachment() throws Exception {
+            LocalDateTime from = LocalDateTime.of(2025, 4, 1, 0, 0, 0);
+            LocalDateTime to = LocalDateTime.of(2025, 4, 2, 0, 0, 0);
+
+            willAnswer(invocation -> {
+                invocation.<OutputStream>getArgument(3).write("id\n".getBytes());
+                return 0L;
+            }).given(orderExportService).exportOrders(eq(from), eq(to), eq(OrderExportFormat.CSV), any());
+
+            MvcResult result = mockMvc.perform(get(BASE_API_URL + "/export")
+                    .param("from", "2025-04-01T00:00:00")
+                    .param("to", "2025-04-02T00:00:00")
+                    .param("format", "CSV"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            mockMvc.perform(asyncDispatch(result))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                    .andExpect(header().string("Content-Disposition",
+                            containsString("orders-2025-04-01-2025-04-02.csv")))
+                    .andExpect(content().string("id\n"));
+        }
+
+        @Test
+        @DisplayName("Should return 400 Bad Request when the date range is missing")
+        void exportOrders_withoutRange_shouldReturnBadRequest() throws Exception {
+            mockMvc.perform(get(BASE_API_URL + "/export"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.title", is("Missing Parameter")))
+                    .andExpect(jsonPath("$.detail", containsString("from")));
+        }
+    }
+
+    @Nested
+    @DisplayName("GET /orders/batch Endpoint")
+    class GetOrdersByIdsTests {
+
+        @Test
+        @DisplayName("Should return 200 OK with the found orders and their self links")
+        void getOrdersByIds_shouldReturnFoundOrders() throws Exception {
+            UUID firstId = UUID.randomUUID();
+            UUID secondId = UUID.randomUUID();
+            Order first = Order.builder().id(firstId).build();
+            Order second = Order.builder().id(secondId).build();
+
+            given(orderService.findByOrderIds(any())).willReturn(List.of(first, second));
+            given(orderMapper.toOrderResponseDtoList(List.of(first, second))).willReturn(List.of(
+                    OrderResponseDTO.builder().id(firstId).build(),
+                    OrderResponseDTO.builder().id(secondId).build()));
+
+            mockMvc.perform(get(BASE_API_URL + "/batch")
+                    .param("ids", firstId.toString(), secondId.toString(), firstId.toString()))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaTypes.HAL_JSON))
+                    .andExpect(jsonPath("$._embedded.orders", hasSize(2)))
+                    .andExpect(jsonPath("$._embedded.orders[0].id", is(firstId.toString())))
+                    .andExpect(jsonPath("$._embedded.orders[0]._links.self.href",
+                            endsWith(BASE_API_URL + "/" + firstId)))
+                    .andExpect(jsonPath("$._embedded.orders[1]._links.self.href",
+                            endsWith(BASE_API_URL + "/" + secondId)))
+                    .andExpect(jsonPath("$._links.self.href", containsString(BASE_API_URL + "/batch")));
+
+            then(orderService).should().findByOrderIds(new LinkedHashSet<>(List.of(firstId, secondId)));
+        }
+
+        @Test
+        @DisplayName("Should return 400 Bad Request when more than 100 IDs are requested")
+        void getOrdersByIds_withTooManyIds_shouldReturnBadRequest() throws Exception {
+            String[] ids = IntStream.range(0, 101).mapToObj(i -> UUID.randomUUID().toString()).toArray(String[]::new);
+
+            mockMvc.perform(get(BASE_API_URL + "/batch").param("ids", ids))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.title", is("Too Many Order IDs")));
+        }
+    }
+
     @Nested
     @DisplayName("GET /orders/{orderId}/items Endpoint")
     class GetOrderItemsTests {
 
+        @BeforeEach
+        void setUp() {
+            given(orderService.findByOrderId(any())).willAnswer(invocation -> Order.builder()
+                    .id(invocation.getArgument(0))
+                    .updatedAt(LocalDateTime.of(2025, 4, 1, 20, 0, 0))
+                    .build());
+        }
+
         @Test
         @DisplayName("Should return 200 OK with items list and HATEOAS links when order exists")
         void getOrderItems_whenOrderExists_shouldReturnItems() throws Exception {
@@ -128,8 +389,10 @@ public class OrderControllerTest {
 
             List<OrderItem> itemsFromService = Arrays.asList(item1, item2);
 
-            OrderItemResponseDTO itemDto1 = OrderItemResponseDTO.builder().productId("prod-A").build();
-            OrderItemResponseDTO itemDto2 = OrderItemResponseDTO.builder().productId("prod-B").build();
+            UUID itemId = UUID.randomUUID();
+            OrderItemResponseDTO itemDto1 = OrderItemResponseDTO.builder().id(itemId).productId("prod-A").build();
+            OrderItemResponseDTO itemDto2 = OrderItemResponseDTO.builder().id(UUID.randomUUID())
+                    .productId("prod-B").build();
             List<OrderItemResponseDTO> itemDtosFromMapper = Arrays.asList(itemDto1, itemDto2);
 
             given(orderItemService.findOrderItemsByOrderId(orderId)).willReturn(itemsFromService);
@@ -142,6 +405,8 @@ public class OrderControllerTest {
                             endsWith("/orders/" + orderId + "/items")))
                     .andExpect(jsonPath("$._embedded.orderItems", hasSize(2)))
                     .andExpect(jsonPath("$._embedded.orderItems[0].productId", is("prod-A")))
+                    .andExpect(jsonPath("$._embedded.orderItems[0]._links.item.href",
+                            endsWith("/orders/" + orderId + "/items/" + itemId)))
                     .andExpect(jsonPath("$._embedded.orderItems[1].productId", is("prod-B")));
         }
 
@@ -191,6 +456,14 @@ public class OrderControllerTest {
     @DisplayName("GET /orders/{orderId}/items/{itemId} Endpoint")
     class GetOrderItemByIdTests {
 
+        @BeforeEach
+        void setUp() {
+            given(orderService.findByOrderId(any())).willAnswer(invocation -> Order.builder()
+                    .id(invocation.getArgument(0))
+                    .updatedAt(LocalDateTime.of(2025, 4, 1, 20, 0, 0))
+                    .build());
+        }
+
         @Test
         @DisplayName("Should return 200 OK with OrderItemResponseDTO and HATEOAS links when item exists for the order")
         void findOrderItem_whenExists_shouldReturnDtoWithLinks() throws Exception {
@@ -281,4 +554,233 @@ public class OrderControllerTest {
                     .andExpect(status().isBadRequest());
         }
     }
+
+    @Nested
+    @DisplayName("Conditional GET on /orders/{id} and its items")
+    class ConditionalGetTests {
+        private final UUID orderId = UUID.randomUUID();
+        private final OrderVersion version = new OrderVersion(orderId, 3,
+                LocalDateTime.of(2025, 4, 1, 20, 0, 0));
+        private final Order order = Order.builder().id(orderId).version(3).updatedAt(version.updatedAt()).build();
+
+        @Test
+        @DisplayName("Should return the ETag and Last-Modified headers with the order")
+        void getOrderById_shouldReturnValidators() throws Exception {
+            given(orderService.findByOrderId(orderId)).willReturn(order);
+            given(orderMapper.toOrderResponseDto(any(Order.class)))
+                    .willReturn(OrderResponseDTO.builder().id(orderId).build());
+
+            mockMvc.perform(get(BASE_API_URL + "/{id}", orderId))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.ETAG, "\"" + orderId + "-3\""))
+                    .andExpect(header().dateValue(HttpHeaders.LAST_MODIFIED, version.lastModified()));
+
+            then(orderService).should(never()).refreshByOrderId(any());
+        }
+
+        @Test
+        @DisplayName("Should return 304 Not Modified from the cached order when the ETag matches")
+        void getOrderById_whenETagMatches_shouldReturnNotModified() throws Exception {
+            given(orderService.findByOrderId(orderId)).willReturn(order);
+
+            mockMvc.perform(get(BASE_API_URL + "/{id}", orderId).header(HttpHeaders.IF_NONE_MATCH, version.eTag()))
+                    .andExpect(status().isNotModified())
+                    .andExpect(header().string(HttpHeaders.ETAG, version.eTag()))
+                    .andExpect(content().string(""));
+
+            then(orderService).should(never()).findVersionByOrderId(any());
+            then(orderService).should(never()).refreshByOrderId(any());
+            then(orderMapper).shouldHaveNoInteractions();
+        }
+
+        @Test
+        @DisplayName("Should match weak entity tags and lists of them against the cached order")
+        void getOrderById_whenETagMatchesWeaklyOrInList_shouldReturnNotModified() throws Exception {
+            given(orderService.findByOrderId(orderId)).willReturn(order);
+
+            for (String ifNoneMatch : List.of("W/" + version.eTag(), "\"other\", " + version.eTag())) {
+                mockMvc.perform(get(BASE_API_URL + "/{id}", orderId).header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch))
+                        .andExpect(status().isNotModified());
+            }
+
+            then(orderService).should(never()).findVersionByOrderId(any());
+        }
+
+        @Test
+        @DisplayName("Should reload the order and return it when the cached order is older than the database")
+        void getOrderById_whenETagDoesNotMatchCache_shouldReturnRefreshedOrder() throws Exception {
+            Order cachedOrder = Order.builder().id(orderId).version(2).updatedAt(version.updatedAt()).build();
+            given(orderService.findByOrderId(orderId)).willReturn(cachedOrder);
+            given(orderService.findVersionByOrderId(orderId)).willReturn(version);
+            given(orderService.refreshByOrderId(orderId)).willReturn(order);
+            given(orderMapper.toOrderResponseDto(order))
+                    .willReturn(OrderResponseDTO.builder().id(orderId).build());
+
+            mockMvc.perform(get(BASE_API_URL + "/{id}", orderId)
+                    .header(HttpHeaders.IF_NONE_MATCH, "\"" + orderId + "-1\""))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.ETAG, version.eTag()))
+                    .andExpect(jsonPath("$.id", is(orderId.toString())));
+        }
+
+        @Test
+        @DisplayName("Should return 304 Not Modified when the client copy is newer than a stale cached order")
+        void getOrderById_whenCacheIsStale_shouldReturnNotModified() throws Exception {
+            Order cachedOrder = Order.builder().id(orderId).version(2).updatedAt(version.updatedAt()).build();
+            given(orderService.findByOrderId(orderId)).willReturn(cachedOrder);
+            given(orderService.findVersionByOrderId(orderId)).willReturn(version);
+            given(orderService.refreshByOrderId(orderId)).willReturn(order);
+
+            mockMvc.perform(get(BASE_API_URL + "/{id}", orderId).header(HttpHeaders.IF_NONE_MATCH, version.eTag()))
+                    .andExpect(status().isNotModified())
+                    .andExpect(header().string(HttpHeaders.ETAG, version.eTag()));
+
+            then(orderMapper).shouldHaveNoInteractions();
+        }
+
+        @Test
+        @DisplayName("Should return 304 Not Modified when the order was not modified since the given date")
+        void getOrderById_whenNotModifiedSince_shouldReturnNotModified() throws Exception {
+            HttpHeaders headers = new HttpHeaders();
+            headers.setIfModifiedSince(version.lastModified());
+            given(orderService.findByOrderId(orderId)).willReturn(order);
+
+            mockMvc.perform(get(BASE_API_URL + "/{id}", orderId).headers(headers))
+                    .andExpect(status().isNotModified());
+
+            then(orderService).should(never()).findVersionByOrderId(any());
+            then(orderService).should(never()).refreshByOrderId(any());
+        }
+
+        @Test
+        @DisplayName("Should return the cached order without reloading it when an outdated ETag is sent")
+        void getOrderById_whenETagIsOutdatedAndCacheIsCurrent_shouldReturnCachedOrder() throws Exception {
+            given(orderService.findByOrderId(orderId)).willReturn(order);
+            given(orderService.findVersionByOrderId(orderId)).willReturn(version);
+            given(orderMapper.toOrderResponseDto(order))
+                    .willReturn(OrderResponseDTO.builder().id(orderId).build());
+
+            for (String ifNoneMatch : List.of("\"" + orderId + "-1\"", "garbage")) {
+                mockMvc.perform(get(BASE_API_URL + "/{id}", orderId).header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch))
+                        .andExpect(status().isOk())
+                        .andExpect(header().string(HttpHeaders.ETAG, version.eTag()));
+            }
+
+            then(orderService).should(never()).refreshByOrderId(any());
+        }
+
+        @Test
+        @DisplayName("Should return the cached order without reloading it when it was modified since the given date")
+        void getOrderById_whenModifiedSinceAndCacheIsCurrent_shouldReturnCachedOrder() throws Exception {
+            HttpHeaders headers = new HttpHeaders();
+            headers.setIfModifiedSince(version.lastModified() - 60_000);
+            given(orderService.findByOrderId(orderId)).willReturn(order);
+            given(orderService.findVersionByOrderId(orderId)).willReturn(version);
+            given(orderMapper.toOrderResponseDto(order))
+                    .willReturn(OrderResponseDTO.builder().id(orderId).build());
+
+            mockMvc.perform(get(BASE_API_URL + "/{id}", orderId).headers(headers))
+                    .andExpect(status().isOk())
+                    .andExpect(header().dateValue(HttpHeaders.LAST_MODIFIED, version.lastModified()));
+
+            then(orderService).should(never()).refreshByOrderId(any());
+        }
+
+        @Test
+        @DisplayName("Should return 304 Not Modified for the items without loading them when the ETag matches")
+        void getOrderItems_whenETagMatches_shouldReturnNotModified() throws Exception {
+            given(orderService.findByOrderId(orderId)).willReturn(order);
+
+            mockMvc.perform(get(BASE_API_URL + "/{orderId}/items", orderId)
+                    .header(HttpHeaders.IF_NONE_MATCH, version.eTag("items")))
+                    .andExpect(status().isNotModified());
+
+            then(orderService).should(never()).refreshByOrderId(any());
+            then(orderItemService).shouldHaveNoInteractions();
+        }
+
+        @Test
+        @DisplayName("Should not match the ETag of the order against its items")
+        void getOrderItems_whenOrderETagIsSent_shouldReturnItems() throws Exception {
+            given(orderService.findByOrderId(orderId)).willReturn(order);
+            given(orderService.findVersionByOrderId(orderId)).willReturn(version);
+            given(orderItemService.findOrderItemsByOrderId(orderId)).willReturn(Collections.emptyList());
+            given(orderMapper.toOrderItemResponseDtoList(Collections.emptyList()))
+                    .willReturn(Collections.emptyList());
+
+            mockMvc.perform(get(BASE_API_URL + "/{orderId}/items", orderId)
+                    .header(HttpHeaders.IF_NONE_MATCH, version.eTag()))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.ETAG, version.eTag("items")));
+
+            then(orderService).should(never()).refreshByOrderId(any());
+        }
+
+        @Test
+        @DisplayName("Should return 304 Not Modified for an item without loading it when the ETag matches")
+        void getOrderItem_whenETagMatches_shouldReturnNotModified() throws Exception {
+            UUID itemId = UUID.randomUUID();
+            given(orderService.findByOrderId(orderId)).willReturn(order);
+
+            mockMvc.perform(get(BASE_API_URL + "/{orderId}/items/{itemId}", orderId, itemId)
+                    .header(HttpHeaders.IF_NONE_MATCH, version.eTag("items/" + itemId)))
+                    .andExpect(status().isNotModified());
+
+            then(orderService).should(never()).refreshByOrderId(any());
+            then(orderItemService).shouldHaveNoInteractions();
+        }
+
+        @Test
+        @DisplayName("Should return 404 Not Found on a conditional request for an order that does not exist")
+        void getOrderById_conditionalWhenNotExists_shouldReturnNotFound() throws Exception {
+            given(orderService.findByOrderId(orderId)).willThrow(new OrderNotFoundException(orderId));
+
+            mockMvc.perform(get(BASE_API_URL + "/{id}", orderId).header(HttpHeaders.IF_NONE_MATCH, version.eTag()))
+                    .andExpect(status().isNotFound())
+                    .andExpect(jsonPath("$.title", is("Order Not Found")));
+        }
+    }
+
+    @Nested
+    @DisplayName("GET /orders/{orderId}/status-stream Endpoint")
+    class StreamOrderStatusTests {
+
+        @Test
+        @DisplayName("Should stream the status of the order as Server-Sent Events")
+        void streamOrderStatus_shouldStreamEvents() throws Exception {
+            UUID orderId = UUID.randomUUID();
+            LocalDateTime dateTime = LocalDateTime.of(2025, 4, 1, 20, 0, 0);
+            given(orderService.findByOrderId(orderId))
+                    .willReturn(Order.builder().id(orderId).status(PROCESSED).updatedAt(dateTime).build());
+            given(orderStatusBroadcaster.subscribe(eq(orderId), any())).willAnswer(invocation -> {
+                OrderStatusChange change = invocation.<Supplier<OrderStatusChange>>getArgument(1).get();
+                SseEmitter emitter = new SseEmitter();
+                emitter.send(SseEmitter.event().name("status").data(change, MediaType.APPLICATION_JSON));
+                emitter.complete();
+                return emitter;
+            });
+
+            MvcResult result = mockMvc.perform(get(BASE_API_URL + "/{orderId}/status-stream", orderId))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            mockMvc.perform(asyncDispatch(result))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_EVENT_STREAM))
+                    .andExpect(content().string(containsString("event:status")))
+                    .andExpect(content().string(containsString("\"status\":\"PROCESSED\"")));
+        }
+
+        @Test
+        @DisplayName("Should return 404 Not Found when the order does not exist")
+        void streamOrderStatus_whenOrderNotExists_shouldReturnNotFound() throws Exception {
+            UUID orderId = UUID.randomUUID();
+            given(orderStatusBroadcaster.subscribe(eq(orderId), any()))
+                    .willThrow(new OrderNotFoundException(orderId));
+
+            mockMvc.perform(get(BASE_API_URL + "/{orderId}/status-stream", orderId))
+                    .andExpect(status().isNotFound())
+                    .andExpect(jsonPath("$.title", is("Order Not Found")));
+        }
+    }
 }
@@ -0,0 +1,91 @@
+package info.mouts.orderservice.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.LinkRelation;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import info.mouts.orderservice.domain.OrderStatus;
+import info.mouts.orderservice.dto.OrderSearchCriteria;
+
+public class OrderLinksTest {
+    private static final String ORDERS_HREF = "http://localhost/api/v1/orders";
+
+    private final OrderLinks links = new OrderLinks(ORDERS_HREF);
+    private final UUID orderId = UUID.randomUUID();
+    private final UUID itemId = UUID.randomUUID();
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    @DisplayName("Should fill in the order and item routes")
+    void shouldExpandOrderAndItemRoutes() {
+        assertThat(links.order(orderId)).isEqualTo(Link.of(ORDERS_HREF + "/" + orderId));
+        assertThat(links.items(orderId, LinkRelation.of("items")))
+                .isEqualTo(Link.of(ORDERS_HREF + "/" + orderId + "/items", "items"));
+        assertThat(links.item(orderId, itemId, LinkRelation.of("item")))
+                .isEqualTo(Link.of(ORDERS_HREF + "/" + orderId + "/items/" + itemId, "item"));
+    }
+
+    @Test
+    @DisplayName("Should only add the cursor to the cursor page link when there is one")
+    void cursorPage_shouldAddCursorWhenPresent() {
+        assertThat(links.cursorPage(null, 10, IanaLinkRelations.SELF).getHref())
+                .isEqualTo(ORDERS_HREF + "/cursor?size=10");
+        assertThat(links.cursorPage("abc", 10, IanaLinkRelations.NEXT))
+                .isEqualTo(Link.of(ORDERS_HREF + "/cursor?cursor=abc&size=10", IanaLinkRelations.NEXT));
+    }
+
+    @Test
+    @DisplayName("Should only add the search filters that are set, encoding the product ID")
+    void searchPage_shouldAddFiltersThatAreSet() {
+        OrderSearchCriteria criteria = new OrderSearchCriteria(OrderStatus.FAILED, "prod&1", null,
+                LocalDateTime.of(2025, 4, 1, 12, 30, 15));
+
+        assertThat(links.searchPage(new OrderSearchCriteria(null, null, null, null), null, 10,
+                IanaLinkRelations.SELF).getHref())
+                .isEqualTo(ORDERS_HREF + "/search?size=10");
+        assertThat(links.searchPage(criteria, "abc", 10, IanaLinkRelations.NEXT))
+                .isEqualTo(Link.of(ORDERS_HREF + "/search?size=10&status=FAILED&productId=prod%261"
+                        + "&to=2025-04-01T12:30:15&cursor=abc", IanaLinkRelations.NEXT));
+    }
+
+    @Test
+    @DisplayName("Should join the IDs of the batch link with commas")
+    void batch_shouldJoinIds() {
+        assertThat(links.batch(List.of(orderId, itemId), IanaLinkRelations.SELF).getHref())
+                .isEqualTo(ORDERS_HREF + "/batch?ids=" + orderId + "," + itemId);
+    }
+
+    @Test
+    @DisplayName("Should build the same links as the method-based builder for the current request")
+    void fromCurrentRequest_shouldMatchMethodOnLinks() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/orders");
+        request.setServerName("orders.example.com");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        OrderLinks currentLinks = OrderLinks.fromCurrentRequest();
+
+        assertThat(currentLinks.order(orderId).getHref())
+                .isEqualTo(linkTo(methodOn(OrderController.class).findByOrderId(orderId, null)).toUri().toString());
+        assertThat(currentLinks.item(orderId, itemId, IanaLinkRelations.SELF).getHref())
+                .isEqualTo(linkTo(methodOn(OrderController.class).findOrderItem(orderId, itemId, null)).toUri()
+                        .toString());
+    }
+}
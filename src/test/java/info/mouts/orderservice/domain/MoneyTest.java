@@ -0,0 +1,72 @@
+package info.mouts.orderservice.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("Money Tests")
+class MoneyTest {
+
+    @Test
+    @DisplayName("Should convert amounts with up to two decimal places to cents")
+    void of_shouldConvertToCents() {
+        assertThat(Money.of(new BigDecimal("12.34")).minorUnits()).isEqualTo(1234);
+        assertThat(Money.of(new BigDecimal("12.3")).minorUnits()).isEqualTo(1230);
+        assertThat(Money.of(BigDecimal.TEN).minorUnits()).isEqualTo(1000);
+        assertThat(Money.of(new BigDecimal("1E+2")).minorUnits()).isEqualTo(10000);
+        assertThat(Money.of(new BigDecimal("12.340")).minorUnits()).isEqualTo(1234);
+    }
+
+    @Test
+    @DisplayName("Should round amounts with more than two decimal places half up")
+    void of_shouldRoundFractionsOfCents() {
+        assertThat(Money.of(new BigDecimal("12.345")).minorUnits()).isEqualTo(1235);
+        assertThat(Money.of(new BigDecimal("12.344")).minorUnits()).isEqualTo(1234);
+        assertThat(Money.of(new BigDecimal("9.999")).minorUnits()).isEqualTo(1000);
+        assertThat(Money.of(new BigDecimal("-12.345")).minorUnits()).isEqualTo(-1235);
+    }
+
+    @Test
+    @DisplayName("Should reject amounts exceeding the precision of the columns")
+    void of_shouldRejectAmountsAboveTenDigits() {
+        assertThat(Money.of(new BigDecimal("99999999.99")).minorUnits()).isEqualTo(Money.MAX_MINOR_UNITS);
+
+        assertThatThrownBy(() -> Money.of(new BigDecimal("100000000.00")))
+                .isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> Money.of(new BigDecimal("99999999.995")))
+                .isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> Money.of(new BigDecimal("1E+30")))
+                .isInstanceOf(ArithmeticException.class);
+    }
+
+    @Test
+    @DisplayName("Should multiply and add in cents")
+    void timesAndPlus_shouldComputeInCents() {
+        Money total = Money.of(new BigDecimal("10.50")).times(2).plus(Money.of(new BigDecimal("5.25")));
+
+        assertThat(total).isEqualTo(new Money(2625));
+        assertThat(total.toBigDecimal()).isEqualTo(new BigDecimal("26.25"));
+    }
+
+    @Test
+    @DisplayName("Should detect products and sums exceeding the precision of the columns")
+    void timesAndPlus_shouldDetectOverflow() {
+        Money max = new Money(Money.MAX_MINOR_UNITS);
+
+        assertThatThrownBy(() -> max.times(2)).isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> Money.of(new BigDecimal("50000000.00")).times(Integer.MAX_VALUE))
+                .isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> max.plus(new Money(1))).isInstanceOf(ArithmeticException.class);
+    }
+
+    @Test
+    @DisplayName("Should convert to a BigDecimal with two decimal places")
+    void toBigDecimal_shouldUseScaleOfColumns() {
+        assertThat(Money.ZERO.toBigDecimal()).isEqualTo(new BigDecimal("0.00"));
+        assertThat(new Money(5).toBigDecimal()).isEqualTo(new BigDecimal("0.05"));
+    }
+}
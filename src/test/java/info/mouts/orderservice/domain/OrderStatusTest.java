@@ -1,7 +1,9 @@
 package info.mouts.orderservice.domain;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import org.junit.jupiter.api.Test;
 
@@ -32,4 +34,13 @@ public class OrderStatusTest {
         assertEquals(3, OrderStatus.FAILED.ordinal());
         assertEquals(4, OrderStatus.CANCELLED.ordinal());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testOrderStatusIsTerminal() {
+        assertFalse(OrderStatus.RECEIVED.isTerminal());
+        assertFalse(OrderStatus.PROCESSING.isTerminal());
+        assertTrue(OrderStatus.PROCESSED.isTerminal());
+        assertTrue(OrderStatus.FAILED.isTerminal());
+        assertTrue(OrderStatus.CANCELLED.isTerminal());
+    }
+}
@@ -0,0 +1,36 @@
+package info.mouts.orderservice.dto;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import info.mouts.orderservice.exception.InvalidCursorException;
+
+public class OrderCursorTest {
+    @Test
+    @DisplayName("Should decode the cursor it encoded")
+    void encode_thenDecode_shouldRoundTrip() {
+        OrderSummary order = new OrderSummary(UUID.randomUUID(), "key", null, null,
+                LocalDateTime.of(2025, 4, 1, 20, 0, 0, 123456000), null);
+
+        OrderCursor cursor = OrderCursor.of(order);
+        String token = cursor.encode();
+
+        assertThat(token).matches("[A-Za-z0-9_-]+");
+        assertThat(OrderCursor.decode(token)).isEqualTo(cursor);
+    }
+
+    @Test
+    @DisplayName("Should reject tokens that are not valid cursors")
+    void decode_invalidToken_shouldThrow() {
+        assertThatThrownBy(() -> OrderCursor.decode("not a cursor"))
+                .isInstanceOf(InvalidCursorException.class);
+        assertThatThrownBy(() -> OrderCursor.decode("bm8tc2VwYXJhdG9y"))
+                .isInstanceOf(InvalidCursorException.class);
+    }
+}
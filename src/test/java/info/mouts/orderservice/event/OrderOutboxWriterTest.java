@@ -0,0 +1,77 @@
+package info.mouts.orderservice.event;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import info.mouts.orderservice.domain.Order;
+import info.mouts.orderservice.domain.OrderStatus;
+import info.mouts.orderservice.domain.OutboxEvent;
+import info.mouts.orderservice.dto.OrderProcessedEventDTO;
+import info.mouts.orderservice.mapper.OrderMapper;
+import info.mouts.orderservice.monitoring.IngestStage;
+import info.mouts.orderservice.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+public class OrderOutboxWriterTest {
+    private static final String TOPIC = "orders.processed.v1";
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private OrderMapper orderMapper;
+
+    @Captor
+    private ArgumentCaptor<OutboxEvent> outboxEventCaptor;
+
+    private SimpleMeterRegistry meterRegistry;
+    private OrderOutboxWriter orderOutboxWriter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        orderOutboxWriter = new OrderOutboxWriter(outboxEventRepository, orderMapper,
+                new ObjectMapper().findAndRegisterModules(), TOPIC, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Should write the mapped event to the outbox keyed by order ID")
+    void onOrderProcessed_shouldWriteOutboxEvent() {
+        UUID orderId = UUID.randomUUID();
+        Instant receivedAt = Instant.now();
+        Order order = Order.builder().id(orderId).receivedAt(receivedAt).build();
+
+        OrderProcessedEventDTO eventDto = new OrderProcessedEventDTO();
+        eventDto.setOrderId(orderId);
+        eventDto.setStatus(OrderStatus.PROCESSED);
+        when(orderMapper.toProcessedEventDto(order)).thenReturn(eventDto);
+
+        orderOutboxWriter.onOrderProcessed(new OrderProcessedEvent(this, order));
+
+        verify(outboxEventRepository).save(outboxEventCaptor.capture());
+
+        OutboxEvent outboxEvent = outboxEventCaptor.getValue();
+        assertThat(outboxEvent.getAggregateId()).isEqualTo(orderId);
+        assertThat(outboxEvent.getTopic()).isEqualTo(TOPIC);
+        assertThat(outboxEvent.getMessageKey()).isEqualTo(orderId.toString());
+        assertThat(outboxEvent.getPayload()).contains(orderId.toString()).contains("PROCESSED");
+        assertThat(outboxEvent.getReceivedAt()).isEqualTo(receivedAt);
+        assertThat(meterRegistry.get(IngestStage.METER_NAME).tag("stage", "outbox").timer().count()).isEqualTo(1);
+    }
+}
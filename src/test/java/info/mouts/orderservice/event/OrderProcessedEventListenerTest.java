@@ -3,22 +3,26 @@ package info.mouts.orderservice.event;
 import info.mouts.orderservice.domain.Order;
 import info.mouts.orderservice.dto.OrderProcessedEventDTO;
 import info.mouts.orderservice.mapper.OrderMapper;
+import info.mouts.orderservice.monitoring.EventAge;
+import info.mouts.orderservice.monitoring.IngestStage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.support.SendResult;
-import org.springframework.test.util.ReflectionTestUtils;
 
+import java.time.Instant;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 import java.util.function.BiConsumer;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -36,7 +40,9 @@ public class OrderProcessedEventListenerTest {
     @Mock
     private CompletableFuture<SendResult<String, Object>> mockFuture;
 
-    @InjectMocks
+    @Mock
+    private ObjectProvider<Executor> callbackExecutorProvider;
+
     private OrderProcessedEventListener orderProcessedEventListener;
 
     @Captor
@@ -48,19 +54,20 @@ public class OrderProcessedEventListenerTest {
     @Captor
     private ArgumentCaptor<BiConsumer<? super SendResult<String, Object>, ? super Throwable>> callbackCaptor;
 
-    @Value("${app.kafka.orders-processed-topic}")
-    private String orderProcessedTopic;
+    private final String orderProcessedTopic = "orders.processed.v1";
 
     private final UUID ORDER_ID = UUID.randomUUID();
     private Order testOrder;
     private OrderProcessedEventDTO testEventDto;
     private OrderProcessedEvent testEvent;
+    private SimpleMeterRegistry meterRegistry;
 
     @BeforeEach
     void setUp() {
-        ReflectionTestUtils.setField(orderProcessedEventListener, "ordersProcessedTopic", orderProcessedTopic);
+        meterRegistry = new SimpleMeterRegistry();
+        orderProcessedEventListener = createListener();
 
-        testOrder = Order.builder().id(ORDER_ID).build();
+        testOrder = Order.builder().id(ORDER_ID).receivedAt(Instant.now().minusSeconds(1)).build();
 
         testEventDto = new OrderProcessedEventDTO();
         testEventDto.setOrderId(ORDER_ID);
@@ -97,6 +104,12 @@ public class OrderProcessedEventListenerTest {
 
         // Assert the correct value was passed to the kafkaTemplate
         assertThat(valueCaptor.getValue()).isEqualTo(testEventDto);
+
+        // Simulate the success callback being invoked, which times the send
+        callbackCaptor.getValue().accept(null, null);
+        assertThat(meterRegistry.get(IngestStage.METER_NAME).tag("stage", "publish").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(EventAge.METER_NAME).tag("stage", "published").timer().totalTime(TimeUnit.SECONDS))
+                .isGreaterThanOrEqualTo(1);
     }
 
     @Test
@@ -124,5 +137,29 @@ public class OrderProcessedEventListenerTest {
 
         // Simulate the failure callback being invoked
         callbackCaptor.getValue().accept(null, kafkaException);
+        assertThat(meterRegistry.get(IngestStage.METER_NAME).tag("stage", "publish").timer().count()).isZero();
+        assertThat(meterRegistry.get(EventAge.METER_NAME).tag("stage", "published").timer().count()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should run the send callback on the callback executor when one is configured")
+    void handleOrderProcessedEvent_withCallbackExecutor_shouldCompleteAsync() {
+        Executor callbackExecutor = Runnable::run;
+        when(callbackExecutorProvider.getIfAvailable()).thenReturn(callbackExecutor);
+        orderProcessedEventListener = createListener();
+
+        when(orderMapper.toProcessedEventDto(testOrder)).thenReturn(testEventDto);
+        when(kafkaTemplate.send(eq(orderProcessedTopic), eq(ORDER_ID.toString()), eq(testEventDto)))
+                .thenReturn(mockFuture);
+
+        orderProcessedEventListener.onOrderProcessed(testEvent);
+
+        verify(mockFuture).whenCompleteAsync(callbackCaptor.capture(), eq(callbackExecutor));
+        verify(mockFuture, never()).whenComplete(any());
+    }
+
+    private OrderProcessedEventListener createListener() {
+        return new OrderProcessedEventListener(kafkaTemplate, orderMapper, callbackExecutorProvider, meterRegistry,
+                orderProcessedTopic);
     }
 }
@@ -0,0 +1,191 @@
+package info.mouts.orderservice.event;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter.SseEventBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import info.mouts.orderservice.domain.Order;
+import info.mouts.orderservice.domain.OrderStatus;
+import info.mouts.orderservice.dto.OrderStatusChange;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+public class OrderStatusBroadcasterTest {
+    private static final String CHANNEL = "orders-service.order-status";
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final Queue<Runnable> pendingSends = new ArrayDeque<>();
+    private final UUID orderId = UUID.randomUUID();
+
+    private Executor senderExecutor = Runnable::run;
+    private OrderStatusBroadcaster broadcaster;
+
+    @BeforeEach
+    void setUp() {
+        broadcaster = createBroadcaster(16);
+    }
+
+    @Test
+    @DisplayName("Should send the current status and then the changes received from any instance")
+    void subscribe_shouldSendCurrentStatusAndChanges() throws Exception {
+        SseEmitter emitter = broadcaster.subscribe(orderId, () -> change(OrderStatus.RECEIVED));
+
+        broadcaster.onMessage(message(change(OrderStatus.PROCESSING)), null);
+
+        verify(emitter, times(2)).send(any(SseEventBuilder.class));
+        verify(emitter, never()).complete();
+        assertThat(subscribers()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should complete the stream once the order reaches a terminal status")
+    void subscribe_terminalStatus_shouldCompleteStream() throws Exception {
+        SseEmitter emitter = broadcaster.subscribe(orderId, () -> change(OrderStatus.RECEIVED));
+
+        broadcaster.onMessage(message(change(OrderStatus.PROCESSED)), null);
+        broadcaster.onMessage(message(change(OrderStatus.FAILED)), null);
+
+        verify(emitter, times(2)).send(any(SseEventBuilder.class));
+        verify(emitter).complete();
+        assertThat(subscribers()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should only deliver the changes of the subscribed order")
+    void onMessage_otherOrder_shouldNotSend() throws Exception {
+        SseEmitter emitter = broadcaster.subscribe(orderId, () -> change(OrderStatus.RECEIVED));
+
+        broadcaster.onMessage(message(new OrderStatusChange(UUID.randomUUID(), OrderStatus.PROCESSED, null,
+                LocalDateTime.now())), null);
+
+        verify(emitter, times(1)).send(any(SseEventBuilder.class));
+    }
+
+    @Test
+    @DisplayName("Should disconnect a subscriber whose buffer is full instead of buffering more")
+    void deliver_slowSubscriber_shouldDisconnectIt() {
+        senderExecutor = pendingSends::add;
+        broadcaster = createBroadcaster(2);
+        SseEmitter emitter = broadcaster.subscribe(orderId, () -> change(OrderStatus.RECEIVED));
+
+        broadcaster.deliver(change(OrderStatus.PROCESSING));
+        broadcaster.deliver(change(OrderStatus.PROCESSING));
+
+        verify(emitter).complete();
+        assertThat(subscribers()).isZero();
+        assertThat(meterRegistry.get("orders.status.stream.overflows").counter().count()).isEqualTo(1);
+
+        broadcaster.deliver(change(OrderStatus.PROCESSED));
+        assertThat(pendingSends).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Should drop a subscriber whose connection is gone")
+    void deliver_failedSend_shouldDropSubscriber() throws Exception {
+        SseEmitter emitter = broadcaster.subscribe(orderId, () -> change(OrderStatus.RECEIVED));
+        doThrow(new IOException("Broken pipe")).when(emitter).send(any(SseEventBuilder.class));
+
+        broadcaster.deliver(change(OrderStatus.PROCESSING));
+
+        assertThat(subscribers()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should not register the subscriber when the current status cannot be looked up")
+    void subscribe_lookupFails_shouldRethrow() {
+        assertThatThrownBy(() -> broadcaster.subscribe(orderId, () -> {
+            throw new IllegalStateException("Order not found");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(subscribers()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should publish the status of processed orders to the channel as JSON on the sender executor")
+    void onOrderProcessed_shouldPublishToChannel() throws Exception {
+        senderExecutor = pendingSends::add;
+        Order order = Order.builder().id(orderId).status(OrderStatus.PROCESSED).updatedAt(LocalDateTime.now())
+                .build();
+
+        broadcaster.onOrderProcessed(new OrderProcessedEvent(this, order));
+
+        verify(redisTemplate, never()).convertAndSend(anyString(), anyString());
+        assertThat(pendingSends).hasSize(1);
+        pendingSends.poll().run();
+
+        ArgumentCaptor<String> messageCaptor = ArgumentCaptor.forClass(String.class);
+        verify(redisTemplate).convertAndSend(eq(CHANNEL), messageCaptor.capture());
+        assertThat(objectMapper.readValue(messageCaptor.getValue(), OrderStatusChange.class))
+                .isEqualTo(OrderStatusChange.of(order));
+    }
+
+    @Test
+    @DisplayName("Should deliver changes locally when they cannot be published to Redis")
+    void publish_redisUnavailable_shouldDeliverLocally() throws Exception {
+        doThrow(new IllegalStateException("Redis unavailable")).when(redisTemplate)
+                .convertAndSend(eq(CHANNEL), anyString());
+        SseEmitter emitter = broadcaster.subscribe(orderId, () -> change(OrderStatus.RECEIVED));
+
+        broadcaster.publish(change(OrderStatus.FAILED));
+
+        verify(emitter, times(2)).send(any(SseEventBuilder.class));
+        verify(emitter).complete();
+    }
+
+    private OrderStatusBroadcaster createBroadcaster(int bufferSize) {
+        return new OrderStatusBroadcaster(redisTemplate, objectMapper, command -> senderExecutor.execute(command),
+                meterRegistry, CHANNEL, bufferSize, Duration.ofMinutes(5)) {
+            @Override
+            SseEmitter createEmitter() {
+                return spy(super.createEmitter());
+            }
+        };
+    }
+
+    private OrderStatusChange change(OrderStatus status) {
+        return new OrderStatusChange(orderId, status, null, LocalDateTime.now());
+    }
+
+    private DefaultMessage message(OrderStatusChange change) throws Exception {
+        return new DefaultMessage(CHANNEL.getBytes(StandardCharsets.UTF_8), objectMapper.writeValueAsBytes(change));
+    }
+
+    private double subscribers() {
+        return meterRegistry.get("orders.status.stream.subscribers").gauge().value();
+    }
+}
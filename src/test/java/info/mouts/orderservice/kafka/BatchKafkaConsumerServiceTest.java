@@ -0,0 +1,189 @@
+package info.mouts.orderservice.kafka;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+
+import info.mouts.orderservice.domain.IdempotencyStatus;
+import info.mouts.orderservice.dto.OrderRequestDTO;
+import info.mouts.orderservice.service.IdempotencyStore;
+import info.mouts.orderservice.service.OrderService;
+import info.mouts.orderservice.util.KafkaUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class BatchKafkaConsumerServiceTest {
+    private static final String TOPIC = "orders.received.v1";
+
+    @Mock
+    private OrderService orderService;
+
+    @Mock
+    private IdempotencyStore idempotencyStore;
+
+    @Captor
+    private ArgumentCaptor<Map<String, OrderRequestDTO>> requestsCaptor;
+
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private BatchKafkaConsumerService batchKafkaConsumerService;
+
+    @BeforeEach
+    void setUp() {
+        batchKafkaConsumerService = new BatchKafkaConsumerService(orderService, idempotencyStore, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Should process all new orders in a single batch call")
+    void listen_allNewKeys_shouldProcessInOneBatch() {
+        List<ConsumerRecord<String, OrderRequestDTO>> records = List.of(createRecord(0, "KEY-1"),
+                createRecord(1, "KEY-2"));
+        mockClaimResults("KEY-1", IdempotencyStatus.NEW, "KEY-2", IdempotencyStatus.NEW);
+
+        batchKafkaConsumerService.listen(records);
+
+        verify(orderService).processIncomingOrders(requestsCaptor.capture());
+        assertThat(requestsCaptor.getValue()).containsOnlyKeys("KEY-1", "KEY-2");
+        verify(orderService, never()).processIncomingOrder(any(), anyString());
+
+        // Claim and mark as processed, one call each
+        verify(idempotencyStore, times(1)).claim(anyCollection());
+        verify(idempotencyStore).markProcessed(List.of("KEY-1", "KEY-2"));
+        verify(idempotencyStore).release(List.of());
+        assertThat(meterRegistry.get("orders.processed").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should skip records whose idempotency key was already claimed")
+    void listen_existingKey_shouldSkip() {
+        List<ConsumerRecord<String, OrderRequestDTO>> records = List.of(createRecord(0, "KEY-1"),
+                createRecord(1, "KEY-2"));
+        mockClaimResults("KEY-1", IdempotencyStatus.PROCESSED, "KEY-2", IdempotencyStatus.NEW);
+
+        batchKafkaConsumerService.listen(records);
+
+        verify(orderService).processIncomingOrders(requestsCaptor.capture());
+        assertThat(requestsCaptor.getValue()).containsOnlyKeys("KEY-2");
+    }
+
+    @Test
+    @DisplayName("Should not call the order service when every key was already claimed")
+    void listen_allExistingKeys_shouldNotProcess() {
+        List<ConsumerRecord<String, OrderRequestDTO>> records = List.of(createRecord(0, "KEY-1"));
+        mockClaimResults("KEY-1", IdempotencyStatus.PROCESSING);
+
+        batchKafkaConsumerService.listen(records);
+
+        verify(orderService, never()).processIncomingOrders(anyMap());
+        verify(orderService, never()).processIncomingOrder(any(), anyString());
+    }
+
+    @Test
+    @DisplayName("Should fall back to per-record processing and fail only the offending record")
+    void listen_batchFails_shouldIsolateFailingRecord() {
+        List<ConsumerRecord<String, OrderRequestDTO>> records = List.of(createRecord(0, "KEY-1"),
+                createRecord(1, "KEY-2"), createRecord(2, "KEY-3"));
+        mockClaimResults("KEY-1", IdempotencyStatus.NEW, "KEY-2", IdempotencyStatus.NEW, "KEY-3",
+                IdempotencyStatus.NEW);
+
+        RuntimeException exception = new RuntimeException("Processing error");
+        doThrow(exception).when(orderService).processIncomingOrders(anyMap());
+        doThrow(exception).when(orderService).processIncomingOrder(any(), eq("KEY-2"));
+
+        BatchListenerFailedException thrown = assertThrows(BatchListenerFailedException.class,
+                () -> batchKafkaConsumerService.listen(records));
+
+        assertThat(thrown.getIndex()).isEqualTo(1);
+        assertThat(thrown.getCause()).isEqualTo(exception);
+
+        verify(orderService).processIncomingOrder(any(), eq("KEY-1"));
+        verify(orderService).processIncomingOrder(any(), eq("KEY-2"));
+        verify(orderService).processIncomingOrder(any(), eq("KEY-3"));
+
+        // Only the failed key is released so it can be claimed again on retry
+        verify(idempotencyStore).markProcessed(List.of("KEY-1", "KEY-3"));
+        verify(idempotencyStore).release(List.of("KEY-2"));
+        assertThat(meterRegistry.get("orders.processed").counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("orders.failed").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should skip a record whose order was already saved by another consumer")
+    void listen_orderAlreadySaved_shouldSkipAsDuplicate() {
+        List<ConsumerRecord<String, OrderRequestDTO>> records = List.of(createRecord(0, "KEY-1"),
+                createRecord(1, "KEY-2"));
+        mockClaimResults("KEY-1", IdempotencyStatus.NEW, "KEY-2", IdempotencyStatus.NEW);
+
+        DataIntegrityViolationException exception = new DataIntegrityViolationException("Duplicate key");
+        doThrow(exception).when(orderService).processIncomingOrders(anyMap());
+        doThrow(exception).when(orderService).processIncomingOrder(any(), eq("KEY-2"));
+        when(orderService.existsByIdempotencyKey("KEY-2")).thenReturn(true);
+
+        batchKafkaConsumerService.listen(records);
+
+        verify(idempotencyStore).markProcessed(List.of("KEY-1", "KEY-2"));
+        verify(idempotencyStore).release(List.of());
+    }
+
+    @Test
+    @DisplayName("Should fail a record without idempotency key header and process the others")
+    void listen_missingHeader_shouldFailRecord() {
+        ConsumerRecord<String, OrderRequestDTO> recordWithoutKey = new ConsumerRecord<>(TOPIC, 0, 0L, null,
+                KafkaUtils.createFakeOrderRequestDTO("PRODUCT-1", 1));
+        List<ConsumerRecord<String, OrderRequestDTO>> records = List.of(recordWithoutKey, createRecord(1, "KEY-2"));
+        mockClaimResults("KEY-2", IdempotencyStatus.NEW);
+
+        BatchListenerFailedException thrown = assertThrows(BatchListenerFailedException.class,
+                () -> batchKafkaConsumerService.listen(records));
+
+        assertThat(thrown.getIndex()).isEqualTo(0);
+        verify(orderService).processIncomingOrders(requestsCaptor.capture());
+        assertThat(requestsCaptor.getValue()).containsOnlyKeys("KEY-2");
+    }
+
+    private void mockClaimResults(Object... keysAndStatuses) {
+        Map<String, IdempotencyStatus> statuses = new LinkedHashMap<>();
+
+        for (int i = 0; i < keysAndStatuses.length; i += 2) {
+            statuses.put((String) keysAndStatuses[i], (IdempotencyStatus) keysAndStatuses[i + 1]);
+        }
+
+        when(idempotencyStore.claim(anyCollection())).thenReturn(statuses);
+    }
+
+    private ConsumerRecord<String, OrderRequestDTO> createRecord(long offset, String idempotencyKey) {
+        ConsumerRecord<String, OrderRequestDTO> consumerRecord = new ConsumerRecord<>(TOPIC, 0, offset,
+                idempotencyKey, KafkaUtils.createFakeOrderRequestDTO("PRODUCT-" + offset, 1));
+        consumerRecord.headers().add(KafkaUtils.IDEMPOTENCY_KEY_HEADER, idempotencyKey.getBytes());
+        return consumerRecord;
+    }
+}
@@ -9,6 +9,7 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.lang.reflect.Field;
+import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.Optional;
 import java.util.UUID;
@@ -33,6 +34,8 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import info.mouts.orderservice.domain.Order;
 import info.mouts.orderservice.domain.OrderStatus;
 import info.mouts.orderservice.dto.OrderRequestDTO;
+import info.mouts.orderservice.dto.OrderStatusChange;
+import info.mouts.orderservice.event.OrderStatusBroadcaster;
 import info.mouts.orderservice.mapper.OrderMapper;
 import info.mouts.orderservice.repository.OrderRepository;
 import info.mouts.orderservice.util.KafkaUtils;
@@ -57,6 +60,9 @@ public class DltConsumerServiceTest {
     @Mock
     private OrderMapper orderMapper;
 
+    @Mock
+    private OrderStatusBroadcaster orderStatusBroadcaster;
+
     private MeterRegistry meterRegistry = new SimpleMeterRegistry();
 
     private DltConsumerService dltConsumerService;
@@ -97,7 +103,8 @@ public class DltConsumerServiceTest {
         when(objectMapper.readValue(eq(payloadBytes), eq(OrderRequestDTO.class))).thenReturn(dto);
 
         // Create the service with a real SimpleMeterRegistry
-        dltConsumerService = new DltConsumerService(orderRepository, objectMapper, orderMapper, meterRegistry);
+        dltConsumerService = new DltConsumerService(orderRepository, objectMapper, orderMapper, orderStatusBroadcaster,
+                meterRegistry);
     }
 
     @Test
@@ -110,6 +117,14 @@ public class DltConsumerServiceTest {
         // idempotency key
         when(orderRepository.findByIdempotencyKey(idempotencyKey)).thenReturn(Optional.of(existingOrder));
 
+        // Mock the repository to return the merged order, with its new change time
+        LocalDateTime failedAt = LocalDateTime.of(2025, 1, 1, 12, 0);
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> {
+            Order order = invocation.getArgument(0);
+            return Order.builder().id(order.getId()).status(order.getStatus())
+                    .failureReason(order.getFailureReason()).updatedAt(failedAt).build();
+        });
+
         // Act: Call the DLT consumer service with our message
         dltConsumerService.listen(consumerRecord);
 
@@ -125,6 +140,13 @@ public class DltConsumerServiceTest {
 
         // Verify the mapper was not called (should not create a new order)
         verify(orderMapper, never()).toEntity(any(OrderRequestDTO.class));
+
+        // Verify the failure was pushed to the order status streams
+        ArgumentCaptor<OrderStatusChange> changeCaptor = ArgumentCaptor.forClass(OrderStatusChange.class);
+        verify(orderStatusBroadcaster).publish(changeCaptor.capture());
+        assertThat(changeCaptor.getValue().orderId()).isEqualTo(existingOrder.getId());
+        assertThat(changeCaptor.getValue().status()).isEqualTo(OrderStatus.FAILED);
+        assertThat(changeCaptor.getValue().changedAt()).isEqualTo(failedAt);
     }
 
     @Test
@@ -139,6 +161,11 @@ public class DltConsumerServiceTest {
         // Mock the repository to return empty (order doesn't exist)
         when(orderRepository.findByIdempotencyKey(idempotencyKey)).thenReturn(Optional.empty());
 
+        // Mock the repository to return the persisted order, with its generated ID
+        Order savedOrder = Order.builder().id(UUID.randomUUID()).status(OrderStatus.FAILED)
+                .updatedAt(LocalDateTime.of(2025, 1, 1, 12, 0)).build();
+        when(orderRepository.save(any(Order.class))).thenReturn(savedOrder);
+
         // Act: Call the DLT consumer service with our message
         dltConsumerService.listen(consumerRecord);
 
@@ -157,6 +184,9 @@ public class DltConsumerServiceTest {
 
         // Verify the idempotency key was preserved
         assertThat(orderCaptor.getValue().getIdempotencyKey()).isEqualTo(idempotencyKey);
+
+        // Verify the persisted order was pushed to the order status streams
+        verify(orderStatusBroadcaster).publish(OrderStatusChange.of(savedOrder));
     }
 
     @Test
@@ -179,6 +209,9 @@ public class DltConsumerServiceTest {
 
         // Verify the mapper was not called (no new order creation)
         verify(orderMapper, never()).toEntity(any(OrderRequestDTO.class));
+
+        // Verify no status change was pushed
+        verify(orderStatusBroadcaster, never()).publish(any());
     }
 
     @Test
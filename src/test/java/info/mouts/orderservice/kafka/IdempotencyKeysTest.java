@@ -0,0 +1,65 @@
+package info.mouts.orderservice.kafka;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import info.mouts.orderservice.service.OrderService;
+import info.mouts.orderservice.util.KafkaUtils;
+
+public class IdempotencyKeysTest {
+    private static final String IDEMPOTENCY_KEY = "idempotency-key";
+
+    private final OrderService orderService = mock(OrderService.class);
+
+    @Test
+    @DisplayName("Should read the idempotency key from the last header")
+    void fromHeaders_shouldReadLastHeader() {
+        ConsumerRecord<String, String> consumerRecord = new ConsumerRecord<>("orders.received.v1", 0, 0, "key",
+                "value");
+        consumerRecord.headers().add(KafkaUtils.IDEMPOTENCY_KEY_HEADER, "stale".getBytes(StandardCharsets.UTF_8));
+        consumerRecord.headers().add(KafkaUtils.IDEMPOTENCY_KEY_HEADER,
+                IDEMPOTENCY_KEY.getBytes(StandardCharsets.UTF_8));
+
+        assertThat(IdempotencyKeys.fromHeaders(consumerRecord)).isEqualTo(IDEMPOTENCY_KEY);
+    }
+
+    @Test
+    @DisplayName("Should return null when the idempotency key header is missing")
+    void fromHeaders_withoutHeader_shouldReturnNull() {
+        assertThat(IdempotencyKeys.fromHeaders(new ConsumerRecord<>("orders.received.v1", 0, 0, "key", "value")))
+                .isNull();
+    }
+
+    @Test
+    @DisplayName("Should treat a unique key violation as a duplicate only when the order exists")
+    void isAlreadySaved_shouldCheckOrderOnIntegrityViolation() {
+        when(orderService.existsByIdempotencyKey(IDEMPOTENCY_KEY)).thenReturn(true, false);
+        DataIntegrityViolationException violation = new DataIntegrityViolationException("duplicate key");
+
+        assertThat(IdempotencyKeys.isAlreadySaved(orderService, IDEMPOTENCY_KEY, violation)).isTrue();
+        assertThat(IdempotencyKeys.isAlreadySaved(orderService, IDEMPOTENCY_KEY, violation)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should not treat other failures, or a failed lookup, as a duplicate")
+    void isAlreadySaved_withOtherFailure_shouldReturnFalse() {
+        assertThat(IdempotencyKeys.isAlreadySaved(orderService, IDEMPOTENCY_KEY, new IllegalStateException()))
+                .isFalse();
+        verify(orderService, never()).existsByIdempotencyKey(IDEMPOTENCY_KEY);
+
+        when(orderService.existsByIdempotencyKey(IDEMPOTENCY_KEY)).thenThrow(new IllegalStateException("down"));
+
+        assertThat(IdempotencyKeys.isAlreadySaved(orderService, IDEMPOTENCY_KEY,
+                new DataIntegrityViolationException("duplicate key"))).isFalse();
+    }
+}
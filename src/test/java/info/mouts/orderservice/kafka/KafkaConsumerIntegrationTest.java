@@ -13,12 +13,9 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
-import org.mockito.Mock;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.test.context.SpringBootTest;
-import org.springframework.data.redis.core.StringRedisTemplate;
-import org.springframework.data.redis.core.ValueOperations;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.test.EmbeddedKafkaBroker;
@@ -28,11 +25,17 @@ import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
 import org.apache.kafka.clients.producer.ProducerRecord;
 
+import info.mouts.orderservice.domain.IdempotencyStatus;
 import info.mouts.orderservice.domain.OrderStatus;
 import info.mouts.orderservice.dto.OrderRequestDTO;
+import info.mouts.orderservice.monitoring.ConsumerLagMonitor;
+import info.mouts.orderservice.monitoring.IngestStage;
 import info.mouts.orderservice.repository.OrderRepository;
+import info.mouts.orderservice.service.IdempotencyStore;
 import info.mouts.orderservice.service.OrderService;
 import info.mouts.orderservice.util.KafkaUtils;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 
 import static org.mockito.ArgumentMatchers.*;
@@ -51,6 +54,8 @@ public class KafkaConsumerIntegrationTest {
 
     private static final String SUCCESS_IDEMPOTENCY_KEY = "SUCCESS-KEY";
     private static final String FAIL_IDEMPOTENCY_KEY = "FAIL-KEY";
+    private static final String LAG_IDEMPOTENCY_KEY = "LAG-KEY";
+    private static final String OVERFLOW_IDEMPOTENCY_KEY = "OVERFLOW-KEY";
     private static final String PRODUCT_ID_1 = "PRODUCT-1";
     private static final String PRODUCT_ID_2 = "PRODUCT-2";
     private static final int EXPECTED_RETRY_ATTEMPTS = 3;
@@ -61,15 +66,18 @@ public class KafkaConsumerIntegrationTest {
     @Autowired
     private EmbeddedKafkaBroker embeddedKafkaBroker;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ConsumerLagMonitor consumerLagMonitor;
+
     @MockitoBean
-    private StringRedisTemplate redisTemplate;
+    private IdempotencyStore idempotencyStore;
 
     @MockitoBean
     private OrderService orderService;
 
-    @Mock
-    private ValueOperations<String, String> valueOperationsMock;
-
     @MockitoSpyBean
     private DltConsumerService dltConsumerService;
 
@@ -101,9 +109,7 @@ public class KafkaConsumerIntegrationTest {
 
         embeddedKafkaBroker.consumeFromAnEmbeddedTopic(dltConsumer, dltTopic);
 
-        when(redisTemplate.opsForValue()).thenReturn(valueOperationsMock);
-
-        reset(orderService, dltConsumerService, orderRepository);
+        reset(orderService, dltConsumerService, orderRepository, idempotencyStore);
     }
 
     @AfterEach
@@ -118,8 +124,8 @@ public class KafkaConsumerIntegrationTest {
         // Arrange: Create a valid order request DTO
         OrderRequestDTO dto = KafkaUtils.createFakeOrderRequestDTO(PRODUCT_ID_1, 1);
 
-        // Arrange: Mock Redis to indicate the message hasn't been processed yet
-        setupRedisMockForProcessing(SUCCESS_IDEMPOTENCY_KEY);
+        // Arrange: Mock the idempotency store to indicate the message hasn't been processed yet
+        setupIdempotencyMockForProcessing(SUCCESS_IDEMPOTENCY_KEY);
 
         // Act: Send the order message to the Kafka topic
         sendOrderToKafka(SUCCESS_IDEMPOTENCY_KEY, dto);
@@ -128,14 +134,52 @@ public class KafkaConsumerIntegrationTest {
         verify(orderService, timeout(5000).times(1))
                 .processIncomingOrder(any(OrderRequestDTO.class), eq(SUCCESS_IDEMPOTENCY_KEY));
 
-        // Assert: Verify Redis was updated to mark the message as processed
-        String redisKey = KafkaUtils.IDEMPOTENCY_KEY_PREFIX + SUCCESS_IDEMPOTENCY_KEY;
-        verify(valueOperationsMock, timeout(1000).times(1)).set(eq(redisKey),
-                eq(KafkaUtils.PROCESSED_STATUS),
-                any(Duration.class));
+        // Assert: Verify the key was marked as processed
+        verify(idempotencyStore, timeout(1000).times(1)).markProcessed(SUCCESS_IDEMPOTENCY_KEY);
 
         // Assert: Verify the message was NOT sent to the DLT
         verify(dltConsumerService, never()).listen(any());
+
+        // Assert: Verify the deserialization of the record was timed
+        assertThat(meterRegistry.get(IngestStage.METER_NAME).tag("stage", "deserialize").timer().count())
+                .isPositive();
+
+        // Assert: Verify the request carried the timestamp of its record
+        verify(orderService).processIncomingOrder(argThat(request -> request.getReceivedAt() != null),
+                eq(SUCCESS_IDEMPOTENCY_KEY));
+    }
+
+    @Test
+    @DisplayName("Should report the lag of the main and DLT consumer groups per partition")
+    void consumerLag_shouldCoverMainAndDltGroups() throws Exception {
+        // Arrange: Mock the idempotency store to indicate the message hasn't been processed yet
+        setupIdempotencyMockForProcessing(LAG_IDEMPOTENCY_KEY);
+
+        // Act: Send an order and wait until it is processed
+        sendOrderToKafka(LAG_IDEMPOTENCY_KEY, KafkaUtils.createFakeOrderRequestDTO(PRODUCT_ID_1, 1));
+        verify(idempotencyStore, timeout(5000).times(1)).markProcessed(LAG_IDEMPOTENCY_KEY);
+
+        // Assert: Verify the lag of the main group drops to zero once its offset is committed
+        long deadline = System.currentTimeMillis() + 10000;
+        double mainLag;
+
+        do {
+            consumerLagMonitor.refresh();
+            mainLag = meterRegistry.find(ConsumerLagMonitor.METER_NAME).tag("group", consumerGroupId).gauges()
+                    .stream()
+                    .mapToDouble(Gauge::value)
+                    .sum();
+        } while (mainLag > 0 && System.currentTimeMillis() < deadline && sleep(200));
+
+        assertThat(mainLag).isZero();
+        assertThat(meterRegistry.get(ConsumerLagMonitor.METER_NAME)
+                .tags("group", consumerGroupId, "topic", incomingOrdersTopic, "partition", "0").gauge())
+                .isNotNull();
+
+        // Assert: Verify the DLT group is reported as well
+        assertThat(meterRegistry.get(ConsumerLagMonitor.METER_NAME)
+                .tags("group", consumerGroupId + "-dlt", "topic", dltTopic).gauges())
+                .isNotEmpty();
     }
 
     @Test
@@ -145,10 +189,9 @@ public class KafkaConsumerIntegrationTest {
         OrderRequestDTO dto = KafkaUtils.createFakeOrderRequestDTO(PRODUCT_ID_2, 2);
         // Arrange: Define the exception that simulates a processing failure
         RuntimeException processingException = new RuntimeException("Simulated processing failure!");
-        String redisKey = KafkaUtils.IDEMPOTENCY_KEY_PREFIX + FAIL_IDEMPOTENCY_KEY;
 
-        // Arrange: Mock Redis for the initial idempotency check
-        setupRedisMockForProcessing(FAIL_IDEMPOTENCY_KEY);
+        // Arrange: Mock the idempotency store for the idempotency check
+        setupIdempotencyMockForProcessing(FAIL_IDEMPOTENCY_KEY);
 
         // Arrange: Mock the order service to consistently throw an exception
         doThrow(processingException).when(orderService).processIncomingOrder(any(OrderRequestDTO.class),
@@ -178,21 +221,43 @@ public class KafkaConsumerIntegrationTest {
                 .save(argThat(order -> order.getStatus() == OrderStatus.FAILED &&
                         order.getIdempotencyKey().equals(FAIL_IDEMPOTENCY_KEY)));
 
-        // Assert: Verify Redis was NEVER marked as PROCESSED
-        verify(valueOperationsMock, never()).set(eq(redisKey), eq(KafkaUtils.PROCESSED_STATUS),
-                any(Duration.class));
+        // Assert: Verify the key was NEVER marked as PROCESSED
+        verify(idempotencyStore, never()).markProcessed(FAIL_IDEMPOTENCY_KEY);
+
+        // Assert: Verify the key was claimed and released on every attempt
+        verify(idempotencyStore, atLeast(EXPECTED_RETRY_ATTEMPTS)).claim(FAIL_IDEMPOTENCY_KEY);
+        verify(idempotencyStore, atLeast(EXPECTED_RETRY_ATTEMPTS)).release(FAIL_IDEMPOTENCY_KEY);
+    }
+
+    @Test
+    @DisplayName("Should send to DLT without retries when an amount does not fit the price columns")
+    void processMessage_amountOverflow_thenDLTWithoutRetries() throws Exception {
+        // Arrange: Mock the order service to fail the total calculation
+        OrderRequestDTO dto = KafkaUtils.createFakeOrderRequestDTO(PRODUCT_ID_2, 2);
+        setupIdempotencyMockForProcessing(OVERFLOW_IDEMPOTENCY_KEY);
+        doThrow(new ArithmeticException("Amount exceeds 10 digits")).when(orderService)
+                .processIncomingOrder(any(OrderRequestDTO.class), eq(OVERFLOW_IDEMPOTENCY_KEY));
+        when(orderRepository.findByIdempotencyKey(OVERFLOW_IDEMPOTENCY_KEY)).thenReturn(Optional.empty());
+
+        // Act: Send the order message that will fail processing
+        sendOrderToKafka(OVERFLOW_IDEMPOTENCY_KEY, dto);
+
+        // Assert: Verify the message landed in the DLT
+        verify(dltConsumerService, timeout(5000).times(1)).listen(argThat(consumerRecord ->
+                OVERFLOW_IDEMPOTENCY_KEY.equals(consumerRecord.key())));
+
+        // Assert: Verify the order was processed only once
+        verify(orderService, times(1)).processIncomingOrder(any(OrderRequestDTO.class),
+                eq(OVERFLOW_IDEMPOTENCY_KEY));
+    }
 
-        // Assert: Verify the initial Redis check was performed at least once
-        verify(valueOperationsMock, atLeastOnce()).setIfAbsent(eq(redisKey),
-                eq(KafkaUtils.PROCESSING_STATUS),
-                any(Duration.class));
+    private boolean sleep(long millis) throws InterruptedException {
+        Thread.sleep(millis);
+        return true;
     }
 
-    private void setupRedisMockForProcessing(String idempotencyKey) {
-        String redisKey = KafkaUtils.IDEMPOTENCY_KEY_PREFIX + idempotencyKey;
-        when(valueOperationsMock.setIfAbsent(eq(redisKey), eq(KafkaUtils.PROCESSING_STATUS),
-                any(Duration.class)))
-                .thenReturn(true);
+    private void setupIdempotencyMockForProcessing(String idempotencyKey) {
+        when(idempotencyStore.claim(idempotencyKey)).thenReturn(IdempotencyStatus.NEW);
     }
 
     private void sendOrderToKafka(String idempotencyKey, OrderRequestDTO dto) throws Exception {
@@ -4,13 +4,11 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
-import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
-import java.time.Duration;
 import java.util.UUID;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -21,11 +19,12 @@ import org.mockito.Mock;
 import org.mockito.quality.Strictness;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
-import org.springframework.data.redis.core.StringRedisTemplate;
-import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.dao.DataIntegrityViolationException;
 
-import info.mouts.orderservice.domain.OrderStatus;
+import info.mouts.orderservice.domain.IdempotencyStatus;
 import info.mouts.orderservice.dto.OrderRequestDTO;
+import info.mouts.orderservice.monitoring.IngestStage;
+import info.mouts.orderservice.service.IdempotencyStore;
 import info.mouts.orderservice.service.OrderService;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
@@ -37,10 +36,7 @@ public class KafkaConsumerServiceTest {
     private OrderService orderService;
 
     @Mock
-    private StringRedisTemplate redisTemplate;
-
-    @Mock
-    private ValueOperations<String, String> valueOperations;
+    private IdempotencyStore idempotencyStore;
 
     // Use SimpleMeterRegistry instead of mocking
     private MeterRegistry meterRegistry = new SimpleMeterRegistry();
@@ -49,71 +45,56 @@ public class KafkaConsumerServiceTest {
 
     private OrderRequestDTO orderRequestTestDTO;
     private String testKey;
-    private String testRedisKey;
-
-    private static final String IDEMPOTENCY_KEY_PREFIX = "idempotency:order:";
-    private static final String STATUS_PROCESSING = OrderStatus.PROCESSING.name();
-    private static final String STATUS_COMPLETED = OrderStatus.PROCESSED.name();
-    private static final Duration PROCESSING_TTL = Duration.ofHours(1);
-    private static final Duration COMPLETED_TTL = Duration.ofDays(1);
 
     @BeforeEach
     void setUp() {
-        String key = UUID.randomUUID().toString();
-
         orderRequestTestDTO = new OrderRequestDTO();
-        testKey = key;
-        testRedisKey = IDEMPOTENCY_KEY_PREFIX + testKey;
-
-        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        testKey = UUID.randomUUID().toString();
 
         // Simply create the service with the SimpleMeterRegistry
-        kafkaConsumerService = new KafkaConsumerService(orderService, redisTemplate, meterRegistry);
+        kafkaConsumerService = new KafkaConsumerService(orderService, idempotencyStore, meterRegistry);
     }
 
     @Test
     @DisplayName("Should process order when idempotency key is new")
     void receiveOrder_newKey_shouldProcess() {
-        when(valueOperations.setIfAbsent(testRedisKey, STATUS_PROCESSING, PROCESSING_TTL)).thenReturn(true);
+        when(idempotencyStore.claim(testKey)).thenReturn(IdempotencyStatus.NEW);
         kafkaConsumerService.listen(orderRequestTestDTO, testKey);
 
-        verify(valueOperations).setIfAbsent(testRedisKey, STATUS_PROCESSING, PROCESSING_TTL);
+        verify(idempotencyStore).claim(testKey);
         verify(orderService).processIncomingOrder(orderRequestTestDTO, testKey);
-        verify(valueOperations).set(testRedisKey, STATUS_COMPLETED, COMPLETED_TTL);
+        verify(idempotencyStore).markProcessed(testKey);
+        assertEquals(1, meterRegistry.get(IngestStage.METER_NAME).tag("stage", "claim").timer().count());
     }
 
     @Test
     @DisplayName("Should skip processing when idempotency key is already COMPLETED")
     void receiveOrder_completedKey_shouldSkip() {
-        when(valueOperations.setIfAbsent(testRedisKey, STATUS_PROCESSING, PROCESSING_TTL)).thenReturn(false);
-        when(valueOperations.get(testRedisKey)).thenReturn(STATUS_COMPLETED);
+        when(idempotencyStore.claim(testKey)).thenReturn(IdempotencyStatus.PROCESSED);
 
         kafkaConsumerService.listen(orderRequestTestDTO, testKey);
 
-        verify(valueOperations).setIfAbsent(testRedisKey, STATUS_PROCESSING, PROCESSING_TTL);
-        verify(valueOperations).get(testRedisKey);
+        verify(idempotencyStore).claim(testKey);
         verify(orderService, never()).processIncomingOrder(any(), anyString());
-        verify(valueOperations, never()).set(anyString(), eq(STATUS_COMPLETED), any(Duration.class));
+        verify(idempotencyStore, never()).markProcessed(anyString());
     }
 
     @Test
     @DisplayName("Should skip processing when idempotency key is already PROCESSING")
     void receiveOrder_processingKey_shouldSkip() {
-        when(valueOperations.setIfAbsent(testRedisKey, STATUS_PROCESSING, PROCESSING_TTL)).thenReturn(false);
-        when(valueOperations.get(testRedisKey)).thenReturn(STATUS_PROCESSING);
+        when(idempotencyStore.claim(testKey)).thenReturn(IdempotencyStatus.PROCESSING);
 
         kafkaConsumerService.listen(orderRequestTestDTO, testKey);
 
-        verify(valueOperations).setIfAbsent(testRedisKey, STATUS_PROCESSING, PROCESSING_TTL);
-        verify(valueOperations).get(testRedisKey);
+        verify(idempotencyStore).claim(testKey);
         verify(orderService, never()).processIncomingOrder(any(), anyString());
-        verify(valueOperations, never()).set(anyString(), eq(STATUS_COMPLETED), any(Duration.class));
+        verify(idempotencyStore, never()).markProcessed(anyString());
     }
 
     @Test
-    @DisplayName("Should re-throw exception if processing fails after acquiring key")
+    @DisplayName("Should re-throw exception and release the key if processing fails after acquiring key")
     void receiveOrder_newKey_processingFails() {
-        when(valueOperations.setIfAbsent(testRedisKey, STATUS_PROCESSING, PROCESSING_TTL)).thenReturn(true);
+        when(idempotencyStore.claim(testKey)).thenReturn(IdempotencyStatus.NEW);
         RuntimeException exception = new RuntimeException("Processing error");
         doThrow(exception).when(orderService).processIncomingOrder(orderRequestTestDTO, testKey);
 
@@ -122,8 +103,38 @@ public class KafkaConsumerServiceTest {
         });
         assertEquals(exception, thrown);
 
-        verify(valueOperations).setIfAbsent(testRedisKey, STATUS_PROCESSING, PROCESSING_TTL);
+        verify(idempotencyStore).claim(testKey);
         verify(orderService).processIncomingOrder(orderRequestTestDTO, testKey);
-        verify(valueOperations, never()).set(testRedisKey, STATUS_COMPLETED, COMPLETED_TTL);
+        verify(idempotencyStore, never()).markProcessed(testKey);
+        verify(idempotencyStore).release(testKey);
+    }
+
+    @Test
+    @DisplayName("Should skip the message as a duplicate if its order was already saved by another consumer")
+    void receiveOrder_newKey_alreadySaved_shouldSkip() {
+        when(idempotencyStore.claim(testKey)).thenReturn(IdempotencyStatus.NEW);
+        doThrow(new DataIntegrityViolationException("Duplicate idempotency key")).when(orderService)
+                .processIncomingOrder(orderRequestTestDTO, testKey);
+        when(orderService.existsByIdempotencyKey(testKey)).thenReturn(true);
+
+        kafkaConsumerService.listen(orderRequestTestDTO, testKey);
+
+        verify(idempotencyStore).markProcessed(testKey);
+        verify(idempotencyStore, never()).release(testKey);
+    }
+
+    @Test
+    @DisplayName("Should re-throw an integrity violation if no order was saved with the key")
+    void receiveOrder_newKey_integrityViolation_shouldRethrow() {
+        when(idempotencyStore.claim(testKey)).thenReturn(IdempotencyStatus.NEW);
+        DataIntegrityViolationException exception = new DataIntegrityViolationException("Null price");
+        doThrow(exception).when(orderService).processIncomingOrder(orderRequestTestDTO, testKey);
+        when(orderService.existsByIdempotencyKey(testKey)).thenReturn(false);
+
+        assertEquals(exception, assertThrows(DataIntegrityViolationException.class,
+                () -> kafkaConsumerService.listen(orderRequestTestDTO, testKey)));
+
+        verify(idempotencyStore, never()).markProcessed(testKey);
+        verify(idempotencyStore).release(testKey);
     }
 }
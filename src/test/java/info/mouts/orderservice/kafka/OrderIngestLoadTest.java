@@ -0,0 +1,496 @@
+package info.mouts.orderservice.kafka;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.internals.RecordHeader;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.ContainerTestUtils;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import info.mouts.orderservice.domain.IdempotencyStatus;
+import info.mouts.orderservice.dto.OrderRequestDTO;
+import info.mouts.orderservice.service.IdempotencyStore;
+import info.mouts.orderservice.util.KafkaUtils;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Load test harness measuring how many orders per second one instance ingests,
+ * and the latency from sending an order to {@code orders.received.v1} until
+ * its processed event is read from {@code orders.processed.v1}.
+ * <p>
+ * It runs the whole application against an embedded Kafka broker, an
+ * in-memory H2 database and in-process stand-ins for Redis (see
+ * {@link LocalStandIns}), so it needs nothing running locally. The clock
+ * starts once the listeners are assigned their partitions and a warm-up batch
+ * is processed. It only runs
+ * when {@code load-test.orders} is set:
+ * </p>
+ *
+ * <pre>
+ * mvn test -Dtest=OrderIngestLoadTest -Dload-test.orders=20000
+ * </pre>
+ * <p>
+ * Other settings, all optional:
+ * </p>
+ * <ul>
+ * <li>{@code load-test.duplicate-ratio}: share of the orders sent a second
+ * time with the same idempotency key (default 0.05);</li>
+ * <li>{@code load-test.poison-ratio}: share of the orders that fail processing
+ * and end up in the dead letter topic after the retries (default 0);</li>
+ * <li>{@code load-test.rate}: orders sent per second, 0 to send them all at
+ * once (default 0);</li>
+ * <li>{@code load-test.timeout}: how long to wait for the processed events
+ * (default PT5M);</li>
+ * <li>{@code load-test.warm-up}: orders sent and processed before the clock
+ * starts, to leave connection setup and JIT compilation out of the
+ * measurements (default 200);</li>
+ * <li>{@code load-test.datasource.url}, {@code .username} and
+ * {@code .password}: a local PostgreSQL to use instead of H2;</li>
+ * <li>any application property, such as {@code app.kafka.consumer.mode} or
+ * {@code app.outbox.enabled}, to compare configurations.</li>
+ * </ul>
+ * The results are logged and written to
+ * {@code target/load-test-result.json}.
+ */
+@SpringBootTest(properties = {
+        "spring.kafka.consumer.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "spring.kafka.producer.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        // The Redis stand-in replaces the store behind the filter
+        "app.idempotency.filter.enabled=false",
+        // Logging every statement and order would dominate the measurements
+        "spring.jpa.show-sql=false",
+        "logging.level.info.mouts.orderservice=WARN",
+        "logging.level.info.mouts.orderservice.kafka.OrderIngestLoadTest=INFO"
+})
+@EmbeddedKafka(partitions = 4, topics = { "${app.kafka.orders-received-topic}", "${app.kafka.dlt-orders-topic}",
+        "${app.kafka.orders-processed-topic}" })
+@EnabledIfSystemProperty(named = "load-test.orders", matches = "\\d+")
+@DisplayName("Order Ingest Load Test")
+@Slf4j
+public class OrderIngestLoadTest {
+    private static final String PRODUCT_PREFIX = "LOAD-PRODUCT-";
+    private static final String POISON_PRODUCT_PREFIX = "POISON-PRODUCT-";
+    private static final String WARM_UP_PRODUCT_PREFIX = "WARM-UP-PRODUCT-";
+    private static final Path RESULT_FILE = Path.of("target", "load-test-result.json");
+
+    @Autowired
+    private KafkaTemplate<String, Object> kafkaTemplate;
+
+    @Autowired
+    private EmbeddedKafkaBroker embeddedKafkaBroker;
+
+    @Autowired
+    private KafkaListenerEndpointRegistry endpointRegistry;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.kafka.orders-received-topic}")
+    private String incomingOrdersTopic;
+
+    @Value("${app.kafka.orders-processed-topic}")
+    private String processedOrdersTopic;
+
+    @Value("${load-test.orders}")
+    private int orderCount;
+
+    @Value("${load-test.duplicate-ratio:0.05}")
+    private double duplicateRatio;
+
+    @Value("${load-test.poison-ratio:0}")
+    private double poisonRatio;
+
+    @Value("${load-test.rate:0}")
+    private int ratePerSecond;
+
+    @Value("${load-test.timeout:PT5M}")
+    private Duration timeout;
+
+    @Value("${load-test.warm-up:200}")
+    private int warmUpOrders;
+
+    private Consumer<String, String> processedEventsConsumer;
+
+    @DynamicPropertySource
+    static void datasourceProperties(DynamicPropertyRegistry registry) {
+        String url = System.getProperty("load-test.datasource.url");
+
+        if (url == null) {
+            registry.add("spring.datasource.url", () -> "jdbc:h2:mem:load-test;DB_CLOSE_DELAY=-1");
+            registry.add("spring.datasource.driver-class-name", () -> "org.h2.Driver");
+            registry.add("spring.jpa.properties.hibernate.dialect", () -> "org.hibernate.dialect.H2Dialect");
+        } else {
+            registry.add("spring.datasource.url", () -> url);
+            registry.add("spring.datasource.username",
+                    () -> System.getProperty("load-test.datasource.username", "mouts_user"));
+            registry.add("spring.datasource.password",
+                    () -> System.getProperty("load-test.datasource.password", "mouts_password"));
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        Map<String, Object> consumerProps = KafkaTestUtils.consumerProps("load-test-processed", "true",
+                embeddedKafkaBroker);
+        consumerProps.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        consumerProps.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        consumerProps.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        consumerProps.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, 1000);
+
+        processedEventsConsumer = new DefaultKafkaConsumerFactory<String, String>(consumerProps).createConsumer();
+        embeddedKafkaBroker.consumeFromAnEmbeddedTopic(processedEventsConsumer, processedOrdersTopic);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (processedEventsConsumer != null) {
+            processedEventsConsumer.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Should process every order once and report the ingest throughput and latency")
+    void ingestOrders() throws Exception {
+        List<Message> messages = createMessages();
+        long[] sentAt = new long[orderCount];
+        long[] processedAt = new long[orderCount];
+        int expectedEvents = (int) messages.stream().filter(message -> !message.poison() && !message.duplicate())
+                .count();
+
+        log.info("Sending {} messages: {} orders, {} duplicates, {} poison messages, at {}", messages.size(),
+                orderCount, messages.size() - orderCount, orderCount - expectedEvents,
+                ratePerSecond > 0 ? ratePerSecond + " orders/s" : "full speed");
+
+        awaitAssignment();
+        warmUp();
+
+        long start = System.nanoTime();
+        List<CompletableFuture<SendResult<String, Object>>> sends = new ArrayList<>(messages.size());
+
+        for (int i = 0; i < messages.size(); i++) {
+            if (ratePerSecond > 0) {
+                long due = start + i * TimeUnit.SECONDS.toNanos(1) / ratePerSecond;
+                LockSupport.parkNanos(due - System.nanoTime());
+            }
+
+            Message message = messages.get(i);
+            if (!message.duplicate()) {
+                sentAt[message.index()] = System.nanoTime();
+            }
+            sends.add(send(message));
+        }
+        CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new)).get(1, TimeUnit.MINUTES);
+        long sendEnd = System.nanoTime();
+
+        int receivedEvents = 0;
+        int unexpectedEvents = 0;
+        long deadline = System.nanoTime() + timeout.toNanos();
+
+        while (receivedEvents < expectedEvents && System.nanoTime() < deadline) {
+            for (ConsumerRecord<String, String> record : processedEventsConsumer.poll(Duration.ofMillis(100))) {
+                long now = System.nanoTime();
+                int index = orderIndex(record.value());
+
+                if (index < 0 || processedAt[index] != 0) {
+                    unexpectedEvents++;
+                    continue;
+                }
+                processedAt[index] = now;
+                receivedEvents++;
+            }
+        }
+        long end = System.nanoTime();
+
+        LoadTestResult result = LoadTestResult.of(orderCount, messages.size(), expectedEvents, receivedEvents,
+                unexpectedEvents, sendEnd - start, end - start, latencies(sentAt, processedAt));
+        report(result);
+
+        assertThat(receivedEvents).as("Processed events received within %s", timeout).isEqualTo(expectedEvents);
+        assertThat(unexpectedEvents).as("Duplicate or unknown processed events").isZero();
+    }
+
+    /**
+     * Waits until the running listener of the orders topic, the one of the
+     * configured consumer mode, is assigned all of its partitions, so the
+     * rebalance is not part of the measurements.
+     */
+    private void awaitAssignment() {
+        for (MessageListenerContainer container : endpointRegistry.getListenerContainers()) {
+            String[] topics = container.getContainerProperties().getTopics();
+
+            if (container.isRunning() && topics != null && Arrays.asList(topics).contains(incomingOrdersTopic)) {
+                ContainerTestUtils.waitForAssignment(container, embeddedKafkaBroker.getPartitionsPerTopic());
+            }
+        }
+    }
+
+    /**
+     * Sends the warm-up orders, which are not measured, and waits for their
+     * processed events, so they are not read during the measurements.
+     */
+    private void warmUp() throws Exception {
+        if (warmUpOrders <= 0) {
+            return;
+        }
+
+        List<CompletableFuture<SendResult<String, Object>>> sends = new ArrayList<>(warmUpOrders);
+
+        for (int i = 0; i < warmUpOrders; i++) {
+            sends.add(send(WARM_UP_PRODUCT_PREFIX + i, "warm-up-" + i, i % 5 + 1, false));
+        }
+        CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new)).get(1, TimeUnit.MINUTES);
+
+        int receivedEvents = 0;
+        long deadline = System.nanoTime() + timeout.toNanos();
+
+        while (receivedEvents < warmUpOrders && System.nanoTime() < deadline) {
+            receivedEvents += processedEventsConsumer.poll(Duration.ofMillis(100)).count();
+        }
+
+        assertThat(receivedEvents).as("Warm-up processed events received within %s", timeout)
+                .isEqualTo(warmUpOrders);
+        log.info("Processed {} warm-up orders", warmUpOrders);
+    }
+
+    /**
+     * Creates the messages to send: one per order, poison or not, and the
+     * duplicates, each sent later than its original.
+     */
+    private List<Message> createMessages() {
+        Random random = new Random(42);
+        List<Message> messages = new ArrayList<>(orderCount);
+
+        for (int i = 0; i < orderCount; i++) {
+            messages.add(new Message(i, "load-" + i, random.nextDouble() < poisonRatio, false));
+        }
+
+        List<Message> duplicates = messages.stream()
+                .filter(message -> random.nextDouble() < duplicateRatio)
+                .map(message -> new Message(message.index(), message.idempotencyKey(), message.poison(), true))
+                .toList();
+        for (Message duplicate : duplicates) {
+            int position = duplicate.index() + 1 + random.nextInt(orderCount - duplicate.index());
+            messages.add(Math.min(position, messages.size()), duplicate);
+        }
+        return messages;
+    }
+
+    private CompletableFuture<SendResult<String, Object>> send(Message message) {
+        return send((message.poison() ? POISON_PRODUCT_PREFIX : PRODUCT_PREFIX) + message.index(),
+                message.idempotencyKey(), message.index() % 5 + 1, message.poison());
+    }
+
+    private CompletableFuture<SendResult<String, Object>> send(String productId, String idempotencyKey,
+            int quantity, boolean poison) {
+        OrderRequestDTO dto = KafkaUtils.createFakeOrderRequestDTO(productId, quantity);
+
+        if (poison) {
+            // Fails the total calculation on every attempt
+            dto.getItems().getFirst().setPrice(null);
+        }
+
+        return kafkaTemplate.send(new ProducerRecord<>(incomingOrdersTopic, null, idempotencyKey, dto,
+                List.of(new RecordHeader(KafkaUtils.IDEMPOTENCY_KEY_HEADER,
+                        idempotencyKey.getBytes(StandardCharsets.UTF_8)))));
+    }
+
+    /**
+     * Reads the index of the order a processed event belongs to, from the
+     * product ID of its item.
+     *
+     * @return The index of the order, or -1 if the event is not from this run.
+     */
+    private int orderIndex(String processedEvent) throws IOException {
+        JsonNode items = objectMapper.readTree(processedEvent).path("items");
+        String productId = items.path(0).path("productId").asText("");
+
+        if (!productId.startsWith(PRODUCT_PREFIX)) {
+            return -1;
+        }
+        return Integer.parseInt(productId.substring(PRODUCT_PREFIX.length()));
+    }
+
+    private long[] latencies(long[] sentAt, long[] processedAt) {
+        long[] latencies = new long[sentAt.length];
+        int count = 0;
+
+        for (int i = 0; i < sentAt.length; i++) {
+            if (processedAt[i] != 0) {
+                latencies[count++] = processedAt[i] - sentAt[i];
+            }
+        }
+
+        long[] received = Arrays.copyOf(latencies, count);
+        Arrays.sort(received);
+        return received;
+    }
+
+    private void report(LoadTestResult result) throws IOException {
+        log.info("Load test result:\n{}", objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(result));
+
+        Files.createDirectories(RESULT_FILE.getParent());
+        objectMapper.copy().enable(SerializationFeature.INDENT_OUTPUT).writeValue(RESULT_FILE.toFile(), result);
+    }
+
+    /**
+     * A message to send.
+     *
+     * @param index          The index of the order.
+     * @param idempotencyKey The idempotency key of the order.
+     * @param poison         Whether the order fails processing.
+     * @param duplicate      Whether it is a second copy of the order.
+     */
+    private record Message(int index, String idempotencyKey, boolean poison, boolean duplicate) {
+    }
+
+    /**
+     * Results of a run, in milliseconds and orders per second.
+     */
+    record LoadTestResult(int orders, int messagesSent, int expectedEvents, int receivedEvents,
+            int unexpectedEvents, double sendRate, double throughput, Map<String, Double> latencyMillis) {
+
+        static LoadTestResult of(int orders, int messagesSent, int expectedEvents, int receivedEvents,
+                int unexpectedEvents, long sendNanos, long totalNanos, long[] sortedLatencies) {
+            Map<String, Double> latencyMillis = new LinkedHashMap<>();
+
+            if (sortedLatencies.length > 0) {
+                latencyMillis.put("p50", millis(percentile(sortedLatencies, 0.50)));
+                latencyMillis.put("p90", millis(percentile(sortedLatencies, 0.90)));
+                latencyMillis.put("p95", millis(percentile(sortedLatencies, 0.95)));
+                latencyMillis.put("p99", millis(percentile(sortedLatencies, 0.99)));
+                latencyMillis.put("p99.9", millis(percentile(sortedLatencies, 0.999)));
+                latencyMillis.put("max", millis(sortedLatencies[sortedLatencies.length - 1]));
+            }
+
+            return new LoadTestResult(orders, messagesSent, expectedEvents, receivedEvents, unexpectedEvents,
+                    perSecond(messagesSent, sendNanos), perSecond(receivedEvents, totalNanos), latencyMillis);
+        }
+
+        private static long percentile(long[] sortedValues, double percentile) {
+            int index = (int) Math.ceil(percentile * sortedValues.length) - 1;
+            return sortedValues[Math.clamp(index, 0, sortedValues.length - 1)];
+        }
+
+        private static double millis(long nanos) {
+            return nanos / 1_000_000.0;
+        }
+
+        private static double perSecond(int count, long nanos) {
+            return nanos == 0 ? 0 : count * 1_000_000_000.0 / nanos;
+        }
+    }
+
+    /**
+     * In-process stand-ins for the uses of Redis on the ingest path.
+     */
+    @TestConfiguration
+    static class LocalStandIns {
+        /**
+         * Idempotency keys held in memory, with the same claim semantics as
+         * the Redis store.
+         */
+        @Bean
+        @Primary
+        IdempotencyStore inMemoryIdempotencyStore() {
+            Map<String, IdempotencyStatus> keys = new ConcurrentHashMap<>();
+
+            return new IdempotencyStore() {
+                @Override
+                public Map<String, IdempotencyStatus> claim(Collection<String> idempotencyKeys) {
+                    Map<String, IdempotencyStatus> statuses = new LinkedHashMap<>();
+
+                    for (String idempotencyKey : idempotencyKeys) {
+                        IdempotencyStatus current = keys.putIfAbsent(idempotencyKey, IdempotencyStatus.PROCESSING);
+                        statuses.put(idempotencyKey, current == null ? IdempotencyStatus.NEW : current);
+                    }
+                    return statuses;
+                }
+
+                @Override
+                public void markProcessed(Collection<String> idempotencyKeys) {
+                    idempotencyKeys.forEach(idempotencyKey -> keys.put(idempotencyKey, IdempotencyStatus.PROCESSED));
+                }
+
+                @Override
+                public void release(Collection<String> idempotencyKeys) {
+                    idempotencyKeys.forEach(idempotencyKey -> keys.remove(idempotencyKey,
+                            IdempotencyStatus.PROCESSING));
+                }
+            };
+        }
+
+        /**
+         * Order cache held in memory.
+         */
+        @Bean
+        @Primary
+        CacheManager inMemoryCacheManager() {
+            return new ConcurrentMapCacheManager();
+        }
+
+        /**
+         * Template whose publications, such as the order status changes, go
+         * nowhere instead of waiting on a connection to Redis.
+         */
+        @Bean
+        StringRedisTemplate stringRedisTemplate(RedisConnectionFactory connectionFactory) {
+            StringRedisTemplate template = new StringRedisTemplate() {
+                @Override
+                public Long convertAndSend(String channel, Object message) {
+                    return 0L;
+                }
+            };
+            template.setConnectionFactory(connectionFactory);
+            return template;
+        }
+    }
+}
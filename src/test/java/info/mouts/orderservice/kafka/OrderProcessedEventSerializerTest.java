@@ -0,0 +1,82 @@
+package info.mouts.orderservice.kafka;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.support.mapping.AbstractJavaTypeMapper;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import info.mouts.orderservice.domain.OrderStatus;
+import info.mouts.orderservice.dto.OrderItemEventDTO;
+import info.mouts.orderservice.dto.OrderProcessedEventDTO;
+
+public class OrderProcessedEventSerializerTest {
+    private static final String TOPIC = "orders.processed.v1";
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @Test
+    @DisplayName("Should write the same bytes and type header as the generic JsonSerializer")
+    void serialize_shouldMatchJsonSerializer() {
+        OrderProcessedEventDTO event = createEvent(3);
+        RecordHeaders expectedHeaders = new RecordHeaders();
+        RecordHeaders headers = new RecordHeaders();
+
+        try (JsonSerializer<OrderProcessedEventDTO> jsonSerializer = new JsonSerializer<>(objectMapper);
+                OrderProcessedEventSerializer serializer = new OrderProcessedEventSerializer(objectMapper)) {
+            byte[] expected = jsonSerializer.serialize(TOPIC, expectedHeaders, event);
+            byte[] actual = serializer.serialize(TOPIC, headers, event);
+
+            assertThat(actual).isEqualTo(expected);
+            assertThat(headers.lastHeader(AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME).value())
+                    .isEqualTo(expectedHeaders.lastHeader(AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME).value())
+                    .isEqualTo(OrderProcessedEventSerializer.TYPE_ID.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    @DisplayName("Should write events larger than the pre-sized buffer")
+    void serialize_largeEvent_shouldWriteAllItems() {
+        OrderProcessedEventDTO event = createEvent(1000);
+
+        try (OrderProcessedEventSerializer serializer = new OrderProcessedEventSerializer(objectMapper)) {
+            String json = new String(serializer.serialize(TOPIC, event), StandardCharsets.UTF_8);
+
+            assertThat(json).contains("PRODUCT-999").endsWith("}");
+        }
+    }
+
+    @Test
+    @DisplayName("Should return null for a null event")
+    void serialize_null_shouldReturnNull() {
+        try (OrderProcessedEventSerializer serializer = new OrderProcessedEventSerializer(objectMapper)) {
+            assertThat(serializer.serialize(TOPIC, new RecordHeaders(), null)).isNull();
+        }
+    }
+
+    private OrderProcessedEventDTO createEvent(int itemCount) {
+        OrderProcessedEventDTO event = new OrderProcessedEventDTO();
+        event.setOrderId(UUID.randomUUID());
+        event.setStatus(OrderStatus.PROCESSED);
+        event.setTotal(BigDecimal.valueOf(itemCount * 10L));
+        event.setProcessedAt(LocalDateTime.now());
+        event.setItems(IntStream.range(0, itemCount).mapToObj(i -> {
+            OrderItemEventDTO item = new OrderItemEventDTO();
+            item.setProductId("PRODUCT-" + i);
+            item.setQuantity(1);
+            item.setPrice(BigDecimal.TEN);
+            return item;
+        }).toList());
+        return event;
+    }
+}
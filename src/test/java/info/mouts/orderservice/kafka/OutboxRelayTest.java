@@ -0,0 +1,141 @@
+package info.mouts.orderservice.kafka;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.kafka.support.mapping.AbstractJavaTypeMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import info.mouts.orderservice.domain.OutboxEvent;
+import info.mouts.orderservice.monitoring.EventAge;
+import info.mouts.orderservice.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class OutboxRelayTest {
+    private static final String TOPIC = "orders.processed.v1";
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private KafkaTemplate<String, Object> kafkaTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private SendResult<String, Object> sendResult;
+
+    @Captor
+    private ArgumentCaptor<ProducerRecord<String, Object>> recordCaptor;
+
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private OutboxRelay outboxRelay;
+
+    @BeforeEach
+    void setUp() {
+        outboxRelay = new OutboxRelay(outboxEventRepository, kafkaTemplate, transactionManager, meterRegistry, 2,
+                Duration.ofSeconds(1));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    @DisplayName("Should publish every event of the batch and delete them in bulk")
+    void relayBatch_allSent_shouldDeleteAll() {
+        OutboxEvent first = createOutboxEvent();
+        OutboxEvent second = createOutboxEvent();
+        when(outboxEventRepository.lockNextBatch(2)).thenReturn(List.of(first, second));
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenReturn(CompletableFuture.completedFuture(sendResult));
+
+        int published = outboxRelay.relayBatch();
+
+        assertThat(published).isEqualTo(2);
+        verify(kafkaTemplate, times(2)).send(recordCaptor.capture());
+
+        ProducerRecord<String, Object> firstRecord = recordCaptor.getAllValues().getFirst();
+        assertThat(firstRecord.topic()).isEqualTo(TOPIC);
+        assertThat(firstRecord.key()).isEqualTo(first.getMessageKey());
+        assertThat(firstRecord.value()).isEqualTo(first.getPayload().getBytes(StandardCharsets.UTF_8));
+        assertThat(firstRecord.headers().lastHeader(AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME).value())
+                .isEqualTo(OrderProcessedEventSerializer.TYPE_ID.getBytes(StandardCharsets.UTF_8));
+        verify(outboxEventRepository).deleteAllByIdInBatch(List.of(first.getId(), second.getId()));
+        assertThat(meterRegistry.get("outbox.relay.batch.size").summary().totalAmount()).isEqualTo(2);
+        assertThat(meterRegistry.get("outbox.relay.lag").timer().count()).isEqualTo(2);
+        assertThat(meterRegistry.get(EventAge.METER_NAME).tag("stage", "published").timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    @DisplayName("Should keep the events whose send failed in the outbox")
+    void relayBatch_sendFails_shouldOnlyDeletePublished() {
+        OutboxEvent first = createOutboxEvent();
+        OutboxEvent second = createOutboxEvent();
+        when(outboxEventRepository.lockNextBatch(2)).thenReturn(List.of(first, second));
+        when(kafkaTemplate.send(any(ProducerRecord.class)))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("Broker unavailable")))
+                .thenReturn(CompletableFuture.completedFuture(sendResult));
+
+        int published = outboxRelay.relayBatch();
+
+        assertThat(published).isEqualTo(-1);
+        verify(outboxEventRepository).deleteAllByIdInBatch(List.of(second.getId()));
+        assertThat(meterRegistry.get("outbox.relay.events").tag("result", "failed").counter().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get(EventAge.METER_NAME).tag("stage", "published").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    @DisplayName("Should do nothing when the outbox is empty")
+    void relayBatch_emptyOutbox_shouldNotSend() {
+        when(outboxEventRepository.lockNextBatch(anyInt())).thenReturn(List.of());
+
+        assertThat(outboxRelay.relayBatch()).isZero();
+        verify(kafkaTemplate, never()).send(any(ProducerRecord.class));
+        verify(outboxEventRepository, never()).deleteAllByIdInBatch(any());
+    }
+
+    private OutboxEvent createOutboxEvent() {
+        UUID orderId = UUID.randomUUID();
+
+        return OutboxEvent.builder()
+                .id(UUID.randomUUID())
+                .aggregateId(orderId)
+                .topic(TOPIC)
+                .messageKey(orderId.toString())
+                .payload("{\"orderId\":\"" + orderId + "\",\"status\":\"PROCESSED\"}")
+                .createdAt(LocalDateTime.now().minusSeconds(1))
+                .receivedAt(Instant.now().minusSeconds(2))
+                .build();
+    }
+}
@@ -0,0 +1,132 @@
+package info.mouts.orderservice.kafka;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+
+import info.mouts.orderservice.dto.OrderRequestDTO;
+import info.mouts.orderservice.util.KafkaUtils;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class ParallelKafkaConsumerServiceTest {
+    private static final String TOPIC = "orders.received.v1";
+
+    @Mock
+    private KafkaConsumerService kafkaConsumerService;
+
+    private ParallelKafkaConsumerService parallelKafkaConsumerService;
+
+    @BeforeEach
+    void setUp() {
+        parallelKafkaConsumerService = new ParallelKafkaConsumerService(kafkaConsumerService,
+                new SimpleMeterRegistry(), 8);
+    }
+
+    @AfterEach
+    void tearDown() {
+        parallelKafkaConsumerService.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should process records of the same key in offset order")
+    void listen_sameKey_shouldProcessInOrder() {
+        List<String> processed = Collections.synchronizedList(new ArrayList<>());
+        doAnswer(invocation -> processed.add(invocation.getArgument(1))).when(kafkaConsumerService)
+                .listen(any(), anyString());
+
+        List<ConsumerRecord<String, OrderRequestDTO>> records = List.of(createRecord(0, "CUSTOMER-1", "KEY-1"),
+                createRecord(1, "CUSTOMER-2", "KEY-2"), createRecord(2, "CUSTOMER-1", "KEY-3"),
+                createRecord(3, "CUSTOMER-1", "KEY-4"));
+
+        parallelKafkaConsumerService.listen(records);
+
+        assertThat(processed).containsExactlyInAnyOrder("KEY-1", "KEY-2", "KEY-3", "KEY-4");
+        assertThat(processed.stream().filter(key -> !key.equals("KEY-2")).toList())
+                .containsExactly("KEY-1", "KEY-3", "KEY-4");
+    }
+
+    @Test
+    @DisplayName("Should process records of different keys concurrently")
+    void listen_differentKeys_shouldProcessConcurrently() {
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        doAnswer(invocation -> {
+            bothStarted.countDown();
+            // Only completes if the other key is processed at the same time
+            assertThat(bothStarted.await(5, TimeUnit.SECONDS)).isTrue();
+            return null;
+        }).when(kafkaConsumerService).listen(any(), anyString());
+
+        parallelKafkaConsumerService.listen(List.of(createRecord(0, "CUSTOMER-1", "KEY-1"),
+                createRecord(1, "CUSTOMER-2", "KEY-2")));
+
+        verify(kafkaConsumerService, times(2)).listen(any(), anyString());
+    }
+
+    @Test
+    @DisplayName("Should hold back later records of a failed key and fail at the lowest index")
+    void listen_recordFails_shouldStopKeyAndReportLowestIndex() {
+        RuntimeException exception = new RuntimeException("Processing error");
+        doThrow(exception).when(kafkaConsumerService).listen(any(), eq("KEY-2"));
+
+        List<ConsumerRecord<String, OrderRequestDTO>> records = List.of(createRecord(0, "CUSTOMER-1", "KEY-1"),
+                createRecord(1, "CUSTOMER-2", "KEY-2"), createRecord(2, "CUSTOMER-2", "KEY-3"),
+                createRecord(3, "CUSTOMER-3", "KEY-4"));
+
+        BatchListenerFailedException thrown = assertThrows(BatchListenerFailedException.class,
+                () -> parallelKafkaConsumerService.listen(records));
+
+        assertThat(thrown.getIndex()).isEqualTo(1);
+        assertThat(thrown.getCause()).isEqualTo(exception);
+        verify(kafkaConsumerService).listen(any(), eq("KEY-1"));
+        verify(kafkaConsumerService, never()).listen(any(), eq("KEY-3"));
+        verify(kafkaConsumerService).listen(any(), eq("KEY-4"));
+    }
+
+    @Test
+    @DisplayName("Should fail a record without idempotency key header")
+    void listen_missingHeader_shouldFailRecord() {
+        ConsumerRecord<String, OrderRequestDTO> recordWithoutHeader = new ConsumerRecord<>(TOPIC, 0, 0L, null,
+                KafkaUtils.createFakeOrderRequestDTO("PRODUCT-1", 1));
+
+        BatchListenerFailedException thrown = assertThrows(BatchListenerFailedException.class,
+                () -> parallelKafkaConsumerService.listen(List.of(recordWithoutHeader,
+                        createRecord(1, "CUSTOMER-2", "KEY-2"))));
+
+        assertThat(thrown.getIndex()).isEqualTo(0);
+        verify(kafkaConsumerService).listen(any(), eq("KEY-2"));
+    }
+
+    private ConsumerRecord<String, OrderRequestDTO> createRecord(long offset, String key, String idempotencyKey) {
+        ConsumerRecord<String, OrderRequestDTO> consumerRecord = new ConsumerRecord<>(TOPIC, 0, offset, key,
+                KafkaUtils.createFakeOrderRequestDTO("PRODUCT-" + offset, 1));
+        consumerRecord.headers().add(KafkaUtils.IDEMPOTENCY_KEY_HEADER, idempotencyKey.getBytes());
+        return consumerRecord;
+    }
+}
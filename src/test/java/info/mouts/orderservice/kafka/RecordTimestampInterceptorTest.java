@@ -0,0 +1,67 @@
+package info.mouts.orderservice.kafka;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.RecordBatch;
+import org.apache.kafka.common.record.TimestampType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import info.mouts.orderservice.dto.OrderRequestDTO;
+
+public class RecordTimestampInterceptorTest {
+    private static final String TOPIC = "orders.received.v1";
+    private static final long TIMESTAMP = 1_700_000_000_000L;
+
+    private final RecordTimestampInterceptor interceptor = new RecordTimestampInterceptor();
+
+    @Test
+    @DisplayName("Should copy the record timestamp to the order request")
+    void interceptRecord_shouldStampReceivedAt() {
+        OrderRequestDTO request = new OrderRequestDTO();
+        ConsumerRecord<Object, Object> consumerRecord = createRecord(0, TIMESTAMP, request);
+
+        assertThat(interceptor.intercept(consumerRecord, null)).isSameAs(consumerRecord);
+        assertThat(request.getReceivedAt()).isEqualTo(Instant.ofEpochMilli(TIMESTAMP));
+    }
+
+    @Test
+    @DisplayName("Should copy the timestamp of every record of a batch")
+    void interceptBatch_shouldStampEveryRequest() {
+        OrderRequestDTO first = new OrderRequestDTO();
+        OrderRequestDTO second = new OrderRequestDTO();
+        ConsumerRecords<Object, Object> records = new ConsumerRecords<>(Map.of(new TopicPartition(TOPIC, 0),
+                List.of(createRecord(0, TIMESTAMP, first), createRecord(1, TIMESTAMP + 5, second))));
+
+        assertThat(interceptor.intercept(records, null)).isSameAs(records);
+        assertThat(first.getReceivedAt()).isEqualTo(Instant.ofEpochMilli(TIMESTAMP));
+        assertThat(second.getReceivedAt()).isEqualTo(Instant.ofEpochMilli(TIMESTAMP + 5));
+    }
+
+    @Test
+    @DisplayName("Should leave records without a timestamp or an order request untouched")
+    void interceptRecord_withoutTimestampOrRequest_shouldIgnore() {
+        OrderRequestDTO request = new OrderRequestDTO();
+        byte[] payload = new byte[0];
+
+        interceptor.intercept(createRecord(0, RecordBatch.NO_TIMESTAMP, request), null);
+        ConsumerRecord<Object, Object> other = createRecord(1, TIMESTAMP, payload);
+
+        assertThat(request.getReceivedAt()).isNull();
+        assertThat(interceptor.intercept(other, null).value()).isSameAs(payload);
+    }
+
+    private ConsumerRecord<Object, Object> createRecord(long offset, long timestamp, Object value) {
+        return new ConsumerRecord<>(TOPIC, 0, offset, timestamp, TimestampType.CREATE_TIME, -1, -1, "key", value,
+                new RecordHeaders(), Optional.empty());
+    }
+}
@@ -0,0 +1,59 @@
+package info.mouts.orderservice.kafka;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+import info.mouts.orderservice.dto.OrderRequestDTO;
+import info.mouts.orderservice.monitoring.IngestStage;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class TimedDeserializerTest {
+    private static final String TOPIC = "orders.received.v1";
+
+    private Timer timer;
+    private TimedDeserializer<OrderRequestDTO> deserializer;
+
+    @BeforeEach
+    void setUp() {
+        timer = IngestStage.DESERIALIZE.timer(new SimpleMeterRegistry());
+        deserializer = new TimedDeserializer<>(new JsonDeserializer<>(), timer);
+        deserializer.configure(Map.of(
+                JsonDeserializer.TRUSTED_PACKAGES, "info.mouts.orderservice.dto",
+                JsonDeserializer.VALUE_DEFAULT_TYPE, OrderRequestDTO.class.getName(),
+                JsonDeserializer.USE_TYPE_INFO_HEADERS, false), false);
+    }
+
+    @Test
+    @DisplayName("Should configure the delegate and time each deserialization")
+    void deserialize_shouldDelegateAndRecord() {
+        byte[] payload = "{\"items\":[{\"productId\":\"PROD-1\",\"quantity\":2,\"price\":10.50}]}"
+                .getBytes(StandardCharsets.UTF_8);
+
+        OrderRequestDTO request = deserializer.deserialize(TOPIC, new RecordHeaders(), payload);
+
+        assertThat(request.getItems()).singleElement()
+                .satisfies(item -> assertThat(item.getProductId()).isEqualTo("PROD-1"));
+        assertThat(timer.count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should time the records it fails to deserialize")
+    void deserialize_invalidPayload_shouldRecord() {
+        byte[] payload = "not json".getBytes(StandardCharsets.UTF_8);
+
+        assertThatThrownBy(() -> deserializer.deserialize(TOPIC, new RecordHeaders(), payload))
+                .isInstanceOf(SerializationException.class);
+        assertThat(timer.count()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,139 @@
+package info.mouts.orderservice.monitoring;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.condition.EmbeddedKafkaCondition;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@EmbeddedKafka(partitions = 2, topics = ConsumerLagMonitorTest.TOPIC)
+@DisplayName("Consumer Lag Monitor Tests")
+public class ConsumerLagMonitorTest {
+    static final String TOPIC = "orders.lag.v1";
+    private static final String GROUP_ID = "lag-group";
+    private static final String DLT_GROUP_ID = "lag-group-dlt";
+    private static final String MISSING_TOPIC = "orders.lag.dlt.v1";
+
+    private EmbeddedKafkaBroker broker;
+    private MeterRegistry meterRegistry;
+    private ConsumerLagMonitor consumerLagMonitor;
+
+    @BeforeEach
+    void setUp() {
+        broker = EmbeddedKafkaCondition.getBroker();
+        meterRegistry = new SimpleMeterRegistry();
+
+        KafkaListenerEndpointRegistry endpointRegistry = mock(KafkaListenerEndpointRegistry.class);
+        List<MessageListenerContainer> containers = List.of(
+                createContainer(GROUP_ID, TOPIC),
+                createContainer(GROUP_ID, TOPIC),
+                createContainer(DLT_GROUP_ID, MISSING_TOPIC));
+        when(endpointRegistry.getListenerContainers()).thenReturn(containers);
+
+        KafkaProperties kafkaProperties = new KafkaProperties();
+        kafkaProperties.getConsumer().setBootstrapServers(List.of(broker.getBrokersAsString()));
+
+        consumerLagMonitor = new ConsumerLagMonitor(endpointRegistry, meterRegistry,
+                new KafkaAdmin(Map.of(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, "localhost:1")), kafkaProperties,
+                Duration.ofSeconds(10));
+    }
+
+    @AfterEach
+    void tearDown() {
+        consumerLagMonitor.close();
+    }
+
+    @Test
+    @DisplayName("Should publish the lag of each partition from the committed offsets")
+    void refresh_shouldPublishLagPerPartition() throws Exception {
+        try (Producer<String, String> producer = new DefaultKafkaProducerFactory<>(
+                KafkaTestUtils.producerProps(broker), new StringSerializer(), new StringSerializer())
+                .createProducer()) {
+            for (int i = 0; i < 5; i++) {
+                producer.send(new ProducerRecord<>(TOPIC, 0, "key", "value-" + i));
+            }
+            for (int i = 0; i < 2; i++) {
+                producer.send(new ProducerRecord<>(TOPIC, 1, "key", "value-" + i));
+            }
+            producer.flush();
+        }
+
+        try (Admin admin = Admin.create(Map.of(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG,
+                broker.getBrokersAsString()))) {
+            admin.alterConsumerGroupOffsets(GROUP_ID,
+                    Map.of(new TopicPartition(TOPIC, 0), new OffsetAndMetadata(3))).all().get();
+        }
+
+        assertThat(consumerLagMonitor.topicsByGroup())
+                .isEqualTo(Map.of(GROUP_ID, Set.of(TOPIC), DLT_GROUP_ID, Set.of(MISSING_TOPIC)));
+
+        consumerLagMonitor.refresh();
+
+        // Two records after the committed offset on partition 0, and nothing
+        // committed on partition 1, so both of its records
+        assertThat(lag(GROUP_ID, "0")).isEqualTo(2);
+        assertThat(lag(GROUP_ID, "1")).isEqualTo(2);
+        assertThat(meterRegistry.find(ConsumerLagMonitor.METER_NAME).tag("group", DLT_GROUP_ID).gauges()).isEmpty();
+        assertThat(meterRegistry.get("kafka.consumer.group.lag.failures").counter().count()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should build the admin client from the Kafka admin configuration")
+    void adminProperties_shouldKeepAdminConfiguration() {
+        KafkaAdmin kafkaAdmin = new KafkaAdmin(Map.of(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, "admin:9092",
+                AdminClientConfig.SECURITY_PROTOCOL_CONFIG, "SSL"));
+        KafkaProperties kafkaProperties = new KafkaProperties();
+
+        assertThat(ConsumerLagMonitor.adminProperties(kafkaAdmin, kafkaProperties))
+                .containsEntry(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, "admin:9092")
+                .containsEntry(AdminClientConfig.SECURITY_PROTOCOL_CONFIG, "SSL");
+
+        kafkaProperties.getConsumer().setBootstrapServers(List.of("consumer:9092"));
+
+        assertThat(ConsumerLagMonitor.adminProperties(kafkaAdmin, kafkaProperties))
+                .containsEntry(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, List.of("consumer:9092"))
+                .containsEntry(AdminClientConfig.SECURITY_PROTOCOL_CONFIG, "SSL");
+    }
+
+    private double lag(String groupId, String partition) {
+        return meterRegistry.get(ConsumerLagMonitor.METER_NAME)
+                .tags("group", groupId, "topic", TOPIC, "partition", partition)
+                .gauge()
+                .value();
+    }
+
+    private MessageListenerContainer createContainer(String groupId, String topic) {
+        MessageListenerContainer container = mock(MessageListenerContainer.class);
+        when(container.getGroupId()).thenReturn(groupId);
+        when(container.getContainerProperties()).thenReturn(new ContainerProperties(topic));
+        return container;
+    }
+}
@@ -0,0 +1,94 @@
+package info.mouts.orderservice.monitoring;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import info.mouts.orderservice.monitoring.VirtualThreadPinningMonitor.PinningReport;
+import info.mouts.orderservice.monitoring.VirtualThreadPinningMonitor.PinningSite;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class VirtualThreadPinningMonitorTest {
+    private final Object lock = new Object();
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private VirtualThreadPinningMonitor monitor;
+
+    @BeforeEach
+    void setUp() {
+        monitor = new VirtualThreadPinningMonitor(meterRegistry, Duration.ofMillis(10));
+        monitor.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        monitor.stop();
+    }
+
+    @Test
+    @DisplayName("Should report virtual threads blocking inside a synchronized block")
+    void shouldReportPinningInsideSynchronizedBlock() throws Exception {
+        Thread.ofVirtual().start(this::sleepWhileHoldingLock).join();
+
+        PinningReport report = awaitReport();
+
+        assertThat(report.events()).isEqualTo(1);
+        assertThat(report.sites()).hasSize(1);
+
+        PinningSite site = report.sites().getFirst();
+        assertThat(site.location()).startsWith(getClass().getName() + ".sleepWhileHoldingLock:");
+        assertThat(site.maxDuration()).isGreaterThanOrEqualTo(Duration.ofMillis(50));
+        assertThat(site.stackTrace()).isNotEmpty();
+        assertThat(meterRegistry.get("jvm.threads.virtual.pinned").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("jvm.threads.virtual.pinned.duration").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should not report virtual threads blocking outside of synchronized blocks")
+    void shouldNotReportUnpinnedBlocking() throws Exception {
+        Thread.ofVirtual().start(() -> sleep(50)).join();
+        Thread.ofVirtual().start(this::sleepWhileHoldingLock).join();
+
+        assertThat(awaitReport().events()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should stop recording once stopped")
+    void stop_shouldStopRecording() {
+        monitor.stop();
+
+        assertThat(monitor.isRunning()).isFalse();
+    }
+
+    private void sleepWhileHoldingLock() {
+        synchronized (lock) {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private PinningReport awaitReport() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10000;
+
+        while (monitor.report().events() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        return monitor.report();
+    }
+}
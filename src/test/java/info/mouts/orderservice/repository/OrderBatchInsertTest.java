@@ -0,0 +1,81 @@
+package info.mouts.orderservice.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import info.mouts.orderservice.domain.Order;
+import info.mouts.orderservice.domain.OrderItem;
+import info.mouts.orderservice.domain.OrderStatus;
+import jakarta.persistence.EntityManagerFactory;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class OrderBatchInsertTest {
+    private static final int ITEM_COUNT = 50;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("Should insert an order and all its items with one statement per table")
+    void save_orderWithItems_shouldBatchInserts() {
+        orderRepository.save(createOrderWithItems(ITEM_COUNT));
+        entityManager.flush();
+
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(ITEM_COUNT + 1);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should need one statement per row when batching is disabled")
+    void save_orderWithItemsWithoutBatching_shouldInsertRowByRow() {
+        entityManager.getEntityManager().unwrap(Session.class).setJdbcBatchSize(1);
+
+        orderRepository.save(createOrderWithItems(ITEM_COUNT));
+        entityManager.flush();
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(ITEM_COUNT + 1);
+    }
+
+    private Order createOrderWithItems(int itemCount) {
+        Order order = Order.builder()
+                .idempotencyKey(UUID.randomUUID().toString())
+                .status(OrderStatus.PROCESSED)
+                .build();
+
+        for (int i = 0; i < itemCount; i++) {
+            order.addItem(OrderItem.builder()
+                    .productId("prod-" + i)
+                    .quantity(1)
+                    .price(BigDecimal.TEN)
+                    .build());
+        }
+
+        return order;
+    }
+}
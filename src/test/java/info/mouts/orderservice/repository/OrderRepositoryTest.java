@@ -1,19 +1,31 @@
 package info.mouts.orderservice.repository;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
+import org.hibernate.Session;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 
 import info.mouts.orderservice.domain.Order;
 import info.mouts.orderservice.domain.OrderItem;
 import info.mouts.orderservice.domain.OrderStatus;
+import info.mouts.orderservice.dto.OrderCursor;
+import info.mouts.orderservice.dto.OrderSearchCriteria;
+import info.mouts.orderservice.dto.OrderSummary;
+import info.mouts.orderservice.dto.OrderVersion;
 import lombok.extern.slf4j.Slf4j;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -61,6 +73,7 @@ public class OrderRepositoryTest {
 
         Order foundOrder = foundOrderOpt.get();
 
+        assertThat(foundOrder.getId().version()).isEqualTo(7);
         assertThat(foundOrder.getIdempotencyKey()).isEqualTo(key);
         assertThat(foundOrder.getStatus()).isEqualTo(OrderStatus.RECEIVED);
         assertThat(foundOrder.getItems()).hasSize(1);
@@ -94,6 +107,25 @@ public class OrderRepositoryTest {
         assertThat(foundOrderOpt).isNotPresent();
     }
 
+    @Test
+    @DisplayName("Should find the version of an order without loading it")
+    void findVersionById_whenExists() {
+        Order order = entityManager.persistAndFlush(createTestOrder(UUID.randomUUID().toString()));
+        entityManager.clear();
+
+        Optional<OrderVersion> version = orderRepository.findVersionById(order.getId());
+
+        assertThat(version).contains(new OrderVersion(order.getId(), 0, order.getUpdatedAt()));
+        assertThat(entityManager.getEntityManager().unwrap(Session.class).getStatistics().getEntityCount())
+                .isZero();
+    }
+
+    @Test
+    @DisplayName("Should return empty optional when finding the version of a non-existent order")
+    void findVersionById_whenNotExists() {
+        assertThat(orderRepository.findVersionById(UUID.randomUUID())).isEmpty();
+    }
+
     @Test
     @DisplayName("Should enforce uniqueness constraint on idempotency key")
     void shouldFailOnDuplicateIdempotencyKey() {
@@ -130,4 +162,101 @@ public class OrderRepositoryTest {
         assertThat(updatedOrder.getVersion()).isEqualTo(initialVersion + 1);
         assertThat(updatedOrder.getStatus()).isEqualTo(OrderStatus.PROCESSING);
     }
+
+    @Test
+    @DisplayName("Should page through all orders by seeking on creation timestamp and ID")
+    void findPageAfter_shouldReturnEveryOrderOnceInDescendingOrder() {
+        for (int i = 0; i < 5; i++) {
+            entityManager.persist(createTestOrder(UUID.randomUUID().toString()));
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        List<OrderSummary> pagedOrders = new ArrayList<>(orderRepository.findFirstPage(Limit.of(2)));
+        List<OrderSummary> page = pagedOrders;
+
+        while (!page.isEmpty()) {
+            OrderSummary last = page.getLast();
+            page = orderRepository.findPageAfter(last.createdAt(), last.id(), Limit.of(2));
+            pagedOrders.addAll(page);
+        }
+
+        List<Order> sortedOrders = orderRepository.findAll(Sort.by(Sort.Direction.DESC, "createdAt", "id"));
+
+        assertThat(pagedOrders).extracting(OrderSummary::id)
+                .containsExactlyElementsOf(sortedOrders.stream().map(Order::getId).toList());
+    }
+
+    @Test
+    @DisplayName("Should page through order summaries without loading the entities")
+    void findAllSummaries_shouldReturnScalarRows() {
+        entityManager.persist(createTestOrder(UUID.randomUUID().toString()));
+        entityManager.persistAndFlush(createTestOrder(UUID.randomUUID().toString()));
+        entityManager.clear();
+
+        Page<OrderSummary> page = orderRepository.findAllSummaries(
+                PageRequest.of(0, 1, Sort.by(Sort.Direction.DESC, "createdAt", "id")));
+
+        assertThat(page.getTotalElements()).isEqualTo(2);
+        assertThat(page.getContent()).hasSize(1);
+        assertThat(page.getContent().getFirst().idempotencyKey()).isNotBlank();
+        assertThat(page.getContent().getFirst().status()).isEqualTo(OrderStatus.RECEIVED);
+        assertThat(page.getContent().getFirst().processedAt()).isNotNull();
+        assertThat(entityManager.getEntityManager().unwrap(Session.class).getStatistics().getEntityCount())
+                .isZero();
+    }
+
+    @Test
+    @DisplayName("Should page through the orders matching a status and a product")
+    void searchSummaries_byStatusAndProduct_shouldReturnMatchingOrdersOnce() {
+        for (int i = 0; i < 8; i++) {
+            Order order = createTestOrder(UUID.randomUUID().toString());
+            order.setStatus(i % 2 == 0 ? OrderStatus.PROCESSED : OrderStatus.FAILED);
+            order.getItems().getFirst().setProductId(i % 4 < 2 ? "prod-1" : "prod-2");
+            entityManager.persist(order);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        OrderSearchCriteria criteria = new OrderSearchCriteria(OrderStatus.PROCESSED, "prod-1", null, null);
+        List<OrderSummary> searchedOrders = new ArrayList<>(orderRepository.searchSummaries(criteria, null,
+                Limit.of(1)));
+        List<OrderSummary> page = searchedOrders;
+
+        while (!page.isEmpty()) {
+            page = orderRepository.searchSummaries(criteria, OrderCursor.of(page.getLast()), Limit.of(1));
+            searchedOrders.addAll(page);
+        }
+
+        List<UUID> expectedIds = orderRepository.findAll(Sort.by(Sort.Direction.DESC, "createdAt", "id")).stream()
+                .filter(order -> order.getStatus() == OrderStatus.PROCESSED)
+                .filter(order -> order.getItems().getFirst().getProductId().equals("prod-1"))
+                .map(Order::getId)
+                .toList();
+
+        assertThat(expectedIds).hasSize(2);
+        assertThat(searchedOrders).extracting(OrderSummary::id).containsExactlyElementsOf(expectedIds);
+    }
+
+    @Test
+    @DisplayName("Should only return the orders created within the date range")
+    void searchSummaries_byDateRange_shouldReturnOrdersWithinRange() {
+        for (int i = 0; i < 5; i++) {
+            entityManager.persist(createTestOrder(UUID.randomUUID().toString()));
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        List<Order> sortedOrders = orderRepository.findAll(Sort.by(Sort.Direction.DESC, "createdAt", "id"));
+        LocalDateTime from = sortedOrders.get(3).getCreatedAt();
+        LocalDateTime to = sortedOrders.get(0).getCreatedAt();
+
+        List<OrderSummary> searchedOrders = orderRepository.searchSummaries(
+                new OrderSearchCriteria(null, null, from, to), null, Limit.unlimited());
+
+        assertThat(searchedOrders).extracting(OrderSummary::id).containsExactlyElementsOf(sortedOrders.stream()
+                .filter(order -> !order.getCreatedAt().isBefore(from) && order.getCreatedAt().isBefore(to))
+                .map(Order::getId)
+                .toList());
+    }
 }
@@ -0,0 +1,211 @@
+package info.mouts.orderservice.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+import org.hibernate.Session;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import info.mouts.orderservice.domain.OrderStatus;
+import info.mouts.orderservice.dto.OrderCursor;
+import info.mouts.orderservice.dto.OrderSearchCriteria;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Guards the query plans of the order searches against a local PostgreSQL, as
+ * H2 plans them differently.
+ * <p>
+ * Runs only when {@code ORDERS_EXPLAIN_DB_URL} is set, for example to
+ * {@code jdbc:postgresql://localhost:5432/orders_db} with the database of the
+ * Docker Compose file ({@code ORDERS_EXPLAIN_DB_USERNAME} and
+ * {@code ORDERS_EXPLAIN_DB_PASSWORD} default to its credentials). The tables
+ * are created in their own schema, dropped afterwards, so the existing tables
+ * are left untouched.
+ * </p>
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.default_schema=" + OrderSearchQueryPlanTest.SCHEMA,
+        "spring.jpa.properties.hibernate.hbm2ddl.create_namespaces=true",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "info.mouts.orderservice.repository.OrderSearchQueryPlanTest$SelectCapture"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@EnabledIfEnvironmentVariable(named = "ORDERS_EXPLAIN_DB_URL", matches = ".+")
+@Slf4j
+public class OrderSearchQueryPlanTest {
+    static final String SCHEMA = "order_search_plan_test";
+
+    private static final int ORDER_COUNT = 100_000;
+    private static final Limit PAGE_LIMIT = Limit.of(21);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @DynamicPropertySource
+    static void datasourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> System.getenv("ORDERS_EXPLAIN_DB_URL"));
+        registry.add("spring.datasource.username",
+                () -> Objects.requireNonNullElse(System.getenv("ORDERS_EXPLAIN_DB_USERNAME"), "mouts_user"));
+        registry.add("spring.datasource.password",
+                () -> Objects.requireNonNullElse(System.getenv("ORDERS_EXPLAIN_DB_PASSWORD"), "mouts_password"));
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+        registry.add("spring.jpa.properties.hibernate.dialect", () -> "org.hibernate.dialect.PostgreSQLDialect");
+    }
+
+    /**
+     * Fills the tables with enough orders for the planner to prefer the
+     * indexes, most of them processed, with one item of one of 2000 products
+     * each, then refreshes the statistics.
+     */
+    @BeforeEach
+    void setUp() {
+        session().doWork(connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET LOCAL search_path TO " + SCHEMA);
+                statement.execute("INSERT INTO orders (id, idempotency_key, status, total, created_at, updated_at, "
+                        + "version) SELECT gen_random_uuid(), 'key-' || n, CASE WHEN n % 20 = 0 THEN 'FAILED' "
+                        + "WHEN n % 10 = 1 THEN 'RECEIVED' ELSE 'PROCESSED' END, 10.00, ts, ts, 0 "
+                        + "FROM (SELECT n, localtimestamp - n * interval '1 second' AS ts "
+                        + "FROM generate_series(1, " + ORDER_COUNT + ") n) generated");
+                statement.execute("INSERT INTO order_items (id, order_id, product_id, quantity, price) "
+                        + "SELECT gen_random_uuid(), id, 'prod-' || (abs(hashtext(id::text)) % 2000), 1, 10.00 "
+                        + "FROM orders");
+                statement.execute("ANALYZE orders");
+                statement.execute("ANALYZE order_items");
+            }
+        });
+    }
+
+    @Test
+    @DisplayName("Should seek on the status index in the listing order, without sorting")
+    void searchByStatus_shouldUseStatusIndexWithoutSort() {
+        String plan = explainSearch(new OrderSearchCriteria(OrderStatus.FAILED, null, null, null), null,
+                "FAILED");
+
+        assertThat(plan).contains("idx_order_status_created_at_id").doesNotContain("Sort").doesNotContain("Seq Scan");
+    }
+
+    @Test
+    @DisplayName("Should seek on the status index for a status, a date range and a cursor")
+    void searchByStatusAndDateRangeAfterCursor_shouldUseStatusIndexWithoutSort() {
+        LocalDateTime to = LocalDateTime.now().minusHours(1);
+        LocalDateTime from = to.minusDays(1);
+        OrderCursor cursor = new OrderCursor(to.minusHours(2), UUID.randomUUID());
+
+        String plan = explainSearch(new OrderSearchCriteria(OrderStatus.PROCESSED, null, from, to), cursor,
+                "PROCESSED", from, to, cursor.createdAt(), cursor.id());
+
+        assertThat(plan).contains("idx_order_status_created_at_id").doesNotContain("Sort").doesNotContain("Seq Scan");
+    }
+
+    @Test
+    @DisplayName("Should seek on the creation timestamp index for a date range alone")
+    void searchByDateRange_shouldUseCreatedAtIndexWithoutSort() {
+        LocalDateTime to = LocalDateTime.now().minusHours(1);
+        LocalDateTime from = to.minusMinutes(10);
+
+        String plan = explainSearch(new OrderSearchCriteria(null, null, from, to), null, from, to);
+
+        assertThat(plan).contains("idx_order_created_at_id").doesNotContain("Sort").doesNotContain("Seq Scan");
+    }
+
+    @Test
+    @DisplayName("Should find the orders of a product through the product index")
+    void searchByProduct_shouldUseProductIndex() {
+        String plan = explainSearch(new OrderSearchCriteria(null, "prod-42", null, null), null, "prod-42");
+
+        assertThat(plan).contains("idx_orderitem_product_id_order_id").doesNotContain("Seq Scan");
+    }
+
+    /**
+     * Runs a search to capture the SQL generated for it, then explains that SQL
+     * with the same parameters.
+     *
+     * @param criteria   The filters of the search.
+     * @param cursor     The cursor of the search, or null.
+     * @param parameters The values bound by the search, in the order of its
+     *                   conditions, without the limit.
+     * @return The text of the query plan.
+     */
+    private String explainSearch(OrderSearchCriteria criteria, OrderCursor cursor, Object... parameters) {
+        SelectCapture.clear();
+        orderRepository.searchSummaries(criteria, cursor, PAGE_LIMIT);
+        String sql = SelectCapture.last();
+
+        List<Object> values = new ArrayList<>(List.of(parameters));
+        values.add(PAGE_LIMIT.max());
+        assertThat(sql.chars().filter(c -> c == '?').count())
+                .as("Parameters of %s", sql)
+                .isEqualTo(values.size());
+
+        String plan = session().doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+                for (int i = 0; i < values.size(); i++) {
+                    statement.setObject(i + 1, values.get(i));
+                }
+
+                StringBuilder lines = new StringBuilder();
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        lines.append(resultSet.getString(1)).append('\n');
+                    }
+                }
+                return lines.toString();
+            }
+        });
+
+        log.info("Plan of {}\n{}", sql, plan);
+        return plan;
+    }
+
+    private Session session() {
+        return entityManager.getEntityManager().unwrap(Session.class);
+    }
+
+    /**
+     * Records the last order query sent by Hibernate.
+     */
+    public static class SelectCapture implements StatementInspector {
+        private static volatile String lastSelect;
+
+        static void clear() {
+            lastSelect = null;
+        }
+
+        static String last() {
+            assertThat(lastSelect).as("Captured order query").isNotNull();
+            return lastSelect;
+        }
+
+        @Override
+        public String inspect(String sql) {
+            if (sql.startsWith("select") && sql.contains(SCHEMA + ".orders")) {
+                lastSelect = sql;
+            }
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package info.mouts.orderservice.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import info.mouts.orderservice.domain.OutboxEvent;
+
+@DataJpaTest
+public class OutboxEventRepositoryTest {
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    private OutboxEvent createOutboxEvent() {
+        UUID aggregateId = UUID.randomUUID();
+
+        return OutboxEvent.builder()
+                .aggregateId(aggregateId)
+                .topic("orders.processed.v1")
+                .messageKey(aggregateId.toString())
+                .payload("{\"orderId\":\"" + aggregateId + "\"}")
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should lock the oldest outbox events up to the limit")
+    void lockNextBatch_shouldReturnOldestEvents() throws InterruptedException {
+        OutboxEvent first = entityManager.persistAndFlush(createOutboxEvent());
+        Thread.sleep(5);
+        OutboxEvent second = entityManager.persistAndFlush(createOutboxEvent());
+        Thread.sleep(5);
+        entityManager.persistAndFlush(createOutboxEvent());
+        entityManager.clear();
+
+        List<OutboxEvent> batch = outboxEventRepository.lockNextBatch(2);
+
+        assertThat(batch).extracting(OutboxEvent::getId).containsExactly(first.getId(), second.getId());
+    }
+
+    @Test
+    @DisplayName("Should delete published outbox events in bulk")
+    void deleteAllByIdInBatch_shouldDeleteEvents() {
+        OutboxEvent first = entityManager.persistAndFlush(createOutboxEvent());
+        OutboxEvent second = entityManager.persistAndFlush(createOutboxEvent());
+        OutboxEvent third = entityManager.persistAndFlush(createOutboxEvent());
+
+        outboxEventRepository.deleteAllByIdInBatch(List.of(first.getId(), second.getId()));
+        entityManager.clear();
+
+        assertThat(outboxEventRepository.findAll()).extracting(OutboxEvent::getId).containsExactly(third.getId());
+    }
+}
@@ -0,0 +1,121 @@
+package info.mouts.orderservice.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import info.mouts.orderservice.domain.IdempotencyStatus;
+import info.mouts.orderservice.repository.OrderRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+public class BloomFilterIdempotencyStoreTest {
+    @Mock
+    private RedisIdempotencyStore delegate;
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    @DisplayName("Should claim every key in Redis when claims are not deferred")
+    void claim_notDeferred_shouldClaimAllKeysInRedis() {
+        BloomFilterIdempotencyStore store = createStore(false);
+        when(delegate.claim(List.of("KEY-1", "KEY-2")))
+                .thenReturn(statuses("KEY-1", IdempotencyStatus.NEW, "KEY-2", IdempotencyStatus.NEW));
+
+        Map<String, IdempotencyStatus> statuses = store.claim(List.of("KEY-1", "KEY-2"));
+
+        assertThat(statuses).containsOnly(Map.entry("KEY-1", IdempotencyStatus.NEW),
+                Map.entry("KEY-2", IdempotencyStatus.NEW));
+        assertThat(lookups("negative")).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should skip the Redis claim for keys reported as new once warmed up")
+    void claim_deferred_shouldOnlyClaimPossibleDuplicatesInRedis() {
+        BloomFilterIdempotencyStore store = createStore(true);
+        AtomicBoolean keysClosed = new AtomicBoolean();
+        when(orderRepository.streamIdempotencyKeysCreatedSince(any(LocalDateTime.class)))
+                .thenReturn(Stream.of("KEY-OLD").onClose(() -> keysClosed.set(true)));
+        when(delegate.claim(List.of("KEY-OLD")))
+                .thenReturn(statuses("KEY-OLD", IdempotencyStatus.PROCESSED));
+
+        store.warmUp();
+        Map<String, IdempotencyStatus> statuses = store.claim(List.of("KEY-NEW", "KEY-OLD"));
+
+        assertThat(statuses).containsExactly(Map.entry("KEY-NEW", IdempotencyStatus.NEW),
+                Map.entry("KEY-OLD", IdempotencyStatus.PROCESSED));
+        assertThat(lookups("positive")).isEqualTo(1);
+        assertThat(meterRegistry.get("idempotency.filter.deferred.claims").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("idempotency.filter.false.positives").counter().count()).isZero();
+        assertThat(keysClosed).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should not defer claims when the warm up failed")
+    void claim_warmUpFailed_shouldClaimInRedis() {
+        BloomFilterIdempotencyStore store = createStore(true);
+        when(orderRepository.streamIdempotencyKeysCreatedSince(any(LocalDateTime.class)))
+                .thenThrow(new RuntimeException("Database unavailable"));
+        when(delegate.claim(anyCollection())).thenReturn(statuses("KEY-1", IdempotencyStatus.PROCESSED));
+
+        store.warmUp();
+        Map<String, IdempotencyStatus> statuses = store.claim(List.of("KEY-1"));
+
+        assertThat(statuses).containsOnly(Map.entry("KEY-1", IdempotencyStatus.PROCESSED));
+    }
+
+    @Test
+    @DisplayName("Should count a false positive when a possible duplicate is new in Redis")
+    void claim_possibleDuplicateNewInRedis_shouldCountFalsePositive() {
+        BloomFilterIdempotencyStore store = createStore(false);
+        when(delegate.claim(List.of("KEY-1"))).thenReturn(statuses("KEY-1", IdempotencyStatus.NEW));
+
+        // Processed, then released in Redis by an operator
+        store.markProcessed(List.of("KEY-1"));
+        store.claim(List.of("KEY-1"));
+
+        verify(delegate).markProcessed(List.of("KEY-1"));
+        assertThat(meterRegistry.get("idempotency.filter.false.positives").counter().count()).isEqualTo(1);
+    }
+
+    private BloomFilterIdempotencyStore createStore(boolean deferClaims) {
+        return new BloomFilterIdempotencyStore(delegate, orderRepository, transactionManager, meterRegistry, 1000,
+                0.01, deferClaims);
+    }
+
+    private double lookups(String result) {
+        return meterRegistry.get("idempotency.filter.lookups").tag("result", result).counter().count();
+    }
+
+    private Map<String, IdempotencyStatus> statuses(Object... keysAndStatuses) {
+        Map<String, IdempotencyStatus> statuses = new LinkedHashMap<>();
+
+        for (int i = 0; i < keysAndStatuses.length; i += 2) {
+            statuses.put((String) keysAndStatuses[i], (IdempotencyStatus) keysAndStatuses[i + 1]);
+        }
+        return statuses;
+    }
+}
@@ -0,0 +1,116 @@
+package info.mouts.orderservice.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import info.mouts.orderservice.domain.Order;
+import info.mouts.orderservice.domain.OrderItem;
+import info.mouts.orderservice.domain.OrderStatus;
+import info.mouts.orderservice.dto.OrderExportFormat;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@DataJpaTest
+public class OrderExportServiceImplTest {
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private OrderExportServiceImpl orderExportService;
+
+    private LocalDateTime from;
+    private LocalDateTime to;
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        orderExportService = new OrderExportServiceImpl(jdbcTemplate, objectMapper, meterRegistry, 2);
+
+        from = LocalDateTime.now().minusHours(1);
+        to = LocalDateTime.now().plusHours(1);
+    }
+
+    @Test
+    @DisplayName("Should write one JSON object per line for every order in the range")
+    void exportOrders_asNdjson_shouldWriteOneLinePerOrder() throws Exception {
+        Order first = persistOrder("key-1");
+        Order second = persistOrder("key-2");
+        Order third = persistOrder("key-3");
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        long exportedOrders = orderExportService.exportOrders(from, to, OrderExportFormat.NDJSON, outputStream);
+
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(exportedOrders).isEqualTo(3);
+        assertThat(lines).hasSize(3);
+        assertThat(String.join("\n", lines))
+                .contains(first.getId().toString(), second.getId().toString(), third.getId().toString());
+        assertThat(lines[0]).startsWith("{").endsWith("}").contains("\"status\":\"PROCESSED\"");
+        assertThat(meterRegistry.get("orders.export.rows").tag("format", "ndjson").counter().count())
+                .isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should write a CSV header and quote fields containing separators")
+    void exportOrders_asCsv_shouldWriteHeaderAndEscapedRows() throws Exception {
+        Order order = persistOrder("key,with \"quotes\"");
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        orderExportService.exportOrders(from, to, OrderExportFormat.CSV, outputStream);
+
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(lines[0]).isEqualTo("id,idempotency_key,status,total,created_at,processed_at");
+        assertThat(lines[1]).startsWith(order.getId() + ",\"key,with \"\"quotes\"\"\",PROCESSED,10.00,");
+    }
+
+    @Test
+    @DisplayName("Should leave out orders created outside the range")
+    void exportOrders_outsideRange_shouldExportNothing() throws Exception {
+        persistOrder("key-1");
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        long exportedOrders = orderExportService.exportOrders(to, to.plusHours(1), OrderExportFormat.NDJSON,
+                outputStream);
+
+        assertThat(exportedOrders).isZero();
+        assertThat(outputStream.size()).isZero();
+    }
+
+    private Order persistOrder(String idempotencyKey) {
+        Order order = Order.builder()
+                .idempotencyKey(idempotencyKey)
+                .status(OrderStatus.PROCESSED)
+                .total(BigDecimal.TEN)
+                .build();
+
+        order.addItem(OrderItem.builder()
+                .productId("prod-123")
+                .quantity(1)
+                .price(BigDecimal.TEN)
+                .build());
+
+        return entityManager.persistAndFlush(order);
+    }
+}
@@ -1,18 +1,25 @@
 package info.mouts.orderservice.service.impl;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
 
 import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.BeforeEach;
@@ -25,20 +32,34 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Window;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import info.mouts.orderservice.domain.Order;
 import info.mouts.orderservice.domain.OrderItem;
 import info.mouts.orderservice.domain.OrderStatus;
+import info.mouts.orderservice.dto.OrderCursor;
 import info.mouts.orderservice.dto.OrderItemRequestDTO;
 import info.mouts.orderservice.dto.OrderRequestDTO;
+import info.mouts.orderservice.dto.OrderSearchCriteria;
+import info.mouts.orderservice.dto.OrderSummary;
+import info.mouts.orderservice.dto.OrderVersion;
+import info.mouts.orderservice.event.OrderProcessedEvent;
+import info.mouts.orderservice.exception.InvalidOrderSearchException;
 import info.mouts.orderservice.exception.OrderNotFoundException;
 import info.mouts.orderservice.mapper.OrderMapper;
+import info.mouts.orderservice.monitoring.EventAge;
+import info.mouts.orderservice.monitoring.IngestStage;
 import info.mouts.orderservice.repository.OrderRepository;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
@@ -61,6 +82,8 @@ public class OrderServiceImplTest {
 
     private MeterRegistry meterRegistry = new SimpleMeterRegistry();
 
+    private CacheManager cacheManager;
+
     private OrderServiceImpl orderService;
 
     @Captor
@@ -74,7 +97,9 @@ public class OrderServiceImplTest {
 
     @BeforeEach
     public void setUp() {
-        orderService = new OrderServiceImpl(orderRepository, orderMapper, eventPublisher, meterRegistry);
+        cacheManager = new ConcurrentMapCacheManager("order");
+        orderService = new OrderServiceImpl(orderRepository, orderMapper, eventPublisher, cacheManager,
+                meterRegistry);
 
         orderRequestDTO = new OrderRequestDTO();
         OrderItemRequestDTO itemDTO1 = new OrderItemRequestDTO();
@@ -140,6 +165,67 @@ public class OrderServiceImplTest {
 
         assertThat(orderToSave.getItems().getFirst().getOrder()).isEqualTo(orderToSave);
         assertThat(orderToSave.getItems().getLast().getOrder()).isEqualTo(orderToSave);
+
+        verify(orderRepository, times(1)).flush();
+        assertThat(meterRegistry.get(IngestStage.METER_NAME).tag("stage", "map").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(IngestStage.METER_NAME).tag("stage", "flush").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should record the commit and the age of the record once the transaction commits")
+    void processIncomingOrder_afterCommit_shouldRecordPersistedAge() {
+        savedOrder.setReceivedAt(Instant.now().minusSeconds(2));
+        TransactionSynchronizationManager.initSynchronization();
+
+        try {
+            orderService.processIncomingOrder(orderRequestDTO, IDEMPOTENCY_KEY);
+
+            assertThat(meterRegistry.get(EventAge.METER_NAME).tag("stage", "persisted").timer().count()).isZero();
+
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager
+                    .getSynchronizations();
+            synchronizations.forEach(synchronization -> synchronization.beforeCommit(false));
+            synchronizations.forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(meterRegistry.get(IngestStage.METER_NAME).tag("stage", "commit").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(EventAge.METER_NAME).tag("stage", "persisted").timer()
+                .totalTime(TimeUnit.SECONDS)).isGreaterThanOrEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should start timing the commit after the before commit listeners writing the outbox")
+    void processIncomingOrder_beforeCommit_shouldNotTimeOutboxAsCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        try {
+            // Stands in for the outbox writer, registered when the processed event is published
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public int getOrder() {
+                    return 0;
+                }
+
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(200));
+                }
+            });
+
+            orderService.processIncomingOrder(orderRequestDTO, IDEMPOTENCY_KEY);
+
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager
+                    .getSynchronizations();
+            synchronizations.forEach(synchronization -> synchronization.beforeCommit(false));
+            synchronizations.forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(meterRegistry.get(IngestStage.METER_NAME).tag("stage", "commit").timer()
+                .totalTime(TimeUnit.MILLISECONDS)).isLessThan(200);
     }
 
     @Test
@@ -157,6 +243,29 @@ public class OrderServiceImplTest {
         verify(orderRepository, never()).save(any(Order.class));
     }
 
+    @Test
+    @DisplayName("Should round prices with fractions of cents like the price columns")
+    void processIncomingOrder_roundsFractionsOfCents() {
+        mappedOrder.getItems().getFirst().setPrice(new BigDecimal("9.999"));
+
+        orderService.processIncomingOrder(orderRequestDTO, IDEMPOTENCY_KEY);
+
+        verify(orderRepository).save(orderCaptor.capture());
+        assertThat(orderCaptor.getValue().getTotal()).isEqualByComparingTo(new BigDecimal("25.25"));
+    }
+
+    @Test
+    @DisplayName("Should not save an order whose total exceeds the precision of the column")
+    void processIncomingOrder_totalOverflow() {
+        mappedOrder.getItems().getFirst().setPrice(new BigDecimal("99999999.99"));
+
+        assertThrows(ArithmeticException.class, () -> {
+            orderService.processIncomingOrder(orderRequestDTO, IDEMPOTENCY_KEY);
+        });
+
+        verify(orderRepository, never()).save(any(Order.class));
+    }
+
     @Test
     @DisplayName("Should propagate DataIntegrityViolationException from repository")
     void processIncomingOrder_duplicateKey() {
@@ -175,6 +284,56 @@ public class OrderServiceImplTest {
         assertThat(orderAttemptedToSave.getStatus()).isEqualTo(OrderStatus.PROCESSED);
     }
 
+    @Test
+    @DisplayName("Should process a batch of orders and save them all at once")
+    void processIncomingOrders_success() {
+        String otherKey = UUID.randomUUID().toString();
+        Order otherMappedOrder = Order.builder()
+                .items(new ArrayList<>(List.of(OrderItem.builder()
+                        .productId("prod-3")
+                        .quantity(3)
+                        .price(BigDecimal.valueOf(2.00))
+                        .build())))
+                .build();
+
+        when(orderMapper.toEntity(any(OrderRequestDTO.class))).thenReturn(mappedOrder, otherMappedOrder);
+        when(orderRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Map<String, OrderRequestDTO> requests = new LinkedHashMap<>();
+        requests.put(IDEMPOTENCY_KEY, orderRequestDTO);
+        requests.put(otherKey, orderRequestDTO);
+
+        List<Order> result = orderService.processIncomingOrders(requests);
+
+        assertThat(result).hasSize(2);
+        assertThat(result.getFirst().getIdempotencyKey()).isEqualTo(IDEMPOTENCY_KEY);
+        assertThat(result.getFirst().getTotal()).isEqualByComparingTo(BigDecimal.valueOf(26.25));
+        assertThat(result.getLast().getIdempotencyKey()).isEqualTo(otherKey);
+        assertThat(result.getLast().getTotal()).isEqualByComparingTo(BigDecimal.valueOf(6.00));
+        assertThat(result).allMatch(order -> order.getStatus() == OrderStatus.PROCESSED);
+
+        verify(orderRepository, times(1)).saveAll(anyList());
+        verify(orderRepository, never()).save(any(Order.class));
+        verify(eventPublisher, times(2)).publishEvent(any(OrderProcessedEvent.class));
+    }
+
+    @Test
+    @DisplayName("Should not save any order of the batch if one of them has no items")
+    void processIncomingOrders_orderWithoutItems() {
+        Order orderWithoutItems = new Order();
+        orderWithoutItems.setItems(Collections.emptyList());
+        when(orderMapper.toEntity(any(OrderRequestDTO.class))).thenReturn(mappedOrder, orderWithoutItems);
+
+        Map<String, OrderRequestDTO> requests = new LinkedHashMap<>();
+        requests.put(IDEMPOTENCY_KEY, orderRequestDTO);
+        requests.put(UUID.randomUUID().toString(), orderRequestDTO);
+
+        assertThrows(IllegalArgumentException.class, () -> orderService.processIncomingOrders(requests));
+
+        verify(orderRepository, never()).saveAll(anyList());
+        verify(eventPublisher, never()).publishEvent(any(OrderProcessedEvent.class));
+    }
+
     @Test
     @DisplayName("Should return order when found by ID")
     void findByOrderId_found() {
@@ -205,6 +364,47 @@ public class OrderServiceImplTest {
     }
 
     @Test
+    @DisplayName("Should return the version of an order when found by ID")
+    void findVersionByOrderId_found() {
+        UUID orderId = UUID.randomUUID();
+        OrderVersion version = new OrderVersion(orderId, 2, LocalDateTime.now());
+        when(orderRepository.findVersionById(orderId)).thenReturn(Optional.of(version));
+
+        assertThat(orderService.findVersionByOrderId(orderId)).isEqualTo(version);
+        verify(orderRepository, never()).findById(any());
+    }
+
+    @Test
+    @DisplayName("Should throw OrderNotFoundException when looking up the version of a non-existent order")
+    void findVersionByOrderId_notFound() {
+        UUID orderId = UUID.randomUUID();
+        when(orderRepository.findVersionById(orderId)).thenReturn(Optional.empty());
+
+        assertThrows(OrderNotFoundException.class, () -> orderService.findVersionByOrderId(orderId));
+    }
+
+    @Test
+    @DisplayName("Should reload an order from the database when refreshing it")
+    void refreshByOrderId_found() {
+        UUID orderId = UUID.randomUUID();
+        Order order = Order.builder().id(orderId).build();
+        when(orderRepository.findById(orderId)).thenReturn(Optional.of(order));
+
+        assertThat(orderService.refreshByOrderId(orderId)).isSameAs(order);
+        verify(orderRepository, times(1)).findById(orderId);
+    }
+
+    @Test
+    @DisplayName("Should throw OrderNotFoundException when refreshing a non-existent order")
+    void refreshByOrderId_notFound() {
+        UUID orderId = UUID.randomUUID();
+        when(orderRepository.findById(orderId)).thenReturn(Optional.empty());
+
+        assertThrows(OrderNotFoundException.class, () -> orderService.refreshByOrderId(orderId));
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
     @DisplayName("Should return list of all orders")
     void findAll_returnsList() {
         Order order1 = new Order();
@@ -225,6 +425,7 @@ public class OrderServiceImplTest {
     }
 
     @Test
+    @SuppressWarnings("deprecation")
     @DisplayName("Should return empty list when no orders exist")
     void findAll_returnsEmptyList() {
         when(orderRepository.findAll()).thenReturn(Collections.emptyList());
@@ -278,4 +479,112 @@ public class OrderServiceImplTest {
 
         verify(orderRepository, times(1)).findAll(pageable);
     }
+
+    @Test
+    @DisplayName("Should return the first page of orders and tell that more follow")
+    void findAllAfter_withoutCursor_returnsFirstPage() {
+        OrderSummary order1 = createSummary();
+        OrderSummary order2 = createSummary();
+
+        when(orderRepository.findFirstPage(Limit.of(2))).thenReturn(List.of(order1, order2));
+
+        Window<OrderSummary> result = orderService.findAllAfter(null, 1);
+
+        assertThat(result.getContent()).containsExactly(order1);
+        assertThat(result.hasNext()).isTrue();
+        verify(orderRepository, never()).count();
+    }
+
+    @Test
+    @DisplayName("Should seek after the cursor and tell when it is the last page")
+    void findAllAfter_withCursor_returnsLastPage() {
+        OrderCursor cursor = new OrderCursor(LocalDateTime.now(), UUID.randomUUID());
+        OrderSummary order = createSummary();
+
+        when(orderRepository.findPageAfter(cursor.createdAt(), cursor.id(), Limit.of(11)))
+                .thenReturn(List.of(order));
+
+        Window<OrderSummary> result = orderService.findAllAfter(cursor, 10);
+
+        assertThat(result.getContent()).containsExactly(order);
+        assertThat(result.hasNext()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should search after the cursor with the given filters and tell that more follow")
+    void search_withFilters_returnsPage() {
+        OrderSearchCriteria criteria = new OrderSearchCriteria(OrderStatus.PROCESSED, "prod-1",
+                LocalDateTime.now().minusDays(1), LocalDateTime.now());
+        OrderCursor cursor = new OrderCursor(LocalDateTime.now(), UUID.randomUUID());
+        OrderSummary order1 = createSummary();
+        OrderSummary order2 = createSummary();
+
+        when(orderRepository.searchSummaries(criteria, cursor, Limit.of(2))).thenReturn(List.of(order1, order2));
+
+        Window<OrderSummary> result = orderService.search(criteria, cursor, 1);
+
+        assertThat(result.getContent()).containsExactly(order1);
+        assertThat(result.hasNext()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should reject a search whose date range is empty without querying")
+    void search_withEmptyDateRange_throwsException() {
+        LocalDateTime now = LocalDateTime.now();
+        OrderSearchCriteria criteria = new OrderSearchCriteria(null, null, now, now);
+
+        assertThrows(InvalidOrderSearchException.class, () -> orderService.search(criteria, null, 10));
+
+        verify(orderRepository, never()).searchSummaries(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should return page of order summaries without loading the entities")
+    void findAllSummaries_returnsPage() {
+        Pageable pageable = PageRequest.of(0, 1);
+        OrderSummary summary = createSummary();
+
+        when(orderRepository.findAllSummaries(pageable)).thenReturn(new PageImpl<>(List.of(summary), pageable, 3));
+
+        Page<OrderSummary> result = orderService.findAllSummaries(pageable);
+
+        assertThat(result.getContent()).containsExactly(summary);
+        assertThat(result.getTotalElements()).isEqualTo(3);
+        verify(orderRepository, never()).findAll(any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Should serve cached orders and load only the misses in a single query")
+    void findByOrderIds_loadsOnlyCacheMisses() {
+        Order cachedOrder = Order.builder().id(UUID.randomUUID()).build();
+        Order storedOrder = Order.builder().id(UUID.randomUUID()).build();
+        UUID unknownId = UUID.randomUUID();
+        cacheManager.getCache("order").put(cachedOrder.getId(), cachedOrder);
+
+        when(orderRepository.findAllById(List.of(storedOrder.getId(), unknownId))).thenReturn(List.of(storedOrder));
+
+        List<Order> result = orderService.findByOrderIds(List.of(storedOrder.getId(), unknownId, cachedOrder.getId()));
+
+        assertThat(result).containsExactly(storedOrder, cachedOrder);
+        assertThat(cacheManager.getCache("order").get(storedOrder.getId()).get()).isEqualTo(storedOrder);
+        verify(orderRepository, times(1)).findAllById(any());
+    }
+
+    @Test
+    @DisplayName("Should not query the database when every order is cached")
+    void findByOrderIds_allCached_doesNotQueryDatabase() {
+        Order cachedOrder = Order.builder().id(UUID.randomUUID()).build();
+        cacheManager.getCache("order").put(cachedOrder.getId(), cachedOrder);
+
+        List<Order> result = orderService.findByOrderIds(List.of(cachedOrder.getId()));
+
+        assertThat(result).containsExactly(cachedOrder);
+        verify(orderRepository, never()).findAllById(any());
+    }
+
+    private OrderSummary createSummary() {
+        return new OrderSummary(UUID.randomUUID(), UUID.randomUUID().toString(), OrderStatus.PROCESSED,
+                BigDecimal.TEN, LocalDateTime.now(), LocalDateTime.now());
+    }
+
 }
@@ -0,0 +1,90 @@
+package info.mouts.orderservice.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import info.mouts.orderservice.domain.IdempotencyStatus;
+import info.mouts.orderservice.util.KafkaUtils;
+
+@ExtendWith(MockitoExtension.class)
+public class RedisIdempotencyStoreTest {
+    private static final String PROCESSING_TTL_MILLIS = String.valueOf(KafkaUtils.PROCESSING_TTL.toMillis());
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    private RedisIdempotencyStore idempotencyStore;
+
+    @BeforeEach
+    void setUp() {
+        idempotencyStore = new RedisIdempotencyStore(redisTemplate);
+    }
+
+    @Test
+    @DisplayName("Should claim all keys with a single script call and map each result to a status")
+    @SuppressWarnings("unchecked")
+    void claim_shouldReturnStatusPerKey() {
+        List<String> redisKeys = List.of(KafkaUtils.IDEMPOTENCY_KEY_PREFIX + "KEY-1",
+                KafkaUtils.IDEMPOTENCY_KEY_PREFIX + "KEY-2", KafkaUtils.IDEMPOTENCY_KEY_PREFIX + "KEY-3",
+                KafkaUtils.IDEMPOTENCY_KEY_PREFIX + "KEY-4");
+        when(redisTemplate.execute(any(RedisScript.class), eq(redisKeys), eq(KafkaUtils.PROCESSING_STATUS),
+                eq(PROCESSING_TTL_MILLIS)))
+                .thenReturn(Arrays.asList("", KafkaUtils.PROCESSING_STATUS, KafkaUtils.PROCESSED_STATUS, "UNKNOWN"));
+
+        Map<String, IdempotencyStatus> statuses = idempotencyStore.claim(List.of("KEY-1", "KEY-2", "KEY-3", "KEY-4"));
+
+        assertThat(statuses).containsExactly(
+                Map.entry("KEY-1", IdempotencyStatus.NEW),
+                Map.entry("KEY-2", IdempotencyStatus.PROCESSING),
+                Map.entry("KEY-3", IdempotencyStatus.PROCESSED),
+                Map.entry("KEY-4", IdempotencyStatus.PROCESSING));
+    }
+
+    @Test
+    @DisplayName("Should not call Redis when there are no keys")
+    void claim_noKeys_shouldNotCallRedis() {
+        assertThat(idempotencyStore.claim(List.of())).isEmpty();
+        idempotencyStore.markProcessed(List.of());
+        idempotencyStore.release(List.of());
+
+        verifyNoInteractions(redisTemplate);
+    }
+
+    @Test
+    @DisplayName("Should mark keys as processed with a single pipeline")
+    void markProcessed_shouldPipeline() {
+        idempotencyStore.markProcessed(List.of("KEY-1", "KEY-2"));
+
+        verify(redisTemplate).executePipelined(any(RedisCallback.class));
+        verify(redisTemplate, never()).opsForValue();
+    }
+
+    @Test
+    @DisplayName("Should release keys still marked as processing with a single script call")
+    @SuppressWarnings("unchecked")
+    void release_shouldCompareAndDelete() {
+        idempotencyStore.release("KEY-1");
+
+        verify(redisTemplate).execute(any(RedisScript.class), anyList(), eq(KafkaUtils.PROCESSING_STATUS));
+    }
+}
@@ -0,0 +1,103 @@
+package info.mouts.orderservice.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class RotatingBloomFilterTest {
+    private static final Duration WINDOW = Duration.ofDays(1);
+
+    private MutableClock clock;
+    private RotatingBloomFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(Instant.parse("2025-01-01T00:00:00Z"));
+        filter = new RotatingBloomFilter(10_000, 0.01, WINDOW, clock);
+    }
+
+    @Test
+    @DisplayName("Should never report an added entry as absent")
+    void mightContain_addedEntries_shouldBeReported() {
+        IntStream.range(0, 10_000).forEach(i -> filter.put("KEY-" + i));
+
+        assertThat(IntStream.range(0, 10_000).allMatch(i -> filter.mightContain("KEY-" + i))).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should keep false positives close to the configured probability")
+    void mightContain_newEntries_shouldRarelyBeReported() {
+        IntStream.range(0, 10_000).forEach(i -> filter.put("KEY-" + i));
+
+        long falsePositives = IntStream.range(0, 10_000).filter(i -> filter.mightContain("OTHER-" + i)).count();
+
+        assertThat(falsePositives).isLessThan(200);
+    }
+
+    @Test
+    @DisplayName("Should remember entries for one more window and forget them after that")
+    void mightContain_afterRotations_shouldForgetOldEntries() {
+        filter.put("KEY-1");
+
+        clock.advance(WINDOW);
+        assertThat(filter.mightContain("KEY-1")).isTrue();
+
+        clock.advance(WINDOW);
+        assertThat(filter.mightContain("KEY-1")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should forget all entries when more than one window elapsed without access")
+    void mightContain_afterIdleWindows_shouldForgetAllEntries() {
+        filter.put("KEY-1");
+
+        clock.advance(WINDOW.multipliedBy(2));
+
+        assertThat(filter.mightContain("KEY-1")).isFalse();
+        assertThat(filter.fillRatio()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should reject invalid sizing parameters")
+    void constructor_invalidParameters_shouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> new RotatingBloomFilter(0, 0.01, WINDOW, clock));
+        assertThrows(IllegalArgumentException.class, () -> new RotatingBloomFilter(100, 1, WINDOW, clock));
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant instant;
+
+        private MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        private void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
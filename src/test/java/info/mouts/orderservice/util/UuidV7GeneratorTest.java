@@ -0,0 +1,56 @@
+package info.mouts.orderservice.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class UuidV7GeneratorTest {
+    @Test
+    @DisplayName("Should generate version 7 UUIDs with the RFC variant and the current timestamp")
+    void generate_shouldSetVersionVariantAndTimestamp() {
+        long before = System.currentTimeMillis();
+        UUID uuid = UuidV7Generator.generate();
+        long after = System.currentTimeMillis();
+
+        assertThat(uuid.version()).isEqualTo(7);
+        assertThat(uuid.variant()).isEqualTo(2);
+        // The counter may carry into the timestamp, so allow a small drift ahead of the clock
+        assertThat(uuid.getMostSignificantBits() >>> 16).isBetween(before, after + 1000);
+    }
+
+    @Test
+    @DisplayName("Should generate strictly increasing UUIDs, also within the same millisecond")
+    void generate_shouldBeMonotonic() {
+        List<UUID> uuids = new ArrayList<>();
+        IntStream.range(0, 100_000).forEach(i -> uuids.add(UuidV7Generator.generate()));
+
+        for (int i = 1; i < uuids.size(); i++) {
+            // Compare as unsigned, which is how databases order UUIDs
+            assertThat(Long.compareUnsigned(uuids.get(i).getMostSignificantBits(),
+                    uuids.get(i - 1).getMostSignificantBits())).isPositive();
+        }
+    }
+
+    @Test
+    @DisplayName("Should generate unique UUIDs across threads")
+    void generate_concurrently_shouldBeUnique() throws Exception {
+        Set<UUID> uuids = ConcurrentHashMap.newKeySet();
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            IntStream.range(0, 8).forEach(thread -> executor.submit(
+                    () -> IntStream.range(0, 10_000).forEach(i -> uuids.add(UuidV7Generator.generate()))));
+        }
+
+        assertThat(uuids).hasSize(80_000);
+    }
+}